@@ -66,6 +66,21 @@ public class AuthController {
         return ResponseEntity.ok(authService.refreshToken(refreshTokenRequest));
     }
 
+    /**
+     * Gère les requêtes POST pour la déconnexion d'un utilisateur.
+     * Le jeton d'accès du header Authorization et le jeton de rafraîchissement fourni sont révoqués.
+     *
+     * @param request La requête HTTP.
+     * @param logoutRequest Les informations contenant le jeton de rafraîchissement, facultatives.
+     * @return Une réponse vide.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(HttpServletRequest request, @RequestBody(required = false) UserInteract logoutRequest) {
+        String refreshToken = logoutRequest == null ? null : logoutRequest.getRefreshToken();
+        authService.logout(extractAuthToken(request), refreshToken);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Gère les requêtes GET pour récupérer l'utilisateur actuellement connecté.
      *
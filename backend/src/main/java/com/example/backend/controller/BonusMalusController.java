@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.BMValidationStatusDTO;
 import com.example.backend.dto.BonusMalusDTO;
 import com.example.backend.model.BonusMalus;
 import com.example.backend.service.BonusMalusService;
@@ -135,6 +136,22 @@ public class BonusMalusController {
         }
     }
 
+    /**
+     * Gère les requêtes GET pour récupérer l'état de validation des bonus/malus de toutes les équipes.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @return Une réponse contenant, pour chaque équipe, les membres qui ont validé et si tous l'ont fait.
+     */
+    @GetMapping("/validation")
+    @PreAuthorize("hasAnyAuthority('SS', 'PL', 'OL')")
+    public ResponseEntity<List<BMValidationStatusDTO>> getValidationStatus(@RequestParam int sprintId) {
+        try{
+            return ResponseEntity.ok(bonusMalusService.getValidationStatus(sprintId));
+        } catch (Exception e) {
+            return ResponseEntity.status(400).build();
+        }
+    }
+
     /**
      * Gère les requêtes GET pour récupérer les bonus/malus d'un utilisateur pour un sprint spécifique par un étudiant.
      *
@@ -0,0 +1,57 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.CacheStatsDTO;
+import com.example.backend.service.ReferenceDataCache;
+import com.example.backend.service.SecondLevelCacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Le contrôleur Cache.
+ * Expose les statistiques du cache des données de référence et du cache de second niveau d'Hibernate.
+ */
+@RestController
+public class CacheController {
+
+    private final ReferenceDataCache referenceDataCache;
+    private final SecondLevelCacheStatsService secondLevelCacheStatsService;
+
+    /**
+     * Constructeur pour l'injection de dépendances.
+     *
+     * @param referenceDataCache Le cache des données de référence à injecter.
+     * @param secondLevelCacheStatsService Le service des statistiques du cache de second niveau à injecter.
+     */
+    @Autowired
+    public CacheController(ReferenceDataCache referenceDataCache, SecondLevelCacheStatsService secondLevelCacheStatsService) {
+        this.referenceDataCache = referenceDataCache;
+        this.secondLevelCacheStatsService = secondLevelCacheStatsService;
+    }
+
+    /**
+     * Gère les requêtes GET pour récupérer les statistiques du cache des données de référence.
+     *
+     * @return Une réponse contenant le nombre de succès, d'échecs et d'invalidations de chaque région.
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAnyAuthority('OL', 'PL')")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(referenceDataCache.getStats());
+    }
+
+    /**
+     * Gère les requêtes GET pour récupérer les statistiques du cache de second niveau d'Hibernate.
+     *
+     * @return Une réponse contenant le nombre de succès, d'échecs et d'insertions de chaque région.
+     */
+    @GetMapping("/cache/second-level/stats")
+    @PreAuthorize("hasAnyAuthority('OL', 'PL')")
+    public ResponseEntity<List<CacheStatsDTO>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStatsService.getStats());
+    }
+}
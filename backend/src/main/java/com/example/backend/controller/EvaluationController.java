@@ -1,7 +1,9 @@
 package com.example.backend.controller;
 
 import com.example.backend.model.Evaluation;
+import com.example.backend.model.SubGrade;
 import com.example.backend.service.EvaluationService;
+import com.example.backend.service.GradeStalenessService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,15 +17,18 @@ import org.springframework.web.bind.annotation.*;
 public class EvaluationController {
 
     private final EvaluationService evaluationService;
+    private final GradeStalenessService gradeStalenessService;
 
     /**
      * Constructeur pour l'injection de dépendances.
      *
      * @param evaluationService Le service d'évaluation à injecter.
+     * @param gradeStalenessService Le service de suivi des notes à recalculer.
      */
     @Autowired
-    public EvaluationController(EvaluationService evaluationService) {
+    public EvaluationController(EvaluationService evaluationService, GradeStalenessService gradeStalenessService) {
         this.evaluationService = evaluationService;
+        this.gradeStalenessService = gradeStalenessService;
     }
 
     /**
@@ -37,7 +42,10 @@ public class EvaluationController {
     public ResponseEntity<Evaluation> updateSubGrade(@PathVariable("evaluationId") int evaluationId, @PathVariable Double value) {
         try{
             Evaluation evaluation = evaluationService.getEvaluationById(evaluationId);
-            return ResponseEntity.ok(evaluationService.updateEvaluation(evaluation, value));
+            Evaluation updated = evaluationService.updateEvaluation(evaluation, value);
+            SubGrade subGrade = evaluation.getSubGrade();
+            gradeStalenessService.markUserStale(subGrade.getUser().getId(), subGrade.getSprint().getId(), subGrade.getGradeType().getId());
+            return ResponseEntity.ok(updated);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
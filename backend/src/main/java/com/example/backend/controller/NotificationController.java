@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.NotificationBroadcastDTO;
 import com.example.backend.dto.NotificationDTO;
 import com.example.backend.model.Notification;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -76,6 +77,23 @@ public class NotificationController {
         }
     }
 
+    /**
+     * Gère les requêtes POST pour envoyer une notification à une audience.
+     * Réservé au staff : l'audience peut couvrir toute la promotion.
+     *
+     * @param broadcastDTO La notification et son audience : équipes, rôles et utilisateurs.
+     * @return Une réponse contenant le nombre de notifications créées.
+     */
+    @PostMapping("/broadcast")
+    @PreAuthorize("hasAnyAuthority('TC', 'SS', 'OL', 'PL')")
+    public ResponseEntity<Integer> broadcast(@RequestBody NotificationBroadcastDTO broadcastDTO) {
+        try{
+            return ResponseEntity.ok(notificationService.broadcast(broadcastDTO));
+        } catch (Exception e) {
+            return ResponseEntity.status(400).build();
+        }
+    }
+
     /**
      * Gère les requêtes PUT pour mettre à jour une notification.
      *
@@ -1,12 +1,20 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.GradeJobDTO;
+import com.example.backend.dto.TeamProjectGradesDTO;
 import com.example.backend.model.ProjectGrade;
+import com.example.backend.service.GradeJobService;
 import com.example.backend.service.ProjectGradeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Le contrôleur ProjectGrade.
  * Gère les requêtes HTTP liées aux opérations de notation de projet.
@@ -15,16 +23,21 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/projectGrade")
 public class ProjectGradeController {
 
+    static final String JOB_RETRY_AFTER_SECONDS = "30";
+
     private final ProjectGradeService projectGradeService;
+    private final GradeJobService gradeJobService;
 
     /**
      * Constructeur pour l'injection de dépendances.
      *
      * @param projectGradeService Le service de notation de projet à injecter.
+     * @param gradeJobService Le service des tâches de recalcul à injecter.
      */
     @Autowired
-    public ProjectGradeController(ProjectGradeService projectGradeService) {
+    public ProjectGradeController(ProjectGradeService projectGradeService, GradeJobService gradeJobService) {
         this.projectGradeService = projectGradeService;
+        this.gradeJobService = gradeJobService;
     }
 
     /**
@@ -79,21 +92,86 @@ public class ProjectGradeController {
     }
 
     /**
-     * Gère les requêtes GET pour récupérer toutes les notes de projet.
+     * Gère les requêtes GET pour récupérer les notes de projet enregistrées d'une équipe, sans les recalculer.
      *
-     * @return Une réponse indiquant si l'opération a réussi.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return Une réponse contenant les notes de projet de l'équipe et leur état.
+     */
+    @GetMapping("/team/{teamId}/sprint/{sprintId}")
+    @PreAuthorize("hasAnyAuthority('SS','OL','PL','OS','TC')")
+    public ResponseEntity<TeamProjectGradesDTO> getTeamProjectGrades(@PathVariable int teamId, @PathVariable int sprintId) {
+        try{
+            return ResponseEntity.ok(projectGradeService.getTeamProjectGrades(teamId, sprintId));
+        }catch (Exception e){
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Gère les requêtes PUT pour recalculer les notes de projet d'une équipe.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return Une réponse contenant les notes de projet recalculées de l'équipe.
+     */
+    @PutMapping("/team/{teamId}/sprint/{sprintId}")
+    @PreAuthorize("hasAnyAuthority('SS','OL','PL','OS','TC')")
+    public ResponseEntity<TeamProjectGradesDTO> refreshTeamProjectGrades(@PathVariable int teamId, @PathVariable int sprintId) {
+        try{
+            return ResponseEntity.ok(projectGradeService.refreshTeamProjectGrades(teamId, sprintId));
+        }catch (Exception e){
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Gère les requêtes GET pour recalculer toutes les notes de projet.
+     * Le recalcul est lancé en arrière-plan ; son avancement se suit via /jobs/{jobId}.
+     *
+     * @return Une réponse contenant l'état initial de la tâche de recalcul.
      */
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('SS','OL','PL','OS','TC')")
-    public ResponseEntity<Void> getAll() {
+    public ResponseEntity<GradeJobDTO> getAll() {
+        return submitJob(null, null);
+    }
+
+    /**
+     * Gère les requêtes POST pour lancer un recalcul des notes en arrière-plan.
+     *
+     * @param sprintId L'identifiant du sprint, ou aucun pour tous les sprints.
+     * @param teamId L'identifiant de l'équipe, ou aucun pour toutes les équipes.
+     * @return Une réponse contenant l'état initial de la tâche, ou 503 si trop de tâches sont déjà en attente.
+     */
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('SS','OL','PL','OS','TC')")
+    public ResponseEntity<GradeJobDTO> submitJob(@RequestParam(required = false) Integer sprintId, @RequestParam(required = false) Integer teamId) {
         try{
-            projectGradeService.updateAllProjectGrades();
-            return ResponseEntity.ok().build();
+            return ResponseEntity.ok(gradeJobService.submit(sprintId, teamId));
+        }catch (RejectedExecutionException e){
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, JOB_RETRY_AFTER_SECONDS).build();
         }catch (Exception e){
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Gère les requêtes GET pour suivre l'avancement d'une tâche de recalcul.
+     *
+     * @param jobId L'identifiant de la tâche.
+     * @return Une réponse contenant l'état de la tâche.
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority('SS','OL','PL','OS','TC')")
+    public ResponseEntity<GradeJobDTO> getJob(@PathVariable String jobId) {
+        try{
+            return ResponseEntity.ok(gradeJobService.getJob(jobId));
+        }catch (NoSuchElementException e){
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Gère les requêtes PUT pour valider une note de projet.
      *
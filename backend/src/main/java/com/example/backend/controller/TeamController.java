@@ -1,9 +1,12 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.TeamDTO;
+import com.example.backend.dto.TeamFormationReportDTO;
+import com.example.backend.dto.TeamPreviewDTO;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.model.Team;
 import com.example.backend.model.User;
+import com.example.backend.service.TeamPreviewService;
 import com.example.backend.service.TeamService;
 import com.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -27,17 +31,20 @@ public class TeamController {
 
     private final TeamService teamService;
     private final UserService userService;
+    private final TeamPreviewService teamPreviewService;
 
     /**
      * Constructeur pour l'injection de dépendances.
      *
      * @param teamService Le service d'équipe à injecter.
      * @param userService Le service d'utilisateur à injecter.
+     * @param teamPreviewService Le service de prévisualisation des équipes à injecter.
      */
     @Autowired
-    public TeamController(TeamService teamService, UserService userService) {
+    public TeamController(TeamService teamService, UserService userService, TeamPreviewService teamPreviewService) {
         this.teamService = teamService;
         this.userService = userService;
+        this.teamPreviewService = teamPreviewService;
     }
 
     /**
@@ -50,6 +57,21 @@ public class TeamController {
         return teamService.getAllTeams();
     }
 
+    /**
+     * Gère les requêtes GET pour récupérer le rapport de qualité de la dernière formation d'équipes.
+     *
+     * @return Une réponse contenant le rapport, ou 404 si aucune équipe n'a encore été formée.
+     */
+    @GetMapping("/teams/formation-report")
+    @PreAuthorize("hasAnyAuthority('OL', 'PL')")
+    public ResponseEntity<TeamFormationReportDTO> getFormationReport() {
+        TeamFormationReportDTO report = teamService.getLastFormationReport();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * Gère les requêtes GET pour récupérer une équipe par ID.
      *
@@ -115,13 +137,48 @@ public class TeamController {
             for(UserInteract teacher : teachersDTO){
                 teachers.add(userService.userInteractToUser(teacher).orElseThrow());
             }
-            List<Team> teams = teamService.createTeams(students, teachers, parameters.getNames(),parameters.getNumberOfTeams(), parameters.getNumberOfGirlsPerTeam());
+            List<Team> teams = teamService.createTeams(students, teachers, parameters.getNames(),parameters.getNumberOfTeams(), parameters.getNumberOfGirlsPerTeam(),
+                    parameters.getStrategy(), parameters.getBudgetMillis());
             return ResponseEntity.ok(teams);
         } catch (Exception e) {
             return ResponseEntity.status(400).build();
         }
     }
 
+    /**
+     * Gère les requêtes POST pour prévisualiser des équipes sans les enregistrer.
+     *
+     * @param parameters Les paramètres pour former les équipes.
+     * @return Une réponse contenant les équipes proposées et leur rapport de qualité.
+     */
+    @PostMapping("/teams/preview")
+    @PreAuthorize("hasAnyAuthority('OL', 'PL')")
+    public ResponseEntity<TeamPreviewDTO> previewTeams(@RequestBody TeamDTO parameters) {
+        try {
+            return ResponseEntity.ok(teamPreviewService.preview(parameters));
+        } catch (Exception e) {
+            return ResponseEntity.status(400).build();
+        }
+    }
+
+    /**
+     * Gère les requêtes POST pour enregistrer des équipes prévisualisées.
+     *
+     * @param previewId L'identifiant de la prévisualisation.
+     * @return Une réponse contenant les équipes enregistrées, ou 404 si la prévisualisation est inconnue.
+     */
+    @PostMapping("/teams/preview/{preview_id}/commit")
+    @PreAuthorize("hasAnyAuthority('OL', 'PL')")
+    public ResponseEntity<List<Team>> commitPreview(@PathVariable("preview_id") String previewId) {
+        try {
+            return ResponseEntity.ok(teamPreviewService.commit(previewId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(400).build();
+        }
+    }
+
     /**
      * Gère les requêtes GET pour récupérer les membres d'une équipe.
      *
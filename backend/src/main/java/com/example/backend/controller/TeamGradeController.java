@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.TeamGradeBatchDTO;
 import com.example.backend.model.TeamGrade;
 import com.example.backend.service.TeamGradeService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +49,22 @@ public class TeamGradeController {
         }
     }
 
+    /**
+     * Gère les requêtes PUT pour sauvegarder en une fois les notes d'une grille pour plusieurs équipes.
+     *
+     * @param batch Les notes de la grille, par équipe et par détail, pour un évaluateur et un sprint.
+     * @return Une réponse indiquant si l'opération a réussi.
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<Void> saveTeamGrades(@RequestBody TeamGradeBatchDTO batch) {
+        try {
+            teamGradeService.updateTeamGrades(batch);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(400).build();
+        }
+    }
+
     /**
      * Gère les requêtes GET pour récupérer une note d'équipe.
      *
@@ -1,6 +1,7 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.UserInteract;
+import com.example.backend.model.SubjectGrades;
 import com.example.backend.model.Team;
 import com.example.backend.model.User;
 import com.example.backend.service.AuthService;
@@ -177,6 +178,10 @@ public class UserController {
                 }else{
                     User userToModify = userService.loadUserByEmail(user.getEmail());
                     userToModify.setGradePast(user.getGradePast());
+                    SubjectGrades subjectGrades = userService.toSubjectGrades(user);
+                    if (subjectGrades != null) {
+                        userToModify.setSubjectGrades(subjectGrades);
+                    }
                     userService.updateUser(userToModify);
                 }
             }
@@ -1,7 +1,14 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.BMValidation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -10,4 +17,19 @@ public interface BMValidationDao extends JpaRepository<BMValidation, Integer> {
     BMValidation findByUserIdAndTeamIdAndSprintId(int userId, int teamId, int sprintId);
     List<BMValidation> findAllByTeamIdAndSprintId(int teamId, int sprintId);
 
+    @Query("SELECT v.team.id, v.user.id FROM BMValidation v WHERE v.sprint.id = :sprintId")
+    List<Object[]> findAllTeamAndUserIdsBySprintId(@Param("sprintId") int sprintId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BMValidation v WHERE v.team.id = :teamId AND v.sprint.id = :sprintId")
+    int deleteByTeamIdAndSprintId(@Param("teamId") int teamId, @Param("sprintId") int sprintId);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bonus_malus_validation"))
+    @Query(value = "INSERT INTO bonus_malus_validation (user_id, team_id, sprint_id) VALUES (:userId, :teamId, :sprintId) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") int userId, @Param("teamId") int teamId, @Param("sprintId") int sprintId);
+
 }
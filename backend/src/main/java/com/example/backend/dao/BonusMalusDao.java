@@ -1,16 +1,49 @@
 package com.example.backend.dao;
 
+import com.example.backend.dto.BonusMalusDTO;
 import com.example.backend.model.BonusMalus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface BonusMalusDao extends JpaRepository<BonusMalus, Integer> {
+public interface BonusMalusDao extends JpaRepository<BonusMalus, Integer>, BonusMalusDaoCustom {
 
-    List<BonusMalus> findAllBySprintId(int sprintId);
+    List<BonusMalus> findAllBySprintIdAndStatus(int sprintId, BonusMalus.BonusMalusStatus status);
     List<BonusMalus> findAllByTeamIdAndSprintId(int teamId, int sprintId);
     BonusMalus findByAttributedToIdAndSprintIdAndIsUnlimited(int userId, int sprintId, boolean isUnlimited);
     List<BonusMalus> findAllByTeamIdAndSprintIdAndStatus(int teamId, int sprintId, BonusMalus.BonusMalusStatus status);
     BonusMalus findByAttributedToIdAndSprintIdAndIsUnlimitedAndStatus(int userId, int sprintId, boolean isUnlimited, BonusMalus.BonusMalusStatus status);
 
+    @Query("SELECT new com.example.backend.dto.BonusMalusDTO(b.id, b.value, b.comment, b.status, b.isUnlimited, " +
+            "b.attributedTo.id, b.attributedBy.id, b.team.id, b.sprint.id) " +
+            "FROM BonusMalus b WHERE b.sprint.id = :sprintId ORDER BY b.team.id, b.id")
+    List<BonusMalusDTO> findDTOsBySprintId(@Param("sprintId") int sprintId);
+
+    @Query("SELECT new com.example.backend.dto.BonusMalusDTO(b.id, b.value, b.comment, b.status, b.isUnlimited, " +
+            "b.attributedTo.id, b.attributedBy.id, b.team.id, b.sprint.id) " +
+            "FROM BonusMalus b WHERE b.team.id = :teamId AND b.sprint.id = :sprintId AND b.isUnlimited = :isUnlimited ORDER BY b.id")
+    List<BonusMalusDTO> findDTOsByTeamIdAndSprintIdAndIsUnlimited(@Param("teamId") int teamId, @Param("sprintId") int sprintId,
+                                                                  @Param("isUnlimited") boolean isUnlimited);
+
+    @Query("SELECT new com.example.backend.dto.BonusMalusDTO(b.id, b.value, b.comment, b.status, b.isUnlimited, " +
+            "b.attributedTo.id, b.attributedBy.id, b.team.id, b.sprint.id) " +
+            "FROM BonusMalus b WHERE b.team.id = :teamId AND b.sprint.id = :sprintId AND b.status = :status ORDER BY b.id")
+    List<BonusMalusDTO> findDTOsByTeamIdAndSprintIdAndStatus(@Param("teamId") int teamId, @Param("sprintId") int sprintId,
+                                                             @Param("status") BonusMalus.BonusMalusStatus status);
+
+    @Query("SELECT b.attributedTo.id, b.id FROM BonusMalus b " +
+            "WHERE b.sprint.id = :sprintId AND b.isUnlimited = :isUnlimited AND b.attributedTo.id IN :userIds")
+    List<Object[]> findAttributedToAndIdsBySprintIdAndIsUnlimited(@Param("userIds") Collection<Integer> userIds, @Param("sprintId") int sprintId,
+                                                                  @Param("isUnlimited") boolean isUnlimited);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BonusMalus b WHERE b.team.id = :teamId AND b.sprint.id = :sprintId AND b.status = :status")
+    int deleteByTeamIdAndSprintIdAndStatus(@Param("teamId") int teamId, @Param("sprintId") int sprintId,
+                                           @Param("status") BonusMalus.BonusMalusStatus status);
 }
@@ -0,0 +1,17 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.BonusMalusDTO;
+
+import java.util.Collection;
+
+public interface BonusMalusDaoCustom {
+
+    /**
+     * Enregistre ou met à jour des bonus/malus en un seul lot d'instructions.
+     * Un bonus/malus d'identifiant 0 est inséré, les autres remplacent la ligne de même identifiant.
+     *
+     * @param bonusMalus Les bonus/malus, avec leur statut, équipe, sprint et utilisateurs.
+     * @return Le nombre de lignes touchées par chaque bonus/malus.
+     */
+    int[] upsertAll(Collection<BonusMalusDTO> bonusMalus);
+}
@@ -0,0 +1,40 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.BonusMalusDTO;
+import com.example.backend.model.BonusMalus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class BonusMalusDaoCustomImpl implements BonusMalusDaoCustom {
+
+    static final String UPSERT_SQL = "INSERT INTO bonus_malus (id, value, comment, status, is_unlimited, attributed_to, attributed_by, team_id, sprint_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE value = VALUES(value), comment = VALUES(comment), status = VALUES(status), " +
+            "attributed_by = VALUES(attributed_by), team_id = VALUES(team_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BonusMalusDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] upsertAll(Collection<BonusMalusDTO> bonusMalus) {
+        List<Object[]> rows = new ArrayList<>(bonusMalus.size());
+        for (BonusMalusDTO bm : bonusMalus) {
+            rows.add(new Object[]{bm.getId() == 0 ? null : bm.getId(), bm.getValue(), bm.getComment(), statusName(bm), bm.isUnlimited(),
+                    bm.getAttributedTo(), bm.getAttributedBy(), bm.getTeamId(), bm.getSprintId()});
+        }
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    // The status column holds the enum name, as mapped by @Enumerated(EnumType.STRING) on BonusMalus
+    private static String statusName(BonusMalusDTO bm) {
+        return BonusMalus.BonusMalusStatus.valueOf(bm.getStatus()).name();
+    }
+}
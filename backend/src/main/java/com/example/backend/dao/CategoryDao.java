@@ -1,7 +1,10 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +12,6 @@ import java.util.List;
 @Repository
 public interface CategoryDao extends JpaRepository<Category, Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByGradeScaleId(int gradeScaleId);
 }
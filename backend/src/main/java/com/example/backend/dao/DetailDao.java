@@ -1,7 +1,10 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.Detail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +12,6 @@ import java.util.List;
 @Repository
 public interface DetailDao extends JpaRepository<Detail, Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Detail> findByCategoryId(int categoryId);
 }
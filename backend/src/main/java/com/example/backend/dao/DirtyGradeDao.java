@@ -0,0 +1,14 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.DirtyGrade;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DirtyGradeDao extends JpaRepository<DirtyGrade, Integer> {
+    List<DirtyGrade> findBySprintId(int sprintId);
+    List<DirtyGrade> findBySprintIdAndUserIdIn(int sprintId, Collection<Integer> userIds);
+}
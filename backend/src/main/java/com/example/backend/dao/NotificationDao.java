@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface NotificationDao extends JpaRepository<Notification, Integer> {
+public interface NotificationDao extends JpaRepository<Notification, Integer>, NotificationDaoCustom {
     List<Notification> findByReceiverId(int userId);
     List<Notification> findByEmitterId(int userId);
 }
@@ -0,0 +1,16 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.NotificationDTO;
+
+import java.util.Collection;
+
+public interface NotificationDaoCustom {
+
+    /**
+     * Enregistre des notifications en un seul lot d'instructions.
+     *
+     * @param notifications Les notifications, avec leur receveur et leur émetteur.
+     * @return Le nombre de lignes insérées pour chaque notification.
+     */
+    int[] insertAll(Collection<NotificationDTO> notifications);
+}
@@ -0,0 +1,34 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.NotificationDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class NotificationDaoCustomImpl implements NotificationDaoCustom {
+
+    static final String INSERT_SQL = "INSERT INTO notification (type, status, description, date, emitter_id, receiver_id, group_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public NotificationDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertAll(Collection<NotificationDTO> notifications) {
+        List<Object[]> rows = new ArrayList<>(notifications.size());
+        for (NotificationDTO notification : notifications) {
+            Date date = notification.getDate() != null ? notification.getDate() : new Date(System.currentTimeMillis());
+            rows.add(new Object[]{notification.getType(), notification.getStatus().name(), notification.getDescription(), date,
+                    notification.getEmitterId() == 0 ? null : notification.getEmitterId(), notification.getReceiverId(), notification.getGroupId()});
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
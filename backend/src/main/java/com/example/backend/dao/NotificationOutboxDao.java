@@ -0,0 +1,40 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxDao extends JpaRepository<NotificationOutbox, Integer>, NotificationOutboxDaoCustom {
+
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE o.attempts < :maxAttempts AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<Integer> findReadyIds(@Param("now") long now, @Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    // Rows locked by another dispatcher are skipped instead of waited for (-2 is Hibernate's SKIP_LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.id IN :ids ORDER BY o.id")
+    List<NotificationOutbox> lockAllByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :now + :retryDelay * (o.attempts + 1) WHERE o.id IN :ids")
+    int markFailed(@Param("ids") Collection<Integer> ids, @Param("now") long now, @Param("retryDelay") long retryDelay);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.receiverId = :userId OR o.emitterId = :userId")
+    int deleteByUserId(@Param("userId") int userId);
+}
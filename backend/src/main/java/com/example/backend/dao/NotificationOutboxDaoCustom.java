@@ -0,0 +1,17 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.NotificationDTO;
+
+import java.util.Collection;
+
+public interface NotificationOutboxDaoCustom {
+
+    /**
+     * Met en attente une même notification pour plusieurs receveurs en un seul lot d'instructions.
+     *
+     * @param template La notification à envoyer : type, statut, description, date, groupe et émetteur.
+     * @param receiverIds Les identifiants des receveurs.
+     * @return Le nombre de lignes insérées pour chaque receveur.
+     */
+    int[] insertAll(NotificationDTO template, Collection<Integer> receiverIds);
+}
@@ -0,0 +1,36 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.NotificationDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class NotificationOutboxDaoCustomImpl implements NotificationOutboxDaoCustom {
+
+    static final String INSERT_SQL = "INSERT INTO notification_outbox (type, status, description, date, emitter_id, receiver_id, group_id, attempts, next_attempt_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public NotificationOutboxDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertAll(NotificationDTO template, Collection<Integer> receiverIds) {
+        long now = System.currentTimeMillis();
+        Date date = template.getDate() != null ? template.getDate() : new Date(now);
+        Integer emitterId = template.getEmitterId() == 0 ? null : template.getEmitterId();
+        List<Object[]> rows = new ArrayList<>(receiverIds.size());
+        for (Integer receiverId : receiverIds) {
+            rows.add(new Object[]{template.getType(), template.getStatus().name(), template.getDescription(), date,
+                    emitterId, receiverId, template.getGroupId(), now});
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -1,13 +1,55 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.ProjectGrade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectGradeDao extends JpaRepository<ProjectGrade, Integer> {
 
     Optional<ProjectGrade> findByUserIdAndSprintId(int userId, int sprintId);
+    List<ProjectGrade> findBySprintId(int sprintId);
+    List<ProjectGrade> findBySprintIdAndUserIdIn(int sprintId, Collection<Integer> userIds);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "projectgrade"))
+    @Query(value = "INSERT INTO projectgrade (user_id, sprint_id, value, is_validated, is_stale) VALUES (:userId, :sprintId, 0, false, false) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") int userId, @Param("sprintId") int sprintId);
+
+    @Query("SELECT p FROM ProjectGrade p JOIN FETCH p.user JOIN FETCH p.sprint " +
+            "LEFT JOIN FETCH p.initialGrade ig LEFT JOIN FETCH ig.prmo LEFT JOIN FETCH ig.spco LEFT JOIN FETCH ig.teso LEFT JOIN FETCH ig.supr " +
+            "LEFT JOIN FETCH p.workGrade wg LEFT JOIN FETCH wg.ssbm LEFT JOIN FETCH wg.tebm " +
+            "LEFT JOIN FETCH p.presentationGrade pg LEFT JOIN FETCH pg.sspr LEFT JOIN FETCH pg.otpr LEFT JOIN FETCH pg.tcpr " +
+            "WHERE p.sprint.id = :sprintId AND p.user.id IN (SELECT ut.user.id FROM UserTeam ut WHERE ut.team.id = :teamId)")
+    List<ProjectGrade> findTreesByTeamIdAndSprintId(@Param("teamId") int teamId, @Param("sprintId") int sprintId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProjectGrade p SET p.isStale = true WHERE p.sprint.id = :sprintId " +
+            "AND p.user.id IN (SELECT ut.user.id FROM UserTeam ut WHERE ut.team.id = :teamId)")
+    int markStaleByTeamIdAndSprintId(@Param("teamId") int teamId, @Param("sprintId") int sprintId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProjectGrade p SET p.isStale = true WHERE p.sprint.id = :sprintId " +
+            "AND p.user.id IN (SELECT ut.user.id FROM UserTeam ut WHERE ut.team.id IN :teamIds)")
+    int markStaleByTeamIdInAndSprintId(@Param("teamIds") Collection<Integer> teamIds, @Param("sprintId") int sprintId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProjectGrade p SET p.isStale = true WHERE p.sprint.id = :sprintId AND p.user.id = :userId")
+    int markStaleByUserIdAndSprintId(@Param("userId") int userId, @Param("sprintId") int sprintId);
 }
@@ -0,0 +1,35 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenDao extends JpaRepository<RefreshToken, Integer> {
+
+    Optional<RefreshToken> findByTokenId(String tokenId);
+    List<RefreshToken> findByUserIdAndRevokedFalse(int userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.tokenId = :tokenId AND r.revoked = false")
+    int revokeByTokenId(@Param("tokenId") String tokenId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.userId = :userId AND r.revoked = false")
+    int revokeByUserId(@Param("userId") int userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Date now);
+}
@@ -2,16 +2,37 @@ package com.example.backend.dao;
 
 import com.example.backend.model.GradeTypes;
 import com.example.backend.model.SubGrade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SubGradeDao extends JpaRepository<SubGrade, Integer> {
     Optional<SubGrade> findByUserIdAndSprintIdAndGradeType(int userId, int sprintId, GradeTypes gradeType);
+    @EntityGraph(attributePaths = "evaluations")
+    List<SubGrade> findBySprintId(int sprintId);
+
+    @EntityGraph(attributePaths = "evaluations")
+    List<SubGrade> findBySprintIdAndUserIdIn(int sprintId, Collection<Integer> userIds);
+    @Query("SELECT DISTINCT s FROM SubGrade s LEFT JOIN FETCH s.evaluations WHERE s.id IN :ids")
+    List<SubGrade> fetchEvaluationsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "subgrade"))
+    @Query(value = "INSERT INTO subgrade (user_id, sprint_id, grade_type_id, value, status) VALUES (:userId, :sprintId, :gradeTypeId, 0, 'PENDING') " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") int userId, @Param("sprintId") int sprintId, @Param("gradeTypeId") int gradeTypeId);
 
 }
@@ -2,10 +2,19 @@ package com.example.backend.dao;
 
 import com.example.backend.model.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeamDao extends JpaRepository<Team, Integer> {
+public interface TeamDao extends JpaRepository<Team, Integer>, TeamDaoCustom {
     Optional<Team> findById(int id);
+
+    @Query("SELECT t.id FROM Team t")
+    List<Integer> findAllIds();
+
+    @Query("SELECT t.id, s.id FROM Team t LEFT JOIN t.supervisor s")
+    List<Object[]> findAllIdsAndSupervisorIds();
 }
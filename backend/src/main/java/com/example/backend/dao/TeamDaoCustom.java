@@ -0,0 +1,15 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.Team;
+
+import java.util.List;
+
+public interface TeamDaoCustom {
+
+    /**
+     * Insère des équipes en un seul lot d'instructions et renseigne leurs identifiants générés.
+     *
+     * @param teams Les équipes, avec leurs critères et superviseur déjà enregistrés.
+     */
+    void insertAll(List<Team> teams);
+}
@@ -0,0 +1,61 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.Team;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+public class TeamDaoCustomImpl implements TeamDaoCustom {
+
+    static final String INSERT_SQL = "INSERT INTO team (name, status, teacher_id, criteria_id, validated) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TeamDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<Team> teams) {
+        if (teams.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Team team : teams) {
+                    statement.setString(1, team.getName());
+                    statement.setString(2, team.getStatus());
+                    if (team.getSupervisor() == null) {
+                        statement.setNull(3, Types.INTEGER);
+                    } else {
+                        statement.setInt(3, team.getSupervisor().getId());
+                    }
+                    if (team.getCriteria() == null) {
+                        statement.setNull(4, Types.INTEGER);
+                    } else {
+                        statement.setInt(4, team.getCriteria().getId());
+                    }
+                    statement.setBoolean(5, team.isValidated());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Team team : teams) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated key for team " + team.getName());
+                        }
+                        team.setId(keys.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.TeamGradeAverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TeamGradeAverageDao extends JpaRepository<TeamGradeAverage, Integer>, TeamGradeAverageDaoCustom {
+
+    Optional<TeamGradeAverage> findByTeamIdAndSprintIdAndCategoryIdAndEvaluatorId(int teamId, int sprintId, int categoryId, int evaluatorId);
+}
@@ -0,0 +1,33 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.TeamGradeAverage;
+
+import java.util.Collection;
+
+public interface TeamGradeAverageDaoCustom {
+
+    /**
+     * Crée au besoin puis verrouille jusqu'à la fin de la transaction les moyennes indiquées.
+     * Les moyennes sont verrouillées dans un ordre fixe pour que deux écritures concurrentes
+     * ne s'attendent pas mutuellement.
+     *
+     * @param averages Les moyennes, identifiées par équipe, sprint, catégorie et évaluateur.
+     */
+    void lockAll(Collection<TeamGradeAverage> averages);
+
+    /**
+     * Recalcule les moyennes indiquées à partir des notes d'équipe enregistrées.
+     * Les moyennes doivent avoir été créées par {@link #lockAll(Collection)}.
+     *
+     * @param averages Les moyennes, identifiées par équipe, sprint, catégorie et évaluateur.
+     */
+    void recomputeAll(Collection<TeamGradeAverage> averages);
+
+    /**
+     * Reconstruit à partir des notes d'équipe enregistrées toutes les moyennes des catégories indiquées,
+     * par exemple après le changement du barème ou de la catégorie d'un détail.
+     *
+     * @param categoryIds Les identifiants des catégories.
+     */
+    void rebuildByCategoryIds(Collection<Integer> categoryIds);
+}
@@ -0,0 +1,81 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.TeamGradeAverage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+public class TeamGradeAverageDaoCustomImpl implements TeamGradeAverageDaoCustom {
+
+    static final String LOCK_SQL = "INSERT INTO team_grade_average (team_id, sprint_id, category_id, evaluator_id, grade_sum, grade_count) " +
+            "VALUES (?, ?, ?, ?, 0, 0) ON DUPLICATE KEY UPDATE grade_count = grade_count";
+
+    static final String RECOMPUTE_SQL = "UPDATE team_grade_average a SET " +
+            "a.grade_sum = (SELECT COALESCE(SUM(tg.grade / d.mark * 20), 0) FROM teamgrade tg JOIN detail d ON d.id = tg.detail_id " +
+            "WHERE tg.team_id = a.team_id AND tg.sprint_id = a.sprint_id AND tg.user_id = a.evaluator_id AND d.category_id = a.category_id), " +
+            "a.grade_count = (SELECT COUNT(*) FROM teamgrade tg JOIN detail d ON d.id = tg.detail_id " +
+            "WHERE tg.team_id = a.team_id AND tg.sprint_id = a.sprint_id AND tg.user_id = a.evaluator_id AND d.category_id = a.category_id) " +
+            "WHERE a.team_id = ? AND a.sprint_id = ? AND a.category_id = ? AND a.evaluator_id = ?";
+
+    static final String DELETE_BY_CATEGORY_SQL = "DELETE FROM team_grade_average WHERE category_id = ?";
+
+    static final String REBUILD_BY_CATEGORY_SQL = "INSERT INTO team_grade_average (team_id, sprint_id, category_id, evaluator_id, grade_sum, grade_count) " +
+            "SELECT tg.team_id, tg.sprint_id, d.category_id, tg.user_id, SUM(tg.grade / d.mark * 20), COUNT(*) " +
+            "FROM teamgrade tg JOIN detail d ON d.id = tg.detail_id WHERE d.category_id = ? " +
+            "GROUP BY tg.team_id, tg.sprint_id, d.category_id, tg.user_id " +
+            "ON DUPLICATE KEY UPDATE grade_sum = VALUES(grade_sum), grade_count = VALUES(grade_count)";
+
+    private static final Comparator<TeamGradeAverage> KEY_ORDER = Comparator.comparingInt(TeamGradeAverage::getTeamId)
+            .thenComparingInt(TeamGradeAverage::getSprintId)
+            .thenComparingInt(TeamGradeAverage::getCategoryId)
+            .thenComparingInt(TeamGradeAverage::getEvaluatorId);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TeamGradeAverageDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void lockAll(Collection<TeamGradeAverage> averages) {
+        if (!averages.isEmpty()) {
+            jdbcTemplate.batchUpdate(LOCK_SQL, keys(averages));
+        }
+    }
+
+    @Override
+    public void recomputeAll(Collection<TeamGradeAverage> averages) {
+        if (!averages.isEmpty()) {
+            jdbcTemplate.batchUpdate(RECOMPUTE_SQL, keys(averages));
+        }
+    }
+
+    @Override
+    public void rebuildByCategoryIds(Collection<Integer> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(categoryIds.size());
+        for (Integer categoryId : new TreeSet<>(categoryIds)) {
+            rows.add(new Object[]{categoryId});
+        }
+        jdbcTemplate.batchUpdate(DELETE_BY_CATEGORY_SQL, rows);
+        jdbcTemplate.batchUpdate(REBUILD_BY_CATEGORY_SQL, rows);
+    }
+
+    static List<Object[]> keys(Collection<TeamGradeAverage> averages) {
+        List<TeamGradeAverage> sorted = new ArrayList<>(averages);
+        sorted.sort(KEY_ORDER);
+        List<Object[]> rows = new ArrayList<>(sorted.size());
+        for (TeamGradeAverage average : sorted) {
+            rows.add(new Object[]{average.getTeamId(), average.getSprintId(), average.getCategoryId(), average.getEvaluatorId()});
+        }
+        return rows;
+    }
+}
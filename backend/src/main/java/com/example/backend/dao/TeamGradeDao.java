@@ -1,16 +1,35 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.TeamGrade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TeamGradeDao extends JpaRepository<TeamGrade, Integer> {
+public interface TeamGradeDao extends JpaRepository<TeamGrade, Integer>, TeamGradeDaoCustom {
     Optional<TeamGrade> findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(int teamId, int sprintId, int detailId, int evaluatorId);
     Optional<TeamGrade> findByTeamIdAndSprintIdAndDetailId(int teamId, int sprintId, int detailId);
+    List<TeamGrade> findBySprintId(int sprintId);
+    boolean existsByDetailId(int detailId);
+    @Query("SELECT tg FROM TeamGrade tg JOIN FETCH tg.detail d LEFT JOIN FETCH d.category WHERE tg.sprint.id = :sprintId AND tg.team.id = :teamId")
+    List<TeamGrade> findBySprintIdAndTeamId(@Param("sprintId") int sprintId, @Param("teamId") int teamId);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "teamgrade"))
+    @Query(value = "INSERT INTO teamgrade (team_id, sprint_id, detail_id, user_id, grade) VALUES (:teamId, :sprintId, :detailId, :evaluatorId, :grade) " +
+            "ON DUPLICATE KEY UPDATE grade = VALUES(grade)", nativeQuery = true)
+    int upsert(@Param("teamId") int teamId, @Param("sprintId") int sprintId, @Param("detailId") int detailId,
+               @Param("evaluatorId") int evaluatorId, @Param("grade") Double grade);
 
 }
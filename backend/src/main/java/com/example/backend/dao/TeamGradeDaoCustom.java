@@ -0,0 +1,16 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.TeamGrade;
+
+import java.util.Collection;
+
+public interface TeamGradeDaoCustom {
+
+    /**
+     * Enregistre ou met à jour des notes d'équipe en un seul lot d'instructions.
+     *
+     * @param teamGrades Les notes d'équipe, avec leur équipe, sprint, détail et évaluateur.
+     * @return Le nombre de lignes touchées par chaque note.
+     */
+    int[] upsertAll(Collection<TeamGrade> teamGrades);
+}
@@ -0,0 +1,32 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.TeamGrade;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TeamGradeDaoCustomImpl implements TeamGradeDaoCustom {
+
+    static final String UPSERT_SQL = "INSERT INTO teamgrade (team_id, sprint_id, detail_id, user_id, grade) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE grade = VALUES(grade)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public TeamGradeDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] upsertAll(Collection<TeamGrade> teamGrades) {
+        List<Object[]> rows = new ArrayList<>(teamGrades.size());
+        for (TeamGrade teamGrade : teamGrades) {
+            rows.add(new Object[]{teamGrade.getTeam().getId(), teamGrade.getSprint().getId(), teamGrade.getDetail().getId(),
+                    teamGrade.getEvaluator().getId(), teamGrade.getGrade()});
+        }
+        return jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+}
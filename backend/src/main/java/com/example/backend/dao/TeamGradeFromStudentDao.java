@@ -1,8 +1,15 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.TeamGradeFromStudent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +20,14 @@ public interface TeamGradeFromStudentDao extends JpaRepository<TeamGradeFromStud
     Optional<TeamGradeFromStudent> findByTeamNotingIdAndTeamToNoteIdAndSprintId(int teamNotingId, int teamToNoteId, int sprintId);
 
     Optional<List<TeamGradeFromStudent>> findByTeamToNoteIdAndSprintId(int teamToNoteId, int sprintId);
+
+    List<TeamGradeFromStudent> findBySprintId(int sprintId);
+    List<TeamGradeFromStudent> findBySprintIdAndTeamToNoteId(int sprintId, int teamToNoteId);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "teamgradefromstudent"))
+    @Query(value = "INSERT INTO teamgradefromstudent (team_noting_id, team_to_note_id, sprint_id, grade) VALUES (:teamNotingId, :teamToNoteId, :sprintId, :grade) " +
+            "ON DUPLICATE KEY UPDATE grade = VALUES(grade)", nativeQuery = true)
+    int upsert(@Param("teamNotingId") int teamNotingId, @Param("teamToNoteId") int teamToNoteId, @Param("sprintId") int sprintId, @Param("grade") int grade);
 }
@@ -1,8 +1,15 @@
 package com.example.backend.dao;
 
 import com.example.backend.model.TeamOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +17,10 @@ import java.util.Optional;
 public interface TeamOrderDao extends JpaRepository<TeamOrder, Integer> {
 
     Optional<TeamOrder> findByTeamIdAndSprintId(int teamId, int sprintId);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "teamorder"))
+    @Query(value = "INSERT INTO teamorder (team_id, sprint_id) VALUES (:teamId, :sprintId) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("teamId") int teamId, @Param("sprintId") int sprintId);
 }
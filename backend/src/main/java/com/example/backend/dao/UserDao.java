@@ -3,8 +3,11 @@ package com.example.backend.dao;
 import com.example.backend.model.Role;
 import com.example.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,10 @@ public interface UserDao extends JpaRepository<User, Integer> {
     Optional<List<User>> findByRoles(Role role);
     List<User> findByRolesIn(List<Role> roles);
     void deleteByRoles(Role role);
+
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r = :role ORDER BY u.id")
+    List<Integer> findIdsByRoles(@Param("role") Role role);
+
+    @Query("SELECT DISTINCT u.id FROM User u JOIN u.roles r WHERE r.name IN :roleNames")
+    List<Integer> findIdsByRoleNameIn(@Param("roleNames") Collection<Role.RoleName> roleNames);
 }
@@ -4,14 +4,31 @@ import com.example.backend.model.Team;
 import com.example.backend.model.User;
 import com.example.backend.model.UserTeam;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserTeamDao extends JpaRepository<UserTeam, Integer> {
+public interface UserTeamDao extends JpaRepository<UserTeam, Integer>, UserTeamDaoCustom {
     Optional<UserTeam> findByUserAndTeam(User user, Team team);
     Optional<UserTeam> findByUser(User user);
     List<UserTeam> findByTeam(Team team);
+    List<UserTeam> findByTeam_Id(int teamId);
+    long countByTeam_Id(int teamId);
+
+    @Query("SELECT ut.user.id FROM UserTeam ut WHERE ut.team.id = :teamId")
+    List<Integer> findUserIdsByTeamId(@Param("teamId") int teamId);
+
+    @Query("SELECT ut.user.id FROM UserTeam ut WHERE ut.team.id IN :teamIds")
+    List<Integer> findUserIdsByTeamIdIn(@Param("teamIds") Collection<Integer> teamIds);
+
+    @Query("SELECT ut.team.id, ut.user.id FROM UserTeam ut")
+    List<Object[]> findAllTeamAndUserIds();
+
+    @Query("SELECT ut.team.id, COUNT(ut) FROM UserTeam ut GROUP BY ut.team.id")
+    List<Object[]> countMembersGroupByTeamId();
 }
@@ -0,0 +1,16 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.UserTeam;
+
+import java.util.Collection;
+
+public interface UserTeamDaoCustom {
+
+    /**
+     * Insère des appartenances à des équipes en un seul lot d'instructions.
+     *
+     * @param userTeams Les appartenances, avec leur équipe et leur utilisateur déjà enregistrés.
+     * @return Le nombre de lignes insérées par appartenance.
+     */
+    int[] insertAll(Collection<UserTeam> userTeams);
+}
@@ -0,0 +1,30 @@
+package com.example.backend.dao;
+
+import com.example.backend.model.UserTeam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class UserTeamDaoCustomImpl implements UserTeamDaoCustom {
+
+    static final String INSERT_SQL = "INSERT INTO userteam (team_id, user_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserTeamDaoCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertAll(Collection<UserTeam> userTeams) {
+        List<Object[]> rows = new ArrayList<>(userTeams.size());
+        for (UserTeam userTeam : userTeams) {
+            rows.add(new Object[]{userTeam.getTeam().getId(), userTeam.getUser().getId()});
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+}
@@ -2,9 +2,18 @@ package com.example.backend.dao;
 
 import com.example.backend.model.PresentationGrade;
 import com.example.backend.model.WorkGrade;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +21,13 @@ public interface WorkGradeDao extends JpaRepository<WorkGrade, Integer> {
 
     Optional<WorkGrade> findByUserIdAndSprintId(int userId, int sprintId);
 
+    List<WorkGrade> findBySprintId(int sprintId);
+    List<WorkGrade> findBySprintIdAndUserIdIn(int sprintId, Collection<Integer> userIds);
+
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "workgrade"))
+    @Query(value = "INSERT INTO workgrade (user_id, sprint_id, value) VALUES (:userId, :sprintId, 0) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") int userId, @Param("sprintId") int sprintId);
+
 }
@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BMValidationStatusDTO {
+
+    private int teamId;
+    private List<Integer> memberIds;
+    private List<Integer> validatedBy;
+    private boolean allValidated;
+
+}
@@ -1,9 +1,11 @@
 package com.example.backend.dto;
 
+import com.example.backend.model.BonusMalus;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Data
@@ -11,6 +13,7 @@ import lombok.Setter;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Getter
 @Setter
+@NoArgsConstructor
 public class BonusMalusDTO {
 
     private int id;
@@ -23,4 +26,30 @@ public class BonusMalusDTO {
     private int teamId;
     private int sprintId;
 
+    /**
+     * Constructeur utilisé par les projections JPQL de BonusMalusDao.
+     *
+     * @param id L'identifiant du bonus/malus.
+     * @param value La valeur du bonus/malus.
+     * @param comment Le commentaire.
+     * @param status Le statut du bonus/malus.
+     * @param isUnlimited true si le bonus/malus est illimité, false sinon.
+     * @param attributedTo L'identifiant de l'utilisateur qui reçoit le bonus/malus.
+     * @param attributedBy L'identifiant de l'utilisateur qui attribue le bonus/malus.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     */
+    public BonusMalusDTO(int id, float value, String comment, BonusMalus.BonusMalusStatus status, boolean isUnlimited,
+                         int attributedTo, int attributedBy, int teamId, int sprintId) {
+        this.id = id;
+        this.value = value;
+        this.comment = comment;
+        this.status = status.name();
+        this.isUnlimited = isUnlimited;
+        this.attributedTo = attributedTo;
+        this.attributedBy = attributedBy;
+        this.teamId = teamId;
+        this.sprintId = sprintId;
+    }
+
 }
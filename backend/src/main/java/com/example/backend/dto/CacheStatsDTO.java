@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CacheStatsDTO {
+
+    private String region;
+    private int size;
+    private long hits;
+    private long misses;
+    private Long puts;
+    private long invalidations;
+    private double hitRatio;
+
+}
@@ -0,0 +1,23 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GradeJobDTO {
+
+    private String id;
+    private Integer sprintId;
+    private Integer teamId;
+    private String status;
+    private int total;
+    private int done;
+    private int failed;
+    private List<String> errors;
+
+}
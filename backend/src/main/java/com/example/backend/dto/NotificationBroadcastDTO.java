@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Role;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Getter
+@Setter
+public class NotificationBroadcastDTO {
+
+    // Notification to send, receiverId is ignored
+    private NotificationDTO notification;
+
+    // Receivers: members of the teams, users with one of the roles and explicit users, without duplicates
+    private List<Integer> teamIds;
+    private List<Role.RoleName> roles;
+    private List<Integer> userIds;
+    private boolean excludeEmitter;
+
+}
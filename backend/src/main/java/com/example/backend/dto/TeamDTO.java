@@ -1,6 +1,7 @@
 package com.example.backend.dto;
 
 import com.example.backend.model.Criteria;
+import com.example.backend.model.FormationStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
@@ -27,5 +28,7 @@ public class TeamDTO {
     private String[] names;
     private int numberOfTeams;
     private int numberOfGirlsPerTeam;
+    private FormationStrategy strategy;
+    private Integer budgetMillis;
 
 }
@@ -0,0 +1,29 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TeamFormationReportDTO {
+
+    private int numberOfStudents;
+    private int numberOfTeams;
+    private int minTeamSize;
+    private int maxTeamSize;
+    private int minGirls;
+    private int maxGirls;
+    private int minBachelors;
+    private int maxBachelors;
+    private double spread;
+    private double threshold;
+    private long swaps;
+    private long elapsedMillis;
+    private boolean budgetExhausted;
+    private List<Double> dimensionSpreads;
+
+}
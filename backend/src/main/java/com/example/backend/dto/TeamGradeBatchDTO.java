@@ -0,0 +1,19 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TeamGradeBatchDTO {
+
+    private int sprintId;
+    private int evaluatorId;
+    private Integer gradeScaleId;
+    private List<TeamGradeEntryDTO> grades;
+
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Criteria;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TeamPreviewDTO {
+
+    private String id;
+    private Criteria criteria;
+    private List<TeamDTO> teams;
+    private TeamFormationReportDTO report;
+
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.ProjectGrade;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TeamProjectGradesDTO {
+
+    private int teamId;
+    private int sprintId;
+    private boolean stale;
+    private List<ProjectGrade> projectGrades;
+
+}
@@ -28,6 +28,13 @@ public class UserInteract {
     private String firstName;
     private String lastName;
     private Double gradePast;
+    private Double padl;
+    private Double pdlo;
+    private Double pwnd;
+    private Double irs;
+    private Double stages7;
+    private Double s5;
+    private Double s6;
     private String email;
     private String password;
     private int supervisor;
@@ -9,7 +9,7 @@ import java.io.Serializable;
 @Setter
 @Getter
 @Entity
-@Table(name = "bonus_malus_validation")
+@Table(name = "bonus_malus_validation", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "team_id", "sprint_id"}))
 public class BMValidation implements Serializable {
 
     @Id
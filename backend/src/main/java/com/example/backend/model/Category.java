@@ -1,6 +1,8 @@
 package com.example.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,6 +15,8 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NamedQuery(name="Category.findAll", query="SELECT e FROM Category e")
 @NamedQuery(name="Category.findById", query="SELECT e FROM Category e where e.id = :id")
 @Table(name="category")
@@ -1,6 +1,8 @@
 package com.example.backend.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -14,6 +16,8 @@ import java.io.Serializable;
  */
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Table(name="criteria")
@@ -36,6 +40,10 @@ public class Criteria implements Serializable {
     @Column(name = "min_average_threshold", nullable = false)
     private double minAverageThreshold;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "strategy")
+    private FormationStrategy strategy = FormationStrategy.GREEDY;
+
     @Override
     public String toString() {
         return "Criteria{" +
@@ -43,6 +51,7 @@ public class Criteria implements Serializable {
                 ", numberOfGirls=" + numberOfGirls +
                 ", numberOfTeams=" + numberOfTeams +
                 ", numberOfBachelor=" + numberOfBachelor +
+                ", strategy=" + strategy +
                 '}';
     }
 }
@@ -0,0 +1,41 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Sous-note d'un étudiant à recalculer pour un sprint.
+ * Les identifiants sont stockés sans clé étrangère : une ligne n'est qu'une demande
+ * de recalcul, consommée puis supprimée par le moteur de calcul.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "dirty_grade", indexes = @Index(name = "idx_dirty_grade_sprint", columnList = "sprint_id, user_id"))
+public class DirtyGrade implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(name = "sprint_id", nullable = false)
+    private int sprintId;
+
+    @Column(name = "grade_type_id", nullable = false)
+    private int gradeTypeId;
+
+    public DirtyGrade() {
+    }
+
+    public DirtyGrade(int userId, int sprintId, int gradeTypeId) {
+        this.userId = userId;
+        this.sprintId = sprintId;
+        this.gradeTypeId = gradeTypeId;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.backend.model;
+
+public enum FormationStrategy {
+    GREEDY,
+    ANNEALING,
+    MULTI_DIMENSIONAL
+}
@@ -7,7 +7,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "initialgrade")
+@Table(name = "initialgrade", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "sprint_id"}))
 public class InitialGrade {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,54 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.sql.Date;
+
+/**
+ * Notification en attente d'envoi.
+ * Les lignes sont écrites dans la transaction de l'action qui les déclenche, puis transformées en
+ * notifications par NotificationDispatcher. Les identifiants sont stockés sans clé étrangère :
+ * une ligne n'est qu'une demande d'envoi, supprimée une fois la notification créée.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "notification_outbox", indexes = @Index(name = "idx_notification_outbox_ready", columnList = "next_attempt_at"))
+public class NotificationOutbox implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Notification.Status status;
+
+    @Column(name = "description", nullable = false)
+    private String description;
+
+    @Column(name = "date", nullable = false)
+    private Date date;
+
+    @Column(name = "emitter_id")
+    private Integer emitterId;
+
+    @Column(name = "receiver_id", nullable = false)
+    private int receiverId;
+
+    @Column(name = "group_id")
+    private int groupId;
+
+    // Failed dispatch attempts, the row is retried after next_attempt_at (epoch milliseconds)
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private long nextAttemptAt;
+}
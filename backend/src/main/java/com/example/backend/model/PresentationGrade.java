@@ -7,7 +7,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "presentationgrade")
+@Table(name = "presentationgrade", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "sprint_id"}))
 public class PresentationGrade {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,7 +7,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "projectgrade")
+@Table(name = "projectgrade", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "sprint_id"}))
 public class ProjectGrade {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,6 +20,9 @@ public class ProjectGrade {
 	@Column(name = "is_validated", columnDefinition = "boolean default false")
 	private boolean isValidated;
 
+	@Column(name = "is_stale", columnDefinition = "boolean default false")
+	private boolean isStale;
+
 	@OneToOne(cascade = CascadeType.ALL)
 	@JoinColumn(name = "initialgrade_id", referencedColumnName = "id")
 	private InitialGrade initialGrade;
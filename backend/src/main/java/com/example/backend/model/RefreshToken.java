@@ -0,0 +1,38 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Classe RefreshToken
+ * Bean représentant un jeton de rafraîchissement émis à la connexion. Un jeton n'est utilisable
+ * qu'une fois : il est révoqué lorsqu'il est échangé contre un nouveau.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name="refresh_token")
+public class RefreshToken implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private int id;
+
+    @Column(name = "token_id", nullable = false, unique = true)
+    private String tokenId;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+
+}
@@ -0,0 +1,35 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Classe RevokedToken
+ * Bean représentant un jeton révoqué avant son expiration. La ligne peut être supprimée une fois le
+ * jeton expiré.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name="revoked_token")
+public class RevokedToken implements Serializable {
+
+    @Id
+    @Column(name = "token_id", nullable = false)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    public RevokedToken(String tokenId, Date expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+    public RevokedToken() {
+
+    }
+}
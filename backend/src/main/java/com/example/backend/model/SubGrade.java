@@ -11,7 +11,7 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "subgrade")
+@Table(name = "subgrade", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "sprint_id", "grade_type_id"}))
 public class SubGrade {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
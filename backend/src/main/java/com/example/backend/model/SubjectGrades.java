@@ -0,0 +1,50 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Classe SubjectGrades
+ * Notes par matière importées avec l'étudiant, utilisées pour équilibrer les équipes sur chaque matière.
+ */
+@Setter
+@Getter
+@Embeddable
+public class SubjectGrades implements Serializable {
+
+    public static final int DIMENSIONS = 7;
+
+    @Column(name = "grade_padl")
+    private Double padl;
+
+    @Column(name = "grade_pdlo")
+    private Double pdlo;
+
+    @Column(name = "grade_pwnd")
+    private Double pwnd;
+
+    @Column(name = "grade_irs")
+    private Double irs;
+
+    @Column(name = "grade_stages7")
+    private Double stages7;
+
+    @Column(name = "grade_s5")
+    private Double s5;
+
+    @Column(name = "grade_s6")
+    private Double s6;
+
+    /**
+     * Retourne les notes dans l'ordre des colonnes du fichier importé.
+     *
+     * @return Les notes, null pour une matière non renseignée.
+     */
+    public Double[] values() {
+        return new Double[]{padl, pdlo, pwnd, irs, stages7, s5, s6};
+    }
+}
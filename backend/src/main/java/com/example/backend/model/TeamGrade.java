@@ -13,7 +13,7 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
-@Table(name="teamgrade")
+@Table(name="teamgrade", uniqueConstraints = @UniqueConstraint(columnNames = {"team_id", "sprint_id", "detail_id", "user_id"}))
 public class TeamGrade{
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
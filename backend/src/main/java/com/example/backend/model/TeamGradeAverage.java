@@ -0,0 +1,51 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Somme et nombre des notes d'équipe ramenées sur 20, par équipe, sprint, catégorie et évaluateur.
+ * Tenue à jour à chaque enregistrement d'une note d'équipe, elle permet d'obtenir
+ * la moyenne d'une catégorie en une seule lecture.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "team_grade_average", uniqueConstraints = @UniqueConstraint(columnNames = {"team_id", "sprint_id", "category_id", "evaluator_id"}))
+public class TeamGradeAverage implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "team_id", nullable = false)
+    private int teamId;
+
+    @Column(name = "sprint_id", nullable = false)
+    private int sprintId;
+
+    @Column(name = "category_id", nullable = false)
+    private int categoryId;
+
+    @Column(name = "evaluator_id", nullable = false)
+    private int evaluatorId;
+
+    @Column(name = "grade_sum", nullable = false)
+    private double sum;
+
+    @Column(name = "grade_count", nullable = false)
+    private long count;
+
+    public TeamGradeAverage() {
+    }
+
+    public TeamGradeAverage(int teamId, int sprintId, int categoryId, int evaluatorId) {
+        this.teamId = teamId;
+        this.sprintId = sprintId;
+        this.categoryId = categoryId;
+        this.evaluatorId = evaluatorId;
+    }
+}
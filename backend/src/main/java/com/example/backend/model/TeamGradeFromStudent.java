@@ -13,7 +13,7 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
-@Table(name="teamgradefromstudent")
+@Table(name="teamgradefromstudent", uniqueConstraints = @UniqueConstraint(columnNames = {"team_noting_id", "team_to_note_id", "sprint_id"}))
 public class TeamGradeFromStudent {
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -10,7 +10,7 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name="teamorder")
+@Table(name="teamorder", uniqueConstraints = @UniqueConstraint(columnNames = {"team_id", "sprint_id"}))
 public class TeamOrder{
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -70,6 +70,10 @@ public class User implements UserDetails {
 	@Column(name = "past_grade")
 	private Double gradePast;
 
+	@JsonIgnore
+	@Embedded
+	private SubjectGrades subjectGrades;
+
 	@JsonIgnore
 	@ManyToMany(cascade =  CascadeType.ALL)
 	@JoinTable(
@@ -85,7 +89,7 @@ public class User implements UserDetails {
 
 	@Override
     public String getUsername() {
-        return null;
+        return email;
     }
 
 	@Override
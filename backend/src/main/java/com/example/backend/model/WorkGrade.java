@@ -7,7 +7,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "workgrade")
+@Table(name = "workgrade", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "sprint_id"}))
 public class WorkGrade {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
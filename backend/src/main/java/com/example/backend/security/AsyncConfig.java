@@ -0,0 +1,75 @@
+package com.example.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Bounded executors running the grade recomputation jobs outside of the request threads,
+// the per-team computations of a job in parallel, the parallel searches of the team formation
+// and the notification outbox dispatch
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    static final int GRADE_JOB_POOL_SIZE = 2;
+    static final int GRADE_JOB_QUEUE_CAPACITY = 20;
+    static final int GRADE_COMPUTE_QUEUE_CAPACITY = 100;
+    static final int NOTIFICATION_QUEUE_CAPACITY = 1;
+    static final int TEAM_FORMATION_QUEUE_CAPACITY = 32;
+
+    @Bean(name = "gradeJobExecutor")
+    public ThreadPoolTaskExecutor gradeJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(GRADE_JOB_POOL_SIZE);
+        executor.setMaxPoolSize(GRADE_JOB_POOL_SIZE);
+        executor.setQueueCapacity(GRADE_JOB_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("grade-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // grades.recompute.parallelism <= 0 uses one thread per core; keep it below the JDBC pool size
+    @Bean(name = "gradeComputeExecutor")
+    public ThreadPoolTaskExecutor gradeComputeExecutor(@Value("${grades.recompute.parallelism:0}") int parallelism) {
+        int poolSize = resolveParallelism(parallelism);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(GRADE_COMPUTE_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("grade-compute-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // teams.formation.parallelism <= 0 uses one thread per core; restarts rejected by a full queue are skipped
+    @Bean(name = "teamFormationExecutor")
+    public ThreadPoolTaskExecutor teamFormationExecutor(@Value("${teams.formation.parallelism:0}") int parallelism) {
+        int poolSize = resolveParallelism(parallelism);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(TEAM_FORMATION_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("team-formation-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // A single dispatch thread: at most one run in progress and one queued, later wake-ups are merged into the queued run
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(NOTIFICATION_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("notification-");
+        return executor;
+    }
+
+    static int resolveParallelism(int parallelism) {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -3,6 +3,8 @@ package com.example.backend.security;
 import com.example.backend.dao.GradeTypesDao;
 import com.example.backend.dao.RoleDao;
 import com.example.backend.model.GradeTypes;
+import com.example.backend.service.ReferenceDataCache;
+import com.example.backend.service.TeamGradeService;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -20,16 +22,24 @@ public class DataInitializer {
 
     private final GradeTypesDao gradeTypesDao;
 
+    private final TeamGradeService teamGradeService;
+
+    private final ReferenceDataCache referenceDataCache;
+
     @Autowired
-    public DataInitializer(RoleDao roleRepository, GradeTypesDao gradeTypesDao) {
+    public DataInitializer(RoleDao roleRepository, GradeTypesDao gradeTypesDao, TeamGradeService teamGradeService, ReferenceDataCache referenceDataCache) {
         this.roleRepository = roleRepository;
         this.gradeTypesDao = gradeTypesDao;
+        this.teamGradeService = teamGradeService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     @PostConstruct
     public void initData() {
         initRoles();
         initGradeTypes();
+        teamGradeService.initAverages();
+        referenceDataCache.invalidateAll();
     }
 
     public void initRoles() {
@@ -3,7 +3,9 @@ package com.example.backend.security;
 
 import com.example.backend.model.User;
 import com.example.backend.service.JWTUtils;
+import com.example.backend.service.TokenStoreService;
 import com.example.backend.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.NoSuchElementException;
 
 
 @Component
@@ -24,28 +27,31 @@ public class JWTAuthFilter extends OncePerRequestFilter {
 
     private final JWTUtils jwtUtils;
     private final UserService userService;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final TokenStoreService tokenStoreService;
 
     @Autowired
-    public JWTAuthFilter(JWTUtils jwtUtils, UserService userService) {
+    public JWTAuthFilter(JWTUtils jwtUtils, UserService userService, TokenAuthenticationCache tokenAuthenticationCache,
+                         TokenStoreService tokenStoreService) {
         this.jwtUtils = jwtUtils;
         this.userService = userService;
+        this.tokenAuthenticationCache = tokenAuthenticationCache;
+        this.tokenStoreService = tokenStoreService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final  String jwtToken;
-        final String userEmail;
         if (authHeader == null || authHeader.isBlank()) {
             filterChain.doFilter(request, response);
             return;
         }
         jwtToken = authHeader.substring(7);
-        userEmail = jwtUtils.extractEmail(jwtToken);
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userService.loadUserByEmail(userEmail);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            User user = authenticate(jwtToken);
 
-            if (jwtUtils.isTokenValid(jwtToken, user)) {
+            if (user != null) {
                 SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
                 UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
                         user, null, user.getAuthorities()
@@ -57,4 +63,38 @@ public class JWTAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Authentifie un token : depuis le cache s'il a déjà été vérifié, sinon en vérifiant sa signature
+     * une seule fois et en construisant l'utilisateur à partir de ses claims. Un token émis avant l'ajout
+     * des claims, donc sans identifiant, est résolu en base par son email. Un token révoqué est refusé, y compris depuis le cache ;
+     * cette vérification se fait en mémoire.
+     *
+     * @param jwtToken Le token.
+     * @return L'utilisateur authentifié, ou null si le token est invalide ou révoqué.
+     */
+    private User authenticate(String jwtToken) {
+        TokenAuthenticationCache.VerifiedToken verified = tokenAuthenticationCache.get(jwtToken);
+        if (verified != null) {
+            return tokenStoreService.isRevoked(verified.id()) ? null : verified.principal();
+        }
+        Claims claims = jwtUtils.parseToken(jwtToken);
+        if (claims == null || claims.getSubject() == null || tokenStoreService.isRevoked(claims.getId())) {
+            return null;
+        }
+        User user = jwtUtils.extractPrincipal(claims);
+        if (user == null) {
+            if (claims.getId() != null) {
+                // Jeton de rafraîchissement : il ne permet pas d'accéder à l'API
+                return null;
+            }
+            try {
+                user = userService.loadUserByEmail(claims.getSubject());
+            } catch (NoSuchElementException e) {
+                return null;
+            }
+        }
+        tokenAuthenticationCache.put(jwtToken, user, claims.getId(), claims.getExpiration());
+        return user;
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.backend.security;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Configuration to group inserts and updates in JDBC batches and to keep read-mostly entities in a local
+// second-level cache, unless overridden in application.properties
+@Configuration
+public class PersistenceConfig {
+
+    static final String BATCH_SIZE = "hibernate.jdbc.batch_size";
+    static final String ORDER_INSERTS = "hibernate.order_inserts";
+    static final String ORDER_UPDATES = "hibernate.order_updates";
+    static final String USE_SECOND_LEVEL_CACHE = "hibernate.cache.use_second_level_cache";
+    static final String USE_QUERY_CACHE = "hibernate.cache.use_query_cache";
+    static final String REGION_FACTORY = "hibernate.cache.region.factory_class";
+    static final String CACHE_PROVIDER = "hibernate.javax.cache.provider";
+    static final String MISSING_CACHE_STRATEGY = "hibernate.javax.cache.missing_cache_strategy";
+    static final String SHARED_CACHE_MODE = "jakarta.persistence.sharedCache.mode";
+    static final String GENERATE_STATISTICS = "hibernate.generate_statistics";
+    static final String CAFFEINE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @Bean
+    public HibernatePropertiesCustomizer batchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(BATCH_SIZE, 50);
+            properties.putIfAbsent(ORDER_INSERTS, true);
+            properties.putIfAbsent(ORDER_UPDATES, true);
+        };
+    }
+
+    // Only entities annotated with @Cacheable are cached; the caches are created in memory on first use
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(USE_SECOND_LEVEL_CACHE, true);
+            properties.putIfAbsent(USE_QUERY_CACHE, true);
+            properties.putIfAbsent(REGION_FACTORY, "jcache");
+            properties.putIfAbsent(CACHE_PROVIDER, CAFFEINE_PROVIDER);
+            properties.putIfAbsent(MISSING_CACHE_STRATEGY, "create");
+            properties.putIfAbsent(SHARED_CACHE_MODE, "ENABLE_SELECTIVE");
+            properties.putIfAbsent(GENERATE_STATISTICS, true);
+        };
+    }
+}
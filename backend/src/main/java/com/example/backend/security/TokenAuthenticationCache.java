@@ -0,0 +1,122 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache des tokens déjà vérifiés.
+ * Un token vérifié est conservé quelques minutes, sans dépasser son expiration, afin que les requêtes
+ * suivantes d'une même session ne vérifient plus sa signature. Les tokens sont indexés par leur
+ * empreinte SHA-256 et ne sont jamais conservés en clair.
+ */
+@Component
+public class TokenAuthenticationCache {
+
+    static final long TTL_MILLIS = 5 * 60 * 1000L;
+    static final int MAX_ENTRIES = 10000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    /**
+     * Constructeur de la classe TokenAuthenticationCache.
+     */
+    public TokenAuthenticationCache() {
+        this(System::currentTimeMillis);
+    }
+
+    TokenAuthenticationCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Récupère un token déjà vérifié.
+     *
+     * @param token Le token.
+     * @return L'utilisateur authentifié et l'identifiant du token, ou null si le token n'est pas en cache
+     * ou si son entrée a expiré.
+     */
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.token();
+    }
+
+    /**
+     * Conserve l'utilisateur authentifié par un token vérifié.
+     *
+     * @param token Le token.
+     * @param principal L'utilisateur authentifié.
+     * @param tokenId L'identifiant du token, ou null s'il n'en a pas.
+     * @param expiration L'expiration du token, ou null s'il n'en a pas.
+     */
+    public void put(String token, User principal, String tokenId, Date expiration) {
+        long now = clock.getAsLong();
+        long expiresAt = now + TTL_MILLIS;
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.clear();
+            }
+        }
+        entries.put(hash(token), new Entry(new VerifiedToken(principal, tokenId), expiresAt));
+    }
+
+    /**
+     * Vide le cache.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Token vérifié : l'utilisateur authentifié et l'identifiant du token, vérifié contre la liste des
+     * tokens révoqués à chaque requête.
+     *
+     * @param principal L'utilisateur authentifié.
+     * @param id L'identifiant du token, ou null s'il n'en a pas.
+     */
+    public record VerifiedToken(User principal, String id) {
+    }
+
+    /**
+     * Token vérifié et échéance de l'entrée.
+     */
+    private record Entry(VerifiedToken token, long expiresAt) {
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.Objects;
 
 /**
@@ -26,6 +25,7 @@ public class AuthService {
     private final JWTUtils jwtUtils;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
+    private final TokenStoreService tokenStoreService;
     @Value("${default.password}")
     private String defaultPassword;
 
@@ -36,13 +36,16 @@ public class AuthService {
      * @param jwtUtils    Le service de gestion des jetons JWT.
      * @param passwordEncoder Le service de cryptage des mots de passe.
      * @param authenticationManager Le service de gestion de l'authentification.
+     * @param tokenStoreService Le service de gestion des jetons émis.
      */
     @Autowired
-    public AuthService(UserService userService, JWTUtils jwtUtils, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager) {
+    public AuthService(UserService userService, JWTUtils jwtUtils, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager,
+                       TokenStoreService tokenStoreService) {
         this.userService = userService;
         this.jwtUtils = jwtUtils;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
+        this.tokenStoreService = tokenStoreService;
     }
 
     /**
@@ -96,7 +99,7 @@ public class AuthService {
             authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(signinRequest.getEmail(),signinRequest.getPassword()));
             var user = userService.loadUserByEmail(signinRequest.getEmail());
             var jwt = jwtUtils.generateToken(user);
-            var refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), user);
+            var refreshToken = tokenStoreService.issueRefreshToken(user);
             response.setStatusCode(200);
             response.setToken(jwt);
             response.setRefreshToken(refreshToken);
@@ -138,20 +141,21 @@ public class AuthService {
 
     /**
      * Rafraîchit le jeton JWT d'un utilisateur.
-     * Un nouveau jeton JWT est généré si le jeton de rafraîchissement est valide.
+     * Un nouveau jeton JWT est généré si le jeton de rafraîchissement est valide et n'a pas encore été
+     * utilisé ; il est alors remplacé par un nouveau jeton de rafraîchissement.
      *
      * @param refreshTokenRequest La demande de rafraîchissement du jeton contenant le jeton de rafraîchissement.
      * @return Un objet UserInteract contenant le nouveau jeton JWT et d'autres informations ou une erreur.
      */
     public UserInteract refreshToken(UserInteract refreshTokenRequest) {
         UserInteract response = new UserInteract();
-        String ourEmail = jwtUtils.extractEmail(refreshTokenRequest.getToken());
-        User user = userService.loadUserByEmail(ourEmail);
-        if (jwtUtils.isTokenValid(refreshTokenRequest.getToken(), user)) {
+        Claims claims = jwtUtils.parseToken(refreshTokenRequest.getToken());
+        if (claims != null && tokenStoreService.consumeRefreshToken(claims)) {
+            User user = userService.loadUserByEmail(claims.getSubject());
             var jwt = jwtUtils.generateToken(user);
             response.setStatusCode(200);
             response.setToken(jwt);
-            response.setRefreshToken(refreshTokenRequest.getToken());
+            response.setRefreshToken(tokenStoreService.issueRefreshToken(user));
             response.setExpirationTime("24Hr");
             response.setMessage("Successfully Refreshed Token");
         } else {
@@ -161,13 +165,23 @@ public class AuthService {
         return response;
     }
 
+    /**
+     * Déconnecte un utilisateur en révoquant son jeton d'accès et son jeton de rafraîchissement.
+     *
+     * @param accessToken Le jeton d'accès.
+     * @param refreshToken Le jeton de rafraîchissement, ou null.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        tokenStoreService.logout(accessToken, refreshToken);
+    }
+
     /**
      * Récupère un utilisateur à partir d'un jeton JWT.
      *
      * @param token Le jeton JWT.
      * @return L'utilisateur correspondant au jeton JWT.
      * @throws IllegalArgumentException Si le jeton est null ou vide.
-     * @throws EntityNotFoundException Si l'utilisateur n'est pas trouvé.
+     * @throws EntityNotFoundException Si l'utilisateur n'est pas trouvé ou si le jeton a été révoqué.
      */
     public User getUserFromToken(String token) {
         if (token == null || token.isEmpty()) {
@@ -175,6 +189,9 @@ public class AuthService {
         }
         try {
             Claims claims = Jwts.parser().verifyWith(jwtUtils.getKey()).build().parseSignedClaims(token).getPayload();
+            if (tokenStoreService.isRevoked(claims.getId())) {
+                throw new EntityNotFoundException("Token revoked");
+            }
             String email = claims.getSubject();
 
             return userService.loadUserByEmail(email);
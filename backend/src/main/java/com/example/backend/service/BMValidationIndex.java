@@ -0,0 +1,181 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.BMValidationDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index en mémoire des validations de bonus et malus : pour chaque sprint, l'ensemble des membres de
+ * chaque équipe ayant validé la répartition.
+ * Un sprint est chargé en une seule requête au premier accès, puis tenu à jour à chaque validation
+ * enregistrée ou supprimée ; savoir si toute une équipe a validé ne demande plus aucune requête.
+ */
+@Service
+public class BMValidationIndex {
+
+    private final BMValidationDao bmValidationDao;
+    private final Map<Integer, Map<Integer, Set<Integer>>> validatedBySprint = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructeur de la classe BMValidationIndex.
+     *
+     * @param bmValidationDao Le DAO des validations de bonus et malus.
+     */
+    @Autowired
+    public BMValidationIndex(BMValidationDao bmValidationDao) {
+        this.bmValidationDao = bmValidationDao;
+    }
+
+    /**
+     * Vérifie si un utilisateur a validé les bonus et malus de son équipe.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return true si l'utilisateur a validé, false sinon.
+     */
+    public boolean hasValidated(int userId, int teamId, int sprintId) {
+        Set<Integer> validated = sprint(sprintId).get(teamId);
+        return validated != null && validated.contains(userId);
+    }
+
+    /**
+     * Vérifie si tous les membres d'une équipe ont validé les bonus et malus.
+     *
+     * @param memberIds Les identifiants des membres de l'équipe.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return true si tous les membres ont validé, false sinon.
+     */
+    public boolean allValidated(Collection<Integer> memberIds, int teamId, int sprintId) {
+        Set<Integer> validated = sprint(sprintId).getOrDefault(teamId, Collections.emptySet());
+        return validated.size() >= memberIds.size() && validated.containsAll(memberIds);
+    }
+
+    /**
+     * Récupère les membres d'une équipe ayant validé les bonus et malus.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return Les identifiants des membres ayant validé.
+     */
+    public Set<Integer> getValidatedBy(int teamId, int sprintId) {
+        return Set.copyOf(sprint(sprintId).getOrDefault(teamId, Collections.emptySet()));
+    }
+
+    /**
+     * Enregistre la validation d'un utilisateur, après l'insertion de la ligne correspondante.
+     * Si une transaction est en cours, l'index n'est mis à jour qu'une fois celle-ci validée.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     */
+    public void recordValidation(int userId, int teamId, int sprintId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addValidation(userId, teamId, sprintId);
+                }
+            });
+        } else {
+            addValidation(userId, teamId, sprintId);
+        }
+    }
+
+    /**
+     * Ajoute une validation au sprint chargé, s'il l'est.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     */
+    private synchronized void addValidation(int userId, int teamId, int sprintId) {
+        generation.incrementAndGet();
+        Map<Integer, Set<Integer>> teams = validatedBySprint.get(sprintId);
+        if (teams != null) {
+            teams.computeIfAbsent(teamId, k -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+    }
+
+    /**
+     * Oublie les validations d'une équipe, après la suppression des lignes correspondantes.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     */
+    public void clear(int teamId, int sprintId) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            Map<Integer, Set<Integer>> teams = validatedBySprint.get(sprintId);
+            if (teams != null) {
+                teams.remove(teamId);
+            }
+        }
+        reloadAfterCompletion(sprintId);
+    }
+
+    /**
+     * Vide l'index après une suppression globale des validations.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            generation.incrementAndGet();
+            validatedBySprint.clear();
+        }
+    }
+
+    /**
+     * Si une transaction est en cours, oublie le sprint à sa fin afin qu'il soit relu une fois la
+     * modification validée ou annulée.
+     *
+     * @param sprintId L'identifiant du sprint.
+     */
+    private void reloadAfterCompletion(int sprintId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    synchronized (BMValidationIndex.this) {
+                        generation.incrementAndGet();
+                        validatedBySprint.remove(sprintId);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Retourne les validations d'un sprint, en les chargeant si nécessaire. Des validations chargées
+     * pendant une modification ne sont pas conservées.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @return Les membres ayant validé, par équipe.
+     */
+    private Map<Integer, Set<Integer>> sprint(int sprintId) {
+        Map<Integer, Set<Integer>> current = validatedBySprint.get(sprintId);
+        if (current != null) {
+            return current;
+        }
+        long loadedGeneration = generation.get();
+        Map<Integer, Set<Integer>> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : bmValidationDao.findAllTeamAndUserIdsBySprintId(sprintId)) {
+            loaded.computeIfAbsent((Integer) row[0], k -> ConcurrentHashMap.newKeySet()).add((Integer) row[1]);
+        }
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                current = validatedBySprint.putIfAbsent(sprintId, loaded);
+                return current != null ? current : loaded;
+            }
+        }
+        return loaded;
+    }
+}
@@ -2,12 +2,15 @@ package com.example.backend.service;
 
 import com.example.backend.dao.BMValidationDao;
 import com.example.backend.dao.BonusMalusDao;
+import com.example.backend.dto.BMValidationStatusDTO;
 import com.example.backend.dto.BonusMalusDTO;
+import com.example.backend.dto.NotificationDTO;
 import com.example.backend.model.*;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -19,38 +22,31 @@ public class BonusMalusService {
 
     private final BonusMalusDao bonusMalusDao;
     private final BMValidationDao bmValidationDao;
+    private final BMValidationIndex bmValidationIndex;
     private final TeamService teamService;
     private final SprintService sprintService;
     private final NotificationService notificationService;
+    private final GradeStalenessService gradeStalenessService;
 
     /**
      * Constructeur de la classe BonusMalusService.
      *
      * @param bonusMalusDao Le DAO des bonus et malus.
      * @param bmValidationDao Le DAO des validations de bonus et malus.
+     * @param bmValidationIndex L'index des validations de bonus et malus.
      * @param teamService Le service d'équipe.
      * @param sprintService Le service de sprint.
      * @param notificationService Le service de notification.
+     * @param gradeStalenessService Le service de suivi des notes à recalculer.
      */
-    public BonusMalusService(BonusMalusDao bonusMalusDao, BMValidationDao bmValidationDao, TeamService teamService, SprintService sprintService, NotificationService notificationService) {
+    public BonusMalusService(BonusMalusDao bonusMalusDao, BMValidationDao bmValidationDao, BMValidationIndex bmValidationIndex, TeamService teamService, SprintService sprintService, NotificationService notificationService, GradeStalenessService gradeStalenessService) {
         this.bonusMalusDao = bonusMalusDao;
         this.bmValidationDao = bmValidationDao;
+        this.bmValidationIndex = bmValidationIndex;
         this.teamService = teamService;
         this.sprintService = sprintService;
         this.notificationService = notificationService;
-    }
-
-    /**
-     * Vérifie si un utilisateur a validé les bonus et malus.
-     *
-     * @param userId L'identifiant de l'utilisateur.
-     * @param teamId L'identifiant de l'équipe.
-     * @param sprintId L'identifiant du sprint.
-     * @return true si l'utilisateur a validé les bonus et malus, false sinon.
-     */
-    private boolean isUserValidatedBonusMalus(int userId, int teamId, int sprintId) {
-        BMValidation bmV = bmValidationDao.findByUserIdAndTeamIdAndSprintId(userId, teamId, sprintId);
-        return bmV != null && bmV.getUser().getId() == userId && bmV.getTeam().getId() == teamId;
+        this.gradeStalenessService = gradeStalenessService;
     }
 
     /**
@@ -61,36 +57,23 @@ public class BonusMalusService {
      * @return true si tous les utilisateurs ont validé les bonus et malus, false sinon.
      */
     private boolean isAllUsersValidateBm(int teamId, int sprintId) {
-        boolean allUsersValidated = true;
-        List<User> usersInTeam = teamService.getTeamMembers(teamId);
-        for (User u : usersInTeam) {
-            if (!isUserValidatedBonusMalus(u.getId(), teamId, sprintId)) {
-                allUsersValidated = false;
-                break;
-            }
-        }
-        return allUsersValidated;
+        return bmValidationIndex.allValidated(teamService.getTeamMemberIds(teamId), teamId, sprintId);
     }
 
     /**
-     * Convertit un BonusMalus en BonusMalusDTO.
+     * Prépare la ligne à enregistrer pour un bonus/malus reçu.
      *
-     * @param bm Le BonusMalus à convertir.
-     * @return Le BonusMalusDTO converti.
+     * @param bmDTO Le bonus/malus reçu.
+     * @param status Le statut du bonus/malus.
+     * @param isUnlimited true si le bonus/malus est illimité, false sinon.
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @param currentUser L'utilisateur qui attribue le bonus/malus.
+     * @return Le bonus/malus à enregistrer, sans identifiant.
      */
-    private BonusMalusDTO convertToDTO(BonusMalus bm) {
-        BonusMalusDTO bmDTO = new BonusMalusDTO();
-        bmDTO.setId(bm.getId());
-        bmDTO.setValue(bm.getValue());
-        bmDTO.setComment(bm.getComment());
-        bmDTO.setStatus(bm.getStatus().toString());
-        bmDTO.setUnlimited(bm.isUnlimited());
-        bmDTO.setAttributedBy(bm.getAttributedBy().getId());
-        bmDTO.setAttributedTo(bm.getAttributedTo().getId());
-        bmDTO.setTeamId(bm.getTeam().getId());
-        bmDTO.setSprintId(bm.getSprint().getId());
-
-        return bmDTO;
+    private BonusMalusDTO toRow(BonusMalusDTO bmDTO, BonusMalus.BonusMalusStatus status, boolean isUnlimited, int teamId, int sprintId, User currentUser) {
+        return new BonusMalusDTO(0, bmDTO.getValue(), bmDTO.getComment(), status, isUnlimited,
+                bmDTO.getAttributedTo(), currentUser.getId(), teamId, sprintId);
     }
 
     /**
@@ -101,22 +84,10 @@ public class BonusMalusService {
      * @param isForNewBm true si la notification est pour de nouveaux bonus et malus, false sinon.
      */
     private void notifyTeam(int teamId, User emitter, boolean isForNewBm) {
-        List<User> usersInTeam = teamService.getTeamMembers(teamId);
-
-        for(User user : usersInTeam) {
-            Notification notif = new Notification();
-            notif.setEmitter(emitter);
-            notif.setReceiver(user);
-            notif.setType("Bonus/Malus");
-            notif.setStatus(Notification.Status.UNREAD);
-            notif.setGroupId(0);
-            if(isForNewBm) {
-                notif.setDescription("Une nouvelle répartition de bonus et malus équitable a été effectuée.");
-            } else {
-                notif.setDescription("Les bonus et malus distribués ont été validés par tous les membres de votre équipe.");
-            }
-            notificationService.createNotification(notif);
-        }
+        String description = isForNewBm
+                ? "Une nouvelle répartition de bonus et malus équitable a été effectuée."
+                : "Les bonus et malus distribués ont été validés par tous les membres de votre équipe.";
+        notificationService.createNotifications(notificationTemplate(emitter, description), teamService.getTeamMemberIds(teamId));
     }
 
     /**
@@ -126,17 +97,29 @@ public class BonusMalusService {
      * @param emitter L'émetteur de la notification.
      */
     private void notifySupervisorNewBm(int teamId, User emitter) {
-        Team team = teamService.getTeamById(teamId);
+        Integer supervisorId = teamService.getSupervisorId(teamId);
+        if (supervisorId == null) {
+            return;
+        }
+        notificationService.createNotifications(notificationTemplate(emitter, "Des nouveaux bonus et malus ont été distribués dans votre équipe."),
+                List.of(supervisorId));
+    }
 
-        Notification notif = new Notification();
-        notif.setEmitter(emitter);
-        notif.setReceiver(team.getSupervisor());
+    /**
+     * Prépare une notification de bonus et malus.
+     *
+     * @param emitter L'émetteur de la notification.
+     * @param description Le message de la notification.
+     * @return La notification, sans receveur.
+     */
+    private NotificationDTO notificationTemplate(User emitter, String description) {
+        NotificationDTO notif = new NotificationDTO();
+        notif.setEmitterId(emitter.getId());
         notif.setType("Bonus/Malus");
         notif.setStatus(Notification.Status.UNREAD);
         notif.setGroupId(0);
-        notif.setDescription("Des nouveaux bonus et malus ont été distribués dans votre équipe.");
-
-        notificationService.createNotification(notif);
+        notif.setDescription(description);
+        return notif;
     }
 
     /**
@@ -146,19 +129,17 @@ public class BonusMalusService {
      * @return La liste des bonus et malus.
      */
     public List<List<BonusMalusDTO>> getAllBonusMalus(int sprintId) {
-        List<BonusMalus> bonusMalusList = bonusMalusDao.findAllBySprintId(sprintId);
-
-        Map<Integer, List<BonusMalusDTO>> bonusMalusByTeamId = new HashMap<>();
-        for (BonusMalus bm : bonusMalusList) {
-            int teamId = bm.getTeam().getId();
-            // Convertir BonusMalus en BonusMalusDTO
-            BonusMalusDTO bmDTO = convertToDTO(bm);
-            // Ajouter le BonusMalusDTO à la liste correspondante
-            bonusMalusByTeamId.computeIfAbsent(teamId, k -> new ArrayList<>()).add(bmDTO);
+        // Les bonus et malus arrivent triés par équipe : chaque groupe est contigu
+        List<List<BonusMalusDTO>> bonusMalusByTeam = new ArrayList<>();
+        List<BonusMalusDTO> currentTeam = null;
+        for (BonusMalusDTO bmDTO : bonusMalusDao.findDTOsBySprintId(sprintId)) {
+            if (currentTeam == null || currentTeam.get(0).getTeamId() != bmDTO.getTeamId()) {
+                currentTeam = new ArrayList<>();
+                bonusMalusByTeam.add(currentTeam);
+            }
+            currentTeam.add(bmDTO);
         }
-
-        // Retourner les valeurs du Map (listes de BonusMalusDTO classées par teamId)
-        return new ArrayList<>(bonusMalusByTeamId.values());
+        return bonusMalusByTeam;
     }
 
     /**
@@ -169,16 +150,7 @@ public class BonusMalusService {
      * @return La liste des bonus et malus illimités.
      */
     public List<BonusMalusDTO> getUBmByTeamAndSprint(int teamId, int sprintId) {
-        List<BonusMalus> bonusMalusList = bonusMalusDao.findAllByTeamIdAndSprintId(teamId, sprintId);
-        List<BonusMalusDTO> bonusMalusDTOList = new ArrayList<>();
-
-        for (BonusMalus bm : bonusMalusList) {
-            if(bm.isUnlimited()) {
-                BonusMalusDTO bmDTO = convertToDTO(bm);
-                bonusMalusDTOList.add(bmDTO);
-            }
-        }
-        return bonusMalusDTOList;
+        return bonusMalusDao.findDTOsByTeamIdAndSprintIdAndIsUnlimited(teamId, sprintId, true);
     }
 
     /**
@@ -189,20 +161,12 @@ public class BonusMalusService {
      * @return La liste des bonus et malus limités.
      */
     public List<BonusMalusDTO> getLBmByTeamAndSprint(int teamId, int sprintId) {
-        List<BonusMalus> bonusMalusList = bonusMalusDao.findAllByTeamIdAndSprintId(teamId, sprintId);
-        List<BonusMalusDTO> bonusMalusDTOList = new ArrayList<>();
-
-        for (BonusMalus bm : bonusMalusList) {
-            if(!bm.isUnlimited()) {
-                BonusMalusDTO bmDTO = convertToDTO(bm);
-                bonusMalusDTOList.add(bmDTO);
-            }
-        }
-        return bonusMalusDTOList;
+        return bonusMalusDao.findDTOsByTeamIdAndSprintIdAndIsUnlimited(teamId, sprintId, false);
     }
 
     /**
      * Ajoute des bonus et malus par équipe.
+     * Les bonus/malus illimités déjà attribués aux mêmes utilisateurs pour ce sprint sont remplacés.
      *
      * @param teamId L'identifiant de l'équipe.
      * @param sprintId L'identifiant du sprint.
@@ -210,48 +174,34 @@ public class BonusMalusService {
      * @return La liste des bonus et malus ajoutés.
      */
     private List<BonusMalusDTO> addBmByTeamAsSS(List<BonusMalusDTO> bonusMalusList, int teamId, int sprintId, User currentUser) {
-        Team team = teamService.getTeamById(teamId);
-        if (team == null) {
-            throw new EntityNotFoundException("Team with id " + teamId + " doesn't exist.");
+        // Un seul bonus/malus illimité par utilisateur : le dernier de la liste l'emporte
+        Map<Integer, BonusMalusDTO> rowsByUser = new LinkedHashMap<>();
+        for (BonusMalusDTO bmDTO : bonusMalusList) {
+            rowsByUser.put(bmDTO.getAttributedTo(), toRow(bmDTO, BonusMalus.BonusMalusStatus.VALIDATED, true, teamId, sprintId, currentUser));
         }
-        BonusMalus.BonusMalusStatus status = BonusMalus.BonusMalusStatus.VALIDATED;
-
-        Sprint sprint = sprintService.getSprintById(sprintId);
+        // To be sure every userId "attributedTo" passed in body is in the team
+        teamService.checkMembers(teamId, rowsByUser.keySet());
+        sprintService.getSprintById(sprintId);
 
-        List<BonusMalus> list = new ArrayList<>();
-        for (BonusMalusDTO bmDTO : bonusMalusList) {
-            // To be sure userId "attributedTo" passed in body is in the team
-            User attributedTo = teamService.getOneUserInTeam(bmDTO.getAttributedTo(), team.getId());
-
-            // Check if BonusMalus already exists for this user and sprint
-            BonusMalus existingBm = bonusMalusDao.findByAttributedToIdAndSprintIdAndIsUnlimited(attributedTo.getId(), sprintId, true);
-            BonusMalus bm;
-            bm = Objects.requireNonNullElseGet(existingBm, BonusMalus::new);
-
-            bm.setStatus(status);
-            bm.setTeam(team);
-            bm.setSprint(sprint);
-            bm.setAttributedBy(currentUser);
-            bm.setAttributedTo(attributedTo);
-            bm.setValue(bmDTO.getValue());
-            bm.setComment(bmDTO.getComment());
-            bm.setUnlimited(true);
-
-            BonusMalus savedBm = bonusMalusDao.save(bm);
-            list.add(savedBm);
+        // Reuse the ids of the existing rows so that they are updated instead of duplicated
+        for (Object[] row : bonusMalusDao.findAttributedToAndIdsBySprintIdAndIsUnlimited(rowsByUser.keySet(), sprintId, true)) {
+            rowsByUser.get((Integer) row[0]).setId((Integer) row[1]);
         }
+        bonusMalusDao.upsertAll(rowsByUser.values());
+        gradeStalenessService.markTeamStale(teamId, sprintId, GradeTypes.GradeTypesEnum.SSBM.getId());
 
         List<BonusMalusDTO> dtoList = new ArrayList<>();
-        for (BonusMalus bm : list) {
-            BonusMalusDTO bmDTO = convertToDTO(bm);
-            dtoList.add(bmDTO);
+        for (BonusMalusDTO bmDTO : bonusMalusDao.findDTOsByTeamIdAndSprintIdAndIsUnlimited(teamId, sprintId, true)) {
+            if (rowsByUser.containsKey(bmDTO.getAttributedTo())) {
+                dtoList.add(bmDTO);
+            }
         }
-
         return dtoList;
     }
 
     /**
      * Ajoute des bonus et malus par utilisateur.
+     * Les bonus/malus en attente de l'équipe et leurs validations sont remplacés.
      *
      * @param bonusMalusList La liste des bonus et malus à ajouter.
      * @param userId L'identifiant de l'utilisateur.
@@ -260,50 +210,34 @@ public class BonusMalusService {
      * @return La liste des bonus et malus ajoutés.
      */
     private List<BonusMalusDTO> addBmByTeamAsOS(List<BonusMalusDTO> bonusMalusList, int userId, int sprintId, User currentUser) {
-        Team team = teamService.getTeamByUserId(userId);
-        if (team == null) {
-            throw new EntityNotFoundException("Team for userId " + userId + " doesn't exist.");
-        }
-        BonusMalus.BonusMalusStatus status = BonusMalus.BonusMalusStatus.PENDING;
-
-        Sprint sprint = sprintService.getSprintById(sprintId);
-        deleteAllPendingByTeamId(team.getId(), sprintId);
-
-        List<BonusMalus> list = new ArrayList<>();
         float totalValue = 0;
         for (BonusMalusDTO bmDTO : bonusMalusList) {
-            // To be sure userId "attributedTo" passed in body is in the team
-            User attributedTo = teamService.getOneUserInTeam(bmDTO.getAttributedTo(), team.getId());
-            BonusMalus bm = new BonusMalus();
-
-            bm.setStatus(status);
-            bm.setTeam(team);
-            bm.setSprint(sprint);
-            bm.setAttributedBy(currentUser);
-            bm.setAttributedTo(attributedTo);
-            bm.setValue(bmDTO.getValue());
             totalValue += bmDTO.getValue();
-            bm.setComment(bmDTO.getComment());
-            bm.setUnlimited(false);
-
-            list.add(bm);
         }
-
         if (totalValue != 0) {
             throw new IllegalArgumentException("The total value of bonus/malus must be zero for non-SS users.");
         }
 
-        List<BonusMalus> savedBonusMalus = bonusMalusDao.saveAll(list);
+        Team team = teamService.getTeamByUserId(userId);
+        if (team == null) {
+            throw new EntityNotFoundException("Team for userId " + userId + " doesn't exist.");
+        }
+        List<BonusMalusDTO> rows = new ArrayList<>();
+        Set<Integer> attributedTo = new HashSet<>();
+        for (BonusMalusDTO bmDTO : bonusMalusList) {
+            rows.add(toRow(bmDTO, BonusMalus.BonusMalusStatus.PENDING, false, team.getId(), sprintId, currentUser));
+            attributedTo.add(bmDTO.getAttributedTo());
+        }
+        // To be sure every userId "attributedTo" passed in body is in the team
+        teamService.checkMembers(team.getId(), attributedTo);
+        sprintService.getSprintById(sprintId);
+
+        deleteAllPendingByTeamId(team.getId(), sprintId);
+        bonusMalusDao.upsertAll(rows);
         notifyTeam(team.getId(), currentUser, true);
         notifySupervisorNewBm(team.getId(), currentUser);
 
-        List<BonusMalusDTO> dtoList = new ArrayList<>();
-        for (BonusMalus bm : savedBonusMalus) {
-            BonusMalusDTO bmDTO = convertToDTO(bm);
-            dtoList.add(bmDTO);
-        }
-
-        return dtoList;
+        return bonusMalusDao.findDTOsByTeamIdAndSprintIdAndStatus(team.getId(), sprintId, BonusMalus.BonusMalusStatus.PENDING);
     }
 
     /**
@@ -314,6 +248,7 @@ public class BonusMalusService {
      * @param bonusMalusList La liste des bonus et malus à ajouter.
      * @return La liste des bonus et malus ajoutés.
      */
+    @Transactional
     public List<BonusMalusDTO> addBonusMalusByTeam(int teamId, int sprintId, List<BonusMalusDTO> bonusMalusList) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
@@ -335,6 +270,7 @@ public class BonusMalusService {
      * @param teamId L'identifiant de l'équipe.
      * @param sprintId L'identifiant du sprint.
      */
+    @Transactional
     public void validateTeamBM(int teamId, int sprintId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User currentUser = (User) authentication.getPrincipal();
@@ -354,14 +290,10 @@ public class BonusMalusService {
         if (team == null) {
             throw new EntityNotFoundException("Team doesn't exist.");
         }
-        // if user who did the request is an OS, add BM validation
-        if(!isSS) {
-            BMValidation bmValidation = new BMValidation();
-            bmValidation.setTeam(team);
-            bmValidation.setSprint(sprint);
-            bmValidation.setUser(currentUser);
-
-            bmValidationDao.save(bmValidation);
+        // if user who did the request is an OS, add BM validation, once
+        if(!isSS && !bmValidationIndex.hasValidated(userId, team.getId(), sprint.getId())) {
+            bmValidationDao.insertIfAbsent(userId, team.getId(), sprint.getId());
+            bmValidationIndex.recordValidation(userId, team.getId(), sprint.getId());
         }
 
         if (isAllUsersValidateBm(team.getId(), sprint.getId())) {
@@ -374,6 +306,7 @@ public class BonusMalusService {
                     bm.setStatus(BonusMalus.BonusMalusStatus.VALIDATED);
                 }
                 bonusMalusDao.saveAll(list);
+                gradeStalenessService.markTeamStale(team.getId(), sprint.getId(), GradeTypes.GradeTypesEnum.SSBM.getId(), GradeTypes.GradeTypesEnum.TEBM.getId());
             }
         }
 
@@ -387,16 +320,37 @@ public class BonusMalusService {
      * @return La liste des membres qui ont validé les bonus et malus.
      */
     public List<Integer> getMembersWhoValidateBM(int teamId, int sprintId) {
-        List<User> usersInTeam = teamService.getTeamMembers(teamId);
+        Set<Integer> validated = bmValidationIndex.getValidatedBy(teamId, sprintId);
         List<Integer> validatedBy = new ArrayList<>();
-        for(User user : usersInTeam) {
-            if(isUserValidatedBonusMalus(user.getId(), teamId, sprintId)) {
-                validatedBy.add(user.getId());
+        for(int memberId : teamService.getTeamMemberIds(teamId)) {
+            if(validated.contains(memberId)) {
+                validatedBy.add(memberId);
             }
         }
          return validatedBy;
     }
 
+    /**
+     * Récupère l'état de validation des bonus et malus de toutes les équipes pour un sprint.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @return L'état de validation de chaque équipe.
+     */
+    public List<BMValidationStatusDTO> getValidationStatus(int sprintId) {
+        List<BMValidationStatusDTO> statuses = new ArrayList<>();
+        for (int teamId : teamService.getTeamIds()) {
+            List<Integer> memberIds = teamService.getTeamMemberIds(teamId);
+            Set<Integer> validated = bmValidationIndex.getValidatedBy(teamId, sprintId);
+            BMValidationStatusDTO status = new BMValidationStatusDTO();
+            status.setTeamId(teamId);
+            status.setMemberIds(memberIds);
+            status.setValidatedBy(memberIds.stream().filter(validated::contains).toList());
+            status.setAllValidated(validated.containsAll(memberIds));
+            statuses.add(status);
+        }
+        return statuses;
+    }
+
     /**
      * Supprime tous les bonus et malus en attente par équipe et sprint.
      *
@@ -404,11 +358,9 @@ public class BonusMalusService {
      * @param sprintId L'identifiant du sprint.
      */
     public void deleteAllPendingByTeamId(int teamId, int sprintId) {
-        List<BonusMalus> bonusMalusList = bonusMalusDao.findAllByTeamIdAndSprintIdAndStatus(teamId, sprintId, BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalusDao.deleteAll(bonusMalusList);
-
-        List<BMValidation> bmValidationList = bmValidationDao.findAllByTeamIdAndSprintId(teamId, sprintId);
-        bmValidationDao.deleteAll(bmValidationList);
+        bonusMalusDao.deleteByTeamIdAndSprintIdAndStatus(teamId, sprintId, BonusMalus.BonusMalusStatus.PENDING);
+        bmValidationDao.deleteByTeamIdAndSprintId(teamId, sprintId);
+        bmValidationIndex.clear(teamId, sprintId);
     }
 
     /**
@@ -18,6 +18,7 @@ public class CleanupService {
 
     private final TeamOrderDao teamOrderDao;
     private final TeamGradeDao teamGradeDao;
+    private final TeamGradeAverageDao teamGradeAverageDao;
     private final TeamGradeFromStudentDao teamGradeFromStudentDao;
     private final BonusMalusDao bonusMalusDao;
     private final UserFlagDao userFlagDao;
@@ -28,6 +29,7 @@ public class CleanupService {
     private final UserDao userDao;
     private final ProjectGradeDao projectGradeDao;
     private final NotificationDao notificationDao;
+    private final NotificationOutboxDao notificationOutboxDao;
     private final RoleDao roleDao;
     private final EvaluationDao evaluationDao;
     private final CommentDao commentDao;
@@ -37,6 +39,9 @@ public class CleanupService {
     private final CategoryDao categoryDao;
     private final GradeScaleDao gradeScaleDao;
     private final SprintDao sprintDao;
+    private final TeamRoster teamRoster;
+    private final BMValidationIndex bmValidationIndex;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Supprime toutes les équipes.
@@ -47,6 +52,7 @@ public class CleanupService {
         evaluationDao.deleteAll();
         projectGradeDao.deleteAll();
         teamOrderDao.deleteAll();
+        teamGradeAverageDao.deleteAll();
         teamGradeDao.deleteAll();
         detailDao.deleteAll();
         categoryDao.deleteAll();
@@ -59,8 +65,12 @@ public class CleanupService {
         userTeamDao.deleteAll();
         teamDao.deleteAll();
         criteriaDao.deleteAll();
+        notificationOutboxDao.deleteAllInBatch();
         notificationDao.deleteAll();
         sprintDao.deleteAll();
+        teamRoster.invalidate();
+        bmValidationIndex.invalidate();
+        referenceDataCache.invalidateAll();
     }
 
     /**
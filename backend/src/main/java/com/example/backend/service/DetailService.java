@@ -2,13 +2,22 @@ package com.example.backend.service;
 
 import com.example.backend.dao.CategoryDao;
 import com.example.backend.dao.DetailDao;
+import com.example.backend.dao.TeamGradeAverageDao;
 import com.example.backend.dao.TeamGradeDao;
 import com.example.backend.dto.DetailDTO;
+import com.example.backend.model.Category;
 import com.example.backend.model.Detail;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Service de gestion des détails.
@@ -19,6 +28,8 @@ public class DetailService {
     private final DetailDao detailDao;
     private final CategoryDao categoryDao;
     private final TeamGradeDao teamGradeDao;
+    private final TeamGradeAverageDao teamGradeAverageDao;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Constructeur de la classe DetailService.
@@ -26,12 +37,16 @@ public class DetailService {
      * @param detailDao Le DAO des détails.
      * @param categoryDao Le DAO des catégories.
      * @param teamGradeDao Le DAO des notes d'équipe.
+     * @param teamGradeAverageDao Le DAO des moyennes des notes d'équipe.
+     * @param referenceDataCache Le cache des données de référence.
      */
     @Autowired
-    public DetailService(DetailDao detailDao, CategoryDao categoryDao, TeamGradeDao teamGradeDao) {
+    public DetailService(DetailDao detailDao, CategoryDao categoryDao, TeamGradeDao teamGradeDao, TeamGradeAverageDao teamGradeAverageDao, ReferenceDataCache referenceDataCache) {
         this.detailDao = detailDao;
         this.categoryDao = categoryDao;
         this.teamGradeDao = teamGradeDao;
+        this.teamGradeAverageDao = teamGradeAverageDao;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -41,22 +56,40 @@ public class DetailService {
      */
     public void createDetail(Detail detail) {
         detailDao.save(detail);
+        referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
     }
 
     /**
      * Met à jour un détail.
+     * Si son barème ou sa catégorie change, les moyennes des notes d'équipe de l'ancienne
+     * et de la nouvelle catégorie sont reconstruites à partir des notes enregistrées.
      *
      * @param id L'identifiant du détail.
      * @param newDetailData Les nouvelles données du détail.
      * @return Le détail mis à jour.
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Detail update(int id, Detail newDetailData) {
         Detail detail = detailDao.findById(id).orElseThrow(()-> new RuntimeException("Detail not found"));
+        Integer previousCategoryId = categoryId(detail.getCategory());
+        int previousMark = detail.getMark();
         detail.setName(newDetailData.getName());
         detail.setDescription(newDetailData.getDescription());
         detail.setMark(newDetailData.getMark());
         detail.setCategory(newDetailData.getCategory());
-        detailDao.save(detail);
+        detailDao.saveAndFlush(detail);
+        Integer categoryId = categoryId(detail.getCategory());
+        if (previousMark != detail.getMark() || !Objects.equals(previousCategoryId, categoryId)) {
+            Set<Integer> categoryIds = new TreeSet<>();
+            if (previousCategoryId != null) {
+                categoryIds.add(previousCategoryId);
+            }
+            if (categoryId != null) {
+                categoryIds.add(categoryId);
+            }
+            teamGradeAverageDao.rebuildByCategoryIds(categoryIds);
+        }
+        referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
         return detail;
     }
 
@@ -64,9 +97,15 @@ public class DetailService {
      * Supprime un détail par son identifiant.
      *
      * @param id L'identifiant du détail.
+     * @throws IllegalStateException Si des notes d'équipe ont déjà été attribuées sur ce détail.
      */
+    @Transactional
     public void delete(int id) {
+        if (teamGradeDao.existsByDetailId(id)) {
+            throw new IllegalStateException("Detail " + id + " already has team grades");
+        }
         detailDao.deleteById(id);
+        referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
     }
 
     /**
@@ -88,6 +127,16 @@ public class DetailService {
         return detailDao.findAll();
     }
 
+    /**
+     * Récupère plusieurs détails par leurs identifiants.
+     *
+     * @param ids Les identifiants des détails.
+     * @return La liste des détails trouvés.
+     */
+    public List<Detail> getDetailsByIds(Collection<Integer> ids) {
+        return detailDao.findAllById(ids);
+    }
+
     /**
      * Récupère les détails d'une catégorie.
      *
@@ -95,15 +144,23 @@ public class DetailService {
      * @return La liste des détails de la catégorie.
      */
     public List<Detail> getDetailsByCategoryId(int categoryId) {
-        return detailDao.findByCategoryId(categoryId);
+        List<Integer> detailIds = referenceDataCache.get(ReferenceDataCache.DETAILS, categoryId,
+                () -> detailDao.findByCategoryId(categoryId).stream().map(Detail::getId).toList());
+        List<Detail> details = new ArrayList<>(detailIds.size());
+        for (Integer detailId : detailIds) {
+            detailDao.findById(detailId).ifPresent(details::add);
+        }
+        return details;
     }
 
     /**
      * Supprime tous les détails.
      */
     public void deleteAll() {
+        teamGradeAverageDao.deleteAll();
         teamGradeDao.deleteAll();
         detailDao.deleteAll();
+        referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
     }
 
     /**
@@ -120,4 +177,14 @@ public class DetailService {
         detail.setCategory(categoryDao.findById(detailDTO.getCategoryId()).orElseThrow());
         return detail;
     }
+
+    /**
+     * Retourne l'identifiant d'une catégorie.
+     *
+     * @param category La catégorie, ou null.
+     * @return L'identifiant de la catégorie, ou null s'il n'y en a pas.
+     */
+    private static Integer categoryId(Category category) {
+        return category == null ? null : category.getId();
+    }
 }
@@ -75,7 +75,7 @@ public class EvaluationService {
      *
      * @param subGrade La sous-note.
      */
-    private void updateStatus(SubGrade subGrade) {
+    public void updateStatus(SubGrade subGrade) {
         if (allEvaluationsCompleted(subGrade)) {
             subGrade.setStatus(EvaluationStatus.COMPLETED);
         } else {
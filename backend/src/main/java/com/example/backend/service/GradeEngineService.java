@@ -0,0 +1,640 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.*;
+import com.example.backend.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Moteur de calcul des notes d'un sprint.
+ * Charge toutes les données d'un sprint en quelques requêtes, calcule en mémoire
+ * les sous-notes, notes initiales, de travail, de présentation et de projet de chaque étudiant,
+ * puis enregistre les résultats par lots.
+ * Le recalcul incrémental se limite aux sous-notes marquées à recalculer par
+ * {@link GradeStalenessService} et aux notes qui en dépendent.
+ */
+@Service
+public class GradeEngineService {
+
+    private static final Map<Integer, GradeTypes.GradeTypesEnum> GRADE_TYPES_BY_ID = new HashMap<>();
+
+    static {
+        for (GradeTypes.GradeTypesEnum type : GradeTypes.GradeTypesEnum.values()) {
+            GRADE_TYPES_BY_ID.put(type.getId(), type);
+        }
+    }
+
+    private final UserService userService;
+    private final SprintService sprintService;
+    private final SubGradeService subGradeService;
+    private final EvaluationService evaluationService;
+    private final TeamDao teamDao;
+    private final UserTeamDao userTeamDao;
+    private final DetailDao detailDao;
+    private final GradeTypesDao gradeTypesDao;
+    private final TeamGradeDao teamGradeDao;
+    private final TeamGradeFromStudentDao teamGradeFromStudentDao;
+    private final BonusMalusDao bonusMalusDao;
+    private final SubGradeDao subGradeDao;
+    private final EvaluationDao evaluationDao;
+    private final InitialGradeDao initialGradeDao;
+    private final WorkGradeDao workGradeDao;
+    private final PresentationGradeDao presentationGradeDao;
+    private final ProjectGradeDao projectGradeDao;
+    private final DirtyGradeDao dirtyGradeDao;
+
+    /**
+     * Constructeur de la classe GradeEngineService.
+     *
+     * @param userService Le service des utilisateurs.
+     * @param sprintService Le service des sprints.
+     * @param subGradeService Le service des sous-notes.
+     * @param evaluationService Le service des évaluations.
+     * @param teamDao Le DAO des équipes.
+     * @param userTeamDao Le DAO des membres des équipes.
+     * @param detailDao Le DAO des détails.
+     * @param gradeTypesDao Le DAO des types de note.
+     * @param teamGradeDao Le DAO des notes d'équipe.
+     * @param teamGradeFromStudentDao Le DAO des notes d'équipe attribuées par les étudiants.
+     * @param bonusMalusDao Le DAO des bonus/malus.
+     * @param subGradeDao Le DAO des sous-notes.
+     * @param evaluationDao Le DAO des évaluations.
+     * @param initialGradeDao Le DAO des notes initiales.
+     * @param workGradeDao Le DAO des notes de travail.
+     * @param presentationGradeDao Le DAO des notes de présentation.
+     * @param projectGradeDao Le DAO des notes de projet.
+     * @param dirtyGradeDao Le DAO des sous-notes à recalculer.
+     */
+    @Autowired
+    public GradeEngineService(UserService userService, SprintService sprintService, SubGradeService subGradeService, EvaluationService evaluationService, TeamDao teamDao, UserTeamDao userTeamDao, DetailDao detailDao, GradeTypesDao gradeTypesDao, TeamGradeDao teamGradeDao, TeamGradeFromStudentDao teamGradeFromStudentDao, BonusMalusDao bonusMalusDao, SubGradeDao subGradeDao, EvaluationDao evaluationDao, InitialGradeDao initialGradeDao, WorkGradeDao workGradeDao, PresentationGradeDao presentationGradeDao, ProjectGradeDao projectGradeDao, DirtyGradeDao dirtyGradeDao) {
+        this.userService = userService;
+        this.sprintService = sprintService;
+        this.subGradeService = subGradeService;
+        this.evaluationService = evaluationService;
+        this.teamDao = teamDao;
+        this.userTeamDao = userTeamDao;
+        this.detailDao = detailDao;
+        this.gradeTypesDao = gradeTypesDao;
+        this.teamGradeDao = teamGradeDao;
+        this.teamGradeFromStudentDao = teamGradeFromStudentDao;
+        this.bonusMalusDao = bonusMalusDao;
+        this.subGradeDao = subGradeDao;
+        this.evaluationDao = evaluationDao;
+        this.initialGradeDao = initialGradeDao;
+        this.workGradeDao = workGradeDao;
+        this.presentationGradeDao = presentationGradeDao;
+        this.projectGradeDao = projectGradeDao;
+        this.dirtyGradeDao = dirtyGradeDao;
+    }
+
+    /**
+     * Calcule et enregistre les notes de projet de tous les étudiants d'un sprint.
+     * Les étudiants sans équipe sont ignorés.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @return Les notes de projet enregistrées.
+     */
+    @Transactional
+    public List<ProjectGrade> computeSprintGrades(int sprintId) {
+        return compute(sprintId, null, null);
+    }
+
+    /**
+     * Calcule et enregistre les notes de projet des membres d'une équipe pour un sprint.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @param teamId L'identifiant de l'équipe.
+     * @return Les notes de projet enregistrées.
+     */
+    @Transactional
+    public List<ProjectGrade> computeTeamGrades(int sprintId, int teamId) {
+        return compute(sprintId, teamId, null);
+    }
+
+    /**
+     * Calcule et enregistre les notes de projet des membres d'une équipe pour un sprint,
+     * à partir de données de référence déjà chargées par {@link #loadReferenceData()}.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @param teamId L'identifiant de l'équipe.
+     * @param reference Les données de référence partagées par les équipes.
+     * @return Les notes de projet enregistrées.
+     */
+    @Transactional
+    public List<ProjectGrade> computeTeamGrades(int sprintId, int teamId, GradeReferenceData reference) {
+        return compute(sprintId, teamId, reference);
+    }
+
+    /**
+     * Charge les données communes au calcul de toutes les équipes : types de note,
+     * enseignants, encadrants des équipes et nombre d'équipes.
+     * Une tâche de recalcul les charge une seule fois puis les transmet au calcul de chaque équipe.
+     *
+     * @return Les données de référence.
+     */
+    @Transactional(readOnly = true)
+    public GradeReferenceData loadReferenceData() {
+        Map<Integer, GradeTypes> gradeTypes = new HashMap<>();
+        for (GradeTypes gradeType : gradeTypesDao.findAll()) {
+            gradeTypes.put(gradeType.getId(), gradeType);
+        }
+        List<Team> teams = teamDao.findAll();
+        Set<User> supervisors = new LinkedHashSet<>();
+        for (Team team : teams) {
+            if (team.getSupervisor() != null) {
+                supervisors.add(team.getSupervisor());
+            }
+        }
+        return new GradeReferenceData(gradeTypes, userService.getTechnicalCoaches(), userService.getAllTeachers(),
+                new ArrayList<>(supervisors), teams.size());
+    }
+
+    /**
+     * Recalcule uniquement les sous-notes marquées à recalculer pour un sprint,
+     * puis les notes initiales, de travail, de présentation et de projet qui en dépendent.
+     * Les étudiants d'une équipe sans note de projet sont entièrement calculés.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @return Les notes de projet recalculées.
+     */
+    @Transactional
+    public List<ProjectGrade> recomputeDirtyGrades(int sprintId) {
+        return recomputeDirty(sprintId, null);
+    }
+
+    /**
+     * Recalcule uniquement les sous-notes marquées à recalculer des membres d'une équipe pour un sprint,
+     * puis les notes qui en dépendent. Les membres sans note de projet sont entièrement calculés.
+     * Les autres équipes du sprint ne sont ni chargées ni recalculées.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @param teamId L'identifiant de l'équipe.
+     * @return Les notes de projet recalculées.
+     */
+    @Transactional
+    public List<ProjectGrade> recomputeDirtyGrades(int sprintId, int teamId) {
+        return recomputeDirty(sprintId, teamId);
+    }
+
+    /**
+     * Recalcule les sous-notes marquées à recalculer d'un sprint et les notes qui en dépendent.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @param teamId L'identifiant de l'équipe à recalculer, ou null pour toutes les équipes.
+     * @return Les notes de projet recalculées.
+     */
+    private List<ProjectGrade> recomputeDirty(int sprintId, Integer teamId) {
+        SprintGradeContext context = loadContext(sprintService.getSprintById(sprintId), teamId, null);
+        Set<Integer> memberIds = context.teamByUserId.keySet();
+        if (teamId != null && memberIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<DirtyGrade> dirtyGrades = teamId == null ? dirtyGradeDao.findBySprintId(sprintId) : dirtyGradeDao.findBySprintIdAndUserIdIn(sprintId, memberIds);
+        Map<Integer, Set<GradeTypes.GradeTypesEnum>> dirtyTypesByUserId = new HashMap<>();
+        for (DirtyGrade dirtyGrade : dirtyGrades) {
+            Set<GradeTypes.GradeTypesEnum> types = dirtyTypesByUserId.computeIfAbsent(dirtyGrade.getUserId(), k -> EnumSet.noneOf(GradeTypes.GradeTypesEnum.class));
+            GradeTypes.GradeTypesEnum type = GRADE_TYPES_BY_ID.get(dirtyGrade.getGradeTypeId());
+            if (type != null) {
+                types.add(type);
+            } else {
+                types.addAll(GRADE_TYPES_BY_ID.values());
+            }
+        }
+
+        for (User student : context.students) {
+            Team team = context.teamByUserId.get(student.getId());
+            if (team == null) {
+                continue;
+            }
+            Set<GradeTypes.GradeTypesEnum> dirtyTypes = dirtyTypesByUserId.get(student.getId());
+            if (!context.projectGrades.containsKey(student.getId())) {
+                computeProjectGrade(context, student, team, null);
+            } else if (dirtyTypes != null) {
+                computeProjectGrade(context, student, team, dirtyTypes);
+            }
+        }
+        dirtyGradeDao.deleteAll(dirtyGrades);
+        return saveAll(context);
+    }
+
+    /**
+     * Calcule et enregistre les notes de projet d'un sprint.
+     *
+     * @param sprintId L'identifiant du sprint.
+     * @param teamId L'identifiant de l'équipe à calculer, ou null pour toutes les équipes.
+     * @param reference Les données de référence, ou null pour les charger.
+     * @return Les notes de projet enregistrées.
+     */
+    private List<ProjectGrade> compute(int sprintId, Integer teamId, GradeReferenceData reference) {
+        SprintGradeContext context = loadContext(sprintService.getSprintById(sprintId), teamId, reference);
+        for (User student : context.students) {
+            Team team = context.teamByUserId.get(student.getId());
+            if (team != null) {
+                computeProjectGrade(context, student, team, null);
+            }
+        }
+        if (!context.computedStudents.isEmpty()) {
+            dirtyGradeDao.deleteAll(dirtyGradeDao.findBySprintIdAndUserIdIn(sprintId, context.computedStudents));
+        }
+        return saveAll(context);
+    }
+
+    /**
+     * Charge en mémoire toutes les données nécessaires au calcul des notes d'un sprint.
+     * Pour tout le sprint, les utilisateurs, équipes et détails sont chargés en premier pour que
+     * les entités référencées par les notes soient résolues depuis le contexte de persistance.
+     * Pour une équipe, seuls ses membres et les notes de l'équipe et de ses membres sont lus ;
+     * les données de référence reçues sont réutilisées telles quelles.
+     *
+     * @param sprint Le sprint.
+     * @param teamId L'identifiant de l'équipe, ou null pour toutes les équipes.
+     * @param reference Les données de référence, ou null pour les charger.
+     * @return Le contexte de calcul.
+     */
+    private SprintGradeContext loadContext(Sprint sprint, Integer teamId, GradeReferenceData reference) {
+        SprintGradeContext context = new SprintGradeContext(sprint, reference != null ? reference : loadReferenceData());
+        int sprintId = sprint.getId();
+
+        if (teamId == null) {
+            context.students = userService.getStudents();
+            for (UserTeam userTeam : userTeamDao.findAll()) {
+                context.teamByUserId.put(userTeam.getUser().getId(), userTeam.getTeam());
+            }
+            detailDao.findAll();
+        } else {
+            for (UserTeam userTeam : userTeamDao.findByTeam_Id(teamId)) {
+                if (isStudent(userTeam.getUser())) {
+                    context.students.add(userTeam.getUser());
+                    context.teamByUserId.put(userTeam.getUser().getId(), userTeam.getTeam());
+                }
+            }
+        }
+        Set<Integer> memberIds = context.teamByUserId.keySet();
+
+        List<TeamGrade> teamGrades = teamId == null ? teamGradeDao.findBySprintId(sprintId) : teamGradeDao.findBySprintIdAndTeamId(sprintId, teamId);
+        for (TeamGrade teamGrade : teamGrades) {
+            Detail detail = teamGrade.getDetail();
+            if (detail.getCategory() == null || teamGrade.getGrade() == null) {
+                continue;
+            }
+            EvaluatorKey key = new EvaluatorKey(teamGrade.getTeam().getId(), detail.getCategory().getId(), teamGrade.getEvaluator().getId());
+            context.teamGradeAverages.computeIfAbsent(key, k -> new Average())
+                    .add((teamGrade.getGrade() / (double) detail.getMark()) * 20);
+        }
+        List<TeamGradeFromStudent> studentGrades = teamId == null ? teamGradeFromStudentDao.findBySprintId(sprintId) : teamGradeFromStudentDao.findBySprintIdAndTeamToNoteId(sprintId, teamId);
+        for (TeamGradeFromStudent grade : studentGrades) {
+            if (grade.getTeamToNote() != null) {
+                context.studentGradeAverages.computeIfAbsent(grade.getTeamToNote().getId(), k -> new Average())
+                        .add(grade.getGrade());
+            }
+        }
+        List<BonusMalus> bonusMalusList = teamId == null
+                ? bonusMalusDao.findAllBySprintIdAndStatus(sprintId, BonusMalus.BonusMalusStatus.VALIDATED)
+                : bonusMalusDao.findAllByTeamIdAndSprintIdAndStatus(teamId, sprintId, BonusMalus.BonusMalusStatus.VALIDATED);
+        for (BonusMalus bonusMalus : bonusMalusList) {
+            context.bonusMalus.putIfAbsent(new BonusMalusKey(bonusMalus.getAttributedTo().getId(), bonusMalus.isUnlimited()), (double) bonusMalus.getValue());
+        }
+
+        if (teamId != null && memberIds.isEmpty()) {
+            return context;
+        }
+        List<SubGrade> subGrades = teamId == null ? subGradeDao.findBySprintId(sprintId) : subGradeDao.findBySprintIdAndUserIdIn(sprintId, memberIds);
+        for (SubGrade subGrade : subGrades) {
+            context.subGrades.putIfAbsent(new SubGradeKey(subGrade.getUser().getId(), subGrade.getGradeType().getId()), subGrade);
+        }
+        List<InitialGrade> initialGrades = teamId == null ? initialGradeDao.findBySprintId(sprintId) : initialGradeDao.findBySprintIdAndUserIdIn(sprintId, memberIds);
+        for (InitialGrade grade : initialGrades) {
+            context.initialGrades.putIfAbsent(grade.getUser().getId(), grade);
+        }
+        List<WorkGrade> workGrades = teamId == null ? workGradeDao.findBySprintId(sprintId) : workGradeDao.findBySprintIdAndUserIdIn(sprintId, memberIds);
+        for (WorkGrade grade : workGrades) {
+            context.workGrades.putIfAbsent(grade.getUser().getId(), grade);
+        }
+        List<PresentationGrade> presentationGrades = teamId == null ? presentationGradeDao.findBySprintId(sprintId) : presentationGradeDao.findBySprintIdAndUserIdIn(sprintId, memberIds);
+        for (PresentationGrade grade : presentationGrades) {
+            context.presentationGrades.putIfAbsent(grade.getUser().getId(), grade);
+        }
+        List<ProjectGrade> projectGrades = teamId == null ? projectGradeDao.findBySprintId(sprintId) : projectGradeDao.findBySprintIdAndUserIdIn(sprintId, memberIds);
+        for (ProjectGrade grade : projectGrades) {
+            context.projectGrades.putIfAbsent(grade.getUser().getId(), grade);
+        }
+        return context;
+    }
+
+    /**
+     * Indique si un utilisateur est un étudiant.
+     *
+     * @param user L'utilisateur.
+     * @return true si l'utilisateur a le rôle étudiant.
+     */
+    private static boolean isStudent(User user) {
+        for (Role role : user.getRoles()) {
+            if (role.getName() == Role.RoleName.OS) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calcule la note de projet d'un étudiant à partir du contexte chargé.
+     *
+     * @param context Le contexte de calcul.
+     * @param student L'étudiant.
+     * @param team L'équipe de l'étudiant.
+     * @param dirtyTypes Les types de sous-notes à recalculer, ou null pour toutes.
+     */
+    private void computeProjectGrade(SprintGradeContext context, User student, Team team, Set<GradeTypes.GradeTypesEnum> dirtyTypes) {
+        SubGrade prmo = subGrade(context, student, team, GradeTypes.GradeTypesEnum.PRMO, dirtyTypes);
+        SubGrade spco = subGrade(context, student, team, GradeTypes.GradeTypesEnum.SPCO, dirtyTypes);
+        SubGrade teso = subGrade(context, student, team, GradeTypes.GradeTypesEnum.TESO, dirtyTypes);
+        SubGrade supr = subGrade(context, student, team, GradeTypes.GradeTypesEnum.SUPR, dirtyTypes);
+        InitialGrade initialGrade = context.initialGrades.computeIfAbsent(student.getId(), k -> {
+            InitialGrade grade = new InitialGrade();
+            grade.setUser(student);
+            grade.setSprint(context.sprint);
+            return grade;
+        });
+        initialGrade.setPrmo(prmo);
+        initialGrade.setSpco(spco);
+        initialGrade.setTeso(teso);
+        initialGrade.setSupr(supr);
+        initialGrade.setValue((prmo.getValue() + spco.getValue() + teso.getValue() + supr.getValue()) / 4);
+
+        SubGrade ssbm = subGrade(context, student, team, GradeTypes.GradeTypesEnum.SSBM, dirtyTypes);
+        SubGrade tebm = subGrade(context, student, team, GradeTypes.GradeTypesEnum.TEBM, dirtyTypes);
+        WorkGrade workGrade = context.workGrades.computeIfAbsent(student.getId(), k -> {
+            WorkGrade grade = new WorkGrade();
+            grade.setUser(student);
+            grade.setSprint(context.sprint);
+            return grade;
+        });
+        workGrade.setSsbm(ssbm);
+        workGrade.setTebm(tebm);
+        workGrade.setValue(Math.max(0, Math.min(20, ssbm.getValue() + tebm.getValue() + initialGrade.getValue())));
+
+        SubGrade sspr = subGrade(context, student, team, GradeTypes.GradeTypesEnum.SSPR, dirtyTypes);
+        SubGrade otpr = subGrade(context, student, team, GradeTypes.GradeTypesEnum.OTPR, dirtyTypes);
+        SubGrade tcpr = subGrade(context, student, team, GradeTypes.GradeTypesEnum.TCPR, dirtyTypes);
+        PresentationGrade presentationGrade = context.presentationGrades.computeIfAbsent(student.getId(), k -> {
+            PresentationGrade grade = new PresentationGrade();
+            grade.setUser(student);
+            grade.setSprint(context.sprint);
+            return grade;
+        });
+        presentationGrade.setSspr(sspr);
+        presentationGrade.setOtpr(otpr);
+        presentationGrade.setTcpr(tcpr);
+        presentationGrade.setValue((sspr.getValue() * 2 + otpr.getValue() + tcpr.getValue()) / 4);
+
+        ProjectGrade projectGrade = context.projectGrades.computeIfAbsent(student.getId(), k -> {
+            ProjectGrade grade = new ProjectGrade();
+            grade.setUser(student);
+            grade.setSprint(context.sprint);
+            return grade;
+        });
+        projectGrade.setInitialGrade(initialGrade);
+        projectGrade.setWorkGrade(workGrade);
+        projectGrade.setPresentationGrade(presentationGrade);
+        projectGrade.setValue(workGrade.getValue() * 0.7 + presentationGrade.getValue() * 0.3);
+        projectGrade.setStale(false);
+
+        context.computedStudents.add(student.getId());
+    }
+
+    /**
+     * Retourne une sous-note, recalculée seulement si elle est à recalculer ou n'existe pas encore.
+     *
+     * @param context Le contexte de calcul.
+     * @param student L'étudiant.
+     * @param team L'équipe de l'étudiant.
+     * @param type Le type de note.
+     * @param dirtyTypes Les types de sous-notes à recalculer, ou null pour toutes.
+     * @return La sous-note.
+     */
+    private SubGrade subGrade(SprintGradeContext context, User student, Team team, GradeTypes.GradeTypesEnum type, Set<GradeTypes.GradeTypesEnum> dirtyTypes) {
+        if (dirtyTypes != null && !dirtyTypes.contains(type)) {
+            SubGrade existing = context.subGrades.get(new SubGradeKey(student.getId(), type.getId()));
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return computeSubGrade(context, student, team, type);
+    }
+
+    /**
+     * Calcule une sous-note selon les mêmes règles que {@link SubGradeService#updateSubGrade}.
+     *
+     * @param context Le contexte de calcul.
+     * @param student L'étudiant.
+     * @param team L'équipe de l'étudiant.
+     * @param type Le type de note.
+     * @return La sous-note calculée.
+     */
+    private SubGrade computeSubGrade(SprintGradeContext context, User student, Team team, GradeTypes.GradeTypesEnum type) {
+        GradeTypes gradeType = context.reference.gradeTypes().get(type.getId());
+        if (gradeType == null) {
+            throw new NoSuchElementException("Grade type " + type.getName() + " not found");
+        }
+        SubGrade subGrade = context.subGrades.computeIfAbsent(new SubGradeKey(student.getId(), gradeType.getId()), k -> {
+            SubGrade grade = new SubGrade();
+            grade.setUser(student);
+            grade.setSprint(context.sprint);
+            return grade;
+        });
+        subGrade.setGradeType(gradeType);
+
+        Double value = null;
+        switch (type) {
+            case PRMO, SPCO, TESO -> {
+                List<User> evaluators = new ArrayList<>();
+                evaluators.add(team.getSupervisor());
+                evaluators.addAll(context.reference.technicalCoaches());
+                updateEvaluations(context, subGrade, team, evaluators);
+            }
+            case SUPR -> updateEvaluations(context, subGrade, team, context.reference.allTeachers());
+            case SSPR -> addEvaluators(context, subGrade, context.reference.teachersWithTeams());
+            case TCPR -> addEvaluators(context, subGrade, context.reference.technicalCoaches());
+            case TEBM, SSBM -> {
+                value = context.bonusMalus.getOrDefault(new BonusMalusKey(student.getId(), type == GradeTypes.GradeTypesEnum.SSBM), 0.0);
+                addEvaluators(context, subGrade, Collections.singletonList(team.getSupervisor()));
+            }
+            case OTPR -> {
+                Average average = context.studentGradeAverages.get(team.getId());
+                value = average == null ? 0 : average.value();
+                int count = average == null ? 0 : average.count;
+                subGrade.setStatus(context.reference.teamCount() - 1 == count ? EvaluationStatus.COMPLETED : EvaluationStatus.PENDING);
+            }
+        }
+        subGrade.setValue(value != null ? value : subGradeService.calculateValue(subGrade));
+        context.touchedSubGrades.add(subGrade);
+        return subGrade;
+    }
+
+    /**
+     * Ajoute les évaluateurs manquants à une sous-note et met à jour leur évaluation
+     * avec la moyenne des notes d'équipe de la catégorie.
+     *
+     * @param context Le contexte de calcul.
+     * @param subGrade La sous-note.
+     * @param team L'équipe de l'étudiant.
+     * @param evaluators Les évaluateurs.
+     */
+    private void updateEvaluations(SprintGradeContext context, SubGrade subGrade, Team team, List<User> evaluators) {
+        for (User evaluator : evaluators) {
+            Evaluation evaluation = addEvaluator(context, subGrade, evaluator);
+            if (evaluation == null) {
+                continue;
+            }
+            Average average = context.teamGradeAverages.get(new EvaluatorKey(team.getId(), subGrade.getGradeType().getId(), evaluator.getId()));
+            evaluation.setValue(average == null ? null : Math.round(average.value() * 100.0) / 100.0);
+            evaluationService.updateStatus(subGrade);
+            context.touchedEvaluations.add(evaluation);
+        }
+    }
+
+    /**
+     * Ajoute les évaluateurs manquants à une sous-note.
+     *
+     * @param context Le contexte de calcul.
+     * @param subGrade La sous-note.
+     * @param evaluators Les évaluateurs.
+     */
+    private void addEvaluators(SprintGradeContext context, SubGrade subGrade, List<User> evaluators) {
+        for (User evaluator : evaluators) {
+            addEvaluator(context, subGrade, evaluator);
+        }
+    }
+
+    /**
+     * Retourne l'évaluation d'un évaluateur sur une sous-note, en la créant si besoin.
+     *
+     * @param context Le contexte de calcul.
+     * @param subGrade La sous-note.
+     * @param evaluator L'évaluateur.
+     * @return L'évaluation, ou null si l'évaluateur est absent.
+     */
+    private Evaluation addEvaluator(SprintGradeContext context, SubGrade subGrade, User evaluator) {
+        if (evaluator == null) {
+            return null;
+        }
+        for (Evaluation evaluation : subGrade.getEvaluations()) {
+            if (evaluation.getEvaluator() != null && evaluation.getEvaluator().getId() == evaluator.getId()) {
+                return evaluation;
+            }
+        }
+        Evaluation evaluation = new Evaluation();
+        evaluation.setEvaluator(evaluator);
+        evaluation.setSubGrade(subGrade);
+        subGrade.getEvaluations().add(evaluation);
+        evaluationService.updateStatus(subGrade);
+        context.touchedEvaluations.add(evaluation);
+        return evaluation;
+    }
+
+    /**
+     * Enregistre par lots toutes les notes calculées, dans l'ordre imposé par les clés étrangères.
+     *
+     * @param context Le contexte de calcul.
+     * @return Les notes de projet enregistrées.
+     */
+    private List<ProjectGrade> saveAll(SprintGradeContext context) {
+        subGradeDao.saveAll(context.touchedSubGrades);
+        evaluationDao.saveAll(context.touchedEvaluations);
+        initialGradeDao.saveAll(selectComputed(context, context.initialGrades));
+        workGradeDao.saveAll(selectComputed(context, context.workGrades));
+        presentationGradeDao.saveAll(selectComputed(context, context.presentationGrades));
+        return projectGradeDao.saveAll(selectComputed(context, context.projectGrades));
+    }
+
+    /**
+     * Sélectionne les notes des étudiants effectivement calculés.
+     *
+     * @param context Le contexte de calcul.
+     * @param gradesByUserId Les notes indexées par identifiant d'étudiant.
+     * @return Les notes des étudiants calculés.
+     */
+    private <T> List<T> selectComputed(SprintGradeContext context, Map<Integer, T> gradesByUserId) {
+        List<T> grades = new ArrayList<>();
+        for (Integer userId : context.computedStudents) {
+            grades.add(gradesByUserId.get(userId));
+        }
+        return grades;
+    }
+
+    /**
+     * Données de référence partagées par les calculs de toutes les équipes : types de note indexés
+     * par identifiant, coachs techniques, enseignants, encadrants des équipes et nombre d'équipes.
+     *
+     * @param gradeTypes Les types de note indexés par identifiant.
+     * @param technicalCoaches Les coachs techniques.
+     * @param allTeachers Les enseignants.
+     * @param teachersWithTeams Les encadrants des équipes.
+     * @param teamCount Le nombre d'équipes.
+     */
+    public record GradeReferenceData(Map<Integer, GradeTypes> gradeTypes, List<User> technicalCoaches, List<User> allTeachers,
+                                     List<User> teachersWithTeams, int teamCount) {
+
+        public GradeReferenceData {
+            gradeTypes = Map.copyOf(gradeTypes);
+            technicalCoaches = List.copyOf(technicalCoaches);
+            allTeachers = List.copyOf(allTeachers);
+            teachersWithTeams = List.copyOf(teachersWithTeams);
+        }
+    }
+
+    private record EvaluatorKey(int teamId, int categoryId, int evaluatorId) {
+    }
+
+    private record BonusMalusKey(int userId, boolean unlimited) {
+    }
+
+    private record SubGradeKey(int userId, int gradeTypeId) {
+    }
+
+    /**
+     * Moyenne incrémentale.
+     */
+    private static final class Average {
+        private double sum;
+        private int count;
+
+        void add(double value) {
+            sum += value;
+            count++;
+        }
+
+        double value() {
+            return sum / count;
+        }
+    }
+
+    /**
+     * Données d'un sprint chargées pour le calcul des notes.
+     */
+    private static final class SprintGradeContext {
+        private final Sprint sprint;
+        private final GradeReferenceData reference;
+        private final Map<Integer, Team> teamByUserId = new HashMap<>();
+        private final Map<EvaluatorKey, Average> teamGradeAverages = new HashMap<>();
+        private final Map<Integer, Average> studentGradeAverages = new HashMap<>();
+        private final Map<BonusMalusKey, Double> bonusMalus = new HashMap<>();
+        private final Map<SubGradeKey, SubGrade> subGrades = new HashMap<>();
+        private final Map<Integer, InitialGrade> initialGrades = new HashMap<>();
+        private final Map<Integer, WorkGrade> workGrades = new HashMap<>();
+        private final Map<Integer, PresentationGrade> presentationGrades = new HashMap<>();
+        private final Map<Integer, ProjectGrade> projectGrades = new HashMap<>();
+        private final Set<SubGrade> touchedSubGrades = new LinkedHashSet<>();
+        private final Set<Evaluation> touchedEvaluations = new LinkedHashSet<>();
+        private final List<Integer> computedStudents = new ArrayList<>();
+        private List<User> students = new ArrayList<>();
+
+        private SprintGradeContext(Sprint sprint, GradeReferenceData reference) {
+            this.sprint = sprint;
+            this.reference = reference;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.TeamDao;
+import com.example.backend.dao.UserTeamDao;
+import com.example.backend.dto.GradeJobDTO;
+import com.example.backend.model.Sprint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Service des tâches de recalcul des notes en arrière-plan.
+ * Une tâche couvre un sprint, une équipe ou toute la promotion et recalcule les notes
+ * équipe par équipe, chacune dans sa propre transaction : l'échec d'une équipe est
+ * consigné dans la tâche sans annuler le calcul des autres. Les équipes étant indépendantes,
+ * leurs calculs sont répartis en parallèle sur l'exécuteur de calcul.
+ */
+@Service
+public class GradeJobService {
+
+    static final int MAX_FINISHED_JOBS = 50;
+
+    private final GradeEngineService gradeEngineService;
+    private final SprintService sprintService;
+    private final TeamDao teamDao;
+    private final UserTeamDao userTeamDao;
+    private final Executor executor;
+    private final Executor computeExecutor;
+    private final Map<String, GradeJob> jobs = new LinkedHashMap<>();
+
+    /**
+     * Constructeur de la classe GradeJobService.
+     *
+     * @param gradeEngineService Le moteur de calcul des notes.
+     * @param sprintService Le service de gestion des sprints.
+     * @param teamDao Le DAO des équipes.
+     * @param userTeamDao Le DAO des membres des équipes.
+     * @param executor L'exécuteur des tâches de recalcul.
+     * @param computeExecutor L'exécuteur des calculs par équipe.
+     */
+    @Autowired
+    public GradeJobService(GradeEngineService gradeEngineService, SprintService sprintService, TeamDao teamDao, UserTeamDao userTeamDao,
+                           @Qualifier("gradeJobExecutor") Executor executor, @Qualifier("gradeComputeExecutor") Executor computeExecutor) {
+        this.gradeEngineService = gradeEngineService;
+        this.sprintService = sprintService;
+        this.teamDao = teamDao;
+        this.userTeamDao = userTeamDao;
+        this.executor = executor;
+        this.computeExecutor = computeExecutor;
+    }
+
+    /**
+     * Soumet une tâche de recalcul des notes.
+     *
+     * @param sprintId L'identifiant du sprint, ou null pour tous les sprints.
+     * @param teamId L'identifiant de l'équipe, ou null pour toutes les équipes.
+     * @return L'état initial de la tâche.
+     * @throws RejectedExecutionException Si trop de tâches sont déjà en attente.
+     */
+    public GradeJobDTO submit(Integer sprintId, Integer teamId) {
+        List<Integer> sprintIds = new ArrayList<>();
+        if (sprintId != null) {
+            sprintIds.add(sprintId);
+        } else {
+            for (Sprint sprint : sprintService.getAllSprints()) {
+                sprintIds.add(sprint.getId());
+            }
+        }
+        List<Integer> teamIds;
+        Map<Integer, Integer> membersByTeamId = new HashMap<>();
+        if (teamId != null) {
+            teamIds = List.of(teamId);
+            membersByTeamId.put(teamId, (int) userTeamDao.countByTeam_Id(teamId));
+        } else {
+            teamIds = teamDao.findAllIds();
+            for (Object[] row : userTeamDao.countMembersGroupByTeamId()) {
+                membersByTeamId.put((Integer) row[0], ((Number) row[1]).intValue());
+            }
+        }
+
+        List<JobUnit> units = new ArrayList<>();
+        int total = 0;
+        for (Integer unitSprintId : sprintIds) {
+            for (Integer unitTeamId : teamIds) {
+                int members = membersByTeamId.getOrDefault(unitTeamId, 0);
+                units.add(new JobUnit(unitSprintId, unitTeamId, members));
+                total += members;
+            }
+        }
+
+        GradeJob job = new GradeJob(UUID.randomUUID().toString(), sprintId, teamId, total);
+        synchronized (jobs) {
+            evictFinishedJobs();
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> run(job, units));
+        } catch (RejectedExecutionException e) {
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Retourne l'état d'une tâche de recalcul.
+     *
+     * @param jobId L'identifiant de la tâche.
+     * @return L'état de la tâche.
+     * @throws NoSuchElementException Si la tâche est inconnue.
+     */
+    public GradeJobDTO getJob(String jobId) {
+        GradeJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new NoSuchElementException("Job " + jobId + " not found");
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Exécute une tâche de recalcul en parallèle, une transaction par équipe et par sprint,
+     * et attend la fin de tous les calculs. Les données de référence sont chargées une seule fois
+     * et partagées par les calculs de toutes les équipes.
+     *
+     * @param job La tâche.
+     * @param units Les couples sprint/équipe à recalculer.
+     */
+    private void run(GradeJob job, List<JobUnit> units) {
+        job.setStatus(JobStatus.RUNNING);
+        GradeEngineService.GradeReferenceData reference;
+        try {
+            reference = gradeEngineService.loadReferenceData();
+        } catch (Exception e) {
+            for (JobUnit unit : units) {
+                job.addFailed(unit.members(), "Sprint " + unit.sprintId() + ", équipe " + unit.teamId() + " : " + e.getMessage());
+            }
+            job.finish();
+            return;
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (JobUnit unit : units) {
+            futures.add(CompletableFuture.runAsync(() -> runUnit(job, unit, reference), computeExecutor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        job.finish();
+    }
+
+    /**
+     * Recalcule les notes d'une équipe pour un sprint dans sa propre transaction.
+     *
+     * @param job La tâche.
+     * @param unit Le couple sprint/équipe.
+     * @param reference Les données de référence partagées par les équipes.
+     */
+    private void runUnit(GradeJob job, JobUnit unit, GradeEngineService.GradeReferenceData reference) {
+        try {
+            gradeEngineService.computeTeamGrades(unit.sprintId(), unit.teamId(), reference);
+            job.addDone(unit.members());
+        } catch (Exception e) {
+            job.addFailed(unit.members(), "Sprint " + unit.sprintId() + ", équipe " + unit.teamId() + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Supprime les tâches terminées les plus anciennes au-delà de la limite conservée.
+     */
+    private void evictFinishedJobs() {
+        Iterator<GradeJob> iterator = jobs.values().iterator();
+        int excess = jobs.size() - MAX_FINISHED_JOBS + 1;
+        while (excess > 0 && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, COMPLETED_WITH_ERRORS
+    }
+
+    private record JobUnit(int sprintId, int teamId, int members) {
+    }
+
+    /**
+     * État d'une tâche, mis à jour par le thread d'exécution et lu par les requêtes de suivi.
+     */
+    private static final class GradeJob {
+        private final String id;
+        private final Integer sprintId;
+        private final Integer teamId;
+        private final int total;
+        private final List<String> errors = new ArrayList<>();
+        private JobStatus status = JobStatus.PENDING;
+        private int done;
+        private int failed;
+
+        private GradeJob(String id, Integer sprintId, Integer teamId, int total) {
+            this.id = id;
+            this.sprintId = sprintId;
+            this.teamId = teamId;
+            this.total = total;
+        }
+
+        private synchronized void setStatus(JobStatus status) {
+            this.status = status;
+        }
+
+        private synchronized void addDone(int count) {
+            done += count;
+        }
+
+        private synchronized void addFailed(int count, String error) {
+            failed += count;
+            errors.add(error);
+        }
+
+        private synchronized void finish() {
+            status = failed == 0 ? JobStatus.COMPLETED : JobStatus.COMPLETED_WITH_ERRORS;
+        }
+
+        private synchronized boolean isFinished() {
+            return status == JobStatus.COMPLETED || status == JobStatus.COMPLETED_WITH_ERRORS;
+        }
+
+        private synchronized GradeJobDTO toDTO() {
+            GradeJobDTO dto = new GradeJobDTO();
+            dto.setId(id);
+            dto.setSprintId(sprintId);
+            dto.setTeamId(teamId);
+            dto.setStatus(status.name());
+            dto.setTotal(total);
+            dto.setDone(done);
+            dto.setFailed(failed);
+            dto.setErrors(new ArrayList<>(errors));
+            return dto;
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class GradeScaleService {
     private final GradeScaleDao gradeScaleDao;
     private final CategoryService categoryService;
     private final DetailService detailService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Constructeur de la classe GradeScaleService.
@@ -27,12 +28,14 @@ public class GradeScaleService {
      * @param gradeScaleDao Le DAO des échelles de notation.
      * @param categoryService Le service de gestion des catégories.
      * @param detailService Le service de gestion des détails.
+     * @param referenceDataCache Le cache des données de référence.
      */
     @Autowired
-    public GradeScaleService(GradeScaleDao gradeScaleDao, CategoryService categoryService, DetailService detailService) {
+    public GradeScaleService(GradeScaleDao gradeScaleDao, CategoryService categoryService, DetailService detailService, ReferenceDataCache referenceDataCache) {
         this.gradeScaleDao = gradeScaleDao;
         this.categoryService = categoryService;
         this.detailService = detailService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -132,5 +135,6 @@ public class GradeScaleService {
                 }
             }
         }
+        referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
     }
 }
@@ -0,0 +1,113 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.DirtyGradeDao;
+import com.example.backend.dao.ProjectGradeDao;
+import com.example.backend.dao.UserTeamDao;
+import com.example.backend.model.DirtyGrade;
+import com.example.backend.model.GradeTypes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Service de suivi des notes de projet à recalculer.
+ * Chaque écriture sur une donnée d'entrée des notes marque les sous-notes concernées
+ * (utilisateur, sprint, type de note) comme à recalculer et les notes de projet associées
+ * comme périmées, afin que seul ce qui a changé soit recalculé.
+ */
+@Service
+public class GradeStalenessService {
+
+    private final ProjectGradeDao projectGradeDao;
+    private final DirtyGradeDao dirtyGradeDao;
+    private final UserTeamDao userTeamDao;
+
+    /**
+     * Constructeur de la classe GradeStalenessService.
+     *
+     * @param projectGradeDao Le DAO des notes de projet.
+     * @param dirtyGradeDao Le DAO des sous-notes à recalculer.
+     * @param userTeamDao Le DAO des membres des équipes.
+     */
+    @Autowired
+    public GradeStalenessService(ProjectGradeDao projectGradeDao, DirtyGradeDao dirtyGradeDao, UserTeamDao userTeamDao) {
+        this.projectGradeDao = projectGradeDao;
+        this.dirtyGradeDao = dirtyGradeDao;
+        this.userTeamDao = userTeamDao;
+    }
+
+    /**
+     * Marque comme périmées les notes des membres d'une équipe pour un sprint.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @param gradeTypeIds Les identifiants des types de note concernés, ou aucun pour tous les types.
+     */
+    @Transactional
+    public void markTeamStale(int teamId, int sprintId, int... gradeTypeIds) {
+        markDirty(userTeamDao.findUserIdsByTeamId(teamId), sprintId, gradeTypeIds);
+        projectGradeDao.markStaleByTeamIdAndSprintId(teamId, sprintId);
+    }
+
+    /**
+     * Marque comme périmées en une seule fois les notes des membres de plusieurs équipes pour un sprint.
+     *
+     * @param teamIds Les identifiants des équipes.
+     * @param sprintId L'identifiant du sprint.
+     * @param gradeTypeIds Les identifiants des types de note concernés, ou aucun pour tous les types.
+     */
+    @Transactional
+    public void markTeamsStale(Collection<Integer> teamIds, int sprintId, int... gradeTypeIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        markDirty(userTeamDao.findUserIdsByTeamIdIn(teamIds), sprintId, gradeTypeIds);
+        projectGradeDao.markStaleByTeamIdInAndSprintId(teamIds, sprintId);
+    }
+
+    /**
+     * Marque comme périmées les notes d'un utilisateur pour un sprint.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     * @param sprintId L'identifiant du sprint.
+     * @param gradeTypeIds Les identifiants des types de note concernés, ou aucun pour tous les types.
+     */
+    @Transactional
+    public void markUserStale(int userId, int sprintId, int... gradeTypeIds) {
+        markDirty(Collections.singletonList(userId), sprintId, gradeTypeIds);
+        projectGradeDao.markStaleByUserIdAndSprintId(userId, sprintId);
+    }
+
+    /**
+     * Enregistre les sous-notes à recalculer qui ne le sont pas déjà.
+     *
+     * @param userIds Les identifiants des utilisateurs.
+     * @param sprintId L'identifiant du sprint.
+     * @param gradeTypeIds Les identifiants des types de note, ou aucun pour tous les types.
+     */
+    private void markDirty(List<Integer> userIds, int sprintId, int... gradeTypeIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (gradeTypeIds.length == 0) {
+            gradeTypeIds = Arrays.stream(GradeTypes.GradeTypesEnum.values()).mapToInt(GradeTypes.GradeTypesEnum::getId).toArray();
+        }
+        Set<String> existing = new HashSet<>();
+        for (DirtyGrade dirtyGrade : dirtyGradeDao.findBySprintIdAndUserIdIn(sprintId, userIds)) {
+            existing.add(dirtyGrade.getUserId() + ":" + dirtyGrade.getGradeTypeId());
+        }
+        List<DirtyGrade> dirtyGrades = new ArrayList<>();
+        for (Integer userId : userIds) {
+            for (int gradeTypeId : gradeTypeIds) {
+                if (existing.add(userId + ":" + gradeTypeId)) {
+                    dirtyGrades.add(new DirtyGrade(userId, sprintId, gradeTypeId));
+                }
+            }
+        }
+        if (!dirtyGrades.isEmpty()) {
+            dirtyGradeDao.saveAll(dirtyGrades);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.example.backend.model.SubGrade;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service de gestion des notes initiales.
  */
@@ -88,10 +90,11 @@ public class InitialGradeService {
      * @return Les notes initiales.
      */
     public InitialGrade getInitialGradeByUserIdAndProjectId(int userId, int projectId) {
-        try {
-            return initialGradeDao.findByUserIdAndSprintId(userId, projectId).orElseThrow();
-        } catch (Exception e) {
-            return createInitialGrade(userId, projectId);
+        Optional<InitialGrade> initialGrade = initialGradeDao.findByUserIdAndSprintId(userId, projectId);
+        if (initialGrade.isPresent()) {
+            return initialGrade.get();
         }
+        initialGradeDao.insertIfAbsent(userId, projectId);
+        return initialGradeDao.findByUserIdAndSprintId(userId, projectId).orElseThrow();
     }
 }
@@ -1,5 +1,6 @@
 package com.example.backend.service;
 
+import com.example.backend.model.Role;
 import com.example.backend.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
@@ -10,9 +11,12 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -24,6 +28,8 @@ public class JWTUtils {
 
     private SecretKey Key;
     private  static  final long EXPIRATION_TIME = 86400000; //24hours or 86400000 milisecs
+    static final String ID_CLAIM = "id";
+    static final String ROLES_CLAIM = "roles";
 
     /**
      * Constructeur de la classe JWTUtils.
@@ -36,13 +42,24 @@ public class JWTUtils {
 
     /**
      * Génère un token JWT à partir d'un utilisateur.
+     * L'identifiant et les rôles de l'utilisateur sont signés dans le token, afin que les requêtes
+     * suivantes puissent être authentifiées sans lecture en base.
      *
      * @param user L'utilisateur.
      * @return Le token généré.
      */
     public String generateToken(User user){
+        List<String> roles = new ArrayList<>();
+        if (user.getRoles() != null) {
+            for (Role role : user.getRoles()) {
+                roles.add(role.getName().name());
+            }
+        }
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
+                .claim(ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, roles)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(Key)
@@ -51,6 +68,7 @@ public class JWTUtils {
 
     /**
      * Génère un token JWT à partir d'un utilisateur et de ses claims.
+     * Chaque token porte un identifiant unique, qui permet de l'enregistrer et de le révoquer.
      *
      * @param claims Les claims.
      * @param userDetails Les détails de l'utilisateur.
@@ -59,6 +77,7 @@ public class JWTUtils {
     public String generateRefreshToken(Map<String, Object> claims, UserDetails userDetails){
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -76,6 +95,42 @@ public class JWTUtils {
         return extractClaims(token, Claims::getSubject);
     }
 
+    /**
+     * Vérifie la signature et l'expiration d'un token en une seule lecture.
+     *
+     * @param token Le token.
+     * @return Les claims du token, ou null si le token est invalide ou expiré.
+     */
+    public Claims parseToken(String token){
+        return extractClaims(token, Function.identity());
+    }
+
+    /**
+     * Construit l'utilisateur authentifié à partir des claims signés d'un token, sans lecture en base.
+     * L'utilisateur obtenu ne porte que son identifiant, son email et ses rôles.
+     *
+     * @param claims Les claims du token.
+     * @return L'utilisateur, ou null si le token ne porte pas l'identifiant et les rôles.
+     */
+    public User extractPrincipal(Claims claims){
+        Object id = claims.get(ID_CLAIM);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(id instanceof Number) || !(roles instanceof List<?> roleNames) || claims.getSubject() == null) {
+            return null;
+        }
+        User user = new User();
+        user.setId(((Number) id).intValue());
+        user.setEmail(claims.getSubject());
+        try {
+            for (Object roleName : roleNames) {
+                user.addRole(new Role(Role.RoleName.valueOf(String.valueOf(roleName))));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return user;
+    }
+
     /**
      * Extrait les claims d'un token.
      *
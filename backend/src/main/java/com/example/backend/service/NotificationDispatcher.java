@@ -0,0 +1,118 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envoi en arrière-plan des notifications de la boîte d'envoi.
+ * L'envoi est déclenché après la validation de la transaction qui a mis les notifications en attente,
+ * et relancé périodiquement pour reprendre les envois en échec ou interrompus.
+ */
+@Component
+public class NotificationDispatcher {
+
+    static final int BATCH_SIZE = 200;
+
+    private final NotificationOutboxService notificationOutboxService;
+    private final Executor executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    /**
+     * Constructeur de la classe NotificationDispatcher.
+     *
+     * @param notificationOutboxService Le service de la boîte d'envoi.
+     * @param executor L'exécuteur des envois.
+     */
+    @Autowired
+    public NotificationDispatcher(NotificationOutboxService notificationOutboxService, @Qualifier("notificationExecutor") Executor executor) {
+        this.notificationOutboxService = notificationOutboxService;
+        this.executor = executor;
+    }
+
+    /**
+     * Demande un envoi après la validation de la transaction courante, ou immédiatement hors transaction.
+     */
+    public void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Demande un envoi en arrière-plan. Les demandes reçues avant le début de l'envoi sont regroupées.
+     */
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            // The periodic poll sends the notifications later
+            wakeUpPending.set(false);
+        }
+    }
+
+    /**
+     * Relance périodiquement l'envoi des notifications en attente.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-millis:10000}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Envoie toutes les notifications prêtes, par lots. Si un lot échoue, ses lignes sont renvoyées
+     * une à une afin qu'une ligne invalide ne bloque pas les autres, et seules les lignes en échec
+     * sont reportées.
+     *
+     * @return Le nombre de notifications créées.
+     */
+    public synchronized int drain() {
+        int created = 0;
+        while (true) {
+            List<Integer> ids = notificationOutboxService.findReadyIds(BATCH_SIZE);
+            if (ids.isEmpty()) {
+                return created;
+            }
+            try {
+                int dispatched = notificationOutboxService.dispatch(ids);
+                if (dispatched == 0) {
+                    // Every row is locked by another dispatcher
+                    return created;
+                }
+                created += dispatched;
+            } catch (RuntimeException e) {
+                for (Integer id : ids) {
+                    try {
+                        created += notificationOutboxService.dispatch(List.of(id));
+                    } catch (RuntimeException rowFailure) {
+                        notificationOutboxService.markFailed(List.of(id));
+                    }
+                }
+            }
+            if (ids.size() < BATCH_SIZE) {
+                return created;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.NotificationDao;
+import com.example.backend.dao.NotificationOutboxDao;
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.model.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Service de la boîte d'envoi des notifications.
+ * Transforme par lots les notifications en attente en notifications, chaque lot dans sa propre
+ * transaction : les lignes envoyées sont supprimées de la boîte d'envoi dans la même transaction
+ * que l'insertion des notifications.
+ */
+@Service
+public class NotificationOutboxService {
+
+    static final int MAX_ATTEMPTS = 10;
+    static final long RETRY_DELAY_MILLIS = 30 * 1000L;
+
+    private final NotificationOutboxDao notificationOutboxDao;
+    private final NotificationDao notificationDao;
+
+    /**
+     * Constructeur de la classe NotificationOutboxService.
+     *
+     * @param notificationOutboxDao Le DAO de la boîte d'envoi.
+     * @param notificationDao Le DAO des notifications.
+     */
+    @Autowired
+    public NotificationOutboxService(NotificationOutboxDao notificationOutboxDao, NotificationDao notificationDao) {
+        this.notificationOutboxDao = notificationOutboxDao;
+        this.notificationDao = notificationDao;
+    }
+
+    /**
+     * Récupère les notifications prêtes à être envoyées, sans les verrouiller.
+     *
+     * @param limit Le nombre maximum de notifications.
+     * @return Les identifiants des lignes de la boîte d'envoi, par ordre d'arrivée.
+     */
+    public List<Integer> findReadyIds(int limit) {
+        return notificationOutboxDao.findReadyIds(System.currentTimeMillis(), MAX_ATTEMPTS, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Envoie des notifications en attente : les doublons sont fusionnés, les notifications insérées
+     * en un seul lot et les lignes supprimées de la boîte d'envoi.
+     * Les lignes déjà verrouillées par un autre envoi sont ignorées.
+     *
+     * @param ids Les identifiants des lignes de la boîte d'envoi.
+     * @return Le nombre de notifications créées.
+     */
+    @Transactional
+    public int dispatch(Collection<Integer> ids) {
+        List<NotificationOutbox> rows = notificationOutboxDao.lockAllByIdIn(ids);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<NotificationDTO> notifications = coalesce(rows);
+        notificationDao.insertAll(notifications);
+        notificationOutboxDao.deleteAllInBatch(rows);
+        return notifications.size();
+    }
+
+    /**
+     * Reporte l'envoi de notifications en échec, de plus en plus tard à chaque tentative.
+     * Au-delà de MAX_ATTEMPTS tentatives, les lignes restent dans la boîte d'envoi sans être renvoyées.
+     *
+     * @param ids Les identifiants des lignes de la boîte d'envoi.
+     */
+    public void markFailed(Collection<Integer> ids) {
+        notificationOutboxDao.markFailed(ids, System.currentTimeMillis(), RETRY_DELAY_MILLIS);
+    }
+
+    /**
+     * Fusionne les notifications en attente en double pour un même receveur : une seule notification
+     * par groupe (groupId non nul), la plus récente, et une seule par message identique sinon.
+     *
+     * @param rows Les lignes de la boîte d'envoi, par ordre d'arrivée.
+     * @return Les notifications à créer.
+     */
+    static List<NotificationDTO> coalesce(List<NotificationOutbox> rows) {
+        Map<List<Object>, NotificationOutbox> latest = new LinkedHashMap<>();
+        for (NotificationOutbox row : rows) {
+            List<Object> key = row.getGroupId() != 0
+                    ? List.of(row.getReceiverId(), row.getType(), row.getGroupId())
+                    : Arrays.asList(row.getReceiverId(), row.getType(), 0, row.getDescription(), row.getEmitterId());
+            latest.remove(key);
+            latest.put(key, row);
+        }
+        List<NotificationDTO> notifications = new ArrayList<>(latest.size());
+        for (NotificationOutbox row : latest.values()) {
+            NotificationDTO notification = new NotificationDTO();
+            notification.setType(row.getType());
+            notification.setStatus(row.getStatus());
+            notification.setDescription(row.getDescription());
+            notification.setDate(row.getDate());
+            notification.setEmitterId(row.getEmitterId() == null ? 0 : row.getEmitterId());
+            notification.setReceiverId(row.getReceiverId());
+            notification.setGroupId(row.getGroupId());
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+}
@@ -1,15 +1,24 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.NotificationDao;
+import com.example.backend.dao.NotificationOutboxDao;
 import com.example.backend.dao.UserDao;
+import com.example.backend.dto.NotificationBroadcastDTO;
 import com.example.backend.dto.NotificationDTO;
 import com.example.backend.model.Notification;
+import com.example.backend.model.User;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service de gestion des notifications.
@@ -19,17 +28,27 @@ public class NotificationService {
 
     private final NotificationDao notificationDao;
     private final UserDao userDao;
+    private final TeamRoster teamRoster;
+    private final NotificationOutboxDao notificationOutboxDao;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
      * Constructeur de la classe NotificationService.
      *
      * @param notificationDao Le DAO des notifications.
      * @param userDao Le DAO des utilisateurs.
+     * @param teamRoster L'index en mémoire des équipes.
+     * @param notificationOutboxDao Le DAO de la boîte d'envoi des notifications.
+     * @param notificationDispatcher L'envoi en arrière-plan des notifications.
      */
     @Autowired
-    public NotificationService(NotificationDao notificationDao, UserDao userDao) {
+    public NotificationService(NotificationDao notificationDao, UserDao userDao, TeamRoster teamRoster,
+                               NotificationOutboxDao notificationOutboxDao, NotificationDispatcher notificationDispatcher) {
         this.notificationDao = notificationDao;
         this.userDao = userDao;
+        this.teamRoster = teamRoster;
+        this.notificationOutboxDao = notificationOutboxDao;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     /**
@@ -52,6 +71,63 @@ public class NotificationService {
         return notification;
     }
 
+    /**
+     * Crée une même notification pour plusieurs receveurs.
+     * Les notifications sont mises en attente en un seul lot dans la transaction courante, puis créées
+     * en arrière-plan une fois celle-ci validée. Les receveurs sont désignés par leur identifiant, sans
+     * chargement des utilisateurs.
+     *
+     * @param template La notification à envoyer, dont le receveur est ignoré.
+     * @param receiverIds Les identifiants des receveurs.
+     * @return Le nombre de notifications mises en attente.
+     */
+    @Transactional
+    public int createNotifications(NotificationDTO template, Collection<Integer> receiverIds) {
+        Set<Integer> receivers = new LinkedHashSet<>(receiverIds);
+        receivers.remove(null);
+        if (receivers.isEmpty()) {
+            return 0;
+        }
+        if (template.getStatus() == null) {
+            template.setStatus(Notification.Status.UNREAD);
+        }
+        notificationOutboxDao.insertAll(template, receivers);
+        notificationDispatcher.wakeUpAfterCommit();
+        return receivers.size();
+    }
+
+    /**
+     * Crée une notification pour chaque utilisateur d'une audience : membres d'équipes, utilisateurs
+     * ayant un rôle et utilisateurs désignés, chacun ne la recevant qu'une fois. L'émetteur est
+     * l'utilisateur authentifié, quel que soit celui indiqué dans la notification.
+     *
+     * @param broadcast La notification et son audience.
+     * @return Le nombre de notifications mises en attente.
+     */
+    @Transactional
+    public int broadcast(NotificationBroadcastDTO broadcast) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User currentUser = (User) authentication.getPrincipal();
+        broadcast.getNotification().setEmitterId(currentUser.getId());
+
+        Set<Integer> receivers = new LinkedHashSet<>();
+        if (broadcast.getTeamIds() != null) {
+            for (int teamId : broadcast.getTeamIds()) {
+                receivers.addAll(teamRoster.getMemberIds(teamId));
+            }
+        }
+        if (broadcast.getRoles() != null && !broadcast.getRoles().isEmpty()) {
+            receivers.addAll(userDao.findIdsByRoleNameIn(broadcast.getRoles()));
+        }
+        if (broadcast.getUserIds() != null) {
+            receivers.addAll(broadcast.getUserIds());
+        }
+        if (broadcast.isExcludeEmitter()) {
+            receivers.remove(broadcast.getNotification().getEmitterId());
+        }
+        return createNotifications(broadcast.getNotification(), receivers);
+    }
+
     /**
      * Supprime une notification.
      *
@@ -69,6 +145,7 @@ public class NotificationService {
     public void deleteAllNotificationsOfUser(int userId) {
         List<Notification> notifications = this.getAllByUserId(userId);
         notificationDao.deleteAll(notifications);
+        notificationOutboxDao.deleteByUserId(userId);
     }
 
     /**
@@ -6,6 +6,8 @@ import com.example.backend.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service de gestion des notes de présentation.
  */
@@ -83,10 +85,11 @@ public class PresentationGradeService {
      * @return La note de présentation créée.
      */
     public PresentationGrade getPresentationGradeByUserIdAndSprintId(int userId, int sprintId) {
-        try{
-            return presentationGradeDao.findByUserIdAndSprintId(userId, sprintId).orElseThrow();
-        } catch (Exception e) {
-            return createPresentationGrade(userId, sprintId);
+        Optional<PresentationGrade> presentationGrade = presentationGradeDao.findByUserIdAndSprintId(userId, sprintId);
+        if (presentationGrade.isPresent()) {
+            return presentationGrade.get();
         }
+        presentationGradeDao.insertIfAbsent(userId, sprintId);
+        return presentationGradeDao.findByUserIdAndSprintId(userId, sprintId).orElseThrow();
     }
 }
@@ -1,9 +1,18 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.ProjectGradeDao;
+import com.example.backend.dao.SubGradeDao;
+import com.example.backend.dao.UserTeamDao;
+import com.example.backend.dto.TeamProjectGradesDTO;
 import com.example.backend.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Service de gestion des notes de projet.
@@ -17,6 +26,9 @@ public class ProjectGradeService {
     private final PresentationGradeService presentationGradeService;
     private final UserService userService;
     private final SprintService sprintService;
+    private final GradeEngineService gradeEngineService;
+    private final SubGradeDao subGradeDao;
+    private final UserTeamDao userTeamDao;
 
     /**
      * Constructeur de la classe ProjectGradeService.
@@ -27,15 +39,21 @@ public class ProjectGradeService {
      * @param presentationGradeService Le service de gestion des notes de présentation.
      * @param userService Le service de gestion des utilisateurs.
      * @param sprintService Le service de gestion des sprints.
+     * @param gradeEngineService Le moteur de calcul des notes d'un sprint.
+     * @param subGradeDao Le DAO des sous-notes.
+     * @param userTeamDao Le DAO des membres des équipes.
      */
     @Autowired
-    public ProjectGradeService(ProjectGradeDao projectGradeDao, InitialGradeService initialGradeService, WorkGradeService workGradeService, PresentationGradeService presentationGradeService, UserService userService, SprintService sprintService) {
+    public ProjectGradeService(ProjectGradeDao projectGradeDao, InitialGradeService initialGradeService, WorkGradeService workGradeService, PresentationGradeService presentationGradeService, UserService userService, SprintService sprintService, GradeEngineService gradeEngineService, SubGradeDao subGradeDao, UserTeamDao userTeamDao) {
         this.projectGradeDao = projectGradeDao;
         this.initialGradeService = initialGradeService;
         this.workGradeService = workGradeService;
         this.presentationGradeService = presentationGradeService;
         this.userService = userService;
         this.sprintService = sprintService;
+        this.gradeEngineService = gradeEngineService;
+        this.subGradeDao = subGradeDao;
+        this.userTeamDao = userTeamDao;
     }
 
     /**
@@ -62,6 +80,7 @@ public class ProjectGradeService {
     public ProjectGrade updateProjectGrade(int userId, int sprintId) {
         ProjectGrade projectGrade = getProjectGradeByUserIdAndSprintId(userId, sprintId);
         calculateAllGrades(userId, sprintId, projectGrade);
+        projectGrade.setStale(false);
         return projectGradeDao.save(projectGrade);
     }
 
@@ -98,20 +117,88 @@ public class ProjectGradeService {
      * @return Les notes de projet.
      */
     public ProjectGrade getProjectGradeByUserIdAndSprintId(int userId, int sprintId) {
-        try{
-            return projectGradeDao.findByUserIdAndSprintId(userId, sprintId).orElseThrow();
-        } catch (Exception e) {
-            return saveProjectGrade(userId, sprintId);
+        Optional<ProjectGrade> projectGrade = projectGradeDao.findByUserIdAndSprintId(userId, sprintId);
+        if (projectGrade.isPresent()) {
+            return projectGrade.get();
         }
+        projectGradeDao.insertIfAbsent(userId, sprintId);
+        return projectGradeDao.findByUserIdAndSprintId(userId, sprintId).orElseThrow();
     }
 
     /**
-     * Met à jour toutes les notes de projet.
+     * Met à jour toutes les notes de projet, sprint par sprint.
      */
     public void updateAllProjectGrades(){
-        for(User user: userService.getStudents()){
-            for(Sprint sprint: sprintService.getAllSprints()){
-                updateProjectGrade(user.getId(), sprint.getId());
+        for(Sprint sprint: sprintService.getAllSprints()){
+            gradeEngineService.computeSprintGrades(sprint.getId());
+        }
+    }
+
+    /**
+     * Récupère les notes de projet enregistrées des membres d'une équipe pour un sprint, sans les recalculer.
+     * Les notes sont dites périmées si l'une d'elles a été marquée comme telle ou si un membre n'en a pas encore.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return Les notes de projet de l'équipe et leur état.
+     */
+    @Transactional(readOnly = true)
+    public TeamProjectGradesDTO getTeamProjectGrades(int teamId, int sprintId) {
+        List<ProjectGrade> projectGrades = projectGradeDao.findTreesByTeamIdAndSprintId(teamId, sprintId);
+        List<Integer> subGradeIds = new ArrayList<>();
+        boolean stale = projectGrades.size() < userTeamDao.countByTeam_Id(teamId);
+        for (ProjectGrade projectGrade : projectGrades) {
+            stale = stale || projectGrade.isStale();
+            collectSubGradeIds(projectGrade, subGradeIds);
+        }
+        if (!subGradeIds.isEmpty()) {
+            subGradeDao.fetchEvaluationsByIdIn(subGradeIds);
+        }
+
+        TeamProjectGradesDTO dto = new TeamProjectGradesDTO();
+        dto.setTeamId(teamId);
+        dto.setSprintId(sprintId);
+        dto.setStale(stale);
+        dto.setProjectGrades(projectGrades);
+        return dto;
+    }
+
+    /**
+     * Recalcule les notes à recalculer des membres d'une équipe puis les retourne.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @return Les notes de projet de l'équipe et leur état.
+     */
+    @Transactional
+    public TeamProjectGradesDTO refreshTeamProjectGrades(int teamId, int sprintId) {
+        gradeEngineService.recomputeDirtyGrades(sprintId, teamId);
+        return getTeamProjectGrades(teamId, sprintId);
+    }
+
+    /**
+     * Ajoute les identifiants des sous-notes d'une note de projet.
+     *
+     * @param projectGrade La note de projet.
+     * @param subGradeIds Les identifiants des sous-notes.
+     */
+    private void collectSubGradeIds(ProjectGrade projectGrade, List<Integer> subGradeIds) {
+        List<SubGrade> subGrades = new ArrayList<>();
+        InitialGrade initialGrade = projectGrade.getInitialGrade();
+        if (initialGrade != null) {
+            subGrades.addAll(Arrays.asList(initialGrade.getPrmo(), initialGrade.getSpco(), initialGrade.getTeso(), initialGrade.getSupr()));
+        }
+        WorkGrade workGrade = projectGrade.getWorkGrade();
+        if (workGrade != null) {
+            subGrades.addAll(Arrays.asList(workGrade.getSsbm(), workGrade.getTebm()));
+        }
+        PresentationGrade presentationGrade = projectGrade.getPresentationGrade();
+        if (presentationGrade != null) {
+            subGrades.addAll(Arrays.asList(presentationGrade.getSspr(), presentationGrade.getOtpr(), presentationGrade.getTcpr()));
+        }
+        for (SubGrade subGrade : subGrades) {
+            if (subGrade != null) {
+                subGradeIds.add(subGrade.getId());
             }
         }
     }
@@ -0,0 +1,131 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CacheStatsDTO;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache des données de référence : identifiant de chaque rôle et identifiants des détails de chaque
+ * catégorie. Ces données changent quelques fois par an mais sont lues à chaque calcul de note ; elles
+ * sont conservées par région jusqu'à une invalidation explicite par le service qui les modifie. Chaque
+ * région compte ses succès, ses échecs et ses invalidations.
+ * Seuls des identifiants, immuables, sont conservés : une entité appartient au contexte de persistance
+ * qui l'a chargée. Les appelants résolvent les entités dans leur propre session avec {@code findById},
+ * servi par le cache de second niveau.
+ */
+@Service
+public class ReferenceDataCache {
+
+    public static final String ROLES = "roles";
+    public static final String DETAILS = "details";
+
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur de la classe ReferenceDataCache.
+     */
+    public ReferenceDataCache() {
+        for (String region : List.of(ROLES, DETAILS)) {
+            regions.put(region, new Region());
+        }
+    }
+
+    /**
+     * Récupère une valeur d'une région, en la chargeant en cas d'échec. Une valeur nulle n'est pas
+     * conservée, et une valeur chargée pendant une invalidation de la région n'est pas conservée non plus.
+     *
+     * @param region Le nom de la région.
+     * @param key La clé.
+     * @param loader Le chargement de la valeur, un identifiant ou une liste immuable d'identifiants.
+     * @return La valeur.
+     * @param <V> Le type des valeurs.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String region, Object key, Supplier<V> loader) {
+        Region cache = region(region);
+        Object value = cache.entries.get(key);
+        if (value != null) {
+            cache.hits.increment();
+            return (V) value;
+        }
+        cache.misses.increment();
+        long generation = cache.generation.get();
+        V loaded = loader.get();
+        if (loaded != null) {
+            synchronized (cache) {
+                if (cache.generation.get() == generation) {
+                    cache.entries.put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Vide une région.
+     *
+     * @param region Le nom de la région.
+     */
+    public void invalidate(String region) {
+        Region cache = region(region);
+        synchronized (cache) {
+            cache.generation.incrementAndGet();
+            cache.entries.clear();
+        }
+        cache.invalidations.increment();
+    }
+
+    /**
+     * Vide toutes les régions.
+     */
+    public void invalidateAll() {
+        for (String region : regions.keySet()) {
+            invalidate(region);
+        }
+    }
+
+    /**
+     * Retourne les statistiques de chaque région.
+     *
+     * @return Les statistiques, une entrée par région.
+     */
+    public List<CacheStatsDTO> getStats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (Map.Entry<String, Region> entry : new TreeMap<>(regions).entrySet()) {
+            Region cache = entry.getValue();
+            CacheStatsDTO dto = new CacheStatsDTO();
+            dto.setRegion(entry.getKey());
+            dto.setSize(cache.entries.size());
+            dto.setHits(cache.hits.sum());
+            dto.setMisses(cache.misses.sum());
+            dto.setInvalidations(cache.invalidations.sum());
+            long lookups = dto.getHits() + dto.getMisses();
+            dto.setHitRatio(lookups == 0 ? 0 : (double) dto.getHits() / lookups);
+            stats.add(dto);
+        }
+        return stats;
+    }
+
+    private Region region(String name) {
+        return regions.computeIfAbsent(name, k -> new Region());
+    }
+
+    /**
+     * Entrées et compteurs d'une région.
+     */
+    private static final class Region {
+        private final Map<Object, Object> entries = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+    }
+}
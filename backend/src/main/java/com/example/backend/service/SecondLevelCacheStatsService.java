@@ -0,0 +1,65 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Service de lecture des statistiques du cache de second niveau d'Hibernate.
+ * Chaque entité de référence et le cache des requêtes disposent de leur propre région.
+ */
+@Service
+public class SecondLevelCacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructeur de la classe SecondLevelCacheStatsService.
+     *
+     * @param entityManagerFactory La fabrique des gestionnaires d'entités.
+     */
+    @Autowired
+    public SecondLevelCacheStatsService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Retourne les statistiques de chaque région du cache de second niveau.
+     *
+     * @return Les statistiques, une entrée par région, triées par nom.
+     */
+    public List<CacheStatsDTO> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        for (String regionName : new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()))) {
+            addStats(stats, regionName, statistics.getCacheRegionStatistics(regionName));
+        }
+        String queryRegionName = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+        addStats(stats, queryRegionName, statistics.getQueryRegionStatistics(queryRegionName));
+        return stats;
+    }
+
+    private static void addStats(List<CacheStatsDTO> stats, String regionName, CacheRegionStatistics region) {
+        if (region == null) {
+            return;
+        }
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setRegion(regionName);
+        dto.setSize((int) Math.max(0, region.getElementCountInMemory()));
+        dto.setHits(region.getHitCount());
+        dto.setMisses(region.getMissCount());
+        dto.setPuts(region.getPutCount());
+        long lookups = dto.getHits() + dto.getMisses();
+        dto.setHitRatio(lookups == 0 ? 0 : (double) dto.getHits() / lookups);
+        stats.add(dto);
+    }
+}
@@ -20,6 +20,7 @@ public class SprintService {
     private final FeedbackDao feedbackDao;
     private final CommentDao commentDao;
     private final TeamGradeDao teamGrade;
+    private final TeamGradeAverageDao teamGradeAverageDao;
 
     /**
      * Constructeur de la classe SprintService.
@@ -30,15 +31,17 @@ public class SprintService {
      * @param feedbackDao Le DAO des retours.
      * @param commentDao Le DAO des commentaires.
      * @param teamGrade Le DAO des notes d'équipe.
+     * @param teamGradeAverageDao Le DAO des moyennes des notes d'équipe.
      */
     @Autowired
-    public SprintService(SprintDao sprintDao, TeamGradeFromStudentDao teamGradeFromStudentDao, TeamOrderDao teamOrderDao, FeedbackDao feedbackDao, CommentDao commentDao, TeamGradeDao teamGrade) {
+    public SprintService(SprintDao sprintDao, TeamGradeFromStudentDao teamGradeFromStudentDao, TeamOrderDao teamOrderDao, FeedbackDao feedbackDao, CommentDao commentDao, TeamGradeDao teamGrade, TeamGradeAverageDao teamGradeAverageDao) {
         this.sprintDao = sprintDao;
         this.teamGradeFromStudentDao = teamGradeFromStudentDao;
         this.teamOrderDao = teamOrderDao;
         this.feedbackDao = feedbackDao;
         this.commentDao = commentDao;
         this.teamGrade = teamGrade;
+        this.teamGradeAverageDao = teamGradeAverageDao;
     }
 
     /**
@@ -81,6 +84,7 @@ public class SprintService {
      * Supprime tous les sprints.
      */
     public void deleteAll() {
+        teamGradeAverageDao.deleteAll();
         teamGrade.deleteAll();
         feedbackDao.deleteAll();
         commentDao.deleteAll();
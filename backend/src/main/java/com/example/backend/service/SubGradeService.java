@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service de gestion des sous-notes.
@@ -115,10 +116,10 @@ public class SubGradeService {
      * @param evaluators Les évaluateurs.
      */
     private void updateEvaluations(SubGrade subGrade, List<User> evaluators) {
+        int teamId = teamService.getTeamIdByUserId(subGrade.getUser().getId());
         for(User evaluator: evaluators){
             Evaluation evaluation = evaluationService.addEvaluator(subGrade, evaluator);
-            Team myTeam = teamService.getTeamByUserId(subGrade.getUser().getId());
-            Double value = teamGradeService.getAverageTeamGradeByCategoryId(subGrade.getGradeType().getId(), subGrade.getSprint().getId(), myTeam.getId(), evaluator.getId());
+            Double value = teamGradeService.getAverageTeamGradeByCategoryId(subGrade.getGradeType().getId(), subGrade.getSprint().getId(), teamId, evaluator.getId());
             evaluationService.updateEvaluation(evaluation, value);
         }
     }
@@ -162,12 +163,12 @@ public class SubGradeService {
      * @return La sous-note.
      */
     public SubGrade getSubGradeByUserIdAndSprintIdAndGradeType(int userId, int sprintId, GradeTypes gradeType) {
-        try{
-            return subGradeDao.findByUserIdAndSprintIdAndGradeType(userId, sprintId, gradeType).orElseThrow();
-        } catch (Exception e) {
-            return createSubGrade(userId, sprintId, gradeType);
-
+        Optional<SubGrade> subGrade = subGradeDao.findByUserIdAndSprintIdAndGradeType(userId, sprintId, gradeType);
+        if (subGrade.isPresent()) {
+            return subGrade.get();
         }
+        subGradeDao.insertIfAbsent(userId, sprintId, gradeType.getId());
+        return subGradeDao.findByUserIdAndSprintIdAndGradeType(userId, sprintId, gradeType).orElseThrow();
     }
 
     /**
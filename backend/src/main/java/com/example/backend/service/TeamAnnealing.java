@@ -0,0 +1,187 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Optimiseur stochastique de l'équilibre des moyennes, utilisé par la stratégie
+ * {@link com.example.backend.model.FormationStrategy#ANNEALING}.
+ * Plusieurs recuits simulés indépendants, chacun avec sa propre graine, partent de la répartition
+ * initiale et s'exécutent en parallèle sur l'exécuteur fourni ; chacun est suivi de l'équilibrage
+ * glouton de {@link TeamFormation} et la répartition de plus faible écart est retenue. Les échanges
+ * ne portent que sur des étudiants de même catégorie, si bien que les quotas sont conservés.
+ */
+final class TeamAnnealing {
+
+    static final int MIN_ITERATIONS = 20000;
+    static final int ITERATIONS_PER_STUDENT = 500;
+    static final double FINAL_TEMPERATURE_RATIO = 1e-4;
+    private static final int CLOCK_MASK = 1023;
+
+    private TeamAnnealing() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Optimise la répartition en lançant plusieurs recuits en parallèle et en conservant le meilleur
+     * résultat, la répartition gloutonne comprise.
+     *
+     * @param grades Les notes des étudiants.
+     * @param flags Les drapeaux des étudiants.
+     * @param members Les indices des étudiants de chaque équipe, remplacés par la meilleure répartition.
+     * @param threshold L'écart de moyenne visé.
+     * @param deadline L'échéance, au sens de {@link System#nanoTime()}.
+     * @param restarts Le nombre de recuits indépendants.
+     * @param executor L'exécuteur des recuits ; s'il est saturé, les recuits restants ne sont pas lancés.
+     * @return L'écart obtenu, le nombre d'échanges et l'épuisement éventuel du budget.
+     */
+    static TeamFormation.Balance optimize(double[] grades, byte[] flags, int[][] members, double threshold,
+                                          long deadline, int restarts, Executor executor) {
+        List<CompletableFuture<Candidate>> tasks = new ArrayList<>(restarts);
+        for (int restart = 0; restart < restarts; restart++) {
+            int[][] start = copy(members);
+            long seed = restart;
+            try {
+                tasks.add(CompletableFuture.supplyAsync(() -> run(grades, flags, start, threshold, deadline, seed), executor));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+
+        int[][] greedy = copy(members);
+        TeamFormation.Balance balance = TeamFormation.balance(grades, flags, greedy, threshold, deadline);
+        Candidate best = new Candidate(greedy, balance);
+        for (CompletableFuture<Candidate> task : tasks) {
+            Candidate candidate = task.join();
+            if (candidate.balance().spread() < best.balance().spread()) {
+                best = candidate;
+            }
+        }
+        for (int t = 0; t < members.length; t++) {
+            members[t] = best.members()[t];
+        }
+        return best.balance();
+    }
+
+    /**
+     * Exécute un recuit simulé puis l'équilibrage glouton sur une copie de la répartition.
+     * L'énergie minimisée est la somme des carrés des écarts des moyennes à la moyenne générale ;
+     * un échange est tiré au hasard entre deux étudiants de même catégorie et accepté selon le
+     * critère de Metropolis, la température décroissant géométriquement.
+     *
+     * @return La répartition obtenue et son écart.
+     */
+    static Candidate run(double[] grades, byte[] flags, int[][] members, double threshold, long deadline, long seed) {
+        int numberOfTeams = members.length;
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] sums = new double[numberOfTeams];
+        double total = 0;
+        int students = 0;
+        for (int t = 0; t < numberOfTeams; t++) {
+            for (int student : members[t]) {
+                sums[t] += grades[student];
+            }
+            total += sums[t];
+            students += members[t].length;
+        }
+        double mean = students == 0 ? 0 : total / students;
+        double energy = 0;
+        for (int t = 0; t < numberOfTeams; t++) {
+            if (members[t].length > 0) {
+                double deviation = sums[t] / members[t].length - mean;
+                energy += deviation * deviation;
+            }
+        }
+
+        long swaps = 0;
+        boolean timedOut = false;
+        if (numberOfTeams > 1 && energy > 0) {
+            long iterations = Math.max(MIN_ITERATIONS, (long) ITERATIONS_PER_STUDENT * students);
+            double temperature = energy / numberOfTeams;
+            double cooling = Math.pow(FINAL_TEMPERATURE_RATIO, 1.0 / iterations);
+            for (long iteration = 0; iteration < iterations; iteration++, temperature *= cooling) {
+                if ((iteration & CLOCK_MASK) == 0 && System.nanoTime() - deadline >= 0) {
+                    timedOut = true;
+                    break;
+                }
+                int a = random.nextInt(numberOfTeams);
+                int b = random.nextInt(numberOfTeams - 1);
+                if (b >= a) {
+                    b++;
+                }
+                int[] teamA = members[a];
+                int[] teamB = members[b];
+                if (teamA.length == 0 || teamB.length == 0) {
+                    continue;
+                }
+                int i = random.nextInt(teamA.length);
+                int j = sameCategory(flags, teamB, flags[teamA[i]], random.nextInt(teamB.length));
+                if (j < 0) {
+                    continue;
+                }
+                double delta = grades[teamA[i]] - grades[teamB[j]];
+                if (delta == 0) {
+                    continue;
+                }
+                double oldA = sums[a] / teamA.length - mean;
+                double oldB = sums[b] / teamB.length - mean;
+                double newA = (sums[a] - delta) / teamA.length - mean;
+                double newB = (sums[b] + delta) / teamB.length - mean;
+                double change = newA * newA + newB * newB - oldA * oldA - oldB * oldB;
+                if (change <= 0 || random.nextDouble() < Math.exp(-change / temperature)) {
+                    int student = teamA[i];
+                    teamA[i] = teamB[j];
+                    teamB[j] = student;
+                    sums[a] -= delta;
+                    sums[b] += delta;
+                    swaps++;
+                }
+            }
+        }
+
+        TeamFormation.Balance polish = TeamFormation.balance(grades, flags, members, threshold, deadline);
+        boolean exhausted = (timedOut || polish.budgetExhausted()) && polish.spread() > threshold;
+        return new Candidate(members, new TeamFormation.Balance(polish.spread(), swaps + polish.swaps(), exhausted));
+    }
+
+    /**
+     * Cherche dans une équipe, à partir d'une position donnée, un étudiant de la catégorie donnée.
+     *
+     * @return La position de l'étudiant, ou -1 si l'équipe n'en compte aucun.
+     */
+    static int sameCategory(byte[] flags, int[] team, byte category, int from) {
+        for (int k = 0; k < team.length; k++) {
+            int position = from + k < team.length ? from + k : from + k - team.length;
+            if (flags[team[position]] == category) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copie la composition des équipes.
+     *
+     * @return Une copie indépendante des tableaux d'indices.
+     */
+    static int[][] copy(int[][] members) {
+        int[][] copy = new int[members.length][];
+        for (int t = 0; t < members.length; t++) {
+            copy[t] = members[t].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Répartition proposée par un recuit.
+     *
+     * @param members Les indices des étudiants de chaque équipe.
+     * @param balance L'écart obtenu et le nombre d'échanges.
+     */
+    record Candidate(int[][] members, TeamFormation.Balance balance) {
+    }
+}
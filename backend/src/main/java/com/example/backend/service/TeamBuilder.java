@@ -10,6 +10,8 @@ import java.util.*;
  */
 public class TeamBuilder {
 
+    static final int MAX_BALANCE_ITERATIONS = 10000;
+
     private TeamBuilder() {
         // Private constructor to prevent instantiation
     }
@@ -173,7 +175,9 @@ public class TeamBuilder {
     }
 
     /**
-     * Ajuste la distribution des utilisatrices.
+     * Ajuste la distribution des utilisatrices. Chaque équipe reçoit au moins le nombre demandé, et
+     * davantage si les équipes suivantes ne peuvent accueillir les utilisatrices restantes, sans jamais
+     * dépasser sa taille.
      *
      * @param girlsDistribution La distribution des utilisatrices
      * @param totalGirls Le nombre total d'utilisatrices
@@ -183,16 +187,10 @@ public class TeamBuilder {
         for (int i = 0; i < girlsDistribution.size(); i++) {
             int actualCapacity = girlsDistribution.get(i);
             int futureCapacity = calculateFutureCapacity(girlsDistribution, i);
-            boolean addGirls = false;
-            while (!addGirls) {
-                if (futureCapacity >= totalGirls - girlsPerTeam && girlsPerTeam <= actualCapacity) {
-                    addGirls = true;
-                } else {
-                    girlsPerTeam++;
-                }
-            }
-            girlsDistribution.set(i, girlsPerTeam);
-            totalGirls -= girlsPerTeam;
+            girlsPerTeam = Math.max(girlsPerTeam, totalGirls - futureCapacity);
+            int girls = Math.max(0, Math.min(Math.min(girlsPerTeam, actualCapacity), totalGirls));
+            girlsDistribution.set(i, girls);
+            totalGirls -= girls;
         }
     }
 
@@ -243,9 +241,11 @@ public class TeamBuilder {
      * @param girlsDistribution La distribution des filles
      * @param bachelorGirlDistribution La distribution des filles bacheliers
      * @param nonBachelorGirlDistribution La distribution des filles non bacheliers
+     * @throws IllegalArgumentException S'il ne reste plus de place de fille pour les bachelières.
      */
     private static void placeGirlsInTeams(int bachelorGirls, List<Integer> girlsDistribution, List<Integer> bachelorGirlDistribution, List<Integer> nonBachelorGirlDistribution) {
         while (bachelorGirls > 0) {
+            int remaining = bachelorGirls;
             for (int i = 0; i < girlsDistribution.size(); i++) {
                 if (nonBachelorGirlDistribution.get(i) > 0) {
                     bachelorGirlDistribution.set(i, bachelorGirlDistribution.get(i) + 1);
@@ -256,6 +256,9 @@ public class TeamBuilder {
                     }
                 }
             }
+            if (bachelorGirls == remaining) {
+                throw new IllegalArgumentException("Not enough places for the bachelor girls");
+            }
         }
     }
 
@@ -267,10 +270,15 @@ public class TeamBuilder {
      * @param girlsDistribution La distribution des filles
      * @param bachelorDistribution La distribution des bacheliers
      * @param bachelorBoyDistribution La distribution des garçons bacheliers
+     * @throws IllegalArgumentException S'il ne reste plus de place de garçon pour les bacheliers.
      */
     private static void placeBoysInTeams(int bachelorBoys, List<Integer> distributionTeam, List<Integer> girlsDistribution, List<Integer> bachelorDistribution, List<Integer> bachelorBoyDistribution) {
         while (bachelorBoys > 0) {
+            int remaining = bachelorBoys;
             bachelorBoys = distributeBoys(bachelorBoys, distributionTeam, girlsDistribution, bachelorDistribution, bachelorBoyDistribution);
+            if (bachelorBoys == remaining) {
+                throw new IllegalArgumentException("Not enough places for the bachelor boys");
+            }
         }
     }
 
@@ -408,7 +416,9 @@ public class TeamBuilder {
     }
 
     /**
-     * Équilibre les équipes.
+     * Équilibre les équipes. Le nombre de transferts est borné par {@link #MAX_BALANCE_ITERATIONS} :
+     * une fois le budget épuisé, la meilleure répartition rencontrée est conservée et l'écart qu'elle
+     * atteint est enregistré comme seuil.
      *
      * @param teamsOrganized La liste des équipes
      * @param criteria Les critères de construction des équipes
@@ -424,8 +434,15 @@ public class TeamBuilder {
 
         double threshold = 0.1;
         int cmpt = 0;
-
-        while (ecartMoyennes(moyennes) > threshold) {
+        double bestEcart = ecartMoyennes(moyennes);
+        List<List<User>> best = copyTeams(teamsOrganized);
+
+        for (int iteration = 0; ecartMoyennes(moyennes) > threshold; iteration++) {
+            if (iteration >= MAX_BALANCE_ITERATIONS) {
+                restoreTeams(teamsOrganized, best);
+                threshold = Math.ceil(bestEcart * 100) / 100;
+                break;
+            }
             cmpt += 1;
             int indiceMin = indiceMinMoyenne(moyennes);
             int indiceMax = indiceMaxMoyenne(moyennes);
@@ -436,6 +453,10 @@ public class TeamBuilder {
             // Recalcul des moyennes
             moyennes[indiceMin] = calculerMoyenne(teamsOrganized.get(indiceMin));
             moyennes[indiceMax] = calculerMoyenne(teamsOrganized.get(indiceMax));
+            if (ecartMoyennes(moyennes) < bestEcart) {
+                bestEcart = ecartMoyennes(moyennes);
+                best = copyTeams(teamsOrganized);
+            }
 
             if (cmpt > 1000) {
                 threshold += 0.05;
@@ -448,6 +469,33 @@ public class TeamBuilder {
         return teamsOrganized;
     }
 
+    /**
+     * Copie la composition des équipes.
+     *
+     * @param teams La liste des équipes
+     * @return Une copie de la composition des équipes
+     */
+    private static List<List<User>> copyTeams(List<List<User>> teams) {
+        List<List<User>> copy = new ArrayList<>(teams.size());
+        for (List<User> team : teams) {
+            copy.add(new ArrayList<>(team));
+        }
+        return copy;
+    }
+
+    /**
+     * Rétablit une composition d'équipes enregistrée.
+     *
+     * @param teams La liste des équipes, modifiée sur place
+     * @param saved La composition à rétablir
+     */
+    private static void restoreTeams(List<List<User>> teams, List<List<User>> saved) {
+        for (int i = 0; i < teams.size(); i++) {
+            teams.get(i).clear();
+            teams.get(i).addAll(saved.get(i));
+        }
+    }
+
     /**
      * Calcule la moyenne des notes des étudiants.
      *
@@ -0,0 +1,509 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TeamFormationReportDTO;
+import com.example.backend.model.Criteria;
+import com.example.backend.model.FormationStrategy;
+import com.example.backend.model.SubjectGrades;
+import com.example.backend.model.User;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * Cœur de formation des équipes sur des tableaux primitifs.
+ * Les notes sont rangées dans un {@code double[]} et le genre et le statut de bachelier dans un
+ * {@code byte[]} de drapeaux ; les étudiants sont répartis par quotas (taille, filles, bacheliers)
+ * puis les moyennes sont équilibrées par échanges entre étudiants de même catégorie, avec des
+ * sommes par équipe tenues à jour à chaque échange. Les quotas garantis par
+ * {@link TeamBuilder#buildTeams(List, Criteria)} sont donc conservés par l'équilibrage.
+ * La formation dispose d'un budget de temps et d'échanges : une fois épuisé, la meilleure répartition
+ * obtenue est retournée avec un rapport de qualité. Avec la stratégie
+ * {@link FormationStrategy#ANNEALING}, l'équilibrage glouton est mis en concurrence avec des recuits
+ * simulés parallèles ({@link TeamAnnealing}) dans le même budget ; avec la stratégie
+ * {@link FormationStrategy#MULTI_DIMENSIONAL}, les moyennes sont équilibrées sur la moyenne générale
+ * et sur chaque matière à la fois ({@link TeamVectorBalancing}).
+ */
+public final class TeamFormation {
+
+    static final byte FEMALE = 1;
+    static final byte BACHELOR = 2;
+    static final int CATEGORIES = 4;
+    static final double DEFAULT_THRESHOLD = 0.1;
+    static final int MAX_SWAPS_PER_TEAM = 64;
+    static final int PARTNERS = 8;
+    static final Duration DEFAULT_BUDGET = Duration.ofSeconds(2);
+    static final Duration MAX_BUDGET = Duration.ofSeconds(10);
+    static final int RESTARTS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final double EPSILON = 1e-9;
+
+    private TeamFormation() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Convertit un budget exprimé en millisecondes.
+     *
+     * @param budgetMillis Le budget en millisecondes, ou null pour le budget par défaut.
+     * @return Le budget.
+     */
+    public static Duration budget(Integer budgetMillis) {
+        return budgetMillis == null ? DEFAULT_BUDGET : Duration.ofMillis(Math.max(0, budgetMillis));
+    }
+
+    /**
+     * Construit des équipes équilibrées dans le budget de temps donné.
+     * Met à jour le nombre de bacheliers par équipe et l'écart de moyenne atteint dans les critères.
+     *
+     * @param users    La liste des utilisateurs.
+     * @param criteria Les critères de construction des équipes.
+     * @param budget   Le temps accordé à l'équilibrage des moyennes, borné par {@link #MAX_BUDGET}.
+     * @param executor L'exécuteur des recherches parallèles des stratégies
+     *                 {@link FormationStrategy#ANNEALING} et {@link FormationStrategy#MULTI_DIMENSIONAL}.
+     * @return Les équipes construites et le rapport de qualité de la répartition.
+     * @throws IllegalArgumentException Si le nombre d'équipes est invalide ou si un utilisateur n'a pas de note.
+     */
+    public static Formation formTeams(List<User> users, Criteria criteria, Duration budget, Executor executor) {
+        long start = System.nanoTime();
+        if (criteria.getNumberOfTeams() <= 0) {
+            throw new IllegalArgumentException("The number of teams must be positive");
+        }
+        int size = users.size();
+        double[] grades = new double[size];
+        byte[] flags = new byte[size];
+        for (int i = 0; i < size; i++) {
+            User user = users.get(i);
+            if (user.getGradePast() == null) {
+                throw new IllegalArgumentException("User " + user.getEmail() + " has no grade");
+            }
+            grades[i] = user.getGradePast();
+            flags[i] = flags(user);
+        }
+
+        int[][] quotas = computeQuotas(flags, criteria.getNumberOfTeams(), criteria.getNumberOfGirls());
+        int bachelors = 0;
+        for (byte flag : flags) {
+            if ((flag & BACHELOR) != 0) {
+                bachelors++;
+            }
+        }
+        criteria.setNumberOfBachelor((int) Math.ceil((double) bachelors / criteria.getNumberOfTeams()));
+
+        int[][] members = assign(grades, flags, quotas);
+        long deadline = start + Math.min(budget.toNanos(), MAX_BUDGET.toNanos());
+        Double[][] rows = null;
+        Balance balance;
+        if (criteria.getStrategy() == FormationStrategy.MULTI_DIMENSIONAL) {
+            rows = gradeVectors(users);
+            double[][] vectors = TeamVectorBalancing.standardize(rows, 1 + SubjectGrades.DIMENSIONS);
+            balance = TeamVectorBalancing.optimize(vectors, grades, flags, members, DEFAULT_THRESHOLD, deadline, RESTARTS, executor);
+        } else if (criteria.getStrategy() == FormationStrategy.ANNEALING) {
+            balance = TeamAnnealing.optimize(grades, flags, members, DEFAULT_THRESHOLD, deadline, RESTARTS, executor);
+        } else {
+            balance = balance(grades, flags, members, DEFAULT_THRESHOLD, deadline);
+        }
+        criteria.setMinAverageThreshold(reachedThreshold(balance.spread()));
+
+        List<List<User>> teams = new ArrayList<>(members.length);
+        for (int[] team : members) {
+            List<User> teamUsers = new ArrayList<>(team.length);
+            for (int student : team) {
+                teamUsers.add(users.get(student));
+            }
+            teams.add(teamUsers);
+        }
+        TeamFormationReportDTO report = report(flags, members, balance, criteria.getMinAverageThreshold());
+        if (rows != null) {
+            List<Double> dimensionSpreads = new ArrayList<>(1 + SubjectGrades.DIMENSIONS);
+            for (int d = 0; d <= SubjectGrades.DIMENSIONS; d++) {
+                dimensionSpreads.add(TeamVectorBalancing.spread(TeamVectorBalancing.column(rows, d), members));
+            }
+            report.setDimensionSpreads(dimensionSpreads);
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return new Formation(teams, report);
+    }
+
+    /**
+     * Construit pour chaque étudiant le vecteur de ses notes : moyenne générale puis notes par matière.
+     *
+     * @param users La liste des utilisateurs.
+     * @return Les vecteurs bruts, null pour une matière non renseignée.
+     */
+    static Double[][] gradeVectors(List<User> users) {
+        Double[][] rows = new Double[users.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            User user = users.get(i);
+            Double[] row = new Double[1 + SubjectGrades.DIMENSIONS];
+            row[0] = user.getGradePast();
+            if (user.getSubjectGrades() != null) {
+                System.arraycopy(user.getSubjectGrades().values(), 0, row, 1, SubjectGrades.DIMENSIONS);
+            }
+            rows[i] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * Établit le rapport de qualité d'une répartition.
+     *
+     * @param flags Les drapeaux des étudiants.
+     * @param members Les indices des étudiants de chaque équipe.
+     * @param balance Le résultat de l'équilibrage.
+     * @param threshold Le seuil enregistré dans les critères.
+     * @return Le rapport de qualité.
+     */
+    static TeamFormationReportDTO report(byte[] flags, int[][] members, Balance balance, double threshold) {
+        TeamFormationReportDTO report = new TeamFormationReportDTO();
+        report.setNumberOfStudents(flags.length);
+        report.setNumberOfTeams(members.length);
+        report.setMinTeamSize(Integer.MAX_VALUE);
+        report.setMinGirls(Integer.MAX_VALUE);
+        report.setMinBachelors(Integer.MAX_VALUE);
+        for (int[] team : members) {
+            int girls = 0;
+            int bachelors = 0;
+            for (int student : team) {
+                girls += flags[student] & FEMALE;
+                bachelors += (flags[student] & BACHELOR) >> 1;
+            }
+            report.setMinTeamSize(Math.min(report.getMinTeamSize(), team.length));
+            report.setMaxTeamSize(Math.max(report.getMaxTeamSize(), team.length));
+            report.setMinGirls(Math.min(report.getMinGirls(), girls));
+            report.setMaxGirls(Math.max(report.getMaxGirls(), girls));
+            report.setMinBachelors(Math.min(report.getMinBachelors(), bachelors));
+            report.setMaxBachelors(Math.max(report.getMaxBachelors(), bachelors));
+        }
+        report.setSpread(balance.spread());
+        report.setThreshold(threshold);
+        report.setSwaps(balance.swaps());
+        report.setBudgetExhausted(balance.budgetExhausted());
+        return report;
+    }
+
+    /**
+     * Code le genre et le statut de bachelier d'un utilisateur.
+     *
+     * @param user L'utilisateur.
+     * @return Les drapeaux de l'utilisateur.
+     */
+    static byte flags(User user) {
+        byte flag = 0;
+        if ("female".equals(user.getGender())) {
+            flag |= FEMALE;
+        }
+        if (user.isBachelor()) {
+            flag |= BACHELOR;
+        }
+        return flag;
+    }
+
+    /**
+     * Calcule pour chaque équipe le nombre d'étudiants de chaque catégorie.
+     * Les tailles d'équipe diffèrent d'au plus un, chaque équipe reçoit si possible le nombre de filles
+     * demandé (le surplus étant réparti au plus juste) et les bacheliers sont répartis de sorte que
+     * leur nombre par équipe diffère d'au plus un tant que les places le permettent.
+     *
+     * @param flags Les drapeaux des étudiants.
+     * @param numberOfTeams Le nombre d'équipes.
+     * @param girlsPerTeam Le nombre de filles souhaité par équipe.
+     * @return Les quotas, indexés par équipe puis par catégorie.
+     */
+    static int[][] computeQuotas(byte[] flags, int numberOfTeams, int girlsPerTeam) {
+        int[] countByCategory = new int[CATEGORIES];
+        for (byte flag : flags) {
+            countByCategory[flag]++;
+        }
+        int total = flags.length;
+        int[] sizes = new int[numberOfTeams];
+        for (int t = 0; t < numberOfTeams; t++) {
+            sizes[t] = total / numberOfTeams + (t < total % numberOfTeams ? 1 : 0);
+        }
+
+        int girls = countByCategory[FEMALE] + countByCategory[FEMALE | BACHELOR];
+        int[] girlsByTeam = new int[numberOfTeams];
+        int remaining = girls;
+        for (int t = 0; t < numberOfTeams && remaining > 0; t++) {
+            girlsByTeam[t] = Math.min(Math.min(Math.max(girlsPerTeam, 0), sizes[t]), remaining);
+            remaining -= girlsByTeam[t];
+        }
+        for (int round = 0; remaining > 0 && round <= total; round++) {
+            for (int t = 0; t < numberOfTeams && remaining > 0; t++) {
+                if (girlsByTeam[t] < sizes[t]) {
+                    girlsByTeam[t]++;
+                    remaining--;
+                }
+            }
+        }
+
+        int[][] quotas = new int[numberOfTeams][CATEGORIES];
+        int[] bachelorsByTeam = new int[numberOfTeams];
+        placeBachelors(countByCategory[FEMALE | BACHELOR], girlsByTeam, bachelorsByTeam, quotas, FEMALE | BACHELOR);
+        int[] boysByTeam = new int[numberOfTeams];
+        for (int t = 0; t < numberOfTeams; t++) {
+            boysByTeam[t] = sizes[t] - girlsByTeam[t];
+        }
+        placeBachelors(countByCategory[BACHELOR], boysByTeam, bachelorsByTeam, quotas, BACHELOR);
+        for (int t = 0; t < numberOfTeams; t++) {
+            quotas[t][FEMALE] = girlsByTeam[t] - quotas[t][FEMALE | BACHELOR];
+            quotas[t][0] = boysByTeam[t] - quotas[t][BACHELOR];
+        }
+        return quotas;
+    }
+
+    /**
+     * Place des bacheliers un par un dans l'équipe qui en compte le moins parmi celles ayant encore
+     * une place de leur genre.
+     *
+     * @param count Le nombre de bacheliers à placer.
+     * @param slots Les places disponibles par équipe pour leur genre.
+     * @param bachelorsByTeam Le nombre de bacheliers déjà placés par équipe.
+     * @param quotas Les quotas à compléter.
+     * @param category La catégorie des bacheliers placés.
+     */
+    private static void placeBachelors(int count, int[] slots, int[] bachelorsByTeam, int[][] quotas, int category) {
+        PriorityQueue<Integer> teams = new PriorityQueue<>(Math.max(1, slots.length),
+                Comparator.<Integer>comparingInt(t -> bachelorsByTeam[t]).thenComparingInt(t -> t));
+        for (int t = 0; t < slots.length; t++) {
+            if (slots[t] > 0) {
+                teams.add(t);
+            }
+        }
+        while (count > 0 && !teams.isEmpty()) {
+            int team = teams.poll();
+            quotas[team][category]++;
+            bachelorsByTeam[team]++;
+            count--;
+            if (quotas[team][category] < slots[team]) {
+                teams.add(team);
+            }
+        }
+    }
+
+    /**
+     * Affecte les étudiants aux équipes selon les quotas : dans chaque catégorie, les étudiants sont
+     * pris du meilleur au moins bon et chacun rejoint, tour après tour, l'équipe dont la moyenne
+     * provisoire est la plus basse.
+     *
+     * @param grades Les notes des étudiants.
+     * @param flags Les drapeaux des étudiants.
+     * @param quotas Les quotas par équipe et par catégorie.
+     * @return Les indices des étudiants de chaque équipe.
+     */
+    static int[][] assign(double[] grades, byte[] flags, int[][] quotas) {
+        int numberOfTeams = quotas.length;
+        int[][] members = new int[numberOfTeams][];
+        int[] filled = new int[numberOfTeams];
+        double[] sums = new double[numberOfTeams];
+        for (int t = 0; t < numberOfTeams; t++) {
+            int teamSize = 0;
+            for (int quota : quotas[t]) {
+                teamSize += quota;
+            }
+            members[t] = new int[teamSize];
+        }
+
+        for (int category = 0; category < CATEGORIES; category++) {
+            int[] students = sortedDescending(grades, flags, category);
+            int[] left = new int[numberOfTeams];
+            Integer[] order = new Integer[numberOfTeams];
+            int next = 0;
+            for (int t = 0; t < numberOfTeams; t++) {
+                left[t] = quotas[t][category];
+                order[t] = t;
+            }
+            while (next < students.length) {
+                Arrays.sort(order, Comparator.comparingDouble((Integer t) -> filled[t] == 0 ? 0 : sums[t] / filled[t]));
+                boolean placed = false;
+                for (int t : order) {
+                    if (left[t] > 0 && next < students.length) {
+                        int student = students[next++];
+                        members[t][filled[t]++] = student;
+                        sums[t] += grades[student];
+                        left[t]--;
+                        placed = true;
+                    }
+                }
+                if (!placed) {
+                    throw new IllegalStateException("Quotas do not cover every student");
+                }
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Équilibre les moyennes en échangeant des étudiants de même catégorie entre l'équipe de plus forte
+     * moyenne et l'une des équipes les plus faibles, ou à défaut entre l'équipe de plus faible moyenne et
+     * l'une des plus fortes. Un échange n'est retenu que s'il réduit l'écart entre les deux équipes sans
+     * sortir de l'intervalle des moyennes : l'écart global ne croît jamais et la somme des carrés des
+     * sommes pondérées décroît strictement, ce qui garantit l'arrêt. Le nombre d'échanges est en outre
+     * borné par le nombre d'équipes et l'équilibrage s'interrompt à l'échéance donnée ; la répartition
+     * courante est alors la meilleure obtenue.
+     *
+     * @param grades Les notes des étudiants.
+     * @param flags Les drapeaux des étudiants.
+     * @param members Les indices des étudiants de chaque équipe, modifiés sur place.
+     * @param threshold L'écart de moyenne en dessous duquel l'équilibrage s'arrête.
+     * @param deadline L'échéance, au sens de {@link System#nanoTime()}.
+     * @return L'écart obtenu, le nombre d'échanges et l'épuisement éventuel du budget.
+     */
+    static Balance balance(double[] grades, byte[] flags, int[][] members, double threshold, long deadline) {
+        int numberOfTeams = members.length;
+        double[] averages = new double[numberOfTeams];
+        double[] sums = new double[numberOfTeams];
+        TreeSet<Integer> byAverage = new TreeSet<>(Comparator.<Integer>comparingDouble(t -> averages[t]).thenComparingInt(t -> t));
+        for (int t = 0; t < numberOfTeams; t++) {
+            for (int student : members[t]) {
+                sums[t] += grades[student];
+            }
+            averages[t] = members[t].length == 0 ? 0 : sums[t] / members[t].length;
+            if (members[t].length > 0) {
+                byAverage.add(t);
+            }
+        }
+        if (byAverage.size() < 2) {
+            return new Balance(0, 0, false);
+        }
+
+        long maxSwaps = (long) MAX_SWAPS_PER_TEAM * numberOfTeams;
+        long swaps = 0;
+        for (; swaps < maxSwaps && System.nanoTime() - deadline < 0; swaps++) {
+            int low = byAverage.first();
+            int high = byAverage.last();
+            double gap = averages[high] - averages[low];
+            if (gap <= threshold) {
+                return new Balance(gap, swaps, false);
+            }
+            int[] swap = null;
+            int swapHigh = high;
+            int swapLow = low;
+            Iterator<Integer> lows = byAverage.iterator();
+            for (int tried = 0; swap == null && tried < PARTNERS && lows.hasNext(); tried++) {
+                swapLow = lows.next();
+                swap = bestSwap(grades, flags, members[high], members[swapLow], sums[high], sums[swapLow], averages[low], averages[high]);
+            }
+            Iterator<Integer> highs = byAverage.descendingIterator();
+            for (int tried = 0; swap == null && tried < PARTNERS && highs.hasNext(); tried++) {
+                swapLow = low;
+                swapHigh = highs.next();
+                swap = bestSwap(grades, flags, members[swapHigh], members[low], sums[swapHigh], sums[low], averages[low], averages[high]);
+            }
+            if (swap == null) {
+                return new Balance(gap, swaps, false);
+            }
+            byAverage.remove(swapHigh);
+            byAverage.remove(swapLow);
+            int fromHigh = members[swapHigh][swap[0]];
+            int fromLow = members[swapLow][swap[1]];
+            members[swapHigh][swap[0]] = fromLow;
+            members[swapLow][swap[1]] = fromHigh;
+            double delta = grades[fromHigh] - grades[fromLow];
+            sums[swapHigh] -= delta;
+            sums[swapLow] += delta;
+            averages[swapHigh] = sums[swapHigh] / members[swapHigh].length;
+            averages[swapLow] = sums[swapLow] / members[swapLow].length;
+            byAverage.add(swapHigh);
+            byAverage.add(swapLow);
+        }
+        double spread = averages[byAverage.last()] - averages[byAverage.first()];
+        return new Balance(spread, swaps, spread > threshold);
+    }
+
+    /**
+     * Cherche l'échange entre deux équipes qui rapproche le plus leurs moyennes sans sortir de
+     * l'intervalle [minAverage, maxAverage].
+     *
+     * @return Les positions des deux étudiants à échanger, ou null si aucun échange n'améliore l'écart.
+     */
+    private static int[] bestSwap(double[] grades, byte[] flags, int[] high, int[] low, double highSum, double lowSum,
+                                  double minAverage, double maxAverage) {
+        double bestGap = highSum / high.length - lowSum / low.length - EPSILON;
+        int[] best = null;
+        for (int i = 0; i < high.length; i++) {
+            for (int j = 0; j < low.length; j++) {
+                if (flags[high[i]] != flags[low[j]]) {
+                    continue;
+                }
+                double delta = grades[high[i]] - grades[low[j]];
+                if (delta <= 0) {
+                    continue;
+                }
+                double newHigh = (highSum - delta) / high.length;
+                double newLow = (lowSum + delta) / low.length;
+                if (newHigh < minAverage - EPSILON || newLow > maxAverage + EPSILON) {
+                    continue;
+                }
+                double newGap = Math.abs(newHigh - newLow);
+                if (newGap < bestGap) {
+                    bestGap = newGap;
+                    best = new int[]{i, j};
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Trie les étudiants d'une catégorie par note décroissante. Chaque étudiant est codé sur un
+     * {@code long} (note en simple précision dans les bits de poids fort, indice dans les bits de poids
+     * faible) afin de trier un tableau primitif.
+     *
+     * @return Les indices des étudiants de la catégorie.
+     */
+    private static int[] sortedDescending(double[] grades, byte[] flags, int category) {
+        int count = 0;
+        for (byte flag : flags) {
+            if (flag == category) {
+                count++;
+            }
+        }
+        long[] keys = new long[count];
+        int k = 0;
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i] == category) {
+                int bits = Float.floatToIntBits((float) grades[i]);
+                bits ^= (bits >> 31) & 0x7fffffff;
+                keys[k++] = ((long) bits << 32) | i;
+            }
+        }
+        Arrays.sort(keys);
+        int[] students = new int[count];
+        for (int i = 0; i < count; i++) {
+            students[i] = (int) keys[count - 1 - i];
+        }
+        return students;
+    }
+
+    /**
+     * Convertit l'écart obtenu en seuil enregistré dans les critères, arrondi au centième supérieur.
+     *
+     * @param spread L'écart entre la plus forte et la plus faible moyenne.
+     * @return Le seuil atteint.
+     */
+    static double reachedThreshold(double spread) {
+        if (spread <= DEFAULT_THRESHOLD) {
+            return DEFAULT_THRESHOLD;
+        }
+        return Math.ceil(spread * 100 - EPSILON) / 100;
+    }
+
+    /**
+     * Équipes formées et rapport de qualité de la répartition.
+     *
+     * @param teams Les équipes construites.
+     * @param report Le rapport de qualité.
+     */
+    public record Formation(List<List<User>> teams, TeamFormationReportDTO report) {
+    }
+
+    /**
+     * Résultat de l'équilibrage des moyennes.
+     *
+     * @param spread L'écart entre la plus forte et la plus faible moyenne.
+     * @param swaps Le nombre d'échanges effectués.
+     * @param budgetExhausted Vrai si le budget a été épuisé avant d'atteindre le seuil.
+     */
+    record Balance(double spread, long swaps, boolean budgetExhausted) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.TeamGradeFromStudentDao;
+import com.example.backend.model.GradeTypes;
 import com.example.backend.model.TeamGradeFromStudent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,7 @@ public class TeamGradeFromStudentService {
     private final TeamGradeFromStudentDao teamGradeFromStudentDao;
     private final TeamService teamService;
     private final SprintService sprintService;
+    private final GradeStalenessService gradeStalenessService;
 
     /**
      * Constructeur de la classe TeamGradeFromStudentService.
@@ -23,12 +25,14 @@ public class TeamGradeFromStudentService {
      * @param teamGradeFromStudentDao Le DAO des notes d'équipe des étudiants.
      * @param teamService Le service de gestion des équipes.
      * @param sprintService Le service de gestion des sprints.
+     * @param gradeStalenessService Le service de suivi des notes à recalculer.
      */
     @Autowired
-    public TeamGradeFromStudentService(TeamGradeFromStudentDao teamGradeFromStudentDao, TeamService teamService, SprintService sprintService){
+    public TeamGradeFromStudentService(TeamGradeFromStudentDao teamGradeFromStudentDao, TeamService teamService, SprintService sprintService, GradeStalenessService gradeStalenessService){
         this.teamGradeFromStudentDao = teamGradeFromStudentDao;
         this.teamService = teamService;
         this.sprintService = sprintService;
+        this.gradeStalenessService = gradeStalenessService;
     }
 
     /**
@@ -57,13 +61,8 @@ public class TeamGradeFromStudentService {
      * @param grade La note.
      */
     public void updateTeamGradeFromStudent(int teamNotingId, int teamToNoteId, int sprintId, int grade) {
-        try{
-            TeamGradeFromStudent teamGradeFromStudent = teamGradeFromStudentDao.findByTeamNotingIdAndTeamToNoteIdAndSprintId(teamNotingId, teamToNoteId, sprintId).orElseThrow();
-            teamGradeFromStudent.setGrade(grade);
-            teamGradeFromStudentDao.save(teamGradeFromStudent);
-        } catch (Exception e) {
-            saveTeamGradeFromStudent(teamNotingId, teamToNoteId, sprintId, grade);
-        }
+        teamGradeFromStudentDao.upsert(teamNotingId, teamToNoteId, sprintId, grade);
+        gradeStalenessService.markTeamStale(teamToNoteId, sprintId, GradeTypes.GradeTypesEnum.OTPR.getId());
     }
 
     /**
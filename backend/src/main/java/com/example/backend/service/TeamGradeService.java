@@ -1,16 +1,28 @@
 package com.example.backend.service;
 
+import com.example.backend.dao.TeamGradeAverageDao;
 import com.example.backend.dao.TeamGradeDao;
+import com.example.backend.dto.TeamGradeBatchDTO;
+import com.example.backend.dto.TeamGradeEntryDTO;
+import com.example.backend.model.Category;
 import com.example.backend.model.Detail;
+import com.example.backend.model.Sprint;
+import com.example.backend.model.Team;
 import com.example.backend.model.TeamGrade;
+import com.example.backend.model.TeamGradeAverage;
+import com.example.backend.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * Service de gestion des notes d'équipe.
+ * Chaque écriture verrouille d'abord les moyennes des catégories concernées, puis enregistre les notes
+ * et recalcule ces moyennes à partir des notes enregistrées : les écritures concurrentes sur une même
+ * moyenne s'exécutent l'une après l'autre et chacune voit les notes validées par les précédentes.
  */
 @Service
 public class TeamGradeService {
@@ -20,6 +32,8 @@ public class TeamGradeService {
     private final SprintService sprintService;
     private final DetailService detailService;
     private final UserService userService;
+    private final GradeStalenessService gradeStalenessService;
+    private final TeamGradeAverageDao teamGradeAverageDao;
 
     /**
      * Constructeur de la classe TeamGradeService.
@@ -29,14 +43,18 @@ public class TeamGradeService {
      * @param detailService Le service de gestion des détails.
      * @param sprintService Le service de gestion des sprints.
      * @param userService Le service de gestion des utilisateurs.
+     * @param gradeStalenessService Le service de suivi des notes à recalculer.
+     * @param teamGradeAverageDao Le DAO des moyennes des notes d'équipe.
      */
     @Autowired
-    public TeamGradeService(TeamGradeDao teamGradeDao, TeamService teamService, DetailService detailService, SprintService sprintService, UserService userService){
+    public TeamGradeService(TeamGradeDao teamGradeDao, TeamService teamService, DetailService detailService, SprintService sprintService, UserService userService, GradeStalenessService gradeStalenessService, TeamGradeAverageDao teamGradeAverageDao){
         this.teamGradeDao = teamGradeDao;
         this.teamService = teamService;
         this.detailService = detailService;
         this.sprintService = sprintService;
         this.userService = userService;
+        this.gradeStalenessService = gradeStalenessService;
+        this.teamGradeAverageDao = teamGradeAverageDao;
     }
 
     /**
@@ -48,6 +66,7 @@ public class TeamGradeService {
      * @param evaluatorId L'identifiant de l'évaluateur.
      * @param grade La note.
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void saveTeamGrade(int teamId, int sprintId, int detailId, int evaluatorId, Double grade) {
         TeamGrade teamGrade = new TeamGrade();
         teamGrade.setGrade(grade);
@@ -55,7 +74,10 @@ public class TeamGradeService {
         teamGrade.setSprint(sprintService.getSprintById(sprintId));
         teamGrade.setDetail(detailService.getDetailById(detailId));
         teamGrade.setEvaluator(userService.getUserById(evaluatorId));
+        List<TeamGradeAverage> averages = averageOf(teamId, sprintId, evaluatorId, teamGrade.getDetail());
+        teamGradeAverageDao.lockAll(averages);
         teamGradeDao.save(teamGrade);
+        teamGradeAverageDao.recomputeAll(averages);
     }
 
     /**
@@ -67,16 +89,92 @@ public class TeamGradeService {
      * @param evaluatorId L'identifiant de l'évaluateur.
      * @param grade La note.
      */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void updateTeamGrade(int teamId, int sprintId, int detailId, int evaluatorId, Double grade) {
-        try{
-            TeamGrade teamGrade = teamGradeDao.findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(teamId, sprintId, detailId, evaluatorId).orElseThrow();
-            teamGrade.setGrade(grade);
-            teamGradeDao.save(teamGrade);
-        } catch (Exception e) {
-            saveTeamGrade(teamId, sprintId, detailId, evaluatorId, grade);
+        Detail detail = detailService.getDetailById(detailId);
+        List<TeamGradeAverage> averages = averageOf(teamId, sprintId, evaluatorId, detail);
+        teamGradeAverageDao.lockAll(averages);
+        teamGradeDao.upsert(teamId, sprintId, detailId, evaluatorId, grade);
+        teamGradeAverageDao.recomputeAll(averages);
+        Category category = detail.getCategory();
+        if (category != null) {
+            gradeStalenessService.markTeamStale(teamId, sprintId, category.getId());
+        } else {
+            gradeStalenessService.markTeamStale(teamId, sprintId);
         }
     }
 
+    /**
+     * Met à jour en une fois les notes d'équipe d'une grille pour un évaluateur et un sprint.
+     * Toutes les notes sont validées avant toute écriture : une seule note invalide rejette la grille entière.
+     *
+     * @param batch Les notes, par équipe et par détail.
+     * @throws IllegalArgumentException Si une équipe ou un détail est inconnu, si un détail n'appartient pas
+     * à la grille indiquée ou si une note est absente ou hors du barème du détail.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void updateTeamGrades(TeamGradeBatchDTO batch) {
+        List<TeamGradeEntryDTO> entries = batch.getGrades() != null ? batch.getGrades() : Collections.emptyList();
+        if (entries.isEmpty()) {
+            return;
+        }
+        Set<Integer> detailIds = new HashSet<>();
+        Set<Integer> teamIds = new HashSet<>();
+        for (TeamGradeEntryDTO entry : entries) {
+            detailIds.add(entry.getDetailId());
+            teamIds.add(entry.getTeamId());
+        }
+        Map<Integer, Detail> detailsById = new HashMap<>();
+        for (Detail detail : detailService.getDetailsByIds(detailIds)) {
+            detailsById.put(detail.getId(), detail);
+        }
+        Map<Integer, Team> teamsById = new HashMap<>();
+        for (Team team : teamService.getAllTeams()) {
+            if (teamIds.contains(team.getId())) {
+                teamsById.put(team.getId(), team);
+            }
+        }
+        for (TeamGradeEntryDTO entry : entries) {
+            validate(entry, detailsById.get(entry.getDetailId()), teamsById.get(entry.getTeamId()), batch.getGradeScaleId());
+        }
+
+        int sprintId = batch.getSprintId();
+        int evaluatorId = batch.getEvaluatorId();
+        Sprint sprint = sprintService.getSprintById(sprintId);
+        User evaluator = userService.getUserById(evaluatorId);
+        if (sprint == null || evaluator == null) {
+            throw new IllegalArgumentException("Unknown sprint or evaluator");
+        }
+        Map<String, TeamGrade> teamGradesByKey = new LinkedHashMap<>();
+        Map<List<Integer>, TeamGradeAverage> averages = new HashMap<>();
+        Set<Integer> categoryIds = new TreeSet<>();
+        boolean allTypes = false;
+        for (TeamGradeEntryDTO entry : entries) {
+            Detail detail = detailsById.get(entry.getDetailId());
+            String key = entry.getTeamId() + ":" + entry.getDetailId();
+            TeamGrade teamGrade = new TeamGrade();
+            teamGrade.setTeam(teamsById.get(entry.getTeamId()));
+            teamGrade.setSprint(sprint);
+            teamGrade.setDetail(detail);
+            teamGrade.setEvaluator(evaluator);
+            teamGrade.setGrade(entry.getGrade());
+            teamGradesByKey.put(key, teamGrade);
+            if (detail.getCategory() != null) {
+                int categoryId = detail.getCategory().getId();
+                averages.computeIfAbsent(List.of(entry.getTeamId(), categoryId),
+                        k -> new TeamGradeAverage(entry.getTeamId(), sprintId, categoryId, evaluatorId));
+                categoryIds.add(categoryId);
+            } else {
+                allTypes = true;
+            }
+        }
+        teamGradeAverageDao.lockAll(averages.values());
+        teamGradeDao.upsertAll(teamGradesByKey.values());
+        teamGradeAverageDao.recomputeAll(averages.values());
+        int[] gradeTypeIds = allTypes ? new int[0] : categoryIds.stream().mapToInt(Integer::intValue).toArray();
+        gradeStalenessService.markTeamsStale(teamIds, sprintId, gradeTypeIds);
+    }
+
     /**
      * Récupère une note d'équipe.
      *
@@ -91,24 +189,102 @@ public class TeamGradeService {
     }
 
     /**
-     * Récupère toutes les notes d'équipe.
+     * Récupère la moyenne sur 20 des notes d'équipe d'une catégorie attribuées par un évaluateur.
      *
-     * @return La liste des notes d'équipe.
+     * @param categoryId L'identifiant de la catégorie.
+     * @param sprintId L'identifiant du sprint.
+     * @param teamId L'identifiant de l'équipe.
+     * @param evaluatorId L'identifiant de l'évaluateur.
+     * @return La moyenne, ou null si aucune note n'a été attribuée.
      */
     public Double getAverageTeamGradeByCategoryId(int categoryId, int sprintId, int teamId, int evaluatorId) {
-        List<Detail> details = detailService.getDetailsByCategoryId(categoryId);
-        double totalGrade = 0.0;
-        int count = 0;
-        for (Detail detail : details) {
-            Optional<TeamGrade> teamGrade = teamGradeDao.findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(teamId, sprintId, detail.getId(),evaluatorId);
-            if (teamGrade.isPresent()) {
-                totalGrade += (teamGrade.get().getGrade() / (double) detail.getMark()) * 20;
-                count++;
+        return teamGradeAverageDao.findByTeamIdAndSprintIdAndCategoryIdAndEvaluatorId(teamId, sprintId, categoryId, evaluatorId)
+                .filter(average -> average.getCount() > 0)
+                .map(average -> average.getSum() / average.getCount())
+                .orElse(null);
+    }
+
+    /**
+     * Reconstruit les moyennes des notes d'équipe à partir des notes enregistrées,
+     * si elles n'ont encore jamais été calculées.
+     */
+    @Transactional
+    public void initAverages() {
+        if (teamGradeAverageDao.count() > 0 || teamGradeDao.count() == 0) {
+            return;
+        }
+        Map<List<Integer>, TeamGradeAverage> averages = new HashMap<>();
+        for (TeamGrade teamGrade : teamGradeDao.findAll()) {
+            Detail detail = teamGrade.getDetail();
+            if (detail == null || detail.getCategory() == null || teamGrade.getGrade() == null) {
+                continue;
             }
+            int teamId = teamGrade.getTeam().getId();
+            int sprintId = teamGrade.getSprint().getId();
+            int categoryId = detail.getCategory().getId();
+            int evaluatorId = teamGrade.getEvaluator().getId();
+            TeamGradeAverage average = averages.computeIfAbsent(List.of(teamId, sprintId, categoryId, evaluatorId),
+                    k -> new TeamGradeAverage(teamId, sprintId, categoryId, evaluatorId));
+            average.setSum(average.getSum() + normalize(teamGrade.getGrade(), detail));
+            average.setCount(average.getCount() + 1);
         }
-        return count > 0 ? totalGrade / count : null;
+        teamGradeAverageDao.saveAll(averages.values());
     }
+
     public void deleteAll() {
+        teamGradeAverageDao.deleteAll();
         teamGradeDao.deleteAll();
     }
+
+    /**
+     * Retourne la moyenne à laquelle contribue une note d'équipe.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param sprintId L'identifiant du sprint.
+     * @param evaluatorId L'identifiant de l'évaluateur.
+     * @param detail Le détail noté.
+     * @return La moyenne de la catégorie du détail, ou aucune si le détail n'a pas de catégorie.
+     */
+    private static List<TeamGradeAverage> averageOf(int teamId, int sprintId, int evaluatorId, Detail detail) {
+        if (detail == null || detail.getCategory() == null) {
+            return Collections.emptyList();
+        }
+        return List.of(new TeamGradeAverage(teamId, sprintId, detail.getCategory().getId(), evaluatorId));
+    }
+
+    /**
+     * Vérifie une note de la grille avant son enregistrement.
+     *
+     * @param entry La note.
+     * @param detail Le détail noté, ou null s'il est inconnu.
+     * @param team L'équipe notée, ou null si elle est inconnue.
+     * @param gradeScaleId L'identifiant de la grille attendue, ou null pour ne pas la vérifier.
+     * @throws IllegalArgumentException Si la note est invalide.
+     */
+    private static void validate(TeamGradeEntryDTO entry, Detail detail, Team team, Integer gradeScaleId) {
+        if (team == null) {
+            throw new IllegalArgumentException("Unknown team " + entry.getTeamId());
+        }
+        if (detail == null) {
+            throw new IllegalArgumentException("Unknown detail " + entry.getDetailId());
+        }
+        if (gradeScaleId != null && (detail.getCategory() == null || detail.getCategory().getGradeScale() == null
+                || detail.getCategory().getGradeScale().getId() != gradeScaleId)) {
+            throw new IllegalArgumentException("Detail " + entry.getDetailId() + " does not belong to grade scale " + gradeScaleId);
+        }
+        if (entry.getGrade() == null || entry.getGrade() < 0 || entry.getGrade() > detail.getMark()) {
+            throw new IllegalArgumentException("Grade " + entry.getGrade() + " out of range for detail " + entry.getDetailId());
+        }
+    }
+
+    /**
+     * Ramène une note d'équipe sur 20.
+     *
+     * @param grade La note, ou null.
+     * @param detail Le détail noté.
+     * @return La note sur 20, ou 0 si la note est absente.
+     */
+    private static double normalize(Double grade, Detail detail) {
+        return grade == null ? 0 : (grade / (double) detail.getMark()) * 20;
+    }
 }
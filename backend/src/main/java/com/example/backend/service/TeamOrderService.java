@@ -60,16 +60,16 @@ public class TeamOrderService {
      * @param userIds Les identifiants des utilisateurs.
      */
     public void updateTeamOrder(int teamId, int sprintId, List<Integer> userIds) {
-        try{
-            TeamOrder teamOrder = teamOrderDao.findByTeamIdAndSprintId(teamId, sprintId).orElseThrow();
-            teamOrder.clean();
-            for (Integer userId : userIds) {
-                teamOrder.addAfterOrder(userService.getUserById(userId));
-            }
-            teamOrderDao.save(teamOrder);
-        } catch (Exception e) {
-            saveTeamOrder(teamId, sprintId, userIds);
+        TeamOrder teamOrder = teamOrderDao.findByTeamIdAndSprintId(teamId, sprintId).orElse(null);
+        if (teamOrder == null) {
+            teamOrderDao.insertIfAbsent(teamId, sprintId);
+            teamOrder = teamOrderDao.findByTeamIdAndSprintId(teamId, sprintId).orElseThrow();
         }
+        teamOrder.clean();
+        for (Integer userId : userIds) {
+            teamOrder.addAfterOrder(userService.getUserById(userId));
+        }
+        teamOrderDao.save(teamOrder);
     }
 
     /**
@@ -0,0 +1,174 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TeamDTO;
+import com.example.backend.dto.TeamFormationReportDTO;
+import com.example.backend.dto.TeamPreviewDTO;
+import com.example.backend.dto.UserInteract;
+import com.example.backend.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * Service de prévisualisation des équipes.
+ * Une prévisualisation forme les équipes en mémoire à partir de l'index des étudiants, sans aucune
+ * écriture, et la conserve afin qu'elle puisse être enregistrée telle quelle en une seule transaction.
+ */
+@Service
+public class TeamPreviewService {
+
+    static final int MAX_PREVIEWS = 20;
+
+    private final UserService userService;
+    private final TeamService teamService;
+    private final Executor teamFormationExecutor;
+    private final Map<String, Preview> previews = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Preview> eldest) {
+            return size() > MAX_PREVIEWS;
+        }
+    };
+
+    /**
+     * Constructeur de la classe TeamPreviewService.
+     *
+     * @param userService Le service de gestion des utilisateurs.
+     * @param teamService Le service de gestion des équipes.
+     * @param teamFormationExecutor L'exécuteur des recherches parallèles de la formation des équipes.
+     */
+    @Autowired
+    public TeamPreviewService(UserService userService, TeamService teamService, @Qualifier("teamFormationExecutor") Executor teamFormationExecutor) {
+        this.userService = userService;
+        this.teamService = teamService;
+        this.teamFormationExecutor = teamFormationExecutor;
+    }
+
+    /**
+     * Forme les équipes en mémoire sans les enregistrer.
+     *
+     * @param parameters Les paramètres de formation des équipes.
+     * @return La prévisualisation des équipes et leur rapport de qualité.
+     * @throws IllegalArgumentException Si un étudiant ou un enseignant est inconnu, ou si les effectifs sont insuffisants.
+     */
+    public TeamPreviewDTO preview(TeamDTO parameters) {
+        List<User> students = resolve(parameters.getStudents(), userService.getStudentSnapshot());
+        Map<String, User> teachersByEmail = new HashMap<>();
+        for (User teacher : userService.getTeachers()) {
+            teachersByEmail.put(teacher.getEmail(), teacher);
+        }
+        List<User> teachers = resolve(parameters.getTeachers(), teachersByEmail);
+        int numberOfTeams = parameters.getNumberOfTeams();
+        TeamService.checkCohort(students, teachers, numberOfTeams);
+
+        Criteria criteria = TeamService.newCriteria(numberOfTeams, parameters.getNumberOfGirlsPerTeam(), parameters.getStrategy());
+        TeamFormation.Formation formation = TeamFormation.formTeams(students, criteria, TeamFormation.budget(parameters.getBudgetMillis()), teamFormationExecutor);
+
+        Preview preview = new Preview(UUID.randomUUID().toString(), criteria,
+                TeamService.teamNames(parameters.getNames(), numberOfTeams), formation.teams(),
+                new ArrayList<>(teachers.subList(0, numberOfTeams)), formation.report());
+        synchronized (previews) {
+            previews.put(preview.id(), preview);
+        }
+        return toDTO(preview);
+    }
+
+    /**
+     * Enregistre une prévisualisation en une seule transaction : les critères, les équipes avec leur
+     * superviseur et les appartenances, sans modifier les utilisateurs.
+     *
+     * @param previewId L'identifiant de la prévisualisation.
+     * @return Les équipes enregistrées.
+     * @throws NoSuchElementException Si la prévisualisation est inconnue ou a déjà été enregistrée.
+     */
+    @Transactional
+    public List<Team> commit(String previewId) {
+        Preview preview;
+        synchronized (previews) {
+            preview = previews.remove(previewId);
+        }
+        if (preview == null) {
+            throw new NoSuchElementException("Preview " + previewId + " not found");
+        }
+        try {
+            return teamService.materializeTeams(preview.criteria(), preview.names(), preview.teams(), preview.supervisors());
+        } catch (RuntimeException e) {
+            synchronized (previews) {
+                previews.put(previewId, preview);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retrouve les utilisateurs désignés par email dans un index.
+     *
+     * @param users Les utilisateurs désignés.
+     * @param byEmail L'index des utilisateurs par email.
+     * @return Les utilisateurs correspondants.
+     * @throws IllegalArgumentException Si un utilisateur est inconnu.
+     */
+    private static List<User> resolve(List<UserInteract> users, Map<String, User> byEmail) {
+        List<User> resolved = new ArrayList<>();
+        if (users == null) {
+            return resolved;
+        }
+        for (UserInteract user : users) {
+            User known = byEmail.get(user.getEmail());
+            if (known == null) {
+                throw new IllegalArgumentException("Unknown user " + user.getEmail());
+            }
+            resolved.add(known);
+        }
+        return resolved;
+    }
+
+    /**
+     * Transforme une prévisualisation en DTO.
+     *
+     * @param preview La prévisualisation.
+     * @return La prévisualisation en DTO.
+     */
+    private static TeamPreviewDTO toDTO(Preview preview) {
+        List<TeamDTO> teams = new ArrayList<>(preview.teams().size());
+        for (int i = 0; i < preview.teams().size(); i++) {
+            TeamDTO team = new TeamDTO();
+            team.setName(preview.names().get(i));
+            team.setSupervisor(toUserInteract(preview.supervisors().get(i)));
+            List<UserInteract> members = new ArrayList<>(preview.teams().get(i).size());
+            for (User user : preview.teams().get(i)) {
+                members.add(toUserInteract(user));
+            }
+            team.setUsers(members);
+            teams.add(team);
+        }
+        TeamPreviewDTO dto = new TeamPreviewDTO();
+        dto.setId(preview.id());
+        dto.setCriteria(preview.criteria());
+        dto.setTeams(teams);
+        dto.setReport(preview.report());
+        return dto;
+    }
+
+    private static UserInteract toUserInteract(User user) {
+        UserInteract userInteract = new UserInteract();
+        userInteract.setId(user.getId());
+        userInteract.setFirstName(user.getFirstName());
+        userInteract.setLastName(user.getLastName());
+        userInteract.setEmail(user.getEmail());
+        userInteract.setGender(user.getGender());
+        userInteract.setBachelor(user.isBachelor());
+        userInteract.setGradePast(user.getGradePast());
+        return userInteract;
+    }
+
+    /**
+     * Équipes proposées et en attente d'enregistrement.
+     */
+    private record Preview(String id, Criteria criteria, List<String> names, List<List<User>> teams,
+                           List<User> supervisors, TeamFormationReportDTO report) {
+    }
+}
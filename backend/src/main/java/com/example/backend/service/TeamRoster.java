@@ -0,0 +1,186 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.TeamDao;
+import com.example.backend.dao.UserTeamDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index en mémoire de la composition des équipes : membres de chaque équipe, équipe de chaque
+ * utilisateur et superviseur de chaque équipe.
+ * L'index est chargé en deux requêtes au premier accès puis invalidé à chaque modification des
+ * équipes ; il est alors rechargé au prochain accès. Les vérifications d'appartenance deviennent de
+ * simples recherches dans des tables de hachage.
+ */
+@Service
+public class TeamRoster {
+
+    private final TeamDao teamDao;
+    private final UserTeamDao userTeamDao;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Index index;
+
+    /**
+     * Constructeur de la classe TeamRoster.
+     *
+     * @param teamDao Le DAO des équipes.
+     * @param userTeamDao Le DAO des utilisateurs dans les équipes.
+     */
+    @Autowired
+    public TeamRoster(TeamDao teamDao, UserTeamDao userTeamDao) {
+        this.teamDao = teamDao;
+        this.userTeamDao = userTeamDao;
+    }
+
+    /**
+     * Vérifie si une équipe existe.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @return true si l'équipe existe, false sinon.
+     */
+    public boolean containsTeam(int teamId) {
+        return index().supervisorByTeam().containsKey(teamId);
+    }
+
+    /**
+     * Récupère les identifiants de toutes les équipes.
+     *
+     * @return Les identifiants des équipes, triés.
+     */
+    public List<Integer> getTeamIds() {
+        List<Integer> teamIds = new ArrayList<>(index().supervisorByTeam().keySet());
+        Collections.sort(teamIds);
+        return teamIds;
+    }
+
+    /**
+     * Vérifie si un utilisateur est membre d'une équipe.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     * @param teamId L'identifiant de l'équipe.
+     * @return true si l'utilisateur est membre de l'équipe, false sinon.
+     */
+    public boolean isMember(int userId, int teamId) {
+        Integer team = index().teamByUser().get(userId);
+        return team != null && team == teamId;
+    }
+
+    /**
+     * Récupère l'équipe d'un utilisateur.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     * @return L'identifiant de l'équipe, ou null si l'utilisateur n'est dans aucune équipe.
+     */
+    public Integer getTeamId(int userId) {
+        return index().teamByUser().get(userId);
+    }
+
+    /**
+     * Récupère les identifiants des membres d'une équipe.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @return Les identifiants des membres, vide si l'équipe est inconnue.
+     */
+    public List<Integer> getMemberIds(int teamId) {
+        return index().membersByTeam().getOrDefault(teamId, Collections.emptyList());
+    }
+
+    /**
+     * Récupère le superviseur d'une équipe.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @return L'identifiant du superviseur, ou null si l'équipe est inconnue ou sans superviseur.
+     */
+    public Integer getSupervisorId(int teamId) {
+        return index().supervisorByTeam().get(teamId);
+    }
+
+    /**
+     * Récupère les superviseurs des équipes.
+     *
+     * @return Les identifiants distincts des superviseurs.
+     */
+    public Set<Integer> getSupervisorIds() {
+        Set<Integer> supervisors = new LinkedHashSet<>(index().supervisorByTeam().values());
+        supervisors.remove(null);
+        return supervisors;
+    }
+
+    /**
+     * Invalide l'index après une modification des équipes. Si une transaction est en cours, l'index est
+     * de nouveau invalidé à sa fin, afin qu'un rechargement concurrent ne conserve pas un état antérieur
+     * à la validation.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        index = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    index = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Retourne l'index courant, en le chargeant si nécessaire. Un index chargé pendant une
+     * invalidation n'est pas conservé.
+     *
+     * @return L'index.
+     */
+    private Index index() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        long loadedGeneration = generation.get();
+        current = load();
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                index = current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Charge l'index depuis la base de données.
+     *
+     * @return L'index.
+     */
+    private Index load() {
+        Map<Integer, Integer> supervisorByTeam = new HashMap<>();
+        for (Object[] row : teamDao.findAllIdsAndSupervisorIds()) {
+            supervisorByTeam.put((Integer) row[0], (Integer) row[1]);
+        }
+        Map<Integer, List<Integer>> membersByTeam = new HashMap<>();
+        Map<Integer, Integer> teamByUser = new HashMap<>();
+        for (Object[] row : userTeamDao.findAllTeamAndUserIds()) {
+            Integer teamId = (Integer) row[0];
+            Integer userId = (Integer) row[1];
+            membersByTeam.computeIfAbsent(teamId, k -> new ArrayList<>()).add(userId);
+            teamByUser.put(userId, teamId);
+        }
+        membersByTeam.replaceAll((teamId, members) -> List.copyOf(members));
+        return new Index(membersByTeam, teamByUser, supervisorByTeam);
+    }
+
+    /**
+     * Composition des équipes à un instant donné.
+     *
+     * @param membersByTeam Les identifiants des membres par équipe.
+     * @param teamByUser L'équipe de chaque utilisateur.
+     * @param supervisorByTeam Le superviseur de chaque équipe, null si l'équipe n'en a pas.
+     */
+    private record Index(Map<Integer, List<Integer>> membersByTeam, Map<Integer, Integer> teamByUser,
+                         Map<Integer, Integer> supervisorByTeam) {
+    }
+}
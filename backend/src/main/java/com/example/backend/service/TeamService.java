@@ -2,14 +2,19 @@ package com.example.backend.service;
 
 import com.example.backend.dao.*;
 import com.example.backend.dto.TeamDTO;
+import com.example.backend.dto.TeamFormationReportDTO;
 import com.example.backend.dto.TeamSendDTO;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.model.*;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 /**
  * Service de gestion des équipes.
@@ -22,6 +27,10 @@ public class TeamService {
     private final UserTeamDao userTeamDao;
     private final TeamDao teamDao;
     private final CleanupService cleanupService;
+    private final TeamRoster teamRoster;
+    private final Executor teamFormationExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private volatile TeamFormationReportDTO lastFormationReport;
 
     /**
      * Constructeur de la classe TeamService.
@@ -31,14 +40,21 @@ public class TeamService {
      * @param teamDao Le DAO des équipes.
      * @param userTeamDao Le DAO des utilisateurs dans les équipes.
      * @param cleanupService Le service de nettoyage.
+     * @param teamRoster L'index de la composition des équipes.
+     * @param teamFormationExecutor L'exécuteur des recherches parallèles de la formation des équipes.
+     * @param transactionTemplate Le modèle de transaction de l'enregistrement des équipes formées.
      */
     @Autowired
-    public TeamService(UserService userService,CriteriaService criteriaService, TeamDao teamDao, UserTeamDao userTeamDao, CleanupService cleanupService) {
+    public TeamService(UserService userService,CriteriaService criteriaService, TeamDao teamDao, UserTeamDao userTeamDao, CleanupService cleanupService, TeamRoster teamRoster,
+                       @Qualifier("teamFormationExecutor") Executor teamFormationExecutor, TransactionTemplate transactionTemplate) {
         this.userService = userService;
         this.criteriaService = criteriaService;
         this.teamDao = teamDao;
         this.userTeamDao = userTeamDao;
         this.cleanupService = cleanupService;
+        this.teamRoster = teamRoster;
+        this.teamFormationExecutor = teamFormationExecutor;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -52,6 +68,101 @@ public class TeamService {
      * @return La liste des équipes créées.
      */
     public List<Team> createTeams(List<User> users, List<User> teachers, String[] nameOfTeams, int numberOfTeams, int numberOfGirlsPerTeam) {
+        return createTeams(users, teachers, nameOfTeams, numberOfTeams, numberOfGirlsPerTeam, FormationStrategy.GREEDY, null);
+    }
+
+    /**
+     * Crée les équipes avec le bon nombre de filles et de bachelors. La formation, qui peut durer tout
+     * son budget, a lieu hors transaction ; seul l'enregistrement des équipes formées est transactionnel.
+     *
+     * @param users La liste des utilisateurs.
+     * @param teachers La liste des enseignants.
+     * @param nameOfTeams Les noms des équipes.
+     * @param numberOfTeams Le nombre d'équipes.
+     * @param numberOfGirlsPerTeam Le nombre de filles par équipe.
+     * @param strategy La stratégie d'équilibrage des moyennes, ou null pour la stratégie gloutonne.
+     * @param budgetMillis Le temps accordé à l'équilibrage en millisecondes, ou null pour le budget par défaut.
+     * @return La liste des équipes créées.
+     */
+    public List<Team> createTeams(List<User> users, List<User> teachers, String[] nameOfTeams, int numberOfTeams, int numberOfGirlsPerTeam,
+                                  FormationStrategy strategy, Integer budgetMillis) {
+        checkCohort(users, teachers, numberOfTeams);
+
+        Criteria criteria = newCriteria(numberOfTeams, numberOfGirlsPerTeam, strategy);
+        //Créer les équipes avec le bon nombre de filles et de bachelors, équilibrées en termes de notes
+        TeamFormation.Formation formation = TeamFormation.formTeams(users, criteria, TeamFormation.budget(budgetMillis), teamFormationExecutor);
+        lastFormationReport = formation.report();
+
+        List<String> names = teamNames(nameOfTeams, numberOfTeams);
+        List<User> supervisors = teachers.subList(0, numberOfTeams);
+        return transactionTemplate.execute(status -> materializeTeams(criteria, names, formation.teams(), supervisors));
+    }
+
+    /**
+     * Enregistre des équipes formées en une seule transaction : les critères, puis les équipes avec leur
+     * superviseur et enfin les appartenances, insérées par lots. Les utilisateurs ne sont pas modifiés ;
+     * seuls ceux déjà enregistrés deviennent membres d'une équipe.
+     *
+     * @param criteria Les critères de formation.
+     * @param names Les noms des équipes.
+     * @param members Les membres de chaque équipe.
+     * @param supervisors Le superviseur de chaque équipe.
+     * @return La liste des équipes enregistrées.
+     */
+    @Transactional
+    public List<Team> materializeTeams(Criteria criteria, List<String> names, List<List<User>> members, List<User> supervisors) {
+        criteriaService.save(criteria);
+        List<Team> teams = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            Team team = new Team();
+            team.setName(names.get(i));
+            team.setStatus("none");
+            team.setCriteria(criteria);
+            team.setSupervisor(supervisors.get(i));
+            teams.add(team);
+        }
+        teamDao.insertAll(teams);
+
+        List<UserTeam> memberships = new ArrayList<>();
+        for (int i = 0; i < teams.size(); i++) {
+            Team team = teams.get(i);
+            for (User user : members.get(i)) {
+                //We're supposed to have the user in the database
+                if (user.getId() != 0) {
+                    memberships.add(new UserTeam(user, team));
+                    team.getUsers().add(user);
+                }
+            }
+        }
+        userTeamDao.insertAll(memberships);
+        teamRoster.invalidate();
+        return teams;
+    }
+
+    /**
+     * Complète les noms des équipes, une équipe sans nom étant appelée "Team n".
+     *
+     * @param names Les noms demandés, éventuellement null ou incomplets.
+     * @param numberOfTeams Le nombre d'équipes.
+     * @return Les noms des équipes.
+     */
+    static List<String> teamNames(String[] names, int numberOfTeams) {
+        List<String> teamNames = new ArrayList<>(numberOfTeams);
+        for (int i = 0; i < numberOfTeams; i++) {
+            teamNames.add(names != null && i < names.length && names[i] != null ? names[i] : "Team " + (i + 1));
+        }
+        return teamNames;
+    }
+
+    /**
+     * Vérifie qu'il y a assez d'étudiants et d'enseignants pour former les équipes.
+     *
+     * @param users La liste des utilisateurs.
+     * @param teachers La liste des enseignants.
+     * @param numberOfTeams Le nombre d'équipes.
+     * @throws IllegalArgumentException S'il manque des étudiants ou des enseignants.
+     */
+    static void checkCohort(List<User> users, List<User> teachers, int numberOfTeams) {
         if(users.isEmpty() || teachers.isEmpty()) {
             throw new IllegalArgumentException("Not enough users or teachers to create the teams");
         }
@@ -61,72 +172,31 @@ public class TeamService {
         if(teachers.size() < numberOfTeams) {
             throw new IllegalArgumentException("Not enough teachers to create the teams");
         }
-
-        Criteria criteria = new Criteria();
-        criteria.setNumberOfGirls(numberOfGirlsPerTeam);
-        criteria.setNumberOfTeams(numberOfTeams);
-        //Créer les équipes avec le bon nombre de filles et de bachelors
-        List<List<User>> teamsOrganized = TeamBuilder.buildTeams(users, criteria);
-
-        // Balance the teams in terms of grades
-        List<List<User>> balancedTeams = TeamBuilder.balanceTeams(teamsOrganized, criteria);
-
-        // Transform the lists of users into teams
-        List<Team> teamsWithoutTeacher = formatTeams(balancedTeams, nameOfTeams, criteria);
-
-        // Add the teachers to the teams
-        return addTeachers(teamsWithoutTeacher, teachers);
     }
 
     /**
-     * Ajoute les enseignants aux équipes.
+     * Crée les critères de formation des équipes.
      *
-     * @param teamsWithoutTeacher Les équipes sans enseignant.
-     * @param teachers Les enseignants.
-     * @return La liste des équipes avec les enseignants.
+     * @param numberOfTeams Le nombre d'équipes.
+     * @param numberOfGirlsPerTeam Le nombre de filles par équipe.
+     * @param strategy La stratégie d'équilibrage, ou null pour la stratégie gloutonne.
+     * @return Les critères.
      */
-    private List<Team> addTeachers(List<Team> teamsWithoutTeacher, List<User> teachers) {
-        for(int i = 0; i < teamsWithoutTeacher.size(); i++) {
-            User teacher = teachers.get(i);
-            addTeamSupervisor(teamsWithoutTeacher.get(i), teacher);
-        }
-        return teamsWithoutTeacher;
+    static Criteria newCriteria(int numberOfTeams, int numberOfGirlsPerTeam, FormationStrategy strategy) {
+        Criteria criteria = new Criteria();
+        criteria.setNumberOfGirls(numberOfGirlsPerTeam);
+        criteria.setNumberOfTeams(numberOfTeams);
+        criteria.setStrategy(strategy == null ? FormationStrategy.GREEDY : strategy);
+        return criteria;
     }
 
     /**
-     * Formate les équipes.
+     * Retourne le rapport de qualité de la dernière formation d'équipes.
      *
-     * @param teamsNotFormatted Les équipes non formatées.
-     * @param names Les noms des équipes.
-     * @param criteria Les critères.
-     * @return La liste des équipes formatées.
+     * @return Le rapport, ou null si aucune équipe n'a encore été formée.
      */
-    private List<Team> formatTeams(List<List<User>> teamsNotFormatted, String[] names, Criteria criteria) {
-        List<Team> teams = new ArrayList<>();
-        int cmpt = 0;
-        criteriaService.save(criteria);
-        for(List<User> team : teamsNotFormatted) {
-            Team newTeam = new Team();
-            newTeam.setCriteria(criteria);
-            cmpt++;
-            try{
-                newTeam.setName(names[cmpt-1]);
-            } catch (Exception e) {
-                newTeam.setName("Team "+cmpt);
-            }
-            newTeam.setStatus("none");
-            teamDao.save(newTeam);
-            for(User user : team) {
-                //We're supposed to have the user in the database
-                if (userService.existsByEmail(user.getEmail())) {
-                    User updateUser = userService.loadUserByEmail(user.getEmail());
-                    addTeamMember(newTeam, updateUser);
-                }
-            }
-            teamDao.save(newTeam);
-            teams.add(newTeam);
-        }
-        return teams;
+    public TeamFormationReportDTO getLastFormationReport() {
+        return lastFormationReport;
     }
 
     /**
@@ -145,6 +215,7 @@ public class TeamService {
         teamDao.save(team);
         userService.updateUser(user);
         userTeamDao.save(ut);
+        teamRoster.invalidate();
         return user;
     }
 
@@ -161,6 +232,7 @@ public class TeamService {
         teamDao.save(team);
         userService.updateUser(user);
         userTeamDao.save(ut);
+        teamRoster.invalidate();
     }
 
     /**
@@ -173,6 +245,7 @@ public class TeamService {
         team.setSupervisor(teacher);
         teamDao.save(team);
         userService.updateUser(teacher);
+        teamRoster.invalidate();
     }
 
     /**
@@ -185,6 +258,35 @@ public class TeamService {
         return userService.findByTeam(teamId);
     }
 
+    /**
+     * Récupère les identifiants des membres d'une équipe, sans accès à la base de données.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @return La liste des identifiants des membres de l'équipe.
+     */
+    public List<Integer> getTeamMemberIds(int teamId) {
+        return teamRoster.getMemberIds(teamId);
+    }
+
+    /**
+     * Récupère les identifiants de toutes les équipes, sans accès à la base de données.
+     *
+     * @return La liste triée des identifiants des équipes.
+     */
+    public List<Integer> getTeamIds() {
+        return teamRoster.getTeamIds();
+    }
+
+    /**
+     * Récupère l'identifiant du superviseur d'une équipe, sans accès à la base de données.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @return L'identifiant du superviseur, ou null si l'équipe n'en a pas.
+     */
+    public Integer getSupervisorId(int teamId) {
+        return teamRoster.getSupervisorId(teamId);
+    }
+
     /**
      * Récupère toutes les équipes.
      *
@@ -211,15 +313,22 @@ public class TeamService {
      * @return L'équipe.
      */
     public Team getTeamByUserId(int id) {
-        User user = userService.getUserById(id);
-        try {
-            Optional<UserTeam> userTeamOptional = userTeamDao.findByUser(user);
-            UserTeam userTeam = userTeamOptional.orElseThrow(() -> new EntityNotFoundException("UserTeam for user with id " + id + " doesn't exist."));
-            return userTeam.getTeam();
-
-        } catch (Exception e) {
-            throw new EntityNotFoundException("Failed to get team by user id: " + id, e);
+        int teamId = getTeamIdByUserId(id);
+        return teamDao.findById(teamId).orElseThrow(() -> new EntityNotFoundException("Failed to get team by user id: " + id));
+    }
+
+    /**
+     * Récupère l'identifiant de l'équipe d'un utilisateur, sans accès à la base de données.
+     *
+     * @param id L'identifiant de l'utilisateur.
+     * @return L'identifiant de l'équipe.
+     */
+    public int getTeamIdByUserId(int id) {
+        Integer teamId = teamRoster.getTeamId(id);
+        if (teamId == null) {
+            throw new EntityNotFoundException("Failed to get team by user id: " + id);
         }
+        return teamId;
     }
 
     /**
@@ -230,18 +339,31 @@ public class TeamService {
      * @return L'utilisateur.
      */
     public User getOneUserInTeam(int userId, int teamId) {
-        User user = userService.getUserById(userId);
-        Team team = getTeamById(teamId);
-        if (team == null) {
+        if (!teamRoster.containsTeam(teamId)) {
             throw new EntityNotFoundException("Team with id " + teamId + " doesn't exist.");
         }
-
-        Optional<UserTeam> userTeamOptional = userTeamDao.findByUserAndTeam(user, team);
-        if (userTeamOptional.isPresent()) {
-            return user;
-        } else {
+        if (!teamRoster.isMember(userId, teamId)) {
             throw new EntityNotFoundException("User with id " + userId + " is not in team with id " + teamId);
         }
+        return userService.getUserById(userId);
+    }
+
+    /**
+     * Vérifie que des utilisateurs sont tous membres d'une équipe, sans accès à la base de données.
+     *
+     * @param teamId L'identifiant de l'équipe.
+     * @param userIds Les identifiants des utilisateurs.
+     * @throws EntityNotFoundException Si l'équipe n'existe pas ou si un utilisateur n'en est pas membre.
+     */
+    public void checkMembers(int teamId, Collection<Integer> userIds) {
+        if (!teamRoster.containsTeam(teamId)) {
+            throw new EntityNotFoundException("Team with id " + teamId + " doesn't exist.");
+        }
+        for (int userId : userIds) {
+            if (!teamRoster.isMember(userId, teamId)) {
+                throw new EntityNotFoundException("User with id " + userId + " is not in team with id " + teamId);
+            }
+        }
     }
 
     /**
@@ -264,6 +386,7 @@ public class TeamService {
         }
         teamOrigin.setUsers(set);
         teamDao.save(teamOrigin);
+        teamRoster.invalidate();
     }
 
     /**
@@ -274,6 +397,7 @@ public class TeamService {
     private void cleanTeam(Team team) {
         List<UserTeam> uts = userTeamDao.findByTeam(team);
         userTeamDao.deleteAll(uts);
+        teamRoster.invalidate();
     }
 
     /**
@@ -285,6 +409,7 @@ public class TeamService {
         Team team = teamDao.findById(id).orElseThrow();
         this.cleanTeam(team);
         teamDao.delete(team);
+        teamRoster.invalidate();
     }
 
     /**
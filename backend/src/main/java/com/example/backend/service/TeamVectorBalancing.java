@@ -0,0 +1,272 @@
+package com.example.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Équilibrage multidimensionnel des équipes, utilisé par la stratégie
+ * {@link com.example.backend.model.FormationStrategy#MULTI_DIMENSIONAL}.
+ * Chaque étudiant est décrit par une ligne d'un {@code double[][]} (moyenne générale puis notes par
+ * matière, centrées et réduites) ; l'objectif est la somme, sur toutes les équipes et toutes les
+ * dimensions, du carré de l'écart entre la moyenne de l'équipe et celle de la promotion. Plusieurs
+ * recherches locales indépendantes, chacune avec sa propre graine, s'exécutent en parallèle sur
+ * l'exécuteur fourni et la répartition de plus faible objectif est retenue. Les échanges ne portent
+ * que sur des étudiants de même catégorie, si bien que les quotas sont conservés.
+ */
+final class TeamVectorBalancing {
+
+    static final int MIN_ITERATIONS = 20000;
+    static final int ITERATIONS_PER_STUDENT = 200;
+    static final int STALL_PER_STUDENT = 50;
+    private static final int CLOCK_MASK = 1023;
+    private static final double EPSILON = 1e-12;
+
+    private TeamVectorBalancing() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Extrait une dimension des vecteurs bruts, une valeur manquante étant remplacée par la moyenne
+     * des valeurs renseignées.
+     *
+     * @param rows Les vecteurs bruts des étudiants, null pour une valeur manquante.
+     * @param dimension L'indice de la dimension.
+     * @return Les valeurs de la dimension.
+     */
+    static double[] column(Double[][] rows, int dimension) {
+        double sum = 0;
+        int count = 0;
+        for (Double[] row : rows) {
+            if (row[dimension] != null) {
+                sum += row[dimension];
+                count++;
+            }
+        }
+        double mean = count == 0 ? 0 : sum / count;
+        double[] values = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            values[i] = rows[i][dimension] == null ? mean : rows[i][dimension];
+        }
+        return values;
+    }
+
+    /**
+     * Centre et réduit chaque dimension ; une valeur manquante est remplacée par la moyenne de sa
+     * dimension et une dimension constante est mise à zéro.
+     *
+     * @param rows Les vecteurs bruts des étudiants, null pour une valeur manquante.
+     * @param dimensions Le nombre de dimensions.
+     * @return Les vecteurs normalisés, une ligne contiguë par étudiant.
+     */
+    static double[][] standardize(Double[][] rows, int dimensions) {
+        double[][] vectors = new double[rows.length][dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            double[] values = column(rows, d);
+            double mean = 0;
+            for (double value : values) {
+                mean += value;
+            }
+            mean /= Math.max(1, values.length);
+            double squares = 0;
+            for (double value : values) {
+                squares += (value - mean) * (value - mean);
+            }
+            double deviation = Math.sqrt(squares / Math.max(1, values.length));
+            for (int i = 0; i < values.length; i++) {
+                vectors[i][d] = deviation < EPSILON ? 0 : (values[i] - mean) / deviation;
+            }
+        }
+        return vectors;
+    }
+
+    /**
+     * Optimise la répartition en lançant plusieurs recherches locales en parallèle et en conservant la
+     * meilleure, la répartition initiale comprise.
+     *
+     * @param vectors Les vecteurs normalisés des étudiants.
+     * @param grades Les moyennes générales des étudiants, pour mesurer l'écart obtenu.
+     * @param flags Les drapeaux des étudiants.
+     * @param members Les indices des étudiants de chaque équipe, remplacés par la meilleure répartition.
+     * @param threshold L'écart de moyenne générale visé.
+     * @param deadline L'échéance, au sens de {@link System#nanoTime()}.
+     * @param restarts Le nombre de recherches indépendantes.
+     * @param executor L'exécuteur des recherches ; s'il est saturé, les recherches restantes ne sont pas lancées.
+     * @return L'écart de moyenne générale obtenu, le nombre d'échanges et l'épuisement éventuel du budget.
+     */
+    static TeamFormation.Balance optimize(double[][] vectors, double[] grades, byte[] flags, int[][] members,
+                                          double threshold, long deadline, int restarts, Executor executor) {
+        List<CompletableFuture<Search>> tasks = new ArrayList<>(restarts);
+        for (int restart = 0; restart < restarts; restart++) {
+            int[][] start = TeamAnnealing.copy(members);
+            long seed = restart;
+            try {
+                tasks.add(CompletableFuture.supplyAsync(() -> search(vectors, flags, start, deadline, seed), executor));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        Search best = new Search(members, objective(vectors, members), 0, false);
+        for (CompletableFuture<Search> task : tasks) {
+            Search candidate = task.join();
+            if (candidate.objective() < best.objective()) {
+                best = candidate;
+            }
+        }
+        for (int t = 0; t < members.length; t++) {
+            members[t] = best.members()[t];
+        }
+        double spread = spread(grades, members);
+        return new TeamFormation.Balance(spread, best.swaps(), best.timedOut() && spread > threshold);
+    }
+
+    /**
+     * Recherche locale par échanges aléatoires entre étudiants de même catégorie : un échange est
+     * retenu s'il diminue l'objectif. Les sommes vectorielles de chaque équipe sont tenues à jour et
+     * la variation de l'objectif est calculée en une passe sur les dimensions. La recherche s'arrête
+     * après un nombre d'essais proportionnel à la promotion, après une série d'essais sans
+     * amélioration ou à l'échéance.
+     *
+     * @return La répartition obtenue et son objectif.
+     */
+    static Search search(double[][] vectors, byte[] flags, int[][] members, long deadline, long seed) {
+        int numberOfTeams = members.length;
+        int dimensions = vectors.length == 0 ? 0 : vectors[0].length;
+        int students = vectors.length;
+        SplittableRandom random = new SplittableRandom(seed);
+        double[][] sums = new double[numberOfTeams][dimensions];
+        for (int t = 0; t < numberOfTeams; t++) {
+            for (int student : members[t]) {
+                double[] vector = vectors[student];
+                double[] sum = sums[t];
+                for (int d = 0; d < dimensions; d++) {
+                    sum[d] += vector[d];
+                }
+            }
+        }
+
+        long swaps = 0;
+        boolean timedOut = false;
+        if (numberOfTeams > 1 && dimensions > 0) {
+            long iterations = Math.max(MIN_ITERATIONS, (long) ITERATIONS_PER_STUDENT * students);
+            long stallLimit = Math.max(MIN_ITERATIONS, (long) STALL_PER_STUDENT * students);
+            long stall = 0;
+            for (long iteration = 0; iteration < iterations && stall < stallLimit; iteration++, stall++) {
+                if ((iteration & CLOCK_MASK) == 0 && System.nanoTime() - deadline >= 0) {
+                    timedOut = true;
+                    break;
+                }
+                int a = random.nextInt(numberOfTeams);
+                int b = random.nextInt(numberOfTeams - 1);
+                if (b >= a) {
+                    b++;
+                }
+                int[] teamA = members[a];
+                int[] teamB = members[b];
+                if (teamA.length == 0 || teamB.length == 0) {
+                    continue;
+                }
+                int i = random.nextInt(teamA.length);
+                int j = TeamAnnealing.sameCategory(flags, teamB, flags[teamA[i]], random.nextInt(teamB.length));
+                if (j < 0) {
+                    continue;
+                }
+                double[] fromA = vectors[teamA[i]];
+                double[] fromB = vectors[teamB[j]];
+                double[] sumA = sums[a];
+                double[] sumB = sums[b];
+                double inverseA = 1.0 / teamA.length;
+                double inverseB = 1.0 / teamB.length;
+                double change = 0;
+                for (int d = 0; d < dimensions; d++) {
+                    double delta = fromA[d] - fromB[d];
+                    double oldA = sumA[d] * inverseA;
+                    double oldB = sumB[d] * inverseB;
+                    double newA = (sumA[d] - delta) * inverseA;
+                    double newB = (sumB[d] + delta) * inverseB;
+                    change += newA * newA - oldA * oldA + newB * newB - oldB * oldB;
+                }
+                if (change < -EPSILON) {
+                    for (int d = 0; d < dimensions; d++) {
+                        double delta = fromA[d] - fromB[d];
+                        sumA[d] -= delta;
+                        sumB[d] += delta;
+                    }
+                    int student = teamA[i];
+                    teamA[i] = teamB[j];
+                    teamB[j] = student;
+                    swaps++;
+                    stall = 0;
+                }
+            }
+        }
+        return new Search(members, objective(vectors, members), swaps, timedOut);
+    }
+
+    /**
+     * Calcule la somme, sur les équipes et les dimensions, du carré de la moyenne normalisée.
+     *
+     * @return L'objectif de la répartition.
+     */
+    static double objective(double[][] vectors, int[][] members) {
+        int dimensions = vectors.length == 0 ? 0 : vectors[0].length;
+        double objective = 0;
+        double[] sum = new double[dimensions];
+        for (int[] team : members) {
+            if (team.length == 0) {
+                continue;
+            }
+            Arrays.fill(sum, 0);
+            for (int student : team) {
+                double[] vector = vectors[student];
+                for (int d = 0; d < dimensions; d++) {
+                    sum[d] += vector[d];
+                }
+            }
+            for (int d = 0; d < dimensions; d++) {
+                double mean = sum[d] / team.length;
+                objective += mean * mean;
+            }
+        }
+        return objective;
+    }
+
+    /**
+     * Calcule l'écart entre la plus forte et la plus faible moyenne d'équipe pour une valeur.
+     *
+     * @param values Les valeurs des étudiants.
+     * @param members Les indices des étudiants de chaque équipe.
+     * @return L'écart entre les moyennes extrêmes.
+     */
+    static double spread(double[] values, int[][] members) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int[] team : members) {
+            if (team.length == 0) {
+                continue;
+            }
+            double sum = 0;
+            for (int student : team) {
+                sum += values[student];
+            }
+            min = Math.min(min, sum / team.length);
+            max = Math.max(max, sum / team.length);
+        }
+        return max < min ? 0 : max - min;
+    }
+
+    /**
+     * Répartition proposée par une recherche locale.
+     *
+     * @param members Les indices des étudiants de chaque équipe.
+     * @param objective L'objectif de la répartition.
+     * @param swaps Le nombre d'échanges effectués.
+     * @param timedOut Vrai si la recherche a été interrompue par l'échéance.
+     */
+    record Search(int[][] members, double objective, long swaps, boolean timedOut) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.RefreshTokenDao;
+import com.example.backend.dao.RevokedTokenDao;
+import com.example.backend.model.RefreshToken;
+import com.example.backend.model.RevokedToken;
+import com.example.backend.model.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service de gestion des jetons émis : enregistrement des jetons de rafraîchissement et liste des jetons
+ * révoqués.
+ * Un jeton de rafraîchissement n'est utilisable qu'une fois ; présenter un jeton déjà échangé révoque
+ * tous les jetons de rafraîchissement de l'utilisateur. La liste des jetons révoqués est enregistrée en
+ * base et recopiée en mémoire, si bien que la vérification faite à chaque requête ne lit pas la base.
+ */
+@Service
+public class TokenStoreService {
+
+    static final long PURGE_INTERVAL_MILLIS = 60 * 60 * 1000L;
+
+    private final RefreshTokenDao refreshTokenDao;
+    private final RevokedTokenDao revokedTokenDao;
+    private final JWTUtils jwtUtils;
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile long lastPurge;
+
+    /**
+     * Constructeur de la classe TokenStoreService.
+     *
+     * @param refreshTokenDao Le DAO des jetons de rafraîchissement.
+     * @param revokedTokenDao Le DAO des jetons révoqués.
+     * @param jwtUtils Le service de gestion des jetons JWT.
+     */
+    @Autowired
+    public TokenStoreService(RefreshTokenDao refreshTokenDao, RevokedTokenDao revokedTokenDao, JWTUtils jwtUtils) {
+        this.refreshTokenDao = refreshTokenDao;
+        this.revokedTokenDao = revokedTokenDao;
+        this.jwtUtils = jwtUtils;
+    }
+
+    /**
+     * Émet et enregistre un jeton de rafraîchissement.
+     *
+     * @param user L'utilisateur.
+     * @return Le jeton de rafraîchissement.
+     */
+    public String issueRefreshToken(User user) {
+        String token = jwtUtils.generateRefreshToken(new HashMap<>(), user);
+        Claims claims = jwtUtils.parseToken(token);
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenId(claims.getId());
+        refreshToken.setUserId(user.getId());
+        refreshToken.setExpiresAt(claims.getExpiration());
+        refreshTokenDao.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Consomme un jeton de rafraîchissement : le jeton est révoqué s'il est connu et encore utilisable.
+     * Un jeton déjà consommé révoque tous les jetons de rafraîchissement de son utilisateur.
+     *
+     * @param claims Les claims vérifiés du jeton.
+     * @return Vrai si le jeton pouvait être échangé, faux sinon.
+     */
+    @Transactional
+    public boolean consumeRefreshToken(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            return false;
+        }
+        if (refreshTokenDao.revokeByTokenId(tokenId) == 1) {
+            revoke(tokenId, claims.getExpiration());
+            return true;
+        }
+        refreshTokenDao.findByTokenId(tokenId).ifPresent(token -> revokeAllRefreshTokens(token.getUserId()));
+        return false;
+    }
+
+    /**
+     * Révoque tous les jetons de rafraîchissement d'un utilisateur.
+     *
+     * @param userId L'identifiant de l'utilisateur.
+     */
+    @Transactional
+    public void revokeAllRefreshTokens(int userId) {
+        List<RefreshToken> tokens = refreshTokenDao.findByUserIdAndRevokedFalse(userId);
+        refreshTokenDao.revokeByUserId(userId);
+        for (RefreshToken token : tokens) {
+            revoke(token.getTokenId(), token.getExpiresAt());
+        }
+    }
+
+    /**
+     * Déconnecte une session : le jeton d'accès est révoqué, ainsi que le jeton de rafraîchissement
+     * s'il appartient au même utilisateur.
+     *
+     * @param accessToken Le jeton d'accès.
+     * @param refreshToken Le jeton de rafraîchissement, ou null.
+     */
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        Claims access = accessToken == null ? null : jwtUtils.parseToken(accessToken);
+        if (access == null || access.getId() == null) {
+            return;
+        }
+        revoke(access.getId(), access.getExpiration());
+        Claims refresh = refreshToken == null ? null : jwtUtils.parseToken(refreshToken);
+        if (refresh != null && refresh.getId() != null && Objects.equals(refresh.getSubject(), access.getSubject())
+                && refreshTokenDao.revokeByTokenId(refresh.getId()) == 1) {
+            revoke(refresh.getId(), refresh.getExpiration());
+        }
+    }
+
+    /**
+     * Vérifie si un jeton a été révoqué, sans lecture en base une fois la liste chargée.
+     *
+     * @param tokenId L'identifiant du jeton, ou null pour un jeton émis sans identifiant.
+     * @return Vrai si le jeton a été révoqué, faux sinon.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        ensureLoaded();
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Ajoute un jeton à la liste des jetons révoqués jusqu'à son expiration.
+     *
+     * @param tokenId L'identifiant du jeton.
+     * @param expiresAt L'expiration du jeton.
+     */
+    private void revoke(String tokenId, Date expiresAt) {
+        ensureLoaded();
+        revokedTokenDao.save(new RevokedToken(tokenId, expiresAt));
+        revokedTokens.put(tokenId, expiresAt.getTime());
+        purgeExpired();
+    }
+
+    /**
+     * Charge la liste des jetons révoqués et non expirés au premier usage.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (revokedTokens) {
+            if (!loaded) {
+                for (RevokedToken token : revokedTokenDao.findByExpiresAtAfter(new Date())) {
+                    revokedTokens.put(token.getTokenId(), token.getExpiresAt().getTime());
+                }
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Oublie les jetons expirés, qui sont de toute façon refusés, au plus une fois par intervalle.
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < PURGE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPurge = now;
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedTokenDao.deleteExpired(new Date(now));
+        refreshTokenDao.deleteExpired(new Date(now));
+    }
+}
@@ -1,12 +1,11 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.RoleDao;
-import com.example.backend.dao.TeamDao;
 import com.example.backend.dao.UserDao;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.dto.UserSendDTO;
 import com.example.backend.model.Role;
-import com.example.backend.model.Team;
+import com.example.backend.model.SubjectGrades;
 import com.example.backend.model.User;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +14,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service de gestion des utilisateurs.
@@ -27,9 +30,14 @@ public class UserService implements UserDetailsService {
     private final NotificationService notificationService;
     private final UserDao userDao;
     private final RoleDao roleDao;
-    private final TeamDao teamDao;
+    private final TeamRoster teamRoster;
     private final CleanupService cleanupService;
+    private final ReferenceDataCache referenceDataCache;
     private static final String ROLE_NOT_FOUND_MSG = "Role not found";
+    private static final List<Role.RoleName> TEACHER_ROLES = List.of(Role.RoleName.SS, Role.RoleName.TC, Role.RoleName.PL, Role.RoleName.OL);
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Map<String, StudentProfile> studentSnapshot;
+    private final Map<Role.RoleName, List<Integer>> staffDirectory = new ConcurrentHashMap<>();
 
     /**
      * Constructeur de la classe UserService.
@@ -37,16 +45,18 @@ public class UserService implements UserDetailsService {
      * @param userDao Le DAO des utilisateurs.
      * @param roleDao Le DAO des rôles.
      * @param notificationService Le service de gestion des notifications.
-     * @param teamDao Le DAO des équipes.
+     * @param teamRoster L'index de la composition des équipes.
      * @param cleanupService Le service de nettoyage.
+     * @param referenceDataCache Le cache des données de référence.
      */
     @Autowired
-    public UserService(UserDao userDao, RoleDao roleDao, NotificationService notificationService, TeamDao teamDao, CleanupService cleanupService){
+    public UserService(UserDao userDao, RoleDao roleDao, NotificationService notificationService, TeamRoster teamRoster, CleanupService cleanupService, ReferenceDataCache referenceDataCache){
         this.userDao = userDao;
         this.roleDao = roleDao;
         this.notificationService = notificationService;
-        this.teamDao = teamDao;
+        this.teamRoster = teamRoster;
         this.cleanupService = cleanupService;
+        this.referenceDataCache = referenceDataCache;
     }
 
     /**
@@ -64,10 +74,7 @@ public class UserService implements UserDetailsService {
      * @return La liste des enseignants.
      */
     public List<User> getTeachers() {
-        Role ssRole = roleDao.findByName(Role.RoleName.SS)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-
-        return userDao.findByRoles(ssRole).orElseThrow();
+        return findAllByIds(getStaffIds(Role.RoleName.SS));
     }
 
     /**
@@ -76,12 +83,7 @@ public class UserService implements UserDetailsService {
      * @return La liste des enseignants avec des équipes.
      */
     public List<User> getTeachersWithTeams() {
-        List<Team> teams = teamDao.findAll();
-        Set<User> teachers = new HashSet<>();
-        for (Team team : teams) {
-            teachers.add(team.getSupervisor());
-        }
-        return new ArrayList<>(teachers);
+        return findAllByIds(teamRoster.getSupervisorIds());
     }
 
     /**
@@ -90,7 +92,7 @@ public class UserService implements UserDetailsService {
      * @return La liste des étudiants.
      */
     public List<User> getStudents() {
-        Role osRole = roleDao.findByName(Role.RoleName.OS)
+        Role osRole = findRole(Role.RoleName.OS)
                 .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
 
         return userDao.findByRoles(osRole).orElseThrow();
@@ -102,9 +104,9 @@ public class UserService implements UserDetailsService {
      * @return La liste des membres du staff.
      */
     public List<User> getAllStaff() {
-        Role ssRole = roleDao.findByName(Role.RoleName.SS)
+        Role ssRole = findRole(Role.RoleName.SS)
                 .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-        Role plRole = roleDao.findByName(Role.RoleName.PL)
+        Role plRole = findRole(Role.RoleName.PL)
                 .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
 
         List<Role> roles = Arrays.asList(ssRole, plRole);
@@ -121,10 +123,7 @@ public class UserService implements UserDetailsService {
      * @return La liste des membres du staff avec des équipes.
      */
     public List<User> getTechnicalCoaches(){
-        Role tcRole = roleDao.findByName(Role.RoleName.TC)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-
-        return userDao.findByRoles(tcRole).orElseThrow();
+        return findAllByIds(getStaffIds(Role.RoleName.TC));
     }
 
     /**
@@ -133,10 +132,7 @@ public class UserService implements UserDetailsService {
      * @return La liste des chefs de projet.
      */
     public List<User> getProjectLeader(){
-        Role smRole = roleDao.findByName(Role.RoleName.PL)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-
-        return userDao.findByRoles(smRole).orElseThrow();
+        return findAllByIds(getStaffIds(Role.RoleName.PL));
     }
 
     /**
@@ -145,10 +141,7 @@ public class UserService implements UserDetailsService {
      * @return La liste des chefs d'option.
      */
     public List<User> getOptionLeader(){
-        Role smRole = roleDao.findByName(Role.RoleName.OL)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-
-        return userDao.findByRoles(smRole).orElseThrow();
+        return findAllByIds(getStaffIds(Role.RoleName.OL));
     }
 
     /**
@@ -157,22 +150,115 @@ public class UserService implements UserDetailsService {
      * @return La liste des enseignants.
      */
     public List<User> getAllTeachers(){
-        Role ssRole = roleDao.findByName(Role.RoleName.SS)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-        Role tcRole = roleDao.findByName(Role.RoleName.TC)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-        Role plRole = roleDao.findByName(Role.RoleName.PL)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
-        Role olRole = roleDao.findByName(Role.RoleName.OL)
-                .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
+        Set<Integer> teacherIds = new LinkedHashSet<>();
+        for (Role.RoleName roleName : TEACHER_ROLES) {
+            teacherIds.addAll(getStaffIds(roleName));
+        }
+        return findAllByIds(teacherIds);
+    }
 
-        Set<User> teachers = new HashSet<>();
-        teachers.addAll(userDao.findByRoles(ssRole).orElseThrow());
-        teachers.addAll(userDao.findByRoles(tcRole).orElseThrow());
-        teachers.addAll(userDao.findByRoles(plRole).orElseThrow());
-        teachers.addAll(userDao.findByRoles(olRole).orElseThrow());
+    /**
+     * Retourne les identifiants des membres du staff ayant un rôle. L'annuaire est chargé rôle par
+     * rôle au premier accès puis conservé jusqu'à la prochaine écriture sur un utilisateur ; un
+     * annuaire chargé pendant une invalidation n'est pas conservé.
+     *
+     * @param roleName Le nom du rôle.
+     * @return Les identifiants des utilisateurs ayant ce rôle.
+     * @throws RuntimeException Si le rôle n'existe pas.
+     */
+    private List<Integer> getStaffIds(Role.RoleName roleName) {
+        List<Integer> staff = staffDirectory.get(roleName);
+        if (staff == null) {
+            long loadedGeneration = generation.get();
+            Role role = findRole(roleName)
+                    .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
+            staff = List.copyOf(userDao.findIdsByRoles(role));
+            synchronized (this) {
+                if (generation.get() == loadedGeneration) {
+                    staffDirectory.put(roleName, staff);
+                }
+            }
+        }
+        return staff;
+    }
 
-        return new ArrayList<>(teachers);
+    /**
+     * Charge des utilisateurs en une requête, dans l'ordre des identifiants donnés.
+     *
+     * @param ids Les identifiants des utilisateurs.
+     * @return Les utilisateurs trouvés.
+     */
+    private List<User> findAllByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, User> byId = new HashMap<>();
+        for (User user : userDao.findAllById(new ArrayList<>(ids))) {
+            byId.put(user.getId(), user);
+        }
+        List<User> users = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            User user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Retourne les étudiants indexés par email. L'index est chargé une fois puis conservé jusqu'à la
+     * prochaine écriture sur un utilisateur ; chaque appel reçoit des copies détachées, si bien
+     * qu'aucune entité n'est partagée entre deux appels.
+     *
+     * @return Les étudiants indexés par email.
+     */
+    public Map<String, User> getStudentSnapshot() {
+        Map<String, StudentProfile> snapshot = studentSnapshot;
+        if (snapshot == null) {
+            long loadedGeneration = generation.get();
+            Map<String, StudentProfile> students = new HashMap<>();
+            for (User student : getStudents()) {
+                students.put(student.getEmail(), StudentProfile.of(student));
+            }
+            snapshot = Collections.unmodifiableMap(students);
+            synchronized (this) {
+                if (generation.get() == loadedGeneration) {
+                    studentSnapshot = snapshot;
+                }
+            }
+        }
+        Map<String, User> students = new HashMap<>();
+        for (Map.Entry<String, StudentProfile> entry : snapshot.entrySet()) {
+            students.put(entry.getKey(), entry.getValue().toUser());
+        }
+        return students;
+    }
+
+    /**
+     * Invalide l'index des étudiants et l'annuaire du staff.
+     */
+    private synchronized void invalidateUserCaches() {
+        generation.incrementAndGet();
+        studentSnapshot = null;
+        staffDirectory.clear();
+    }
+
+    /**
+     * Invalide les index des utilisateurs après une écriture. Si une transaction est en cours, ils sont
+     * de nouveau invalidés à sa fin, afin qu'un rechargement concurrent ne conserve pas un état
+     * antérieur à la validation.
+     */
+    private void invalidateAfterWrite() {
+        invalidateUserCaches();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateUserCaches();
+                }
+            });
+        }
     }
 
     /**
@@ -180,6 +266,7 @@ public class UserService implements UserDetailsService {
      */
     public void deleteStudents() {
         cleanupService.deleteAllStudents();
+        invalidateAfterWrite();
     }
 
     /**
@@ -218,7 +305,9 @@ public class UserService implements UserDetailsService {
             // Lancer une exception ou gérer cette situation comme vous le souhaitez
             throw new IllegalArgumentException("Email is already in use");
         } else {
-            return userDao.save(user);
+            User saved = userDao.save(user);
+            invalidateAfterWrite();
+            return saved;
         }
     }
 
@@ -229,7 +318,9 @@ public class UserService implements UserDetailsService {
      * @return L'utilisateur mis à jour.
      */
     public User updateUser(User user) {
-        return userDao.save(user);
+        User saved = userDao.save(user);
+        invalidateAfterWrite();
+        return saved;
     }
 
     /**
@@ -244,6 +335,9 @@ public class UserService implements UserDetailsService {
         userDao.findById(id).ifPresent(user -> user.getTeams().clear());
         // Supprimer l'utilisateur lui-même
         userDao.deleteById(id);
+        // Retirer l'utilisateur de l'index des équipes
+        teamRoster.invalidate();
+        invalidateAfterWrite();
     }
 
     /**
@@ -283,11 +377,35 @@ public class UserService implements UserDetailsService {
             user.setOption(userDto.getOption());
             user.setBachelor(userDto.isBachelor());
             user.setGradePast(userDto.getGradePast());
+            user.setSubjectGrades(toSubjectGrades(userDto));
             return Optional.of(user);
         }
         return userDao.findByEmail(userDto.getEmail());
     }
 
+    /**
+     * Extrait les notes par matière d'un UserInteract.
+     *
+     * @param userDto Le UserInteract.
+     * @return Les notes par matière, ou null si aucune n'est renseignée.
+     */
+    public SubjectGrades toSubjectGrades(UserInteract userDto) {
+        SubjectGrades grades = new SubjectGrades();
+        grades.setPadl(userDto.getPadl());
+        grades.setPdlo(userDto.getPdlo());
+        grades.setPwnd(userDto.getPwnd());
+        grades.setIrs(userDto.getIrs());
+        grades.setStages7(userDto.getStages7());
+        grades.setS5(userDto.getS5());
+        grades.setS6(userDto.getS6());
+        for (Double value : grades.values()) {
+            if (value != null) {
+                return grades;
+            }
+        }
+        return null;
+    }
+
     /**
      * Cherche les utilisateurs par son équipe.
      * @param teamId L'identifiant de l'équipe.
@@ -302,7 +420,7 @@ public class UserService implements UserDetailsService {
      * @param user L'utilisateur.
      */
     public void setDefaultRoles(User user) {
-        Role role = roleDao.findByName(Role.RoleName.OS)
+        Role role = findRole(Role.RoleName.OS)
                 .orElseThrow(() -> new RuntimeException(ROLE_NOT_FOUND_MSG));
         Set<Role> roles = new HashSet<>();
         roles.add(role);
@@ -347,7 +465,68 @@ public class UserService implements UserDetailsService {
      * @return Le rôle.
      */
     public Role getRoleByName(String role) {
-        return roleDao.findByName(Role.RoleName.valueOf(role))
+        return findRole(Role.RoleName.valueOf(role))
                 .orElseThrow(() -> new IllegalArgumentException(ROLE_NOT_FOUND_MSG));
     }
+
+    /**
+     * Recherche un rôle par son nom. Le cache des données de référence ne conserve que l'identifiant
+     * du rôle ; l'entité est chargée dans la session courante, depuis le cache de second niveau.
+     *
+     * @param roleName Le nom du rôle.
+     * @return Le rôle, s'il existe.
+     */
+    private Optional<Role> findRole(Role.RoleName roleName) {
+        Integer roleId = referenceDataCache.get(ReferenceDataCache.ROLES, roleName,
+                () -> roleDao.findByName(roleName).map(Role::getId).orElse(null));
+        return roleId == null ? Optional.empty() : roleDao.findById(roleId);
+    }
+
+    /**
+     * Profil immuable d'un étudiant, conservé dans l'index à la place de l'entité.
+     *
+     * @param id L'identifiant de l'étudiant.
+     * @param firstName Le prénom.
+     * @param lastName Le nom.
+     * @param email L'email.
+     * @param gender Le genre.
+     * @param option L'option.
+     * @param bachelor Vrai si l'étudiant est bachelier.
+     * @param gradePast La moyenne générale.
+     * @param subjectGrades Les notes par matière, null si aucune n'est renseignée.
+     */
+    private record StudentProfile(int id, String firstName, String lastName, String email, String gender,
+                                  String option, boolean bachelor, Double gradePast, Double[] subjectGrades) {
+
+        static StudentProfile of(User user) {
+            SubjectGrades grades = user.getSubjectGrades();
+            return new StudentProfile(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                    user.getGender(), user.getOption(), user.isBachelor(), user.getGradePast(),
+                    grades == null ? null : grades.values());
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setEmail(email);
+            user.setGender(gender);
+            user.setOption(option);
+            user.setBachelor(bachelor);
+            user.setGradePast(gradePast);
+            if (subjectGrades != null) {
+                SubjectGrades grades = new SubjectGrades();
+                grades.setPadl(subjectGrades[0]);
+                grades.setPdlo(subjectGrades[1]);
+                grades.setPwnd(subjectGrades[2]);
+                grades.setIrs(subjectGrades[3]);
+                grades.setStages7(subjectGrades[4]);
+                grades.setS5(subjectGrades[5]);
+                grades.setS6(subjectGrades[6]);
+                user.setSubjectGrades(grades);
+            }
+            return user;
+        }
+    }
 }
@@ -6,6 +6,8 @@ import com.example.backend.model.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Service de gestion des notes de travail.
  */
@@ -79,11 +81,12 @@ public class WorkGradeService {
      * @return La note de travail.
      */
     public WorkGrade getWorkGradeByUserIdAndSprintId(int userId, int sprintId) {
-        try {
-            return workGradeDao.findByUserIdAndSprintId(userId, sprintId).orElseThrow();
-        } catch (Exception e) {
-            return createWorkGrade(userId, sprintId);
+        Optional<WorkGrade> workGrade = workGradeDao.findByUserIdAndSprintId(userId, sprintId);
+        if (workGrade.isPresent()) {
+            return workGrade.get();
         }
+        workGradeDao.insertIfAbsent(userId, sprintId);
+        return workGradeDao.findByUserIdAndSprintId(userId, sprintId).orElseThrow();
     }
 
     /**
@@ -123,4 +123,33 @@ class AuthControllerTest {
         // Verification
         verify(authService, never()).getUserFromToken(anyString());
     }
+
+    @Test
+    void logout_shouldRevokeAccessAndRefreshTokens() {
+        // Setup
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        UserInteract logoutRequest = new UserInteract();
+        logoutRequest.setRefreshToken("refreshToken");
+        when(request.getHeader("Authorization")).thenReturn("Bearer accessToken");
+
+        // Execution
+        ResponseEntity<Void> response = authController.logout(request, logoutRequest);
+
+        // Verification
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(authService, times(1)).logout("accessToken", "refreshToken");
+    }
+
+    @Test
+    void logout_shouldAcceptMissingBody() {
+        // Setup
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("Authorization")).thenReturn("Bearer accessToken");
+
+        // Execution
+        authController.logout(request, null);
+
+        // Verification
+        verify(authService, times(1)).logout("accessToken", null);
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.BMValidationStatusDTO;
 import com.example.backend.dto.BonusMalusDTO;
 import com.example.backend.model.BonusMalus;
 import com.example.backend.service.BonusMalusService;
@@ -152,6 +153,28 @@ class BonusMalusControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @Test
+    void getValidationStatus_shouldReturnOkWhenNoExceptionThrown() {
+        int sprintId = 1;
+        List<BMValidationStatusDTO> status = List.of(new BMValidationStatusDTO());
+        when(bonusMalusService.getValidationStatus(sprintId)).thenReturn(status);
+
+        ResponseEntity<List<BMValidationStatusDTO>> response = bonusMalusController.getValidationStatus(sprintId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(status, response.getBody());
+    }
+
+    @Test
+    void getValidationStatus_shouldReturnBadRequestWhenExceptionThrown() {
+        int sprintId = 1;
+        when(bonusMalusService.getValidationStatus(sprintId)).thenThrow(new RuntimeException());
+
+        ResponseEntity<List<BMValidationStatusDTO>> response = bonusMalusController.getValidationStatus(sprintId);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void getUserBMForSprintByStudent_shouldReturnOkWhenNoExceptionThrown() {
         // Arrange
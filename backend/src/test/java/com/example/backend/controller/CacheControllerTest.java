@@ -0,0 +1,60 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.CacheStatsDTO;
+import com.example.backend.service.ReferenceDataCache;
+import com.example.backend.service.SecondLevelCacheStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+class CacheControllerTest {
+
+    @InjectMocks
+    private CacheController cacheController;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private SecondLevelCacheStatsService secondLevelCacheStatsService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void getCacheStats_shouldReturnStatsOfEveryRegion() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setRegion(ReferenceDataCache.DETAILS);
+        stats.setHits(3);
+        when(referenceDataCache.getStats()).thenReturn(List.of(stats));
+
+        ResponseEntity<List<CacheStatsDTO>> response = cacheController.getCacheStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(stats), response.getBody());
+    }
+
+    @Test
+    void getSecondLevelCacheStats_shouldReturnStatsOfEveryRegion() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setRegion("com.example.backend.model.Sprint");
+        stats.setPuts(2L);
+        when(secondLevelCacheStatsService.getStats()).thenReturn(List.of(stats));
+
+        ResponseEntity<List<CacheStatsDTO>> response = cacheController.getSecondLevelCacheStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(stats), response.getBody());
+    }
+}
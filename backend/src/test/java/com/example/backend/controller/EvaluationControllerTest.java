@@ -1,7 +1,12 @@
 package com.example.backend.controller;
 
 import com.example.backend.model.Evaluation;
+import com.example.backend.model.GradeTypes;
+import com.example.backend.model.Sprint;
+import com.example.backend.model.SubGrade;
+import com.example.backend.model.User;
 import com.example.backend.service.EvaluationService;
+import com.example.backend.service.GradeStalenessService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -20,6 +25,9 @@ class EvaluationControllerTest {
     @Mock
     private EvaluationService evaluationService;
 
+    @Mock
+    private GradeStalenessService gradeStalenessService;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -27,7 +35,18 @@ class EvaluationControllerTest {
 
     @Test
     void updateSubGradeShouldReturnUpdatedEvaluation() {
+        User user = new User();
+        user.setId(3);
+        Sprint sprint = new Sprint();
+        sprint.setId(2);
+        GradeTypes gradeType = new GradeTypes(GradeTypes.GradeTypesEnum.SSPR);
+        gradeType.setId(GradeTypes.GradeTypesEnum.SSPR.getId());
+        SubGrade subGrade = new SubGrade();
+        subGrade.setGradeType(gradeType);
+        subGrade.setUser(user);
+        subGrade.setSprint(sprint);
         Evaluation evaluation = new Evaluation();
+        evaluation.setSubGrade(subGrade);
         when(evaluationService.getEvaluationById(anyInt())).thenReturn(evaluation);
         when(evaluationService.updateEvaluation(any(Evaluation.class), anyDouble())).thenReturn(evaluation);
 
@@ -36,6 +55,7 @@ class EvaluationControllerTest {
         assertEquals(ResponseEntity.ok(evaluation), result);
         verify(evaluationService, times(1)).getEvaluationById(anyInt());
         verify(evaluationService, times(1)).updateEvaluation(any(Evaluation.class), anyDouble());
+        verify(gradeStalenessService, times(1)).markUserStale(3, 2, GradeTypes.GradeTypesEnum.SSPR.getId());
     }
 
     @Test
@@ -47,5 +67,6 @@ class EvaluationControllerTest {
         assertEquals(ResponseEntity.badRequest().build(), result);
         verify(evaluationService, times(1)).getEvaluationById(anyInt());
         verify(evaluationService, times(0)).updateEvaluation(any(Evaluation.class), anyDouble());
+        verify(gradeStalenessService, never()).markUserStale(anyInt(), anyInt(), any(int[].class));
     }
 }
\ No newline at end of file
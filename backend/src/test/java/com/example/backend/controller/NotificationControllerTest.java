@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.NotificationBroadcastDTO;
 import com.example.backend.dto.NotificationDTO;
 import com.example.backend.model.Notification;
 import com.example.backend.service.NotificationService;
@@ -9,11 +10,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.*;
 
 class NotificationControllerTest {
@@ -161,4 +165,33 @@ class NotificationControllerTest {
         // Assert
         assertEquals(ResponseEntity.status(400).build(), response);
     }
-}
\ No newline at end of file
+
+    @Test
+    void broadcast_shouldReturnCountWhenSuccessful() {
+        NotificationBroadcastDTO broadcastDTO = new NotificationBroadcastDTO();
+        when(notificationService.broadcast(broadcastDTO)).thenReturn(3);
+
+        ResponseEntity<Integer> response = notificationController.broadcast(broadcastDTO);
+
+        assertEquals(ResponseEntity.ok(3), response);
+    }
+
+    @Test
+    void broadcast_shouldReturnBadRequestWhenExceptionThrown() {
+        NotificationBroadcastDTO broadcastDTO = new NotificationBroadcastDTO();
+        when(notificationService.broadcast(broadcastDTO)).thenThrow(new RuntimeException());
+
+        ResponseEntity<Integer> response = notificationController.broadcast(broadcastDTO);
+
+        assertEquals(ResponseEntity.status(400).build(), response);
+    }
+
+    @Test
+    void broadcast_shouldBeRestrictedToStaff() throws NoSuchMethodException {
+        PreAuthorize preAuthorize = NotificationController.class
+                .getMethod("broadcast", NotificationBroadcastDTO.class).getAnnotation(PreAuthorize.class);
+
+        assertNotNull(preAuthorize);
+        assertFalse(preAuthorize.value().contains("'OS'"));
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.GradeJobDTO;
+import com.example.backend.dto.TeamProjectGradesDTO;
 import com.example.backend.model.ProjectGrade;
+import com.example.backend.service.GradeJobService;
 import com.example.backend.service.ProjectGradeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
@@ -21,6 +28,9 @@ class ProjectGradeControllerTest {
     @Mock
     private ProjectGradeService projectGradeService;
 
+    @Mock
+    private GradeJobService gradeJobService;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -102,24 +112,113 @@ class ProjectGradeControllerTest {
     @Test
     void getAll_shouldReturnOkWhenNoExceptionThrown() {
         // Arrange
-        doNothing().when(projectGradeService).updateAllProjectGrades();
+        GradeJobDTO job = new GradeJobDTO();
+        when(gradeJobService.submit(null, null)).thenReturn(job);
 
         // Act
-        ResponseEntity<Void> response = projectGradeController.getAll();
+        ResponseEntity<GradeJobDTO> response = projectGradeController.getAll();
 
         // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ResponseEntity.ok(job), response);
+        verify(projectGradeService, never()).updateAllProjectGrades();
     }
 
     @Test
     void getAll_shouldReturnBadRequestWhenExceptionThrown() {
         // Arrange
-        doThrow(new RuntimeException()).when(projectGradeService).updateAllProjectGrades();
+        when(gradeJobService.submit(null, null)).thenThrow(new IllegalStateException());
 
         // Act
-        ResponseEntity<Void> response = projectGradeController.getAll();
+        ResponseEntity<GradeJobDTO> response = projectGradeController.getAll();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void submitJob_shouldSubmitJobForScope() {
+        GradeJobDTO job = new GradeJobDTO();
+        when(gradeJobService.submit(2, 1)).thenReturn(job);
+
+        ResponseEntity<GradeJobDTO> response = projectGradeController.submitJob(2, 1);
+
+        assertEquals(ResponseEntity.ok(job), response);
+    }
+
+    @Test
+    void submitJob_shouldReturnServiceUnavailableWhenQueueIsFull() {
+        when(gradeJobService.submit(null, null)).thenThrow(new RejectedExecutionException());
+
+        ResponseEntity<GradeJobDTO> response = projectGradeController.submitJob(null, null);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(ProjectGradeController.JOB_RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void submitJob_shouldReturnBadRequestOnInvalidScope() {
+        when(gradeJobService.submit(99, null)).thenThrow(new NoSuchElementException());
+
+        ResponseEntity<GradeJobDTO> response = projectGradeController.submitJob(99, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getJob_shouldReturnJobState() {
+        GradeJobDTO job = new GradeJobDTO();
+        when(gradeJobService.getJob("abc")).thenReturn(job);
+
+        ResponseEntity<GradeJobDTO> response = projectGradeController.getJob("abc");
+
+        assertEquals(ResponseEntity.ok(job), response);
+    }
+
+    @Test
+    void getJob_shouldReturnNotFoundForUnknownJob() {
+        when(gradeJobService.getJob("abc")).thenThrow(new NoSuchElementException());
+
+        ResponseEntity<GradeJobDTO> response = projectGradeController.getJob("abc");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void getTeamProjectGrades_shouldReturnGrades() {
+        TeamProjectGradesDTO dto = new TeamProjectGradesDTO();
+        when(projectGradeService.getTeamProjectGrades(1, 2)).thenReturn(dto);
+
+        ResponseEntity<TeamProjectGradesDTO> response = projectGradeController.getTeamProjectGrades(1, 2);
+
+        assertEquals(ResponseEntity.ok(dto), response);
+        verify(projectGradeService, never()).refreshTeamProjectGrades(anyInt(), anyInt());
+    }
+
+    @Test
+    void getTeamProjectGrades_shouldReturnBadRequestWhenExceptionThrown() {
+        when(projectGradeService.getTeamProjectGrades(1, 2)).thenThrow(new RuntimeException());
+
+        ResponseEntity<TeamProjectGradesDTO> response = projectGradeController.getTeamProjectGrades(1, 2);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void refreshTeamProjectGrades_shouldReturnRecomputedGrades() {
+        TeamProjectGradesDTO dto = new TeamProjectGradesDTO();
+        when(projectGradeService.refreshTeamProjectGrades(1, 2)).thenReturn(dto);
+
+        ResponseEntity<TeamProjectGradesDTO> response = projectGradeController.refreshTeamProjectGrades(1, 2);
+
+        assertEquals(ResponseEntity.ok(dto), response);
+    }
+
+    @Test
+    void refreshTeamProjectGrades_shouldReturnBadRequestWhenExceptionThrown() {
+        when(projectGradeService.refreshTeamProjectGrades(1, 2)).thenThrow(new RuntimeException());
+
+        ResponseEntity<TeamProjectGradesDTO> response = projectGradeController.refreshTeamProjectGrades(1, 2);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
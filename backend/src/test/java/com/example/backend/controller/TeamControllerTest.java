@@ -1,9 +1,12 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.TeamDTO;
+import com.example.backend.dto.TeamFormationReportDTO;
+import com.example.backend.dto.TeamPreviewDTO;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.model.Team;
 import com.example.backend.model.User;
+import com.example.backend.service.TeamPreviewService;
 import com.example.backend.service.TeamService;
 import com.example.backend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +33,9 @@ class TeamControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TeamPreviewService teamPreviewService;
+
     @BeforeEach
      void setup() {
         MockitoAnnotations.openMocks(this);
@@ -53,6 +59,55 @@ class TeamControllerTest {
         verify(teamService, times(1)).getTeamById(anyInt());
     }
 
+    @Test
+    void testGetFormationReport() {
+        TeamFormationReportDTO report = new TeamFormationReportDTO();
+        when(teamService.getLastFormationReport()).thenReturn(report);
+        ResponseEntity<TeamFormationReportDTO> response = teamController.getFormationReport();
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(report, response.getBody());
+    }
+
+    @Test
+    void testGetFormationReportNotFound() {
+        when(teamService.getLastFormationReport()).thenReturn(null);
+        ResponseEntity<TeamFormationReportDTO> response = teamController.getFormationReport();
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void testPreviewTeams() {
+        TeamPreviewDTO preview = new TeamPreviewDTO();
+        TeamDTO parameters = new TeamDTO();
+        when(teamPreviewService.preview(parameters)).thenReturn(preview);
+        ResponseEntity<TeamPreviewDTO> response = teamController.previewTeams(parameters);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(preview, response.getBody());
+    }
+
+    @Test
+    void testPreviewTeamsBadRequest() {
+        when(teamPreviewService.preview(any())).thenThrow(new IllegalArgumentException());
+        ResponseEntity<TeamPreviewDTO> response = teamController.previewTeams(new TeamDTO());
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void testCommitPreview() {
+        List<Team> teams = List.of(new Team());
+        when(teamPreviewService.commit("abc")).thenReturn(teams);
+        ResponseEntity<List<Team>> response = teamController.commitPreview("abc");
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(teams, response.getBody());
+    }
+
+    @Test
+    void testCommitPreviewNotFound() {
+        when(teamPreviewService.commit("abc")).thenThrow(new NoSuchElementException());
+        ResponseEntity<List<Team>> response = teamController.commitPreview("abc");
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     void testGetTeam() {
         User user = new User();
@@ -149,7 +204,7 @@ class TeamControllerTest {
         when(userService.userInteractToUser(teamDTO.getTeachers().get(1))).thenReturn(Optional.of(user4));
         when(userService.userInteractToUser(teamDTO.getTeachers().get(2))).thenReturn(Optional.of(user5));
 
-        when(teamService.createTeams(anyList(), anyList(), any(String[].class), anyInt(), anyInt())).thenReturn(new ArrayList<>());
+        when(teamService.createTeams(anyList(), anyList(), any(String[].class), anyInt(), anyInt(), any(), any())).thenReturn(new ArrayList<>());
 
         // Act
         ResponseEntity<List<Team>> response = teamController.createTeams(teamDTO);
@@ -161,7 +216,7 @@ class TeamControllerTest {
     @Test
     void createTeams_shouldReturnBadRequestWhenExceptionThrown() {
         TeamDTO teamDTO = new TeamDTO();
-        when(teamService.createTeams(anyList(), anyList(), any(String[].class), anyInt(), anyInt())).thenThrow(new RuntimeException());
+        when(teamService.createTeams(anyList(), anyList(), any(String[].class), anyInt(), anyInt(), any(), any())).thenThrow(new RuntimeException());
 
         ResponseEntity<List<Team>> response = teamController.createTeams(teamDTO);
 
@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.TeamGradeBatchDTO;
 import com.example.backend.model.TeamGrade;
 import com.example.backend.service.TeamGradeService;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,6 +44,25 @@ class TeamGradeControllerTest {
         assertEquals(ResponseEntity.status(400).build(), response);
     }
 
+    @Test
+    void saveTeamGrades_shouldReturnOkWhenSuccessful() {
+        TeamGradeBatchDTO batch = new TeamGradeBatchDTO();
+
+        ResponseEntity<Void> response = teamGradeController.saveTeamGrades(batch);
+
+        assertEquals(ResponseEntity.ok().build(), response);
+        verify(teamGradeService, times(1)).updateTeamGrades(batch);
+    }
+
+    @Test
+    void saveTeamGrades_shouldReturnBadRequestWhenExceptionThrown() {
+        doThrow(new IllegalArgumentException()).when(teamGradeService).updateTeamGrades(any());
+
+        ResponseEntity<Void> response = teamGradeController.saveTeamGrades(new TeamGradeBatchDTO());
+
+        assertEquals(ResponseEntity.status(400).build(), response);
+    }
+
     @Test
     void getTeamGrade_shouldReturnOkWhenSuccessful() {
         TeamGrade expectedTeamGrade = new TeamGrade();
@@ -0,0 +1,58 @@
+package com.example.backend.dao;
+
+import com.example.backend.dto.BonusMalusDTO;
+import com.example.backend.model.BonusMalus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BonusMalusDaoCustomImplTest {
+
+    @InjectMocks
+    private BonusMalusDaoCustomImpl bonusMalusDaoCustom;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertAllShouldBindRowArgumentsInColumnOrder() {
+        BonusMalusDTO inserted = new BonusMalusDTO(0, 1.5f, "bonus", BonusMalus.BonusMalusStatus.PENDING, false, 3, 4, 5, 6);
+        BonusMalusDTO updated = new BonusMalusDTO(9, -1.5f, "malus", BonusMalus.BonusMalusStatus.VALIDATED, true, 7, 4, 5, 6);
+
+        bonusMalusDaoCustom.upsertAll(List.of(inserted, updated));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(BonusMalusDaoCustomImpl.UPSERT_SQL), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertArrayEquals(new Object[]{null, 1.5f, "bonus", "PENDING", false, 3, 4, 5, 6}, rows.getValue().get(0));
+        assertArrayEquals(new Object[]{9, -1.5f, "malus", "VALIDATED", true, 7, 4, 5, 6}, rows.getValue().get(1));
+    }
+
+    @Test
+    void upsertAllShouldRejectUnknownStatus() {
+        BonusMalusDTO bonusMalus = new BonusMalusDTO(0, 1f, "bonus", BonusMalus.BonusMalusStatus.PENDING, false, 3, 4, 5, 6);
+        bonusMalus.setStatus("pending");
+        List<BonusMalusDTO> rows = List.of(bonusMalus);
+
+        assertThrows(IllegalArgumentException.class, () -> bonusMalusDaoCustom.upsertAll(rows));
+        verify(jdbcTemplate, never()).batchUpdate(eq(BonusMalusDaoCustomImpl.UPSERT_SQL), anyList());
+    }
+}
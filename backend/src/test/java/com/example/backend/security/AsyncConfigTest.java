@@ -0,0 +1,50 @@
+package com.example.backend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AsyncConfigTest {
+
+    @Test
+    void testGradeJobExecutorIsBounded() {
+        ThreadPoolTaskExecutor executor = new AsyncConfig().gradeJobExecutor();
+
+        assertEquals(AsyncConfig.GRADE_JOB_POOL_SIZE, executor.getCorePoolSize());
+        assertEquals(AsyncConfig.GRADE_JOB_POOL_SIZE, executor.getMaxPoolSize());
+        assertEquals(AsyncConfig.GRADE_JOB_QUEUE_CAPACITY, executor.getQueueCapacity());
+    }
+
+    @Test
+    void testGradeComputeExecutorUsesConfiguredParallelism() {
+        ThreadPoolTaskExecutor executor = new AsyncConfig().gradeComputeExecutor(3);
+
+        assertEquals(3, executor.getCorePoolSize());
+        assertEquals(3, executor.getMaxPoolSize());
+    }
+
+    @Test
+    void testTeamFormationExecutorIsBounded() {
+        ThreadPoolTaskExecutor executor = new AsyncConfig().teamFormationExecutor(2);
+
+        assertEquals(2, executor.getCorePoolSize());
+        assertEquals(2, executor.getMaxPoolSize());
+        assertEquals(AsyncConfig.TEAM_FORMATION_QUEUE_CAPACITY, executor.getQueueCapacity());
+    }
+
+    @Test
+    void testNotificationExecutorUsesASingleThread() {
+        ThreadPoolTaskExecutor executor = new AsyncConfig().notificationExecutor();
+
+        assertEquals(1, executor.getCorePoolSize());
+        assertEquals(1, executor.getMaxPoolSize());
+        assertEquals(AsyncConfig.NOTIFICATION_QUEUE_CAPACITY, executor.getQueueCapacity());
+    }
+
+    @Test
+    void testResolveParallelismDefaultsToAvailableProcessors() {
+        assertEquals(Runtime.getRuntime().availableProcessors(), AsyncConfig.resolveParallelism(0));
+        assertEquals(4, AsyncConfig.resolveParallelism(4));
+    }
+}
@@ -5,6 +5,8 @@ import com.example.backend.dao.RoleDao;
 import com.example.backend.model.GradeTypes;
 import com.example.backend.model.Role;
 import com.example.backend.model.Role.RoleName;
+import com.example.backend.service.ReferenceDataCache;
+import com.example.backend.service.TeamGradeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,9 +32,15 @@ class DataInitializerTest {
     @Mock
     private GradeTypesDao gradeTypesDao;
 
+    @Mock
+    private TeamGradeService teamGradeService;
+
     @InjectMocks
     private DataInitializer dataInitializer;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @Captor
     private ArgumentCaptor<List<Role>> roleCaptor;
 
@@ -107,5 +115,7 @@ class DataInitializerTest {
 
         verify(roleRepository, times(1)).count();
         verify(gradeTypesDao, times(1)).count();
+        verify(teamGradeService, times(1)).initAverages();
+        verify(referenceDataCache, times(1)).invalidateAll();
     }
 }
@@ -2,20 +2,27 @@ package com.example.backend.security;
 
 import com.example.backend.model.User;
 import com.example.backend.service.JWTUtils;
+import com.example.backend.service.TokenStoreService;
 import com.example.backend.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.NoSuchElementException;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -31,6 +38,12 @@ class JWTAuthFilterTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private TokenAuthenticationCache tokenAuthenticationCache = new TokenAuthenticationCache();
+
+    @Mock
+    private TokenStoreService tokenStoreService;
+
     @Mock
     private HttpServletRequest request;
 
@@ -49,24 +62,118 @@ class JWTAuthFilterTest {
         SecurityContextHolder.setContext(securityContext);
     }
 
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void testDoFilterInternal_ValidToken() throws ServletException, IOException {
         String token = "Bearer valid.jwt.token";
-        String email = "user@example.com";
-        User user = mock(User.class);
+        Claims claims = claims("user@example.com");
+        User user = new User();
 
         when(request.getHeader("Authorization")).thenReturn(token);
-        when(jwtUtils.extractEmail(anyString())).thenReturn(email);
-        when(userService.loadUserByEmail(anyString())).thenReturn(user);
-        when(jwtUtils.isTokenValid(anyString(), (User) any(UserDetails.class))).thenReturn(true);
-        when(user.getAuthorities()).thenReturn(null);
+        when(jwtUtils.parseToken("valid.jwt.token")).thenReturn(claims);
+        when(jwtUtils.extractPrincipal(claims)).thenReturn(user);
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtUtils, times(1)).extractEmail(anyString());
-        verify(userService, times(1)).loadUserByEmail(anyString());
-        verify(jwtUtils, times(1)).isTokenValid(anyString(), (User) any(UserDetails.class));
+        verify(jwtUtils, times(1)).parseToken(anyString());
+        verify(userService, never()).loadUserByEmail(anyString());
+        verify(tokenAuthenticationCache, times(1)).put("valid.jwt.token", user, "token-id", claims.getExpiration());
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_CachedTokenIsNotParsedAgain() throws ServletException, IOException {
+        User user = new User();
+        tokenAuthenticationCache.put("valid.jwt.token", user, "token-id", null);
+        when(request.getHeader("Authorization")).thenReturn("Bearer valid.jwt.token");
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtUtils, never()).parseToken(anyString());
+        verify(userService, never()).loadUserByEmail(anyString());
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_RevokedToken() throws ServletException, IOException {
+        Claims claims = claims("user@example.com");
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer revoked.jwt.token");
+        when(jwtUtils.parseToken("revoked.jwt.token")).thenReturn(claims);
+        when(tokenStoreService.isRevoked("token-id")).thenReturn(true);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtUtils, never()).extractPrincipal(any());
+        assertSame(securityContext, SecurityContextHolder.getContext());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_CachedTokenRevokedAfterwards() throws ServletException, IOException {
+        tokenAuthenticationCache.put("valid.jwt.token", new User(), "token-id", null);
+        when(request.getHeader("Authorization")).thenReturn("Bearer valid.jwt.token");
+        when(tokenStoreService.isRevoked("token-id")).thenReturn(true);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtUtils, never()).parseToken(anyString());
+        assertSame(securityContext, SecurityContextHolder.getContext());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_RefreshTokenIsRejected() throws ServletException, IOException {
+        Claims claims = claims("user@example.com");
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer refresh.jwt.token");
+        when(jwtUtils.parseToken("refresh.jwt.token")).thenReturn(claims);
+        when(jwtUtils.extractPrincipal(claims)).thenReturn(null);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(userService, never()).loadUserByEmail(anyString());
+        assertSame(securityContext, SecurityContextHolder.getContext());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_TokenWithoutClaimsLoadsUser() throws ServletException, IOException {
+        Claims claims = legacyClaims("user@example.com");
+        User user = new User();
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer legacy.jwt.token");
+        when(jwtUtils.parseToken("legacy.jwt.token")).thenReturn(claims);
+        when(jwtUtils.extractPrincipal(claims)).thenReturn(null);
+        when(userService.loadUserByEmail("user@example.com")).thenReturn(user);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        verify(userService, times(1)).loadUserByEmail("user@example.com");
+        assertSame(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        verify(filterChain, times(1)).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_TokenOfUnknownUser() throws ServletException, IOException {
+        Claims claims = legacyClaims("unknown@example.com");
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer legacy.jwt.token");
+        when(jwtUtils.parseToken("legacy.jwt.token")).thenReturn(claims);
+        when(jwtUtils.extractPrincipal(claims)).thenReturn(null);
+        when(userService.loadUserByEmail("unknown@example.com")).thenThrow(new NoSuchElementException());
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        assertSame(securityContext, SecurityContextHolder.getContext());
+        verify(tokenAuthenticationCache, never()).put(anyString(), any(), any(), any());
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -75,14 +182,15 @@ class JWTAuthFilterTest {
         String token = "Bearer invalid.jwt.token";
 
         when(request.getHeader("Authorization")).thenReturn(token);
-        when(jwtUtils.extractEmail(anyString())).thenReturn(null);
+        when(jwtUtils.parseToken(anyString())).thenReturn(null);
 
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtUtils, times(1)).extractEmail(anyString());
+        verify(jwtUtils, times(1)).parseToken(anyString());
         verify(userService, never()).loadUserByEmail(anyString());
-        verify(jwtUtils, never()).isTokenValid(anyString(), (User) any(UserDetails.class));
+        verify(tokenAuthenticationCache, never()).put(anyString(), any(), any(), any());
+        assertNull(tokenAuthenticationCache.get("invalid.jwt.token"));
         verify(filterChain, times(1)).doFilter(request, response);
     }
 
@@ -93,9 +201,16 @@ class JWTAuthFilterTest {
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         verify(request, times(1)).getHeader("Authorization");
-        verify(jwtUtils, never()).extractEmail(anyString());
+        verify(jwtUtils, never()).parseToken(anyString());
         verify(userService, never()).loadUserByEmail(anyString());
-        verify(jwtUtils, never()).isTokenValid(anyString(), (User) any(UserDetails.class));
         verify(filterChain, times(1)).doFilter(request, response);
     }
+
+    private static Claims claims(String email) {
+        return Jwts.claims().id("token-id").subject(email).expiration(new Date(System.currentTimeMillis() + 60000)).build();
+    }
+
+    private static Claims legacyClaims(String email) {
+        return Jwts.claims().subject(email).expiration(new Date(System.currentTimeMillis() + 60000)).build();
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Caching;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class PersistenceConfigTest {
+
+    @Test
+    void testBatchingCustomizerSetsDefaults() {
+        Map<String, Object> properties = new HashMap<>();
+
+        new PersistenceConfig().batchingCustomizer().customize(properties);
+
+        assertEquals(50, properties.get(PersistenceConfig.BATCH_SIZE));
+        assertEquals(true, properties.get(PersistenceConfig.ORDER_INSERTS));
+        assertEquals(true, properties.get(PersistenceConfig.ORDER_UPDATES));
+    }
+
+    @Test
+    void testBatchingCustomizerKeepsExplicitValues() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceConfig.BATCH_SIZE, "20");
+
+        new PersistenceConfig().batchingCustomizer().customize(properties);
+
+        assertEquals("20", properties.get(PersistenceConfig.BATCH_SIZE));
+    }
+
+    @Test
+    void testSecondLevelCacheCustomizerSetsDefaults() {
+        Map<String, Object> properties = new HashMap<>();
+
+        new PersistenceConfig().secondLevelCacheCustomizer().customize(properties);
+
+        assertEquals(true, properties.get(PersistenceConfig.USE_SECOND_LEVEL_CACHE));
+        assertEquals(true, properties.get(PersistenceConfig.USE_QUERY_CACHE));
+        assertEquals("jcache", properties.get(PersistenceConfig.REGION_FACTORY));
+        assertEquals(PersistenceConfig.CAFFEINE_PROVIDER, properties.get(PersistenceConfig.CACHE_PROVIDER));
+        assertEquals("ENABLE_SELECTIVE", properties.get(PersistenceConfig.SHARED_CACHE_MODE));
+        assertEquals(true, properties.get(PersistenceConfig.GENERATE_STATISTICS));
+    }
+
+    @Test
+    void testSecondLevelCacheCustomizerKeepsExplicitValues() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceConfig.USE_SECOND_LEVEL_CACHE, "false");
+
+        new PersistenceConfig().secondLevelCacheCustomizer().customize(properties);
+
+        assertEquals("false", properties.get(PersistenceConfig.USE_SECOND_LEVEL_CACHE));
+    }
+
+    @Test
+    void testCaffeineProviderIsAvailable() {
+        assertNotNull(Caching.getCachingProvider(PersistenceConfig.CAFFEINE_PROVIDER));
+    }
+}
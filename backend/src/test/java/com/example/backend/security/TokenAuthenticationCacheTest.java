@@ -0,0 +1,68 @@
+package com.example.backend.security;
+
+import com.example.backend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenAuthenticationCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+    private final TokenAuthenticationCache cache = new TokenAuthenticationCache(now::get);
+
+    @Test
+    void shouldReturnCachedPrincipalUntilTtl() {
+        User user = new User();
+        cache.put("token", user, "id", null);
+
+        assertSame(user, cache.get("token").principal());
+        assertEquals("id", cache.get("token").id());
+        now.addAndGet(TokenAuthenticationCache.TTL_MILLIS);
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotOutliveTokenExpiration() {
+        cache.put("token", new User(), "id", new Date(now.get() + 10));
+
+        now.addAndGet(10);
+
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void shouldIgnoreExpiredToken() {
+        cache.put("token", new User(), "id", new Date(now.get() - 1));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldNotMixTokens() {
+        cache.put("token", new User(), "id", null);
+
+        assertNull(cache.get("other"));
+    }
+
+    @Test
+    void shouldStayBounded() {
+        for (int i = 0; i <= TokenAuthenticationCache.MAX_ENTRIES; i++) {
+            cache.put("token" + i, new User(), null, null);
+        }
+
+        assertTrue(cache.size() <= TokenAuthenticationCache.MAX_ENTRIES);
+    }
+
+    @Test
+    void invalidateAllShouldEmptyCache() {
+        cache.put("token", new User(), "id", null);
+
+        cache.invalidateAll();
+
+        assertNull(cache.get("token"));
+    }
+}
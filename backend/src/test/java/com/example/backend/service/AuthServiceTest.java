@@ -2,6 +2,8 @@ package com.example.backend.service;
 
 import com.example.backend.dto.UserInteract;
 import com.example.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +15,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.HashMap;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +37,9 @@ class AuthServiceTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenStoreService tokenStoreService;
+
     @BeforeEach
     public void init() {
         MockitoAnnotations.openMocks(this);
@@ -86,10 +90,11 @@ class AuthServiceTest {
         user.setEmail(signinRequest.getEmail());
         when(userService.loadUserByEmail(signinRequest.getEmail())).thenReturn(user);
         when(jwtUtils.generateToken(user)).thenReturn("token");
-        when(jwtUtils.generateRefreshToken(new HashMap<>(), user)).thenReturn("refreshToken");
+        when(tokenStoreService.issueRefreshToken(user)).thenReturn("refreshToken");
 
         UserInteract result = authService.signIn(signinRequest);
         assertEquals(200, result.getStatusCode());
+        assertEquals("refreshToken", result.getRefreshToken());
         verify(authenticationManager, times(1)).authenticate(new UsernamePasswordAuthenticationToken(signinRequest.getEmail(),signinRequest.getPassword()));
     }
 
@@ -118,14 +123,33 @@ class AuthServiceTest {
         refreshTokenRequest.setToken("token");
         User user = new User();
         user.setEmail("test@example.com");
-        when(jwtUtils.extractEmail(refreshTokenRequest.getToken())).thenReturn(user.getEmail());
+        Claims claims = Jwts.claims().subject(user.getEmail()).id("refresh-id").build();
+        when(jwtUtils.parseToken(refreshTokenRequest.getToken())).thenReturn(claims);
+        when(tokenStoreService.consumeRefreshToken(claims)).thenReturn(true);
         when(userService.loadUserByEmail(user.getEmail())).thenReturn(user);
-        when(jwtUtils.isTokenValid(refreshTokenRequest.getToken(), user)).thenReturn(true);
         when(jwtUtils.generateToken(user)).thenReturn("newToken");
+        when(tokenStoreService.issueRefreshToken(user)).thenReturn("newRefreshToken");
 
         UserInteract result = authService.refreshToken(refreshTokenRequest);
         assertEquals(200, result.getStatusCode());
-        verify(jwtUtils, times(1)).isTokenValid(refreshTokenRequest.getToken(), user);
+        assertEquals("newToken", result.getToken());
+        assertEquals("newRefreshToken", result.getRefreshToken());
+        verify(tokenStoreService, times(1)).consumeRefreshToken(claims);
+    }
+
+    @Test
+    void refreshToken_ShouldReturnUnauthorized_WhenTokenWasAlreadyUsed() {
+        UserInteract refreshTokenRequest = new UserInteract();
+        refreshTokenRequest.setToken("usedToken");
+        Claims claims = Jwts.claims().subject("test@example.com").id("refresh-id").build();
+        when(jwtUtils.parseToken(refreshTokenRequest.getToken())).thenReturn(claims);
+        when(tokenStoreService.consumeRefreshToken(claims)).thenReturn(false);
+
+        UserInteract result = authService.refreshToken(refreshTokenRequest);
+
+        assertEquals(401, result.getStatusCode());
+        verify(jwtUtils, never()).generateToken(any(User.class));
+        verify(tokenStoreService, never()).issueRefreshToken(any(User.class));
     }
 
     @Test
@@ -133,11 +157,7 @@ class AuthServiceTest {
         // Given
         UserInteract refreshTokenRequest = new UserInteract();
         refreshTokenRequest.setToken("invalidToken");
-        User user = new User();
-        user.setEmail("test@example.com");
-        when(jwtUtils.extractEmail(refreshTokenRequest.getToken())).thenReturn(user.getEmail());
-        when(userService.loadUserByEmail(user.getEmail())).thenReturn(user);
-        when(jwtUtils.isTokenValid(refreshTokenRequest.getToken(), user)).thenReturn(false);
+        when(jwtUtils.parseToken(refreshTokenRequest.getToken())).thenReturn(null);
 
         // When
         UserInteract result = authService.refreshToken(refreshTokenRequest);
@@ -161,6 +181,26 @@ class AuthServiceTest {
         assertThrows(RuntimeException.class, () -> authService.getUserFromToken(token));
     }
 
+    @Test
+    void testGetUserFromToken_RevokedToken() {
+        JWTUtils realJwtUtils = new JWTUtils();
+        User user = new User();
+        user.setEmail("test@example.com");
+        String token = realJwtUtils.generateToken(user);
+        when(jwtUtils.getKey()).thenReturn(realJwtUtils.getKey());
+        when(tokenStoreService.isRevoked(anyString())).thenReturn(true);
+
+        assertThrows(RuntimeException.class, () -> authService.getUserFromToken(token));
+        verify(userService, never()).loadUserByEmail(anyString());
+    }
+
+    @Test
+    void testLogout() {
+        authService.logout("accessToken", "refreshToken");
+
+        verify(tokenStoreService, times(1)).logout("accessToken", "refreshToken");
+    }
+
     @Test
     void testGetUserFromToken_NullToken() {
         assertThrows(IllegalArgumentException.class, () -> authService.getUserFromToken(null));
@@ -0,0 +1,118 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.BMValidationDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BMValidationIndexTest {
+
+    @InjectMocks
+    private BMValidationIndex bmValidationIndex;
+
+    @Mock
+    private BMValidationDao bmValidationDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bmValidationDao.findAllTeamAndUserIdsBySprintId(1)).thenReturn(List.of(
+                new Object[]{1, 10},
+                new Object[]{1, 11},
+                new Object[]{2, 20}));
+    }
+
+    @Test
+    void lookups_shouldLoadEachSprintOnce() {
+        assertTrue(bmValidationIndex.hasValidated(10, 1, 1));
+        assertFalse(bmValidationIndex.hasValidated(20, 1, 1));
+        assertEquals(Set.of(10, 11), bmValidationIndex.getValidatedBy(1, 1));
+        assertTrue(bmValidationIndex.allValidated(List.of(10, 11), 1, 1));
+        assertFalse(bmValidationIndex.allValidated(List.of(10, 11, 12), 1, 1));
+        assertTrue(bmValidationIndex.getValidatedBy(3, 1).isEmpty());
+
+        verify(bmValidationDao, times(1)).findAllTeamAndUserIdsBySprintId(1);
+    }
+
+    @Test
+    void recordValidation_shouldUpdateTheLoadedSprint() {
+        assertFalse(bmValidationIndex.allValidated(List.of(20, 21), 2, 1));
+
+        bmValidationIndex.recordValidation(21, 2, 1);
+
+        assertTrue(bmValidationIndex.allValidated(List.of(20, 21), 2, 1));
+        verify(bmValidationDao, times(1)).findAllTeamAndUserIdsBySprintId(1);
+    }
+
+    @Test
+    void recordValidation_shouldWaitForTheCommit() {
+        bmValidationIndex.getValidatedBy(2, 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bmValidationIndex.recordValidation(21, 2, 1);
+
+            assertFalse(bmValidationIndex.hasValidated(21, 2, 1));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(bmValidationIndex.hasValidated(21, 2, 1));
+    }
+
+    @Test
+    void recordValidation_shouldBeDroppedOnRollback() {
+        bmValidationIndex.getValidatedBy(2, 1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bmValidationIndex.recordValidation(21, 2, 1);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(bmValidationIndex.hasValidated(21, 2, 1));
+    }
+
+    @Test
+    void clear_shouldForgetTheTeamOnly() {
+        bmValidationIndex.getValidatedBy(1, 1);
+
+        bmValidationIndex.clear(1, 1);
+
+        assertTrue(bmValidationIndex.getValidatedBy(1, 1).isEmpty());
+        assertEquals(Set.of(20), bmValidationIndex.getValidatedBy(2, 1));
+        verify(bmValidationDao, times(1)).findAllTeamAndUserIdsBySprintId(1);
+    }
+
+    @Test
+    void invalidate_shouldReloadOnNextAccess() {
+        bmValidationIndex.getValidatedBy(1, 1);
+
+        bmValidationIndex.invalidate();
+        bmValidationIndex.getValidatedBy(1, 1);
+
+        verify(bmValidationDao, times(2)).findAllTeamAndUserIdsBySprintId(1);
+    }
+
+    @Test
+    void emptyTeam_shouldBeFullyValidated() {
+        assertTrue(bmValidationIndex.allValidated(List.of(), 5, 1));
+    }
+}
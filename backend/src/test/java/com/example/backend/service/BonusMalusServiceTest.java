@@ -2,7 +2,9 @@ package com.example.backend.service;
 
 import com.example.backend.dao.BMValidationDao;
 import com.example.backend.dao.BonusMalusDao;
+import com.example.backend.dto.BMValidationStatusDTO;
 import com.example.backend.dto.BonusMalusDTO;
+import com.example.backend.dto.NotificationDTO;
 import com.example.backend.model.*;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +27,9 @@ class BonusMalusServiceTest {
     @Mock
     private BMValidationDao bmValidationDao;
 
+    @Mock
+    private BMValidationIndex bmValidationIndex;
+
     @Mock
     private TeamService teamService;
 
@@ -34,9 +39,15 @@ class BonusMalusServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private GradeStalenessService gradeStalenessService;
+
     @InjectMocks
     private BonusMalusService bonusMalusService;
 
+    @Captor
+    private ArgumentCaptor<Collection<BonusMalusDTO>> rows;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -45,41 +56,11 @@ class BonusMalusServiceTest {
     @Test
     void testGetAllBonusMalus() {
         // Arrange
-        User user1 = new User();
-        user1.setId(1);
-
-        BonusMalus bonusMalus1 = new BonusMalus();
-        bonusMalus1.setId(1);
-        bonusMalus1.setValue(10);
-        bonusMalus1.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus1.setAttributedBy(user1);
-        bonusMalus1.setAttributedTo(user1);
-        Team team1 = new Team();
-        team1.setId(1);
-        bonusMalus1.setTeam(team1);
-        Sprint sprint1 = new Sprint();
-        sprint1.setId(1);
-        bonusMalus1.setSprint(sprint1);
+        BonusMalusDTO bonusMalus1 = new BonusMalusDTO(1, 10, "", BonusMalus.BonusMalusStatus.PENDING, false, 1, 1, 1, 1);
+        BonusMalusDTO bonusMalus2 = new BonusMalusDTO(2, 20, "", BonusMalus.BonusMalusStatus.PENDING, false, 2, 2, 2, 1);
+        BonusMalusDTO bonusMalus3 = new BonusMalusDTO(3, 30, "", BonusMalus.BonusMalusStatus.VALIDATED, true, 3, 2, 2, 1);
 
-        User user2 = new User();
-        user2.setId(2);
-
-        BonusMalus bonusMalus2 = new BonusMalus();
-        bonusMalus2.setId(2);
-        bonusMalus2.setValue(20);
-        bonusMalus2.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus2.setAttributedBy(user2);
-        bonusMalus2.setAttributedTo(user2);
-        Team team2 = new Team();
-        team2.setId(2);
-        bonusMalus2.setTeam(team2);
-        Sprint sprint2 = new Sprint();
-        sprint2.setId(2);
-        bonusMalus2.setSprint(sprint2);
-
-        List<BonusMalus> bonusMalusList = Arrays.asList(bonusMalus1, bonusMalus2);
-
-        when(bonusMalusDao.findAllBySprintId(anyInt())).thenReturn(bonusMalusList);
+        when(bonusMalusDao.findDTOsBySprintId(anyInt())).thenReturn(Arrays.asList(bonusMalus1, bonusMalus2, bonusMalus3));
 
         // Act
         List<List<BonusMalusDTO>> result = bonusMalusService.getAllBonusMalus(1);
@@ -92,94 +73,51 @@ class BonusMalusServiceTest {
         assertEquals(1, result.get(0).get(0).getTeamId());
         assertEquals(BonusMalus.BonusMalusStatus.PENDING.toString(), result.get(0).get(0).getStatus());
 
-        assertEquals(1, result.get(1).size());
+        assertEquals(2, result.get(1).size());
         assertEquals(2, result.get(1).get(0).getId());
         assertEquals(20, result.get(1).get(0).getValue());
         assertEquals(2, result.get(1).get(0).getTeamId());
-        assertEquals(BonusMalus.BonusMalusStatus.PENDING.toString(), result.get(1).get(0).getStatus());
+        assertEquals(3, result.get(1).get(1).getId());
+        assertEquals(BonusMalus.BonusMalusStatus.VALIDATED.toString(), result.get(1).get(1).getStatus());
+        verify(bonusMalusDao, times(1)).findDTOsBySprintId(1);
     }
 
     @Test
-    void testGetBmByStudentAndSprint() {
-        // Arrange
-        User student = new User();
-        student.setId(1);
+    void testGetAllBonusMalus_noBonusMalus() {
+        when(bonusMalusDao.findDTOsBySprintId(1)).thenReturn(Collections.emptyList());
 
-        Sprint sprint = new Sprint();
-        sprint.setId(1);
-
-        BonusMalus expectedBonusMalus = new BonusMalus();
-        expectedBonusMalus.setId(1);
-        expectedBonusMalus.setAttributedTo(student);
-        expectedBonusMalus.setSprint(sprint);
-        expectedBonusMalus.setTeam(new Team());
-        expectedBonusMalus.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        expectedBonusMalus.setAttributedTo(student);
-        expectedBonusMalus.setAttributedBy(student);
+        assertTrue(bonusMalusService.getAllBonusMalus(1).isEmpty());
+    }
 
-        List<BonusMalus> bonusMalusList = Collections.singletonList(expectedBonusMalus);
+    @Test
+    void testGetBmByStudentAndSprint() {
+        // Arrange
+        BonusMalusDTO expectedBonusMalus = new BonusMalusDTO(1, 0, "", BonusMalus.BonusMalusStatus.PENDING, false, 1, 1, 1, 1);
 
-        when(bonusMalusDao.findAllByTeamIdAndSprintId(student.getId(), sprint.getId())).thenReturn(bonusMalusList);
+        when(bonusMalusDao.findDTOsByTeamIdAndSprintIdAndIsUnlimited(1, 1, false)).thenReturn(Collections.singletonList(expectedBonusMalus));
 
         // Act
-        List<BonusMalusDTO> result = bonusMalusService.getLBmByTeamAndSprint(student.getId(), sprint.getId());
+        List<BonusMalusDTO> result = bonusMalusService.getLBmByTeamAndSprint(1, 1);
 
         // Assert
         assertEquals(1, result.size());
+        assertEquals(expectedBonusMalus, result.get(0));
     }
 
     @Test
-    void testGetBmByTeamAndSprint_SS() {
-        // Arrange
-        User user = new User();
-        user.setId(1);
-        user.setRoles(Collections.singleton(new Role(Role.RoleName.SS)));
-
-        Authentication authentication = Mockito.mock(Authentication.class);
-        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
-        Mockito.when(securityContext.getAuthentication()).thenReturn(authentication);
-        Mockito.when(authentication.getPrincipal()).thenReturn(user);
-        SecurityContextHolder.setContext(securityContext);
-
-        Team team = new Team();
-        team.setId(1);
-
-        Sprint sprint = new Sprint();
-        sprint.setId(1);
+    void testGetLBmByTeamAndSprint_shouldFilterLimitedInQuery() {
+        bonusMalusService.getLBmByTeamAndSprint(1, 2);
 
-        BonusMalus bonusMalus1 = new BonusMalus();
-        bonusMalus1.setId(1);
-        bonusMalus1.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus1.setAttributedTo(user);
-        bonusMalus1.setAttributedBy(user);
-        bonusMalus1.setTeam(team);
-        bonusMalus1.setSprint(sprint);
-        bonusMalus1.setUnlimited(true);
-
-        BonusMalus bonusMalus2 = new BonusMalus();
-        bonusMalus2.setId(2);
-        bonusMalus2.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus2.setAttributedTo(user);
-        bonusMalus2.setAttributedBy(user);
-        bonusMalus2.setTeam(team);
-        bonusMalus2.setSprint(sprint);
-        bonusMalus2.setUnlimited(true);
-
-        List<BonusMalus> expectedBonusMalusList = Arrays.asList(bonusMalus1, bonusMalus2);
-
-        when(bonusMalusDao.findAllByTeamIdAndSprintId(team.getId(), sprint.getId())).thenReturn(expectedBonusMalusList);
-
-        bonusMalusService.getLBmByTeamAndSprint(team.getId(), sprint.getId());
-
-        verify(bonusMalusDao, times(1)).findAllByTeamIdAndSprintId(team.getId(), sprint.getId());
+        verify(bonusMalusDao, times(1)).findDTOsByTeamIdAndSprintIdAndIsUnlimited(1, 2, false);
+        verify(bonusMalusDao, never()).findAllByTeamIdAndSprintId(anyInt(), anyInt());
     }
 
     @Test
-    void testGetBmByTeamAndSprint_notSS() {
+    void testAddBonusMalusByTeam_SS(){
         // Arrange
         User user = new User();
         user.setId(1);
-        user.setRoles(Collections.singleton(new Role(Role.RoleName.PL)));
+        user.setRoles(Collections.singleton(new Role(Role.RoleName.SS)));
 
         Authentication authentication = Mockito.mock(Authentication.class);
         SecurityContext securityContext = Mockito.mock(SecurityContext.class);
@@ -193,35 +131,45 @@ class BonusMalusServiceTest {
         Sprint sprint = new Sprint();
         sprint.setId(1);
 
-        BonusMalus bonusMalus1 = new BonusMalus();
-        bonusMalus1.setId(1);
-        bonusMalus1.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus1.setAttributedTo(user);
-        bonusMalus1.setAttributedBy(user);
-        bonusMalus1.setTeam(team);
-        bonusMalus1.setSprint(sprint);
-        bonusMalus1.setUnlimited(false);
+        when(sprintService.getSprintById(sprint.getId())).thenReturn(new Sprint());
 
-        BonusMalus bonusMalus2 = new BonusMalus();
-        bonusMalus2.setId(2);
-        bonusMalus2.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus2.setAttributedTo(user);
-        bonusMalus2.setAttributedBy(user);
-        bonusMalus2.setTeam(team);
-        bonusMalus2.setSprint(sprint);
-        bonusMalus2.setUnlimited(false);
+        BonusMalusDTO bonusMalusDTO = new BonusMalusDTO();
+        bonusMalusDTO.setAttributedTo(user.getId());
+        bonusMalusDTO.setAttributedBy(user.getId());
+        bonusMalusDTO.setTeamId(team.getId());
+        bonusMalusDTO.setSprintId(sprint.getId());
+        bonusMalusDTO.setValue(2);
+        bonusMalusDTO.setUnlimited(true);
 
-        List<BonusMalus> expectedBonusMalusList = Arrays.asList(bonusMalus1, bonusMalus2);
+        BonusMalusDTO saved = new BonusMalusDTO(1, 2, null, BonusMalus.BonusMalusStatus.VALIDATED, true, user.getId(), user.getId(), team.getId(), sprint.getId());
+        BonusMalusDTO otherUser = new BonusMalusDTO(2, 1, null, BonusMalus.BonusMalusStatus.VALIDATED, true, 5, user.getId(), team.getId(), sprint.getId());
 
-        when(bonusMalusDao.findAllByTeamIdAndSprintId(team.getId(), sprint.getId())).thenReturn(expectedBonusMalusList);
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[]{user.getId(), 1});
+        when(bonusMalusDao.findAttributedToAndIdsBySprintIdAndIsUnlimited(Set.of(user.getId()), sprint.getId(), true)).thenReturn(existing);
+        when(bonusMalusDao.findDTOsByTeamIdAndSprintIdAndIsUnlimited(team.getId(), sprint.getId(), true)).thenReturn(List.of(saved, otherUser));
 
-        bonusMalusService.getLBmByTeamAndSprint(team.getId(), sprint.getId());
+        List<BonusMalusDTO> bonusMalusDTOList = List.of(bonusMalusDTO);
 
-        verify(bonusMalusDao, times(1)).findAllByTeamIdAndSprintId(team.getId(), sprint.getId());
+        // Act
+        List<BonusMalusDTO> result = bonusMalusService.addBonusMalusByTeam(team.getId(), sprint.getId(), bonusMalusDTOList);
+
+        // Assert
+        assertEquals(List.of(saved), result);
+        verify(teamService, times(1)).checkMembers(eq(team.getId()), eq(Set.of(user.getId())));
+        verify(bonusMalusDao, times(1)).upsertAll(rows.capture());
+        BonusMalusDTO row = rows.getValue().iterator().next();
+        assertEquals(1, rows.getValue().size());
+        assertEquals(1, row.getId());
+        assertEquals(2, row.getValue());
+        assertEquals(BonusMalus.BonusMalusStatus.VALIDATED.toString(), row.getStatus());
+        assertTrue(row.isUnlimited());
+        verify(bonusMalusDao, never()).save(any(BonusMalus.class));
+        verify(teamService, never()).getOneUserInTeam(anyInt(), anyInt());
     }
 
     @Test
-    void testAddBonusMalusByTeam_SS(){
+    void testAddBonusMalusByTeam_SS_shouldInsertNewRowsOnce() {
         // Arrange
         User user = new User();
         user.setId(1);
@@ -233,45 +181,23 @@ class BonusMalusServiceTest {
         Mockito.when(authentication.getPrincipal()).thenReturn(user);
         SecurityContextHolder.setContext(securityContext);
 
-        Team team = new Team();
-        team.setId(1);
-
-        Sprint sprint = new Sprint();
-        sprint.setId(1);
-
-        when(teamService.getTeamById(team.getId())).thenReturn(team);
-        when(sprintService.getSprintById(sprint.getId())).thenReturn(new Sprint());
-
-        BonusMalusDTO bonusMalusDTO = new BonusMalusDTO();
-        bonusMalusDTO.setId(1);
-        bonusMalusDTO.setAttributedTo(user.getId());
-        bonusMalusDTO.setAttributedBy(user.getId());
-        bonusMalusDTO.setTeamId(team.getId());
-        bonusMalusDTO.setSprintId(sprint.getId());
-        bonusMalusDTO.setUnlimited(true);
-
-        BonusMalus bonusMalus1 = new BonusMalus();
-        bonusMalus1.setId(1);
-        bonusMalus1.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus1.setAttributedTo(user);
-        bonusMalus1.setAttributedBy(user);
-        bonusMalus1.setTeam(team);
-        bonusMalus1.setSprint(sprint);
-        bonusMalus1.setUnlimited(true);
-
-        when(teamService.getOneUserInTeam(bonusMalusDTO.getAttributedTo(), team.getId())).thenReturn(user);
-
-        List<BonusMalusDTO> bonusMalusDTOList = List.of(bonusMalusDTO);
-
-        when(bonusMalusDao.save(any(BonusMalus.class))).thenReturn(bonusMalus1);
+        BonusMalusDTO first = new BonusMalusDTO();
+        first.setAttributedTo(3);
+        first.setValue(1);
+        BonusMalusDTO second = new BonusMalusDTO();
+        second.setAttributedTo(3);
+        second.setValue(4);
 
         // Act
-        List<BonusMalusDTO> result = bonusMalusService.addBonusMalusByTeam(team.getId(), sprint.getId(), bonusMalusDTOList);
+        bonusMalusService.addBonusMalusByTeam(1, 1, List.of(first, second));
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(bonusMalusDTO.getId(), result.get(0).getId());
+        verify(bonusMalusDao, times(1)).upsertAll(rows.capture());
+        assertEquals(1, rows.getValue().size());
+        BonusMalusDTO row = rows.getValue().iterator().next();
+        assertEquals(0, row.getId());
+        assertEquals(4, row.getValue());
+        assertEquals(user.getId(), row.getAttributedBy());
     }
 
     @Test
@@ -290,7 +216,7 @@ class BonusMalusServiceTest {
         int teamId = 1;
         int sprintId = 1;
 
-        when(teamService.getTeamById(teamId)).thenReturn(null);
+        doThrow(new EntityNotFoundException("Team with id " + teamId + " doesn't exist.")).when(teamService).checkMembers(eq(teamId), anyCollection());
 
         BonusMalusDTO bonusMalusDTO = new BonusMalusDTO();
         bonusMalusDTO.setId(1);
@@ -304,6 +230,7 @@ class BonusMalusServiceTest {
 
         // Act & Assert
         Exception exception = assertThrows(EntityNotFoundException.class, () -> bonusMalusService.addBonusMalusByTeam(teamId, sprintId, bonusMalusDTOList));
+        verify(bonusMalusDao, never()).upsertAll(anyCollection());
 
         String expectedMessage = "Team with id " + teamId + " doesn't exist.";
         String actualMessage = exception.getMessage();
@@ -343,8 +270,8 @@ class BonusMalusServiceTest {
         when(teamService.getOneUserInTeam(user.getId(), team.getId())).thenReturn(user);
         when(teamService.getOneUserInTeam(supervisor.getId(), team.getId())).thenReturn(supervisor);
         when(teamService.getOneUserInTeam(notification.getEmitter().getId(), team.getId())).thenReturn(notification.getEmitter());
-        when(teamService.getTeamMembers(team.getId())).thenReturn(List.of(user, supervisor, notification.getEmitter()));
-        when(notificationService.createNotification(any(Notification.class))).thenReturn(notification);
+        when(teamService.getTeamMemberIds(team.getId())).thenReturn(List.of(user.getId(), 3));
+        when(teamService.getSupervisorId(team.getId())).thenReturn(supervisor.getId());
 
         BonusMalusDTO bonusMalusDTO1 = new BonusMalusDTO();
         bonusMalusDTO1.setId(1);
@@ -366,31 +293,34 @@ class BonusMalusServiceTest {
 
         List<BonusMalusDTO> bonusMalusDTOList = List.of(bonusMalusDTO1, bonusMalusDTO2);
 
-        BonusMalus bonusMalus1 = new BonusMalus();
-        bonusMalus1.setId(1);
-        bonusMalus1.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus1.setAttributedTo(user);
-        bonusMalus1.setAttributedBy(user);
-        bonusMalus1.setTeam(team);
-        bonusMalus1.setSprint(sprint);
-        bonusMalus1.setUnlimited(false);
-
-        BonusMalus bonusMalus2 = new BonusMalus();
-        bonusMalus2.setId(1);
-        bonusMalus2.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus2.setAttributedTo(user);
-        bonusMalus2.setAttributedBy(user);
-        bonusMalus2.setTeam(team);
-        bonusMalus2.setSprint(sprint);
-        bonusMalus2.setUnlimited(false);
-
-        when(bonusMalusDao.saveAll(anyList())).thenReturn(new ArrayList<>(List.of(bonusMalus1, bonusMalus2)));
+        List<BonusMalusDTO> pending = List.of(
+                new BonusMalusDTO(1, 4, null, BonusMalus.BonusMalusStatus.PENDING, false, user.getId(), user.getId(), team.getId(), sprint.getId()),
+                new BonusMalusDTO(2, -4, null, BonusMalus.BonusMalusStatus.PENDING, false, user.getId(), user.getId(), team.getId(), sprint.getId()));
+        when(bonusMalusDao.findDTOsByTeamIdAndSprintIdAndStatus(team.getId(), sprint.getId(), BonusMalus.BonusMalusStatus.PENDING)).thenReturn(pending);
 
         // Act
         List<BonusMalusDTO> result = bonusMalusService.addBonusMalusByTeam(team.getId(), sprint.getId(), bonusMalusDTOList);
 
         // Assert
-        assertNotNull(result);
+        assertEquals(pending, result);
+        InOrder inOrder = inOrder(bonusMalusDao, bmValidationDao);
+        inOrder.verify(bonusMalusDao).deleteByTeamIdAndSprintIdAndStatus(team.getId(), sprint.getId(), BonusMalus.BonusMalusStatus.PENDING);
+        inOrder.verify(bmValidationDao).deleteByTeamIdAndSprintId(team.getId(), sprint.getId());
+        inOrder.verify(bonusMalusDao).upsertAll(rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertTrue(rows.getValue().stream().allMatch(row -> row.getId() == 0 && !row.isUnlimited()
+                && BonusMalus.BonusMalusStatus.PENDING.toString().equals(row.getStatus())));
+        verify(teamService, times(1)).checkMembers(team.getId(), Set.of(user.getId()));
+        verify(bonusMalusDao, never()).saveAll(anyList());
+        verify(bonusMalusDao, never()).deleteAll(anyList());
+
+        ArgumentCaptor<NotificationDTO> templates = ArgumentCaptor.forClass(NotificationDTO.class);
+        verify(notificationService, times(1)).createNotifications(templates.capture(), eq(List.of(user.getId(), 3)));
+        verify(notificationService, times(1)).createNotifications(templates.capture(), eq(List.of(supervisor.getId())));
+        assertEquals(user.getId(), templates.getAllValues().get(0).getEmitterId());
+        assertEquals("Bonus/Malus", templates.getAllValues().get(1).getType());
+        verify(notificationService, never()).createNotification(any(Notification.class));
+        verify(teamService, never()).getTeamMembers(anyInt());
     }
 
     @Test
@@ -442,6 +372,7 @@ class BonusMalusServiceTest {
         String actualMessage = exception.getMessage();
 
         assertTrue(actualMessage.contains(expectedMessage));
+        verifyNoInteractions(teamService, bonusMalusDao, bmValidationDao);
     }
 
     @Test
@@ -542,6 +473,7 @@ class BonusMalusServiceTest {
         List<BonusMalus> bonusMalusList = Collections.singletonList(bonusMalus);
 
         when(teamService.getTeamMembers(team.getId())).thenReturn(Arrays.asList(user));
+        when(teamService.getTeamMemberIds(team.getId())).thenReturn(List.of(user.getId()));
         when(teamService.getTeamById(teamId)).thenReturn(team);
         when(sprintService.getSprintById(sprintId)).thenReturn(sprint);
         when(bonusMalusDao.findAllByTeamIdAndSprintId(teamId, sprintId)).thenReturn(bonusMalusList);
@@ -577,11 +509,6 @@ class BonusMalusServiceTest {
         Mockito.when(authentication.getPrincipal()).thenReturn(user);
         SecurityContextHolder.setContext(securityContext);
 
-        BMValidation bmValidation = new BMValidation();
-        bmValidation.setUser(user);
-        bmValidation.setTeam(team);
-        bmValidation.setSprint(sprint);
-
         BonusMalus bonusMalus = new BonusMalus();
         bonusMalus.setUnlimited(true);
         bonusMalus.setStatus(BonusMalus.BonusMalusStatus.PENDING);
@@ -592,18 +519,20 @@ class BonusMalusServiceTest {
         List<BonusMalus> bonusMalusList = Collections.singletonList(bonusMalus);
 
         when(teamService.getTeamMembers(team.getId())).thenReturn(Arrays.asList(user));
+        when(teamService.getTeamMemberIds(team.getId())).thenReturn(List.of(user.getId()));
         when(teamService.getTeamById(teamId)).thenReturn(team);
         when(teamService.getTeamByUserId(user.getId())).thenReturn(team);
         when(sprintService.getSprintById(sprintId)).thenReturn(sprint);
         when(bonusMalusDao.findAllByTeamIdAndSprintId(teamId, sprintId)).thenReturn(bonusMalusList);
         when(bonusMalusDao.saveAll(anyList())).thenAnswer(i -> i.getArguments()[0]);
-        when(bmValidationDao.save(any(BMValidation.class))).thenReturn(bmValidation);
 
         // Act
         bonusMalusService.validateTeamBM(teamId, sprintId);
 
         // Assert
         assertEquals(BonusMalus.BonusMalusStatus.PENDING, bonusMalus.getStatus());
+        verify(bmValidationDao, times(1)).insertIfAbsent(user.getId(), teamId, sprintId);
+        verify(bmValidationIndex, times(1)).recordValidation(user.getId(), teamId, sprintId);
     }
 
     @Test
@@ -628,11 +557,6 @@ class BonusMalusServiceTest {
         Mockito.when(authentication.getPrincipal()).thenReturn(user);
         SecurityContextHolder.setContext(securityContext);
 
-        BMValidation bmValidation = new BMValidation();
-        bmValidation.setUser(user);
-        bmValidation.setTeam(team);
-        bmValidation.setSprint(sprint);
-
         BonusMalus bonusMalus = new BonusMalus();
         bonusMalus.setUnlimited(true);
         bonusMalus.setStatus(BonusMalus.BonusMalusStatus.PENDING);
@@ -643,12 +567,12 @@ class BonusMalusServiceTest {
         List<BonusMalus> bonusMalusList = Collections.singletonList(bonusMalus);
 
         when(teamService.getTeamMembers(team.getId())).thenReturn(Arrays.asList(user));
+        when(teamService.getTeamMemberIds(team.getId())).thenReturn(List.of(user.getId()));
         when(teamService.getTeamById(teamId)).thenReturn(team);
         when(sprintService.getSprintById(sprintId)).thenReturn(sprint);
         when(bonusMalusDao.findAllByTeamIdAndSprintId(teamId, sprintId)).thenReturn(bonusMalusList);
         when(bonusMalusDao.saveAll(anyList())).thenAnswer(i -> i.getArguments()[0]);
-        when(bmValidationDao.save(any(BMValidation.class))).thenReturn(bmValidation);
-        when(bmValidationDao.findByUserIdAndTeamIdAndSprintId(user.getId(), teamId, sprintId)).thenReturn(bmValidation);
+        when(bmValidationIndex.allValidated(List.of(user.getId()), teamId, sprintId)).thenReturn(true);
 
         // Act
         bonusMalusService.validateTeamBM(teamId, sprintId);
@@ -657,6 +581,7 @@ class BonusMalusServiceTest {
         assertEquals(BonusMalus.BonusMalusStatus.VALIDATED, bonusMalus.getStatus());
         verify(bonusMalusDao, times(1)).findAllByTeamIdAndSprintId(teamId, sprintId);
         verify(bonusMalusDao, times(1)).saveAll(bonusMalusList);
+        verify(gradeStalenessService, times(1)).markTeamStale(teamId, sprintId, GradeTypes.GradeTypesEnum.SSBM.getId(), GradeTypes.GradeTypesEnum.TEBM.getId());
     }
 
     @Test
@@ -689,9 +614,8 @@ class BonusMalusServiceTest {
         bmValidation3.setSprint(sprint);
 
         when(teamService.getTeamMembers(team.getId())).thenReturn(Arrays.asList(user1, user2, user3));
-        when(bmValidationDao.findByUserIdAndTeamIdAndSprintId(user1.getId(), team.getId(), sprint.getId())).thenReturn(bmValidation1);
-        when(bmValidationDao.findByUserIdAndTeamIdAndSprintId(user2.getId(), team.getId(), sprint.getId())).thenReturn(null);
-        when(bmValidationDao.findByUserIdAndTeamIdAndSprintId(user3.getId(), team.getId(), sprint.getId())).thenReturn(bmValidation3);
+        when(teamService.getTeamMemberIds(team.getId())).thenReturn(List.of(user1.getId(), user2.getId(), user3.getId()));
+        when(bmValidationIndex.getValidatedBy(team.getId(), sprint.getId())).thenReturn(Set.of(user1.getId(), user3.getId()));
 
         // Act
         List<Integer> result = bonusMalusService.getMembersWhoValidateBM(team.getId(), sprint.getId());
@@ -728,16 +652,83 @@ class BonusMalusServiceTest {
         bmValidation1.setSprint(sprint);
 
         when(teamService.getTeamMembers(teamId)).thenReturn(Arrays.asList(user1, user2));
-        when(bmValidationDao.findByUserIdAndTeamIdAndSprintId(user1.getId(), teamId, sprintId)).thenReturn(bmValidation1);
-        when(bmValidationDao.findByUserIdAndTeamIdAndSprintId(user2.getId(), teamId, sprintId)).thenReturn(null);
+        when(teamService.getTeamMemberIds(teamId)).thenReturn(List.of(user1.getId(), user2.getId()));
+        when(bmValidationIndex.allValidated(List.of(user1.getId(), user2.getId()), teamId, sprintId)).thenReturn(false);
 
         // Act
         Method method = BonusMalusService.class.getDeclaredMethod("isAllUsersValidateBm", int.class, int.class);
         method.setAccessible(true);
-        method.invoke(bonusMalusService, teamId, sprintId);
+        Object result = method.invoke(bonusMalusService, teamId, sprintId);
+
+        // Assert
+        assertEquals(false, result);
+        verify(bmValidationDao, never()).findByUserIdAndTeamIdAndSprintId(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void validateTeamBM_shouldNotSaveValidationTwice() {
+        // Arrange
+        int teamId = 1;
+        int sprintId = 1;
+
+        User user = new User();
+        user.setId(2);
+        user.setRoles(Collections.singleton(new Role(Role.RoleName.OS)));
+
+        Team team = new Team();
+        team.setId(teamId);
+
+        Sprint sprint = new Sprint();
+        sprint.setId(sprintId);
+
+        Authentication authentication = Mockito.mock(Authentication.class);
+        SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+        Mockito.when(securityContext.getAuthentication()).thenReturn(authentication);
+        Mockito.when(authentication.getPrincipal()).thenReturn(user);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(teamService.getTeamByUserId(user.getId())).thenReturn(team);
+        when(sprintService.getSprintById(sprintId)).thenReturn(sprint);
+        when(bmValidationIndex.hasValidated(user.getId(), teamId, sprintId)).thenReturn(true);
+
+        // Act
+        bonusMalusService.validateTeamBM(teamId, sprintId);
 
         // Assert
-        verify(bmValidationDao, times(2)).findByUserIdAndTeamIdAndSprintId(anyInt(), anyInt(), anyInt());
+        verify(bmValidationDao, never()).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(bmValidationIndex, never()).recordValidation(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void deleteAllPendingByTeamId_shouldClearValidations() {
+        bonusMalusService.deleteAllPendingByTeamId(1, 2);
+
+        verify(bonusMalusDao, times(1)).deleteByTeamIdAndSprintIdAndStatus(1, 2, BonusMalus.BonusMalusStatus.PENDING);
+        verify(bmValidationDao, times(1)).deleteByTeamIdAndSprintId(1, 2);
+        verify(bmValidationIndex, times(1)).clear(1, 2);
+    }
+
+    @Test
+    void getValidationStatus_shouldReturnStateOfEveryTeam() {
+        // Arrange
+        int sprintId = 1;
+        when(teamService.getTeamIds()).thenReturn(List.of(1, 2));
+        when(teamService.getTeamMemberIds(1)).thenReturn(List.of(10, 11));
+        when(teamService.getTeamMemberIds(2)).thenReturn(List.of(20));
+        when(bmValidationIndex.getValidatedBy(1, sprintId)).thenReturn(Set.of(11));
+        when(bmValidationIndex.getValidatedBy(2, sprintId)).thenReturn(Set.of(20));
+
+        // Act
+        List<BMValidationStatusDTO> result = bonusMalusService.getValidationStatus(sprintId);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getTeamId());
+        assertEquals(List.of(11), result.get(0).getValidatedBy());
+        assertFalse(result.get(0).isAllValidated());
+        assertEquals(List.of(20), result.get(1).getValidatedBy());
+        assertTrue(result.get(1).isAllValidated());
+        verifyNoInteractions(bmValidationDao);
     }
 
     @Test
@@ -851,25 +842,9 @@ class BonusMalusServiceTest {
         int teamId = 1;
         int sprintId = 1;
 
-        User user = new User();
-        user.setId(1);
+        BonusMalusDTO bonusMalus = new BonusMalusDTO(1, 0, "", BonusMalus.BonusMalusStatus.PENDING, true, 1, 1, teamId, sprintId);
 
-        Team team = new Team();
-        team.setId(teamId);
-
-        Sprint sprint = new Sprint();
-        sprint.setId(sprintId);
-
-        BonusMalus bonusMalus = new BonusMalus();
-        bonusMalus.setUnlimited(true);
-        bonusMalus.setStatus(BonusMalus.BonusMalusStatus.PENDING);
-        bonusMalus.setAttributedTo(user);
-        bonusMalus.setAttributedBy(user);
-        bonusMalus.setTeam(team);
-        bonusMalus.setSprint(sprint);
-        List<BonusMalus> bonusMalusList = Collections.singletonList(bonusMalus);
-
-        when(bonusMalusDao.findAllByTeamIdAndSprintId(teamId, sprintId)).thenReturn(bonusMalusList);
+        when(bonusMalusDao.findDTOsByTeamIdAndSprintIdAndIsUnlimited(teamId, sprintId, true)).thenReturn(Collections.singletonList(bonusMalus));
 
         // Act
         List<BonusMalusDTO> actualBonusMalusDTOList = bonusMalusService.getUBmByTeamAndSprint(teamId, sprintId);
@@ -877,7 +852,7 @@ class BonusMalusServiceTest {
         // Assert
         assertEquals(1, actualBonusMalusDTOList.size());
         assertTrue(actualBonusMalusDTOList.get(0).isUnlimited());
-        verify(bonusMalusDao, times(1)).findAllByTeamIdAndSprintId(teamId, sprintId);
+        verify(bonusMalusDao, times(1)).findDTOsByTeamIdAndSprintIdAndIsUnlimited(teamId, sprintId, true);
+        verify(bonusMalusDao, never()).findAllByTeamIdAndSprintId(anyInt(), anyInt());
     }
 }
-
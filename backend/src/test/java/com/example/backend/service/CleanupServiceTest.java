@@ -20,6 +20,8 @@ class CleanupServiceTest {
     @Mock
     private TeamGradeDao teamGradeDao;
     @Mock
+    private TeamGradeAverageDao teamGradeAverageDao;
+    @Mock
     private TeamGradeFromStudentDao teamGradeFromStudentDao;
     @Mock
     private BonusMalusDao bonusMalusDao;
@@ -40,6 +42,8 @@ class CleanupServiceTest {
     @Mock
     private NotificationDao notificationDao;
     @Mock
+    private NotificationOutboxDao notificationOutboxDao;
+    @Mock
     private RoleDao roleDao;
     @Mock
     private EvaluationDao evaluationDao;
@@ -57,10 +61,18 @@ class CleanupServiceTest {
     private CategoryDao categoryDao;
     @Mock
     private GradeScaleDao gradeScaleDao;
+    @Mock
+    private TeamRoster teamRoster;
+
+    @Mock
+    private BMValidationIndex bmValidationIndex;
 
     @InjectMocks
     private CleanupService cleanupService;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -76,6 +88,7 @@ class CleanupServiceTest {
         verify(projectGradeDao, times(1)).deleteAll();
         verify(teamOrderDao, times(1)).deleteAll();
         verify(teamGradeDao, times(1)).deleteAll();
+        verify(teamGradeAverageDao, times(1)).deleteAll();
         verify(detailDao, times(1)).deleteAll();
         verify(categoryDao, times(1)).deleteAll();
         verify(gradeScaleDao, times(1)).deleteAll();
@@ -87,8 +100,12 @@ class CleanupServiceTest {
         verify(userTeamDao, times(1)).deleteAll();
         verify(teamDao, times(1)).deleteAll();
         verify(criteriaDao, times(1)).deleteAll();
+        verify(notificationOutboxDao, times(1)).deleteAllInBatch();
         verify(notificationDao, times(1)).deleteAll();
         verify(sprintDao, times(1)).deleteAll();
+        verify(teamRoster, times(1)).invalidate();
+        verify(bmValidationIndex, times(1)).invalidate();
+        verify(referenceDataCache, times(1)).invalidateAll();
     }
 
     @Test
@@ -109,6 +126,7 @@ class CleanupServiceTest {
         verify(projectGradeDao, times(1)).deleteAll();
         verify(teamOrderDao, times(1)).deleteAll();
         verify(teamGradeDao, times(1)).deleteAll();
+        verify(teamGradeAverageDao, times(1)).deleteAll();
         verify(detailDao, times(1)).deleteAll();
         verify(categoryDao, times(1)).deleteAll();
         verify(gradeScaleDao, times(1)).deleteAll();
@@ -120,6 +138,7 @@ class CleanupServiceTest {
         verify(userTeamDao, times(1)).deleteAll();
         verify(teamDao, times(1)).deleteAll();
         verify(criteriaDao, times(1)).deleteAll();
+        verify(notificationOutboxDao, times(1)).deleteAllInBatch();
         verify(notificationDao, times(1)).deleteAll();
         verify(userDao, times(1)).deleteAll(Collections.singletonList(user));
         verify(sprintDao, times(1)).deleteAll();
@@ -1,6 +1,7 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.CategoryDao;
+import com.example.backend.dao.TeamGradeAverageDao;
 import com.example.backend.dao.TeamGradeDao;
 import com.example.backend.dto.DetailDTO;
 import com.example.backend.model.Category;
@@ -8,15 +9,19 @@ import com.example.backend.model.Detail;
 import com.example.backend.dao.DetailDao;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class DetailServiceTest {
@@ -24,6 +29,9 @@ class DetailServiceTest {
     @InjectMocks
     DetailService detailService;
 
+    @Spy
+    private ReferenceDataCache referenceDataCache = new ReferenceDataCache();
+
     @Mock
     DetailDao detailDao;
 
@@ -33,6 +41,9 @@ class DetailServiceTest {
     @Mock
     TeamGradeDao teamGradeDao;
 
+    @Mock
+    TeamGradeAverageDao teamGradeAverageDao;
+
     @BeforeEach
     void init() {
         MockitoAnnotations.openMocks(this);
@@ -68,7 +79,41 @@ class DetailServiceTest {
         Detail response = detailService.update(id, newDetailData);
 
         assertEquals(oldDetail, response);
-        verify(detailDao, times(1)).save(oldDetail);
+        verify(detailDao, times(1)).saveAndFlush(oldDetail);
+        verify(teamGradeAverageDao, never()).rebuildByCategoryIds(anyCollection());
+    }
+
+    @Test
+    void updateDetail_shouldRebuildAveragesWhenMarkChanges() {
+        Detail oldDetail = detail(5, 10);
+        when(detailDao.findById(1)).thenReturn(Optional.of(oldDetail));
+
+        detailService.update(1, detail(5, 20));
+
+        verify(teamGradeAverageDao, times(1)).rebuildByCategoryIds(Set.of(5));
+    }
+
+    @Test
+    void updateDetail_shouldRebuildAveragesOfBothCategoriesWhenCategoryChanges() {
+        Detail oldDetail = detail(5, 10);
+        when(detailDao.findById(1)).thenReturn(Optional.of(oldDetail));
+
+        detailService.update(1, detail(6, 10));
+
+        InOrder inOrder = inOrder(detailDao, teamGradeAverageDao);
+        inOrder.verify(detailDao).saveAndFlush(oldDetail);
+        inOrder.verify(teamGradeAverageDao).rebuildByCategoryIds(Set.of(5, 6));
+    }
+
+    @Test
+    void updateDetail_shouldKeepAveragesWhenOnlyNameChanges() {
+        when(detailDao.findById(1)).thenReturn(Optional.of(detail(5, 10)));
+        Detail newDetailData = detail(5, 10);
+        newDetailData.setName("Renamed");
+
+        detailService.update(1, newDetailData);
+
+        verify(teamGradeAverageDao, never()).rebuildByCategoryIds(anyCollection());
     }
 
     @Test
@@ -80,6 +125,15 @@ class DetailServiceTest {
         verify(detailDao, times(1)).deleteById(id);
     }
 
+    @Test
+    void deleteDetail_shouldRejectGradedDetail() {
+        when(teamGradeDao.existsByDetailId(1)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> detailService.delete(1));
+
+        verify(detailDao, never()).deleteById(anyInt());
+    }
+
     @Test
     void getAllDetails() {
         List<Detail> details = Arrays.asList(new Detail(), new Detail());
@@ -94,20 +148,40 @@ class DetailServiceTest {
     void shouldReturnDetailsByCategoryId() {
         int categoryId = 1;
         Detail detail1 = new Detail();
+        detail1.setId(1);
         Detail detail2 = new Detail();
+        detail2.setId(2);
         List<Detail> expectedDetails = Arrays.asList(detail1, detail2);
         when(detailDao.findByCategoryId(categoryId)).thenReturn(expectedDetails);
+        when(detailDao.findById(1)).thenReturn(Optional.of(detail1));
+        when(detailDao.findById(2)).thenReturn(Optional.of(detail2));
 
         List<Detail> actualDetails = detailService.getDetailsByCategoryId(categoryId);
 
         assertEquals(expectedDetails, actualDetails);
     }
 
+    @Test
+    void shouldCacheDetailIdsAndResolveDetailsPerCall() {
+        int categoryId = 1;
+        Detail detail = new Detail();
+        detail.setId(3);
+        when(detailDao.findByCategoryId(categoryId)).thenReturn(List.of(detail));
+        when(detailDao.findById(3)).thenReturn(Optional.of(detail));
+
+        detailService.getDetailsByCategoryId(categoryId);
+        detailService.getDetailsByCategoryId(categoryId);
+
+        verify(detailDao, times(1)).findByCategoryId(categoryId);
+        verify(detailDao, times(2)).findById(3);
+    }
+
     @Test
     void shouldDeleteAllDetails() {
         detailService.deleteAll();
         verify(detailDao, times(1)).deleteAll();
         verify(teamGradeDao, times(1)).deleteAll();
+        verify(teamGradeAverageDao, times(1)).deleteAll();
     }
 
     @Test
@@ -129,4 +203,13 @@ class DetailServiceTest {
         assertEquals(category, detail.getCategory());
     }
 
+
+    private static Detail detail(int categoryId, int mark) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Detail detail = new Detail();
+        detail.setMark(mark);
+        detail.setCategory(category);
+        return detail;
+    }
 }
@@ -0,0 +1,341 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.*;
+import com.example.backend.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GradeEngineServiceTest {
+
+    @InjectMocks
+    private GradeEngineService gradeEngineService;
+
+    @Mock
+    private UserService userService;
+    @Mock
+    private SprintService sprintService;
+    @Mock
+    private SubGradeService subGradeService;
+    @Mock
+    private EvaluationService evaluationService;
+    @Mock
+    private TeamDao teamDao;
+    @Mock
+    private UserTeamDao userTeamDao;
+    @Mock
+    private DetailDao detailDao;
+    @Mock
+    private GradeTypesDao gradeTypesDao;
+    @Mock
+    private TeamGradeDao teamGradeDao;
+    @Mock
+    private TeamGradeFromStudentDao teamGradeFromStudentDao;
+    @Mock
+    private BonusMalusDao bonusMalusDao;
+    @Mock
+    private SubGradeDao subGradeDao;
+    @Mock
+    private EvaluationDao evaluationDao;
+    @Mock
+    private InitialGradeDao initialGradeDao;
+    @Mock
+    private WorkGradeDao workGradeDao;
+    @Mock
+    private PresentationGradeDao presentationGradeDao;
+    @Mock
+    private ProjectGradeDao projectGradeDao;
+    @Mock
+    private DirtyGradeDao dirtyGradeDao;
+
+    private Sprint sprint;
+    private User supervisor;
+    private User coach;
+    private User student;
+    private User studentWithoutTeam;
+    private Team team;
+    private Team otherTeam;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        sprint = new Sprint();
+        sprint.setId(1);
+        supervisor = user(10);
+        coach = user(11);
+        student = user(1);
+        student.addRole(new Role(Role.RoleName.OS));
+        studentWithoutTeam = user(2);
+        studentWithoutTeam.addRole(new Role(Role.RoleName.OS));
+        team = team(100, supervisor);
+        otherTeam = team(200, supervisor);
+
+        List<GradeTypes> gradeTypes = new ArrayList<>();
+        for (GradeTypes.GradeTypesEnum type : GradeTypes.GradeTypesEnum.values()) {
+            GradeTypes gradeType = new GradeTypes(type);
+            gradeType.setId(type.getId());
+            gradeTypes.add(gradeType);
+        }
+
+        when(sprintService.getSprintById(1)).thenReturn(sprint);
+        when(gradeTypesDao.findAll()).thenReturn(gradeTypes);
+        when(userService.getTechnicalCoaches()).thenReturn(List.of(coach));
+        when(userService.getAllTeachers()).thenReturn(List.of(supervisor, coach));
+        when(userService.getStudents()).thenReturn(List.of(student, studentWithoutTeam));
+        when(teamDao.findAll()).thenReturn(List.of(team, otherTeam));
+        when(userTeamDao.findAll()).thenReturn(List.of(new UserTeam(student, team)));
+        when(userTeamDao.findByTeam_Id(team.getId())).thenReturn(List.of(new UserTeam(student, team)));
+        when(subGradeService.calculateValue(any(SubGrade.class))).thenCallRealMethod();
+        doCallRealMethod().when(evaluationService).updateStatus(any(SubGrade.class));
+        when(projectGradeDao.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void computeSprintGrades_shouldComputeWholeTreeInMemory() {
+        Category category = new Category();
+        category.setId(GradeTypes.GradeTypesEnum.PRMO.getId());
+        Detail detail = new Detail();
+        detail.setId(5);
+        detail.setMark(10);
+        detail.setCategory(category);
+        TeamGrade teamGrade = new TeamGrade();
+        teamGrade.setTeam(team);
+        teamGrade.setDetail(detail);
+        teamGrade.setEvaluator(supervisor);
+        teamGrade.setSprint(sprint);
+        teamGrade.setGrade(5.0);
+        when(teamGradeDao.findBySprintId(1)).thenReturn(List.of(teamGrade));
+
+        TeamGradeFromStudent studentGrade = new TeamGradeFromStudent();
+        studentGrade.setTeamNoting(otherTeam);
+        studentGrade.setTeamToNote(team);
+        studentGrade.setGrade(16);
+        when(teamGradeFromStudentDao.findBySprintId(1)).thenReturn(List.of(studentGrade));
+
+        when(bonusMalusDao.findAllBySprintIdAndStatus(1, BonusMalus.BonusMalusStatus.VALIDATED))
+                .thenReturn(Arrays.asList(bonusMalus(true, 1.0f), bonusMalus(false, 0.5f)));
+
+        List<ProjectGrade> result = gradeEngineService.computeSprintGrades(1);
+
+        assertEquals(1, result.size());
+        ProjectGrade projectGrade = result.get(0);
+        assertEquals(student, projectGrade.getUser());
+        assertEquals(10.0, projectGrade.getInitialGrade().getPrmo().getValue());
+        assertEquals(EvaluationStatus.IN_PROGRESS, projectGrade.getInitialGrade().getPrmo().getStatus());
+        assertEquals(2.5, projectGrade.getInitialGrade().getValue());
+        assertEquals(1.0, projectGrade.getWorkGrade().getSsbm().getValue());
+        assertEquals(0.5, projectGrade.getWorkGrade().getTebm().getValue());
+        assertEquals(4.0, projectGrade.getWorkGrade().getValue());
+        assertEquals(16.0, projectGrade.getPresentationGrade().getOtpr().getValue());
+        assertEquals(EvaluationStatus.COMPLETED, projectGrade.getPresentationGrade().getOtpr().getStatus());
+        assertEquals(4.0, projectGrade.getPresentationGrade().getValue());
+        assertEquals(4.0, projectGrade.getValue(), 1e-9);
+
+        verify(subGradeDao, times(1)).saveAll(anyCollection());
+        verify(evaluationDao, times(1)).saveAll(anyCollection());
+        verify(projectGradeDao, times(1)).saveAll(anyList());
+        verify(subGradeDao, never()).save(any(SubGrade.class));
+        verify(teamGradeDao, never()).findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void computeSprintGrades_shouldReuseExistingGrades() {
+        GradeTypes prmoType = new GradeTypes(GradeTypes.GradeTypesEnum.PRMO);
+        prmoType.setId(GradeTypes.GradeTypesEnum.PRMO.getId());
+        SubGrade existingPrmo = new SubGrade();
+        existingPrmo.setId(42);
+        existingPrmo.setUser(student);
+        existingPrmo.setSprint(sprint);
+        existingPrmo.setGradeType(prmoType);
+        Evaluation existingEvaluation = new Evaluation();
+        existingEvaluation.setEvaluator(supervisor);
+        existingEvaluation.setSubGrade(existingPrmo);
+        existingPrmo.getEvaluations().add(existingEvaluation);
+        ProjectGrade existingProjectGrade = new ProjectGrade();
+        existingProjectGrade.setId(7);
+        existingProjectGrade.setUser(student);
+        existingProjectGrade.setSprint(sprint);
+
+        when(subGradeDao.findBySprintId(1)).thenReturn(List.of(existingPrmo));
+        when(projectGradeDao.findBySprintId(1)).thenReturn(List.of(existingProjectGrade));
+
+        List<ProjectGrade> result = gradeEngineService.computeSprintGrades(1);
+
+        assertSame(existingProjectGrade, result.get(0));
+        assertSame(existingPrmo, result.get(0).getInitialGrade().getPrmo());
+        assertEquals(2, existingPrmo.getEvaluations().size());
+        assertEquals(0.0, result.get(0).getValue());
+    }
+
+    @Test
+    void recomputeDirtyGrades_shouldOnlyRecomputeDirtySubGrades() {
+        SubGrade existingPrmo = subGrade(42, GradeTypes.GradeTypesEnum.PRMO, 12.0);
+        SubGrade existingOtpr = subGrade(43, GradeTypes.GradeTypesEnum.OTPR, 8.0);
+        ProjectGrade existingProjectGrade = new ProjectGrade();
+        existingProjectGrade.setUser(student);
+        existingProjectGrade.setSprint(sprint);
+        DirtyGrade dirtyGrade = new DirtyGrade(student.getId(), 1, GradeTypes.GradeTypesEnum.OTPR.getId());
+
+        TeamGradeFromStudent studentGrade = new TeamGradeFromStudent();
+        studentGrade.setTeamNoting(otherTeam);
+        studentGrade.setTeamToNote(team);
+        studentGrade.setGrade(16);
+        when(teamGradeFromStudentDao.findBySprintId(1)).thenReturn(List.of(studentGrade));
+        when(subGradeDao.findBySprintId(1)).thenReturn(List.of(existingPrmo, existingOtpr));
+        when(projectGradeDao.findBySprintId(1)).thenReturn(List.of(existingProjectGrade));
+        when(dirtyGradeDao.findBySprintId(1)).thenReturn(List.of(dirtyGrade));
+
+        List<ProjectGrade> result = gradeEngineService.recomputeDirtyGrades(1);
+
+        assertSame(existingProjectGrade, result.get(0));
+        assertEquals(12.0, existingPrmo.getValue());
+        assertEquals(16.0, existingOtpr.getValue());
+        assertEquals(3.0, result.get(0).getInitialGrade().getValue());
+        assertFalse(result.get(0).isStale());
+        verify(dirtyGradeDao, times(1)).deleteAll(List.of(dirtyGrade));
+    }
+
+    @Test
+    void recomputeDirtyGrades_shouldSkipCleanStudents() {
+        ProjectGrade existingProjectGrade = new ProjectGrade();
+        existingProjectGrade.setUser(student);
+        existingProjectGrade.setSprint(sprint);
+        when(projectGradeDao.findBySprintId(1)).thenReturn(List.of(existingProjectGrade));
+
+        List<ProjectGrade> result = gradeEngineService.recomputeDirtyGrades(1);
+
+        assertTrue(result.isEmpty());
+        verify(subGradeService, never()).calculateValue(any(SubGrade.class));
+    }
+
+    @Test
+    void recomputeDirtyGrades_shouldOnlyRecomputeMembersOfTeam() {
+        ProjectGrade existingProjectGrade = new ProjectGrade();
+        existingProjectGrade.setUser(student);
+        existingProjectGrade.setSprint(sprint);
+        List<DirtyGrade> dirtyGrades = List.of(new DirtyGrade(student.getId(), 1, GradeTypes.GradeTypesEnum.SSBM.getId()));
+        when(projectGradeDao.findBySprintIdAndUserIdIn(1, Set.of(student.getId()))).thenReturn(List.of(existingProjectGrade));
+        when(dirtyGradeDao.findBySprintIdAndUserIdIn(1, Set.of(student.getId()))).thenReturn(dirtyGrades);
+
+        List<ProjectGrade> result = gradeEngineService.recomputeDirtyGrades(1, team.getId());
+
+        assertEquals(List.of(existingProjectGrade), result);
+        verify(dirtyGradeDao, times(1)).deleteAll(dirtyGrades);
+        verify(dirtyGradeDao, never()).findBySprintId(anyInt());
+        verify(projectGradeDao, never()).findBySprintId(anyInt());
+        verify(teamGradeDao, never()).findBySprintId(anyInt());
+    }
+
+    @Test
+    void recomputeDirtyGrades_shouldSkipEmptyTeam() {
+        List<ProjectGrade> result = gradeEngineService.recomputeDirtyGrades(1, otherTeam.getId());
+
+        assertTrue(result.isEmpty());
+        verify(dirtyGradeDao, never()).findBySprintIdAndUserIdIn(anyInt(), anyCollection());
+        verify(dirtyGradeDao, never()).deleteAll(anyList());
+    }
+
+    @Test
+    void computeTeamGrades_shouldClearDirtyGradesOfComputedStudents() {
+        List<DirtyGrade> dirtyGrades = List.of(new DirtyGrade(student.getId(), 1, GradeTypes.GradeTypesEnum.PRMO.getId()));
+        when(dirtyGradeDao.findBySprintIdAndUserIdIn(1, List.of(student.getId()))).thenReturn(dirtyGrades);
+
+        gradeEngineService.computeTeamGrades(1, team.getId());
+
+        verify(dirtyGradeDao, times(1)).deleteAll(dirtyGrades);
+    }
+
+    @Test
+    void computeTeamGrades_shouldOnlyLoadInputsOfTeam() {
+        when(bonusMalusDao.findAllByTeamIdAndSprintIdAndStatus(team.getId(), 1, BonusMalus.BonusMalusStatus.VALIDATED))
+                .thenReturn(List.of(bonusMalus(true, 2.0f)));
+
+        List<ProjectGrade> result = gradeEngineService.computeTeamGrades(1, team.getId());
+
+        assertEquals(1, result.size());
+        assertEquals(2.0, result.get(0).getWorkGrade().getSsbm().getValue());
+        verify(teamGradeDao, times(1)).findBySprintIdAndTeamId(1, team.getId());
+        verify(teamGradeFromStudentDao, times(1)).findBySprintIdAndTeamToNoteId(1, team.getId());
+        verify(subGradeDao, times(1)).findBySprintIdAndUserIdIn(1, Set.of(student.getId()));
+        verify(teamGradeDao, never()).findBySprintId(anyInt());
+        verify(subGradeDao, never()).findBySprintId(anyInt());
+        verify(projectGradeDao, never()).findBySprintId(anyInt());
+        verify(userService, never()).getStudents();
+        verify(userTeamDao, never()).findAll();
+        verify(detailDao, never()).findAll();
+    }
+
+    @Test
+    void computeTeamGrades_shouldReuseSharedReferenceData() {
+        GradeEngineService.GradeReferenceData reference = gradeEngineService.loadReferenceData();
+        clearInvocations(gradeTypesDao, teamDao, userService);
+
+        List<ProjectGrade> result = gradeEngineService.computeTeamGrades(1, team.getId(), reference);
+
+        assertEquals(1, result.size());
+        verifyNoInteractions(gradeTypesDao, teamDao, userService);
+    }
+
+    @Test
+    void computeTeamGrades_shouldIgnoreMembersWhoAreNotStudents() {
+        when(userTeamDao.findByTeam_Id(team.getId())).thenReturn(List.of(new UserTeam(student, team), new UserTeam(coach, team)));
+
+        List<ProjectGrade> result = gradeEngineService.computeTeamGrades(1, team.getId());
+
+        assertEquals(1, result.size());
+        assertEquals(student, result.get(0).getUser());
+    }
+
+    @Test
+    void computeTeamGrades_shouldSkipEmptyTeam() {
+        List<ProjectGrade> result = gradeEngineService.computeTeamGrades(1, otherTeam.getId());
+
+        assertTrue(result.isEmpty());
+        verify(subGradeDao, never()).findBySprintIdAndUserIdIn(anyInt(), anyCollection());
+    }
+
+    private SubGrade subGrade(int id, GradeTypes.GradeTypesEnum type, double value) {
+        GradeTypes gradeType = new GradeTypes(type);
+        gradeType.setId(type.getId());
+        SubGrade subGrade = new SubGrade();
+        subGrade.setId(id);
+        subGrade.setUser(student);
+        subGrade.setSprint(sprint);
+        subGrade.setGradeType(gradeType);
+        subGrade.setValue(value);
+        return subGrade;
+    }
+
+    private BonusMalus bonusMalus(boolean unlimited, float value) {
+        BonusMalus bonusMalus = new BonusMalus();
+        bonusMalus.setAttributedTo(student);
+        bonusMalus.setUnlimited(unlimited);
+        bonusMalus.setValue(value);
+        bonusMalus.setStatus(BonusMalus.BonusMalusStatus.VALIDATED);
+        return bonusMalus;
+    }
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Team team(int id, User supervisor) {
+        Team team = new Team();
+        team.setId(id);
+        team.setSupervisor(supervisor);
+        return team;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.TeamDao;
+import com.example.backend.dao.UserTeamDao;
+import com.example.backend.dto.GradeJobDTO;
+import com.example.backend.model.Sprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GradeJobServiceTest {
+
+    @Mock
+    private GradeEngineService gradeEngineService;
+    @Mock
+    private SprintService sprintService;
+    @Mock
+    private TeamDao teamDao;
+    @Mock
+    private UserTeamDao userTeamDao;
+
+    private final GradeEngineService.GradeReferenceData reference = new GradeEngineService.GradeReferenceData(Map.of(), List.of(), List.of(), List.of(), 2);
+    private final List<Runnable> pending = new ArrayList<>();
+    private final List<Runnable> computed = new ArrayList<>();
+    private GradeJobService gradeJobService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Executor executor = pending::add;
+        Executor computeExecutor = command -> {
+            computed.add(command);
+            command.run();
+        };
+        gradeJobService = new GradeJobService(gradeEngineService, sprintService, teamDao, userTeamDao, executor, computeExecutor);
+
+        when(teamDao.findAllIds()).thenReturn(List.of(1, 2));
+        when(userTeamDao.countMembersGroupByTeamId()).thenReturn(List.of(new Object[]{1, 2L}, new Object[]{2, 1L}));
+        when(userTeamDao.countByTeam_Id(1)).thenReturn(2L);
+        Sprint sprint = new Sprint();
+        sprint.setId(5);
+        when(sprintService.getAllSprints()).thenReturn(List.of(sprint));
+        when(gradeEngineService.loadReferenceData()).thenReturn(reference);
+    }
+
+    @Test
+    void submit_shouldReturnPendingJobWithoutRunningIt() {
+        GradeJobDTO job = gradeJobService.submit(5, null);
+
+        assertEquals("PENDING", job.getStatus());
+        assertEquals(3, job.getTotal());
+        assertEquals(0, job.getDone());
+        verifyNoInteractions(gradeEngineService);
+    }
+
+    @Test
+    void run_shouldComputeEachTeamAndReportProgress() {
+        GradeJobDTO job = gradeJobService.submit(null, null);
+
+        pending.get(0).run();
+
+        GradeJobDTO state = gradeJobService.getJob(job.getId());
+        assertEquals("COMPLETED", state.getStatus());
+        assertEquals(3, state.getDone());
+        assertTrue(state.getErrors().isEmpty());
+        verify(gradeEngineService, times(1)).loadReferenceData();
+        verify(gradeEngineService, times(1)).computeTeamGrades(5, 1, reference);
+        verify(gradeEngineService, times(1)).computeTeamGrades(5, 2, reference);
+        assertEquals(2, computed.size());
+    }
+
+    @Test
+    void run_shouldKeepGoingWhenOneTeamFails() {
+        when(gradeEngineService.computeTeamGrades(5, 1, reference)).thenThrow(new IllegalStateException("boom"));
+        GradeJobDTO job = gradeJobService.submit(5, null);
+
+        pending.get(0).run();
+
+        GradeJobDTO state = gradeJobService.getJob(job.getId());
+        assertEquals("COMPLETED_WITH_ERRORS", state.getStatus());
+        assertEquals(1, state.getDone());
+        assertEquals(2, state.getFailed());
+        assertEquals(1, state.getErrors().size());
+        verify(gradeEngineService, times(1)).computeTeamGrades(5, 2, reference);
+    }
+
+    @Test
+    void run_shouldFailEveryTeamWhenReferenceDataCannotBeLoaded() {
+        when(gradeEngineService.loadReferenceData()).thenThrow(new IllegalStateException("boom"));
+        GradeJobDTO job = gradeJobService.submit(5, null);
+
+        pending.get(0).run();
+
+        GradeJobDTO state = gradeJobService.getJob(job.getId());
+        assertEquals("COMPLETED_WITH_ERRORS", state.getStatus());
+        assertEquals(3, state.getFailed());
+        assertEquals(2, state.getErrors().size());
+        assertTrue(computed.isEmpty());
+    }
+
+    @Test
+    void submit_shouldForgetJobWhenExecutorIsFull() {
+        GradeJobService saturated = new GradeJobService(gradeEngineService, sprintService, teamDao, userTeamDao, command -> {
+            throw new RejectedExecutionException();
+        }, Runnable::run);
+
+        assertThrows(RejectedExecutionException.class, () -> saturated.submit(5, 1));
+    }
+
+    @Test
+    void submit_shouldCountMembersOfSingleTeamOnly() {
+        GradeJobDTO job = gradeJobService.submit(5, 1);
+
+        assertEquals(2, job.getTotal());
+        verify(userTeamDao, times(1)).countByTeam_Id(1);
+        verify(userTeamDao, never()).countMembersGroupByTeamId();
+        verify(teamDao, never()).findAllIds();
+    }
+
+    @Test
+    void getJob_shouldThrowForUnknownJob() {
+        assertThrows(NoSuchElementException.class, () -> gradeJobService.getJob("unknown"));
+    }
+}
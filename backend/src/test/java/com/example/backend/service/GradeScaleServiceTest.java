@@ -26,6 +26,9 @@ class GradeScaleServiceTest {
     @InjectMocks
     GradeScaleService gradeScaleService;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
     @Mock
     GradeScaleDao gradeScaleDao;
 
@@ -147,5 +150,6 @@ class GradeScaleServiceTest {
         verify(gradeScaleDao, times(1)).save(any(GradeScale.class));
         verify(categoryService, times(1)).createCategory(any(Category.class));
         verify(detailService, times(1)).createDetail(any(Detail.class));
+        verify(referenceDataCache, times(1)).invalidate(ReferenceDataCache.DETAILS);
     }
 }
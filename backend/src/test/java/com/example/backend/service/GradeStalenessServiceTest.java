@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.DirtyGradeDao;
+import com.example.backend.dao.ProjectGradeDao;
+import com.example.backend.dao.UserTeamDao;
+import com.example.backend.model.DirtyGrade;
+import com.example.backend.model.GradeTypes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class GradeStalenessServiceTest {
+
+    @InjectMocks
+    private GradeStalenessService gradeStalenessService;
+
+    @Mock
+    private ProjectGradeDao projectGradeDao;
+
+    @Mock
+    private DirtyGradeDao dirtyGradeDao;
+
+    @Mock
+    private UserTeamDao userTeamDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void markTeamStale_shouldMarkGradeTypeOfEveryMemberDirty() {
+        when(userTeamDao.findUserIdsByTeamId(1)).thenReturn(List.of(10, 11));
+
+        gradeStalenessService.markTeamStale(1, 2, GradeTypes.GradeTypesEnum.PRMO.getId());
+
+        List<DirtyGrade> saved = captureSavedDirtyGrades();
+        assertEquals(2, saved.size());
+        assertEquals(10, saved.get(0).getUserId());
+        assertEquals(11, saved.get(1).getUserId());
+        assertEquals(2, saved.get(0).getSprintId());
+        assertEquals(GradeTypes.GradeTypesEnum.PRMO.getId(), saved.get(0).getGradeTypeId());
+        verify(projectGradeDao, times(1)).markStaleByTeamIdAndSprintId(1, 2);
+    }
+
+    @Test
+    void markTeamStale_shouldSkipAlreadyDirtyGrades() {
+        when(userTeamDao.findUserIdsByTeamId(1)).thenReturn(List.of(10, 11));
+        when(dirtyGradeDao.findBySprintIdAndUserIdIn(2, List.of(10, 11)))
+                .thenReturn(List.of(new DirtyGrade(10, 2, GradeTypes.GradeTypesEnum.OTPR.getId())));
+
+        gradeStalenessService.markTeamStale(1, 2, GradeTypes.GradeTypesEnum.OTPR.getId());
+
+        List<DirtyGrade> saved = captureSavedDirtyGrades();
+        assertEquals(1, saved.size());
+        assertEquals(11, saved.get(0).getUserId());
+    }
+
+    @Test
+    void markUserStale_shouldMarkEveryGradeTypeWhenNoneGiven() {
+        gradeStalenessService.markUserStale(3, 2);
+
+        assertEquals(GradeTypes.GradeTypesEnum.values().length, captureSavedDirtyGrades().size());
+        verify(projectGradeDao, times(1)).markStaleByUserIdAndSprintId(3, 2);
+    }
+
+    @Test
+    void markTeamStale_shouldDoNothingForEmptyTeam() {
+        when(userTeamDao.findUserIdsByTeamId(1)).thenReturn(new ArrayList<>());
+
+        gradeStalenessService.markTeamStale(1, 2);
+
+        verify(dirtyGradeDao, never()).saveAll(anyList());
+    }
+
+    @Test
+    void markTeamsStale_shouldMarkMembersOfEveryTeamInOneCall() {
+        when(userTeamDao.findUserIdsByTeamIdIn(List.of(1, 2))).thenReturn(List.of(10, 20));
+
+        gradeStalenessService.markTeamsStale(List.of(1, 2), 3, GradeTypes.GradeTypesEnum.TESO.getId());
+
+        List<DirtyGrade> saved = captureSavedDirtyGrades();
+        assertEquals(2, saved.size());
+        assertEquals(GradeTypes.GradeTypesEnum.TESO.getId(), saved.get(1).getGradeTypeId());
+        verify(projectGradeDao, times(1)).markStaleByTeamIdInAndSprintId(List.of(1, 2), 3);
+    }
+
+    @Test
+    void markTeamsStale_shouldDoNothingWithoutTeams() {
+        gradeStalenessService.markTeamsStale(new ArrayList<>(), 3);
+
+        verifyNoInteractions(userTeamDao, dirtyGradeDao, projectGradeDao);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DirtyGrade> captureSavedDirtyGrades() {
+        ArgumentCaptor<List<DirtyGrade>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dirtyGradeDao, times(1)).saveAll(captor.capture());
+        return captor.getValue();
+    }
+}
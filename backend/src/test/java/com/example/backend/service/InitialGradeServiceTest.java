@@ -49,12 +49,14 @@ class InitialGradeServiceTest {
 
         InitialGrade initialGrade = new InitialGrade();
         when(initialGradeDao.save(any(InitialGrade.class))).thenReturn(initialGrade);
+        when(initialGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty()).thenReturn(Optional.of(initialGrade));
         when(gradeTypesDao.findById(anyInt())).thenReturn(Optional.of(new GradeTypes()));
 
         InitialGrade result = initialGradeService.updateInitialGrade(1, 1);
 
         assertEquals(initialGrade, result);
-        verify(initialGradeDao, times(2)).save(any(InitialGrade.class));
+        verify(initialGradeDao, times(1)).insertIfAbsent(1, 1);
+        verify(initialGradeDao, times(1)).save(any(InitialGrade.class));
     }
 
     @Test
@@ -80,10 +82,13 @@ class InitialGradeServiceTest {
 
     @Test
     void getInitialGradeByUserIdAndProjectIdShouldCreateNewInitialGradeWhenNoneExists() {
-        when(initialGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty());
+        InitialGrade initialGrade = new InitialGrade();
+        when(initialGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty()).thenReturn(Optional.of(initialGrade));
 
-        initialGradeService.getInitialGradeByUserIdAndProjectId(1, 1);
+        InitialGrade result = initialGradeService.getInitialGradeByUserIdAndProjectId(1, 1);
 
-        verify(initialGradeDao, times(1)).save(any(InitialGrade.class));
+        assertEquals(initialGrade, result);
+        verify(initialGradeDao, times(1)).insertIfAbsent(1, 1);
+        verify(initialGradeDao, never()).save(any(InitialGrade.class));
     }
 }
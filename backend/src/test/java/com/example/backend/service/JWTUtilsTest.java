@@ -1,6 +1,9 @@
 package com.example.backend.service;
 
+import com.example.backend.model.Role;
 import com.example.backend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -12,8 +15,11 @@ import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -108,4 +114,67 @@ class JWTUtilsTest {
         // Check if the signature in the token matches the expected signature
         assertEquals(expectedSignature, signature);
     }
+
+    @Test
+    void shouldParseTokenOnce() {
+        when(user.getEmail()).thenReturn("test@example.com");
+        String token = jwtUtils.generateToken(user);
+
+        Claims claims = jwtUtils.parseToken(token);
+
+        assertEquals("test@example.com", claims.getSubject());
+        assertNotNull(claims.getExpiration());
+    }
+
+    @Test
+    void shouldReturnNullWhenParsingInvalidToken() {
+        assertNull(jwtUtils.parseToken("invalidToken"));
+    }
+
+    @Test
+    void shouldReturnNullWhenParsingExpiredToken() {
+        String token = Jwts.builder()
+                .subject("test@example.com")
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(jwtUtils.getKey())
+                .compact();
+
+        assertNull(jwtUtils.parseToken(token));
+    }
+
+    @Test
+    void shouldExtractPrincipalFromSignedClaims() {
+        User realUser = new User();
+        realUser.setId(7);
+        realUser.setEmail("test@example.com");
+        realUser.addRole(new Role(Role.RoleName.SS));
+        realUser.addRole(new Role(Role.RoleName.TC));
+        String token = jwtUtils.generateToken(realUser);
+
+        User principal = jwtUtils.extractPrincipal(jwtUtils.parseToken(token));
+
+        assertEquals(7, principal.getId());
+        assertEquals("test@example.com", principal.getEmail());
+        assertEquals(Set.of("SS", "TC"), Set.copyOf(principal.getAuthorities().stream().map(Object::toString).toList()));
+    }
+
+    @Test
+    void shouldNotExtractPrincipalFromTokenWithoutClaims() {
+        when(userDetails.getUsername()).thenReturn("test@example.com");
+        String token = jwtUtils.generateRefreshToken(new HashMap<>(), userDetails);
+
+        assertNull(jwtUtils.extractPrincipal(jwtUtils.parseToken(token)));
+    }
+
+    @Test
+    void shouldNotExtractPrincipalWithUnknownRole() {
+        String token = Jwts.builder()
+                .subject("test@example.com")
+                .claim("id", 7)
+                .claim("roles", List.of("ADMIN"))
+                .signWith(jwtUtils.getKey())
+                .compact();
+
+        assertNull(jwtUtils.extractPrincipal(jwtUtils.parseToken(token)));
+    }
 }
@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        notificationDispatcher = new NotificationDispatcher(notificationOutboxService, pending::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void wakeUp_shouldMergeRequestsUntilTheRunStarts() {
+        notificationDispatcher.wakeUp();
+        notificationDispatcher.wakeUp();
+
+        assertEquals(1, pending.size());
+
+        pending.get(0).run();
+        notificationDispatcher.wakeUp();
+
+        assertEquals(2, pending.size());
+        verify(notificationOutboxService, times(1)).findReadyIds(NotificationDispatcher.BATCH_SIZE);
+    }
+
+    @Test
+    void wakeUp_shouldAllowNewRequestsWhenExecutorIsFull() {
+        NotificationDispatcher rejecting = new NotificationDispatcher(notificationOutboxService, task -> {
+            throw new RejectedExecutionException();
+        });
+
+        rejecting.wakeUp();
+
+        assertDoesNotThrow(rejecting::wakeUp);
+    }
+
+    @Test
+    void wakeUpAfterCommit_shouldWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        notificationDispatcher.wakeUpAfterCommit();
+
+        assertTrue(pending.isEmpty());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void wakeUpAfterCommit_shouldRunImmediatelyWithoutTransaction() {
+        notificationDispatcher.wakeUpAfterCommit();
+
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void drain_shouldDispatchUntilTheOutboxIsEmpty() {
+        List<Integer> fullBatch = new ArrayList<>();
+        for (int i = 1; i <= NotificationDispatcher.BATCH_SIZE; i++) {
+            fullBatch.add(i);
+        }
+        when(notificationOutboxService.findReadyIds(NotificationDispatcher.BATCH_SIZE)).thenReturn(fullBatch).thenReturn(List.of(500));
+        when(notificationOutboxService.dispatch(fullBatch)).thenReturn(150);
+        when(notificationOutboxService.dispatch(List.of(500))).thenReturn(1);
+
+        assertEquals(151, notificationDispatcher.drain());
+        verify(notificationOutboxService, times(2)).findReadyIds(NotificationDispatcher.BATCH_SIZE);
+    }
+
+    @Test
+    void drain_shouldRetryFailedBatchRowByRow() {
+        when(notificationOutboxService.findReadyIds(NotificationDispatcher.BATCH_SIZE)).thenReturn(List.of(1, 2));
+        when(notificationOutboxService.dispatch(List.of(1, 2))).thenThrow(new RuntimeException());
+        when(notificationOutboxService.dispatch(List.of(1))).thenReturn(1);
+        when(notificationOutboxService.dispatch(List.of(2))).thenThrow(new RuntimeException());
+
+        assertEquals(1, notificationDispatcher.drain());
+        verify(notificationOutboxService, times(1)).markFailed(List.of(2));
+        verify(notificationOutboxService, never()).markFailed(List.of(1));
+    }
+
+    @Test
+    void drain_shouldStopWhenRowsAreLockedElsewhere() {
+        List<Integer> fullBatch = new ArrayList<>();
+        for (int i = 1; i <= NotificationDispatcher.BATCH_SIZE; i++) {
+            fullBatch.add(i);
+        }
+        when(notificationOutboxService.findReadyIds(NotificationDispatcher.BATCH_SIZE)).thenReturn(fullBatch);
+
+        assertEquals(0, notificationDispatcher.drain());
+        verify(notificationOutboxService, times(1)).findReadyIds(NotificationDispatcher.BATCH_SIZE);
+    }
+}
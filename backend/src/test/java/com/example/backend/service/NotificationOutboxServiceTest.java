@@ -0,0 +1,112 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.NotificationDao;
+import com.example.backend.dao.NotificationOutboxDao;
+import com.example.backend.dto.NotificationDTO;
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxServiceTest {
+
+    @InjectMocks
+    private NotificationOutboxService notificationOutboxService;
+
+    @Mock
+    private NotificationOutboxDao notificationOutboxDao;
+
+    @Mock
+    private NotificationDao notificationDao;
+
+    @Captor
+    private ArgumentCaptor<Collection<NotificationDTO>> inserted;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static NotificationOutbox row(int id, int receiverId, int groupId, String description) {
+        NotificationOutbox row = new NotificationOutbox();
+        row.setId(id);
+        row.setType("Bonus/Malus");
+        row.setStatus(Notification.Status.UNREAD);
+        row.setDescription(description);
+        row.setEmitterId(9);
+        row.setReceiverId(receiverId);
+        row.setGroupId(groupId);
+        return row;
+    }
+
+    @Test
+    void dispatch_shouldInsertNotificationsAndRemoveRowsInOneBatch() {
+        List<NotificationOutbox> rows = List.of(row(1, 1, 0, "a"), row(2, 2, 0, "a"));
+        when(notificationOutboxDao.lockAllByIdIn(List.of(1, 2))).thenReturn(rows);
+
+        int created = notificationOutboxService.dispatch(List.of(1, 2));
+
+        assertEquals(2, created);
+        verify(notificationDao, times(1)).insertAll(inserted.capture());
+        assertEquals(List.of(1, 2), inserted.getValue().stream().map(NotificationDTO::getReceiverId).toList());
+        assertTrue(inserted.getValue().stream().allMatch(notification -> notification.getEmitterId() == 9));
+        verify(notificationOutboxDao, times(1)).deleteAllInBatch(rows);
+        verify(notificationDao, never()).save(any(Notification.class));
+    }
+
+    @Test
+    void dispatch_shouldDoNothingWhenRowsAreLockedElsewhere() {
+        when(notificationOutboxDao.lockAllByIdIn(List.of(1))).thenReturn(List.of());
+
+        assertEquals(0, notificationOutboxService.dispatch(List.of(1)));
+        verifyNoInteractions(notificationDao);
+    }
+
+    @Test
+    void coalesce_shouldKeepTheLatestNotificationOfAGroup() {
+        List<NotificationDTO> notifications = NotificationOutboxService.coalesce(List.of(
+                row(1, 1, 5, "first"), row(2, 2, 5, "first"), row(3, 1, 5, "second")));
+
+        assertEquals(2, notifications.size());
+        assertEquals(2, notifications.get(0).getReceiverId());
+        assertEquals(1, notifications.get(1).getReceiverId());
+        assertEquals("second", notifications.get(1).getDescription());
+    }
+
+    @Test
+    void coalesce_shouldMergeIdenticalUngroupedNotificationsOnly() {
+        NotificationOutbox withoutEmitter = row(4, 1, 0, "a");
+        withoutEmitter.setEmitterId(null);
+
+        List<NotificationDTO> notifications = NotificationOutboxService.coalesce(List.of(
+                row(1, 1, 0, "a"), row(2, 1, 0, "a"), row(3, 1, 0, "b"), withoutEmitter));
+
+        assertEquals(3, notifications.size());
+        assertEquals(0, notifications.get(2).getEmitterId());
+    }
+
+    @Test
+    void markFailed_shouldPostponeTheRows() {
+        notificationOutboxService.markFailed(List.of(3));
+
+        verify(notificationOutboxDao, times(1)).markFailed(eq(List.of(3)), anyLong(), eq(NotificationOutboxService.RETRY_DELAY_MILLIS));
+    }
+
+    @Test
+    void findReadyIds_shouldSkipRowsPastTheMaximumAttempts() {
+        notificationOutboxService.findReadyIds(10);
+
+        verify(notificationOutboxDao, times(1)).findReadyIds(anyLong(), eq(NotificationOutboxService.MAX_ATTEMPTS), any());
+    }
+}
@@ -1,21 +1,32 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.NotificationDao;
+import com.example.backend.dao.NotificationOutboxDao;
 import com.example.backend.dao.UserDao;
+import com.example.backend.dto.NotificationBroadcastDTO;
 import com.example.backend.dto.NotificationDTO;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.model.Notification;
+import com.example.backend.model.Role;
 import com.example.backend.model.User;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -33,11 +44,38 @@ class NotificationServiceTest {
     @Mock
     private UserDao userDao;
 
+    @Mock
+    private TeamRoster teamRoster;
+
+    @Mock
+    private NotificationOutboxDao notificationOutboxDao;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    @Captor
+    private ArgumentCaptor<Collection<Integer>> receivers;
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
     }
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticate(int userId) {
+        User user = new User();
+        user.setId(userId);
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(user);
+        SecurityContextHolder.setContext(securityContext);
+    }
+
     @Test
     void testGetAll() {
         Notification notification = new Notification();
@@ -56,6 +94,65 @@ class NotificationServiceTest {
         verify(notificationDao, times(1)).save(any(Notification.class));
     }
 
+    @Test
+    void testCreateNotificationsShouldQueueEachReceiverOnceInOneBatch() {
+        NotificationDTO template = new NotificationDTO();
+        template.setType("Bonus/Malus");
+
+        int created = notificationService.createNotifications(template, List.of(3, 1, 3));
+
+        assertEquals(2, created);
+        assertEquals(Notification.Status.UNREAD, template.getStatus());
+        verify(notificationOutboxDao, times(1)).insertAll(eq(template), receivers.capture());
+        assertEquals(List.of(3, 1), new ArrayList<>(receivers.getValue()));
+        verify(notificationDispatcher, times(1)).wakeUpAfterCommit();
+        verifyNoInteractions(notificationDao);
+        verifyNoInteractions(userDao);
+    }
+
+    @Test
+    void testCreateNotificationsShouldDoNothingWithoutReceivers() {
+        assertEquals(0, notificationService.createNotifications(new NotificationDTO(), List.of()));
+
+        verifyNoInteractions(notificationOutboxDao, notificationDispatcher);
+    }
+
+    @Test
+    void testBroadcastShouldResolveAudienceByIds() {
+        authenticate(1);
+        NotificationDTO template = new NotificationDTO();
+        template.setEmitterId(9);
+        NotificationBroadcastDTO broadcast = new NotificationBroadcastDTO();
+        broadcast.setNotification(template);
+        broadcast.setTeamIds(List.of(10));
+        broadcast.setRoles(List.of(Role.RoleName.SS, Role.RoleName.PL));
+        broadcast.setUserIds(List.of(4, 2));
+        broadcast.setExcludeEmitter(true);
+        when(teamRoster.getMemberIds(10)).thenReturn(List.of(1, 2, 3));
+        when(userDao.findIdsByRoleNameIn(List.of(Role.RoleName.SS, Role.RoleName.PL))).thenReturn(List.of(5, 3));
+
+        int created = notificationService.broadcast(broadcast);
+
+        assertEquals(4, created);
+        verify(notificationOutboxDao, times(1)).insertAll(eq(template), receivers.capture());
+        assertEquals(Set.of(2, 3, 4, 5), Set.copyOf(receivers.getValue()));
+        assertEquals(1, template.getEmitterId());
+        verify(userDao, never()).findById(anyInt());
+    }
+
+    @Test
+    void testBroadcastShouldSkipRoleQueryWithoutRoles() {
+        authenticate(1);
+        NotificationBroadcastDTO broadcast = new NotificationBroadcastDTO();
+        broadcast.setNotification(new NotificationDTO());
+        broadcast.setUserIds(List.of(7));
+
+        assertEquals(1, notificationService.broadcast(broadcast));
+
+        verify(userDao, never()).findIdsByRoleNameIn(any());
+        verifyNoInteractions(teamRoster);
+    }
+
     @Test
     void testDeleteNotification() {
         Notification notification = new Notification();
@@ -98,6 +195,7 @@ class NotificationServiceTest {
         doNothing().when(notificationDao).deleteAll(notifications);
         notificationService.deleteAllNotificationsOfUser(1);
         verify(notificationDao, times(1)).deleteAll(notifications);
+        verify(notificationOutboxDao, times(1)).deleteByUserId(1);
     }
 
     @Test
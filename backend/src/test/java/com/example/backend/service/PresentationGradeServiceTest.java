@@ -62,11 +62,14 @@ class PresentationGradeServiceTest {
 
     @Test
     void getPresentationGradeByUserIdAndSprintIdShouldCreateNewPresentationGradeWhenNoneExists() {
-        when(presentationGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty());
+        PresentationGrade presentationGrade = new PresentationGrade();
+        when(presentationGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty()).thenReturn(Optional.of(presentationGrade));
 
-        presentationGradeService.getPresentationGradeByUserIdAndSprintId(1, 1);
+        PresentationGrade result = presentationGradeService.getPresentationGradeByUserIdAndSprintId(1, 1);
 
-        verify(presentationGradeDao, times(1)).save(any(PresentationGrade.class));
+        assertEquals(presentationGrade, result);
+        verify(presentationGradeDao, times(1)).insertIfAbsent(1, 1);
+        verify(presentationGradeDao, never()).save(any(PresentationGrade.class));
     }
 
     @Test
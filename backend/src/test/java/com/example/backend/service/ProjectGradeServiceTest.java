@@ -2,9 +2,12 @@ package com.example.backend.service;
 
 import com.example.backend.dao.GradeTypesDao;
 import com.example.backend.dao.ProjectGradeDao;
+import com.example.backend.dao.SubGradeDao;
+import com.example.backend.dao.UserTeamDao;
 import com.example.backend.dto.FinalGradeDTO;
 import com.example.backend.dto.InitialGradeDTO;
 import com.example.backend.dto.IntermediateGradeDTO;
+import com.example.backend.dto.TeamProjectGradesDTO;
 import com.example.backend.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,6 +53,14 @@ class ProjectGradeServiceTest {
 
     @Mock
     private GradeTypesDao gradeTypesDao;
+    @Mock
+    private GradeEngineService gradeEngineService;
+
+    @Mock
+    private SubGradeDao subGradeDao;
+
+    @Mock
+    private UserTeamDao userTeamDao;
 
     @BeforeEach
     public void setup() {
@@ -105,12 +116,15 @@ class ProjectGradeServiceTest {
         int userId = 1;
         int sprintId = 1;
 
-        when(projectGradeDao.findByUserIdAndSprintId(userId, sprintId)).thenReturn(Optional.empty());
+        ProjectGrade projectGrade = new ProjectGrade();
+        when(projectGradeDao.findByUserIdAndSprintId(userId, sprintId)).thenReturn(Optional.empty()).thenReturn(Optional.of(projectGrade));
 
-        projectGradeService.getProjectGradeByUserIdAndSprintId(userId, sprintId);
+        ProjectGrade result = projectGradeService.getProjectGradeByUserIdAndSprintId(userId, sprintId);
 
-        verify(projectGradeDao, times(1)).findByUserIdAndSprintId(userId, sprintId);
-        verify(projectGradeDao, times(1)).save(any(ProjectGrade.class));
+        assertEquals(projectGrade, result);
+        verify(projectGradeDao, times(2)).findByUserIdAndSprintId(userId, sprintId);
+        verify(projectGradeDao, times(1)).insertIfAbsent(userId, sprintId);
+        verify(projectGradeDao, never()).save(any(ProjectGrade.class));
     }
 
     @Test
@@ -152,83 +166,75 @@ class ProjectGradeServiceTest {
 
         assertThrows(RuntimeException.class, () -> projectGradeService.updateProjectGrade(userId, sprintId));
 
-        verify(projectGradeDao, times(1)).findByUserIdAndSprintId(userId, sprintId);
+        verify(projectGradeDao, times(2)).findByUserIdAndSprintId(userId, sprintId);
     }
 
     @Test
-    void updateAllProjectGrades_shouldUpdateAllProjectGradesForAllUsersAndSprintsValueGreaterThan20() {
+    void updateAllProjectGrades_shouldComputeGradesOfEverySprint() {
         // Given
-        User user1 = new User();
-        user1.setId(1);
-        User user2 = new User();
-        user2.setId(2);
-        List<User> users = Arrays.asList(user1, user2);
-
         Sprint sprint1 = new Sprint();
         sprint1.setId(1);
         Sprint sprint2 = new Sprint();
         sprint2.setId(2);
         List<Sprint> sprints = Arrays.asList(sprint1, sprint2);
 
-        ProjectGrade projectGrade = new ProjectGrade();
-        projectGrade.setInitialGrade(new InitialGrade());
-
-        WorkGrade workGrade = new WorkGrade();
-        workGrade.setValue(11);
-        InitialGrade initialGrade = new InitialGrade();
-        initialGrade.setValue(11);
-
-        when(userService.getStudents()).thenReturn(users);
         when(sprintService.getAllSprints()).thenReturn(sprints);
-        when(projectGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.of(projectGrade));
-        when(workGradeService.getWorkGradeByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(workGrade);
-        when(workGradeService.updateWorkGrade(anyInt(), anyInt())).thenReturn(workGrade);
-        when(initialGradeService.updateInitialGrade(anyInt(), anyInt())).thenReturn(initialGrade);
-        when(presentationGradeService.updatePresentationGrade(anyInt(), anyInt())).thenReturn(new PresentationGrade());
 
         // When
         projectGradeService.updateAllProjectGrades();
 
         // Then
-        verify(userService, times(1)).getStudents();
+        verify(gradeEngineService, times(1)).computeSprintGrades(1);
+        verify(gradeEngineService, times(1)).computeSprintGrades(2);
+        verify(projectGradeDao, never()).findByUserIdAndSprintId(anyInt(), anyInt());
     }
 
+
     @Test
-    void updateAllProjectGrades_shouldUpdateAllProjectGradesForAllUsersAndSprintsValueLesserThan0() {
-        // Given
-        User user1 = new User();
-        user1.setId(1);
-        User user2 = new User();
-        user2.setId(2);
-        List<User> users = Arrays.asList(user1, user2);
+    void getTeamProjectGrades_shouldReadWithoutRecomputing() {
+        SubGrade prmo = new SubGrade();
+        prmo.setId(4);
+        InitialGrade initialGrade = new InitialGrade();
+        initialGrade.setPrmo(prmo);
+        ProjectGrade projectGrade = new ProjectGrade();
+        projectGrade.setInitialGrade(initialGrade);
+        when(projectGradeDao.findTreesByTeamIdAndSprintId(1, 2)).thenReturn(List.of(projectGrade));
+        when(userTeamDao.countByTeam_Id(1)).thenReturn(1L);
 
-        Sprint sprint1 = new Sprint();
-        sprint1.setId(1);
-        Sprint sprint2 = new Sprint();
-        sprint2.setId(2);
-        List<Sprint> sprints = Arrays.asList(sprint1, sprint2);
+        TeamProjectGradesDTO result = projectGradeService.getTeamProjectGrades(1, 2);
 
-        ProjectGrade projectGrade = new ProjectGrade();
-        projectGrade.setInitialGrade(new InitialGrade());
+        assertFalse(result.isStale());
+        assertEquals(List.of(projectGrade), result.getProjectGrades());
+        verify(subGradeDao, times(1)).fetchEvaluationsByIdIn(List.of(4));
+        verify(gradeEngineService, never()).recomputeDirtyGrades(anyInt());
+    }
 
-        WorkGrade workGrade = new WorkGrade();
-        workGrade.setValue(-11);
-        InitialGrade initialGrade = new InitialGrade();
-        initialGrade.setValue(5);
+    @Test
+    void getTeamProjectGrades_shouldFlagStaleOrMissingGrades() {
+        ProjectGrade staleGrade = new ProjectGrade();
+        staleGrade.setStale(true);
+        when(projectGradeDao.findTreesByTeamIdAndSprintId(1, 2)).thenReturn(List.of(staleGrade));
+        when(userTeamDao.countByTeam_Id(1)).thenReturn(1L);
 
-        when(userService.getStudents()).thenReturn(users);
-        when(sprintService.getAllSprints()).thenReturn(sprints);
-        when(projectGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.of(projectGrade));
-        when(workGradeService.getWorkGradeByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(workGrade);
-        when(workGradeService.updateWorkGrade(anyInt(), anyInt())).thenReturn(workGrade);
-        when(initialGradeService.updateInitialGrade(anyInt(), anyInt())).thenReturn(initialGrade);
-        when(presentationGradeService.updatePresentationGrade(anyInt(), anyInt())).thenReturn(new PresentationGrade());
+        assertTrue(projectGradeService.getTeamProjectGrades(1, 2).isStale());
 
-        // When
-        projectGradeService.updateAllProjectGrades();
+        when(projectGradeDao.findTreesByTeamIdAndSprintId(1, 2)).thenReturn(List.of());
 
-        // Then
-        verify(userService, times(1)).getStudents();
+        assertTrue(projectGradeService.getTeamProjectGrades(1, 2).isStale());
+        verify(subGradeDao, never()).fetchEvaluationsByIdIn(anyCollection());
     }
 
+    @Test
+    void refreshTeamProjectGrades_shouldRecomputeDirtyGradesOfTeamThenRead() {
+        when(projectGradeDao.findTreesByTeamIdAndSprintId(1, 2)).thenReturn(List.of(new ProjectGrade()));
+        when(userTeamDao.countByTeam_Id(1)).thenReturn(1L);
+
+        TeamProjectGradesDTO result = projectGradeService.refreshTeamProjectGrades(1, 2);
+
+        verify(gradeEngineService, times(1)).recomputeDirtyGrades(2, 1);
+        verify(gradeEngineService, never()).recomputeDirtyGrades(anyInt());
+        assertEquals(1, result.getTeamId());
+        assertEquals(2, result.getSprintId());
+        assertFalse(result.isStale());
+    }
 }
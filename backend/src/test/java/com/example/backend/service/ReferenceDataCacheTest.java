@@ -0,0 +1,108 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataCacheTest {
+
+    private ReferenceDataCache referenceDataCache;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataCache = new ReferenceDataCache();
+    }
+
+    @Test
+    void get_shouldLoadOncePerKey() {
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(4, referenceDataCache.get(ReferenceDataCache.ROLES, "TC", () -> {
+                loads.incrementAndGet();
+                return 4;
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        CacheStatsDTO stats = stats(ReferenceDataCache.ROLES);
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void get_shouldNotKeepNullValues() {
+        AtomicInteger loads = new AtomicInteger();
+
+        referenceDataCache.get(ReferenceDataCache.ROLES, "TC", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        referenceDataCache.get(ReferenceDataCache.ROLES, "TC", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(0, stats(ReferenceDataCache.ROLES).getSize());
+    }
+
+    @Test
+    void get_shouldPropagateLoaderFailures() {
+        assertThrows(IllegalStateException.class, () -> referenceDataCache.get(ReferenceDataCache.DETAILS, 1, () -> {
+            throw new IllegalStateException("db");
+        }));
+        assertEquals(List.of(2), referenceDataCache.get(ReferenceDataCache.DETAILS, 1, () -> List.of(2)));
+    }
+
+    @Test
+    void invalidate_shouldOnlyClearTheRegion() {
+        referenceDataCache.get(ReferenceDataCache.ROLES, "SS", () -> 1);
+        referenceDataCache.get(ReferenceDataCache.DETAILS, 1, () -> List.of(2));
+
+        referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
+
+        assertEquals(0, stats(ReferenceDataCache.DETAILS).getSize());
+        assertEquals(1, stats(ReferenceDataCache.DETAILS).getInvalidations());
+        assertEquals(1, stats(ReferenceDataCache.ROLES).getSize());
+    }
+
+    @Test
+    void invalidate_shouldDiscardAValueLoadedConcurrently() {
+        List<Integer> value = referenceDataCache.get(ReferenceDataCache.DETAILS, 1, () -> {
+            referenceDataCache.invalidate(ReferenceDataCache.DETAILS);
+            return List.of(2);
+        });
+
+        assertEquals(List.of(2), value);
+        assertEquals(0, stats(ReferenceDataCache.DETAILS).getSize());
+    }
+
+    @Test
+    void invalidateAll_shouldClearEveryRegion() {
+        referenceDataCache.get(ReferenceDataCache.DETAILS, 1, () -> List.of(2));
+        referenceDataCache.get(ReferenceDataCache.ROLES, "SS", () -> 1);
+
+        referenceDataCache.invalidateAll();
+
+        for (CacheStatsDTO stats : referenceDataCache.getStats()) {
+            assertEquals(0, stats.getSize());
+            assertEquals(1, stats.getInvalidations());
+        }
+        assertEquals(2, referenceDataCache.getStats().size());
+    }
+
+    private CacheStatsDTO stats(String region) {
+        return referenceDataCache.getStats().stream()
+                .filter(stats -> stats.getRegion().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CacheStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SecondLevelCacheStatsServiceTest {
+
+    @InjectMocks
+    private SecondLevelCacheStatsService secondLevelCacheStatsService;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(sessionFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+    }
+
+    @Test
+    void getStatsShouldReturnEveryRegionSortedByName() {
+        CacheRegionStatistics sprints = regionStatistics(6, 2, 2, 2);
+        CacheRegionStatistics roles = regionStatistics(0, 0, 0, Long.MIN_VALUE);
+        CacheRegionStatistics queries = regionStatistics(3, 1, 1, 1);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"sprint", "role"});
+        when(statistics.getCacheRegionStatistics("sprint")).thenReturn(sprints);
+        when(statistics.getCacheRegionStatistics("role")).thenReturn(roles);
+        when(statistics.getQueryRegionStatistics(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME)).thenReturn(queries);
+
+        List<CacheStatsDTO> stats = secondLevelCacheStatsService.getStats();
+
+        assertEquals(3, stats.size());
+        assertEquals("role", stats.get(0).getRegion());
+        assertEquals(0, stats.get(0).getSize());
+        assertEquals(0, stats.get(0).getHitRatio());
+        assertEquals("sprint", stats.get(1).getRegion());
+        assertEquals(2, stats.get(1).getSize());
+        assertEquals(6, stats.get(1).getHits());
+        assertEquals(2, stats.get(1).getMisses());
+        assertEquals(2L, stats.get(1).getPuts());
+        assertEquals(0.75, stats.get(1).getHitRatio());
+        assertEquals(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, stats.get(2).getRegion());
+    }
+
+    @Test
+    void getStatsShouldSkipMissingQueryRegion() {
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[0]);
+
+        List<CacheStatsDTO> stats = secondLevelCacheStatsService.getStats();
+
+        assertEquals(0, stats.size());
+    }
+
+    @Test
+    void referenceCacheStatsShouldNotReportPuts() {
+        assertNull(new ReferenceDataCache().getStats().get(0).getPuts());
+    }
+
+    private static CacheRegionStatistics regionStatistics(long hits, long misses, long puts, long size) {
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(hits);
+        when(region.getMissCount()).thenReturn(misses);
+        when(region.getPutCount()).thenReturn(puts);
+        when(region.getElementCountInMemory()).thenReturn(size);
+        return region;
+    }
+}
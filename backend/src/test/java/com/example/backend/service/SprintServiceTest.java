@@ -26,6 +26,9 @@ class SprintServiceTest {
     @Mock
     private TeamGradeDao teamGradeDao;
 
+    @Mock
+    private TeamGradeAverageDao teamGradeAverageDao;
+
     @Mock
     private SprintDao sprintDao;
 
@@ -179,6 +182,7 @@ class SprintServiceTest {
         verify(feedbackDao, times(1)).deleteAll();
         verify(commentDao, times(1)).deleteAll();
         verify(teamGradeDao, times(1)).deleteAll();
+        verify(teamGradeAverageDao, times(1)).deleteAll();
     }
 
     @Test
@@ -70,6 +70,7 @@ class SubGradeServiceTest {
         SubGrade subGrade = new SubGrade();
         subGrade.setSprint(sprint);
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
 
         GradeTypes.GradeTypesEnum gradeTypeEnum = GradeTypes.GradeTypesEnum.OTPR;
         GradeTypes gradeType = new GradeTypes(gradeTypeEnum);
@@ -78,7 +79,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -95,6 +97,7 @@ class SubGradeServiceTest {
 
         SubGrade subGrade = new SubGrade();
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
         subGrade.setUser(user);
         subGrade.setGradeType(gradeType);
         subGrade.setSprint(sprint);
@@ -110,7 +113,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -129,6 +133,7 @@ class SubGradeServiceTest {
 
         SubGrade subGrade = new SubGrade();
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
         subGrade.setUser(user);
         subGrade.setGradeType(gradeType);
         subGrade.setSprint(sprint);
@@ -136,7 +141,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -155,6 +161,7 @@ class SubGradeServiceTest {
 
         SubGrade subGrade = new SubGrade();
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
 
         GradeTypes.GradeTypesEnum gradeTypeEnum = GradeTypes.GradeTypesEnum.TEBM;
         GradeTypes gradeType = new GradeTypes(gradeTypeEnum);
@@ -163,7 +170,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -182,6 +190,7 @@ class SubGradeServiceTest {
 
         SubGrade subGrade = new SubGrade();
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
 
         GradeTypes.GradeTypesEnum gradeTypeEnum = GradeTypes.GradeTypesEnum.SSBM;
         GradeTypes gradeType = new GradeTypes(gradeTypeEnum);
@@ -190,7 +199,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -209,6 +219,7 @@ class SubGradeServiceTest {
 
         SubGrade subGrade = new SubGrade();
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
 
         GradeTypes.GradeTypesEnum gradeTypeEnum = GradeTypes.GradeTypesEnum.SSPR;
         GradeTypes gradeType = new GradeTypes(gradeTypeEnum);
@@ -217,7 +228,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -236,6 +248,7 @@ class SubGradeServiceTest {
 
         SubGrade subGrade = new SubGrade();
         when(subGradeDao.save(any(SubGrade.class))).thenReturn(subGrade);
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
 
         GradeTypes.GradeTypesEnum gradeTypeEnum = GradeTypes.GradeTypesEnum.TCPR;
         GradeTypes gradeType = new GradeTypes(gradeTypeEnum);
@@ -244,7 +257,8 @@ class SubGradeServiceTest {
         SubGrade result = subGradeService.updateSubGrade(1, 1, gradeType);
 
         assertEquals(subGrade, result);
-        verify(subGradeDao, times(2)).save(any(SubGrade.class));
+        verify(subGradeDao, times(1)).insertIfAbsent(anyInt(), anyInt(), anyInt());
+        verify(subGradeDao, times(1)).save(any(SubGrade.class));
     }
 
     @Test
@@ -257,6 +271,7 @@ class SubGradeServiceTest {
         when(sprintService.getSprintById(anyInt())).thenReturn(sprint);
 
         GradeTypes gradeType = new GradeTypes();
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.of(new SubGrade()));
 
         assertThrows(IllegalArgumentException.class, () -> subGradeService.updateSubGrade(1, 1, gradeType));
     }
@@ -293,14 +308,17 @@ class SubGradeServiceTest {
 
     @Test
     void getSubGradeByUserIdAndSprintIdAndGradeTypeShouldCreateNewSubGradeWhenNoneExists() {
-        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty());
+        SubGrade subGrade = new SubGrade();
+        when(subGradeDao.findByUserIdAndSprintIdAndGradeType(anyInt(), anyInt(), any(GradeTypes.class))).thenReturn(Optional.empty()).thenReturn(Optional.of(subGrade));
 
         GradeTypes.GradeTypesEnum gradeTypeEnum = GradeTypes.GradeTypesEnum.OTPR;
         GradeTypes gradeType = new GradeTypes(gradeTypeEnum);
 
-        subGradeService.getSubGradeByUserIdAndSprintIdAndGradeType(1, 1, gradeType);
+        SubGrade result = subGradeService.getSubGradeByUserIdAndSprintIdAndGradeType(1, 1, gradeType);
 
-        verify(subGradeDao, times(1)).save(any(SubGrade.class));
+        assertEquals(subGrade, result);
+        verify(subGradeDao, times(1)).insertIfAbsent(eq(1), eq(1), anyInt());
+        verify(subGradeDao, never()).save(any(SubGrade.class));
     }
 
     @Test
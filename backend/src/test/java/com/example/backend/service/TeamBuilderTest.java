@@ -5,6 +5,7 @@ import com.example.backend.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -170,4 +171,52 @@ class TeamBuilderTest {
         assertEquals(2, teams.size());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDistributeGirlsWithUnevenTeamsTerminates() {
+        List<Integer> distribution = Arrays.asList(3, 2);
+
+        List<Integer> girlsDistribution = assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> TeamBuilder.distributeGirls(5, distribution, 1));
+
+        assertEquals(5, girlsDistribution.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(girlsDistribution.contains(3) && girlsDistribution.contains(2));
+    }
+
+    @Test
+    void testBuildTeamsWithoutPlaceForBachelorGirlsTerminates() {
+        List<User> girls = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            User user = new User();
+            user.setGender("female");
+            user.setBachelor(true);
+            user.setGradePast(10.0 + i);
+            girls.add(user);
+        }
+        Criteria criteria = new Criteria();
+        criteria.setNumberOfTeams(3);
+        criteria.setNumberOfGirls(2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1),
+                () -> assertThrows(IllegalArgumentException.class, () -> TeamBuilder.buildTeams(girls, criteria)));
+    }
+
+    @Test
+    void testBalanceTeamsStopsAfterIterationBudget() {
+        User strong = new User();
+        strong.setGradePast(20.0);
+        User weak = new User();
+        weak.setGradePast(0.0);
+        List<List<User>> teams = new ArrayList<>();
+        teams.add(new ArrayList<>(List.of(strong)));
+        teams.add(new ArrayList<>(List.of(weak)));
+        Criteria criteria = new Criteria();
+
+        List<List<User>> balancedTeams = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> TeamBuilder.balanceTeams(teams, criteria));
+
+        assertEquals(1, balancedTeams.get(0).size());
+        assertEquals(1, balancedTeams.get(1).size());
+        assertEquals(20.0, criteria.getMinAverageThreshold());
+    }
+}
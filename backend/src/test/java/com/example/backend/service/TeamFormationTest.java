@@ -0,0 +1,317 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TeamFormationReportDTO;
+import com.example.backend.model.Criteria;
+import com.example.backend.model.FormationStrategy;
+import com.example.backend.model.SubjectGrades;
+import com.example.backend.model.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamFormationTest {
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = Executors.newFixedThreadPool(TeamFormation.RESTARTS);
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void formTeams_shouldKeepSizeGirlAndBachelorQuotas() {
+        List<User> users = cohort(103, 0.3, 0.2, new Random(1));
+        Criteria criteria = criteria(12, 2);
+
+        List<List<User>> teams = TeamFormation.formTeams(users, criteria, TeamFormation.DEFAULT_BUDGET, executor).teams();
+
+        assertEquals(12, teams.size());
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int minBachelors = Integer.MAX_VALUE;
+        int maxBachelors = 0;
+        Set<User> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<User> team : teams) {
+            min = Math.min(min, team.size());
+            max = Math.max(max, team.size());
+            long girls = team.stream().filter(user -> "female".equals(user.getGender())).count();
+            assertTrue(girls >= 2);
+            long bachelors = team.stream().filter(User::isBachelor).count();
+            minBachelors = (int) Math.min(minBachelors, bachelors);
+            maxBachelors = (int) Math.max(maxBachelors, bachelors);
+            seen.addAll(team);
+        }
+        assertTrue(max - min <= 1);
+        assertTrue(maxBachelors - minBachelors <= 1);
+        assertEquals(maxBachelors, criteria.getNumberOfBachelor());
+        assertEquals(users.size(), seen.size());
+    }
+
+    @Test
+    void formTeams_shouldBalanceAveragesWithinStoredThreshold() {
+        List<User> users = cohort(60, 0.4, 0.3, new Random(2));
+        Criteria criteria = criteria(10, 2);
+
+        List<List<User>> teams = TeamFormation.formTeams(users, criteria, TeamFormation.DEFAULT_BUDGET, executor).teams();
+
+        double[] averages = new double[teams.size()];
+        for (int i = 0; i < teams.size(); i++) {
+            averages[i] = TeamBuilder.calculerMoyenne(teams.get(i));
+        }
+        assertTrue(TeamBuilder.ecartMoyennes(averages) <= criteria.getMinAverageThreshold());
+        assertTrue(criteria.getMinAverageThreshold() < 1.0);
+    }
+
+    @Test
+    void formTeams_shouldSpreadSurplusGirls() {
+        List<User> users = cohort(20, 0.8, 0.0, new Random(3));
+        Criteria criteria = criteria(4, 1);
+
+        List<List<User>> teams = TeamFormation.formTeams(users, criteria, TeamFormation.DEFAULT_BUDGET, executor).teams();
+
+        for (List<User> team : teams) {
+            long girls = team.stream().filter(user -> "female".equals(user.getGender())).count();
+            assertTrue(girls >= 3 && girls <= 5);
+        }
+    }
+
+    @Test
+    void formTeams_shouldRejectUserWithoutGrade() {
+        List<User> users = cohort(4, 0.5, 0.5, new Random(4));
+        users.get(2).setGradePast(null);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> TeamFormation.formTeams(users, criteria(2, 1), TeamFormation.DEFAULT_BUDGET, executor).teams());
+
+        assertTrue(exception.getMessage().contains("has no grade"));
+    }
+
+    @Test
+    void formTeams_shouldScaleToLargeCohorts() {
+        List<User> users = cohort(12000, 0.35, 0.25, new Random(5));
+        Criteria criteria = criteria(2000, 2);
+
+        List<List<User>> teams = assertTimeout(Duration.ofSeconds(1), () -> TeamFormation.formTeams(users, criteria, TeamFormation.DEFAULT_BUDGET, executor).teams());
+
+        assertEquals(2000, teams.size());
+        assertEquals(12000, teams.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void formTeams_shouldHandlePathologicalCohorts() {
+        double[][] ratios = {{1.0, 0.5}, {0.0, 0.5}, {0.5, 0.0}, {0.5, 1.0}, {1.0, 1.0}, {0.02, 0.98}};
+        for (double[] ratio : ratios) {
+            List<User> users = cohort(97, ratio[0], ratio[1], new Random(6));
+            Criteria criteria = criteria(9, 4);
+
+            TeamFormation.Formation formation = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                    () -> TeamFormation.formTeams(users, criteria, Duration.ofMillis(500), executor));
+
+            assertValid(users, formation, 9);
+        }
+    }
+
+    @Test
+    void formTeams_shouldBalanceEqualGradesWithoutSwapping() {
+        List<User> users = cohort(50, 0.3, 0.3, new Random(7));
+        users.forEach(user -> user.setGradePast(12.0));
+        Criteria criteria = criteria(7, 1);
+
+        TeamFormationReportDTO report = TeamFormation.formTeams(users, criteria, Duration.ofSeconds(1), executor).report();
+
+        assertEquals(0.0, report.getSpread(), 1e-9);
+        assertEquals(0, report.getSwaps());
+        assertFalse(report.isBudgetExhausted());
+        assertEquals(TeamFormation.DEFAULT_THRESHOLD, criteria.getMinAverageThreshold());
+    }
+
+    @Test
+    void formTeams_shouldReturnBestTeamsWhenBudgetIsExhausted() {
+        List<User> users = cohort(400, 0.3, 0.3, new Random(8));
+        Criteria criteria = criteria(40, 2);
+
+        TeamFormation.Formation formation = TeamFormation.formTeams(users, criteria, Duration.ZERO, executor);
+
+        assertValid(users, formation, 40);
+        assertEquals(0, formation.report().getSwaps());
+        assertTrue(formation.report().getSpread() <= criteria.getMinAverageThreshold());
+    }
+
+    @Test
+    void formTeams_shouldRejectNonPositiveNumberOfTeams() {
+        List<User> users = cohort(4, 0.5, 0.5, new Random(9));
+
+        assertThrows(IllegalArgumentException.class, () -> TeamFormation.formTeams(users, criteria(0, 1), TeamFormation.DEFAULT_BUDGET, executor).teams());
+    }
+
+    @Test
+    void formTeams_shouldTerminateOnRandomInputs() {
+        Random random = new Random(10);
+        for (int run = 0; run < 300; run++) {
+            int numberOfTeams = 1 + random.nextInt(30);
+            int size = numberOfTeams + random.nextInt(200);
+            List<User> users = cohort(size, random.nextDouble(), random.nextDouble(), random);
+            if (random.nextBoolean()) {
+                double grade = random.nextInt(21);
+                users.forEach(user -> user.setGradePast(grade));
+            }
+            Criteria criteria = criteria(numberOfTeams, random.nextInt(12) - 1);
+
+            TeamFormation.Formation formation = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                    () -> TeamFormation.formTeams(users, criteria, Duration.ofMillis(200), executor));
+
+            assertValid(users, formation, numberOfTeams);
+        }
+    }
+
+    @Test
+    void formTeams_annealingShouldKeepQuotasAndNeverDoWorseThanGreedy() {
+        List<User> users = cohort(150, 0.35, 0.3, new Random(11));
+        Criteria greedy = criteria(15, 2);
+        Criteria annealing = criteria(15, 2);
+        annealing.setStrategy(FormationStrategy.ANNEALING);
+
+        TeamFormationReportDTO greedyReport = TeamFormation.formTeams(users, greedy, Duration.ofSeconds(1), executor).report();
+        TeamFormation.Formation formation = TeamFormation.formTeams(users, annealing, Duration.ofSeconds(1), executor);
+
+        assertValid(users, formation, 15);
+        assertTrue(formation.report().getSpread() <= greedyReport.getSpread() + 1e-9);
+        assertEquals(greedyReport.getMinGirls(), formation.report().getMinGirls());
+        assertEquals(greedyReport.getMaxGirls(), formation.report().getMaxGirls());
+        assertEquals(greedyReport.getMinBachelors(), formation.report().getMinBachelors());
+        assertEquals(greedyReport.getMaxBachelors(), formation.report().getMaxBachelors());
+    }
+
+    @Test
+    void formTeams_annealingShouldRespectBudget() {
+        List<User> users = cohort(6000, 0.35, 0.25, new Random(12));
+        Criteria criteria = criteria(1000, 2);
+        criteria.setStrategy(FormationStrategy.ANNEALING);
+
+        TeamFormation.Formation formation = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> TeamFormation.formTeams(users, criteria, Duration.ofMillis(300), executor));
+
+        assertValid(users, formation, 1000);
+    }
+
+    @Test
+    void annealingRun_shouldOnlySwapStudentsOfSameCategory() {
+        double[] grades = {20, 0, 18, 2, 15, 5, 12, 8};
+        byte[] flags = {0, 0, 1, 1, 2, 2, 3, 3};
+        int[][] members = {{0, 2, 4, 6}, {1, 3, 5, 7}};
+
+        TeamAnnealing.Candidate candidate = TeamAnnealing.run(grades, flags, members, 0.1, System.nanoTime() + 1_000_000_000L, 1);
+
+        for (int[] team : candidate.members()) {
+            byte[] teamFlags = new byte[team.length];
+            for (int k = 0; k < team.length; k++) {
+                teamFlags[k] = flags[team[k]];
+            }
+            Arrays.sort(teamFlags);
+            assertArrayEquals(new byte[]{0, 1, 2, 3}, teamFlags);
+        }
+        assertTrue(candidate.balance().spread() < 20.0);
+    }
+
+    @Test
+    void formTeams_multiDimensionalShouldBalanceEverySubject() {
+        Random random = new Random(13);
+        List<User> users = cohort(120, 0.35, 0.25, random);
+        for (User user : users) {
+            SubjectGrades grades = new SubjectGrades();
+            grades.setPadl(random.nextDouble() * 20);
+            grades.setPdlo(random.nextDouble() * 20);
+            grades.setPwnd(random.nextDouble() * 20);
+            grades.setIrs(random.nextDouble() * 20);
+            grades.setStages7(random.nextDouble() * 20);
+            grades.setS5(random.nextDouble() * 20);
+            grades.setS6(random.nextBoolean() ? null : random.nextDouble() * 20);
+            user.setSubjectGrades(grades);
+        }
+        Criteria greedy = criteria(12, 2);
+        Criteria multi = criteria(12, 2);
+        multi.setStrategy(FormationStrategy.MULTI_DIMENSIONAL);
+
+        TeamFormation.Formation greedyFormation = TeamFormation.formTeams(users, greedy, Duration.ofSeconds(1), executor);
+        TeamFormation.Formation formation = TeamFormation.formTeams(users, multi, Duration.ofSeconds(1), executor);
+
+        assertValid(users, formation, 12);
+        List<Double> spreads = formation.report().getDimensionSpreads();
+        assertEquals(1 + SubjectGrades.DIMENSIONS, spreads.size());
+        assertEquals(formation.report().getSpread(), spreads.get(0), 1e-9);
+        Double[][] rows = TeamFormation.gradeVectors(users);
+        double greedyWorst = 0;
+        double worst = 0;
+        for (int d = 1; d <= SubjectGrades.DIMENSIONS; d++) {
+            greedyWorst = Math.max(greedyWorst, spreadOf(greedyFormation.teams(), users, TeamVectorBalancing.column(rows, d)));
+            worst = Math.max(worst, spreads.get(d));
+        }
+        assertTrue(worst < greedyWorst);
+    }
+
+    @Test
+    void standardize_shouldImputeMissingValuesAndZeroConstantDimensions() {
+        Double[][] rows = {{10.0, 5.0, null}, {14.0, 5.0, 2.0}, {12.0, 5.0, 4.0}};
+
+        double[][] vectors = TeamVectorBalancing.standardize(rows, 3);
+
+        assertEquals(0.0, vectors[0][0] + vectors[1][0] + vectors[2][0], 1e-9);
+        assertTrue(vectors[1][0] > 0 && vectors[0][0] < 0);
+        for (double[] vector : vectors) {
+            assertEquals(0.0, vector[1]);
+        }
+        assertEquals(0.0, vectors[0][2], 1e-9);
+    }
+
+    private static double spreadOf(List<List<User>> teams, List<User> users, double[] values) {
+        Map<User, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            index.put(users.get(i), i);
+        }
+        int[][] members = new int[teams.size()][];
+        for (int t = 0; t < teams.size(); t++) {
+            members[t] = teams.get(t).stream().mapToInt(index::get).toArray();
+        }
+        return TeamVectorBalancing.spread(values, members);
+    }
+
+    private static void assertValid(List<User> users, TeamFormation.Formation formation, int numberOfTeams) {
+        TeamFormationReportDTO report = formation.report();
+        assertEquals(numberOfTeams, formation.teams().size());
+        assertEquals(users.size(), formation.teams().stream().mapToInt(List::size).sum());
+        assertEquals(users.size(), report.getNumberOfStudents());
+        assertTrue(report.getMaxTeamSize() - report.getMinTeamSize() <= 1);
+        assertTrue(report.getSpread() <= report.getThreshold() + 1e-9);
+    }
+
+    private static Criteria criteria(int numberOfTeams, int numberOfGirls) {
+        Criteria criteria = new Criteria();
+        criteria.setNumberOfTeams(numberOfTeams);
+        criteria.setNumberOfGirls(numberOfGirls);
+        return criteria;
+    }
+
+    private static List<User> cohort(int size, double femaleRatio, double bachelorRatio, Random random) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setEmail("student" + i + "@test.fr");
+            user.setGender(random.nextDouble() < femaleRatio ? "female" : "male");
+            user.setBachelor(random.nextDouble() < bachelorRatio);
+            user.setGradePast(Math.round(random.nextDouble() * 2000) / 100.0);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.TeamGradeFromStudentDao;
+import com.example.backend.model.GradeTypes;
 import com.example.backend.model.TeamGradeFromStudent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,9 @@ class TeamGradeFromStudentServiceTest {
     @Mock
     private SprintService sprintService;
 
+    @Mock
+    private GradeStalenessService gradeStalenessService;
+
 
     @BeforeEach
     void setup() {
@@ -70,12 +74,12 @@ class TeamGradeFromStudentServiceTest {
         int sprintId = 3;
         int grade = 85;
 
-        when(teamGradeFromStudentDao.findByTeamNotingIdAndTeamToNoteIdAndSprintId(anyInt(), anyInt(), anyInt()))
-                .thenReturn(Optional.of(new TeamGradeFromStudent()));
-
         teamGradeFromStudentService.updateTeamGradeFromStudent(teamNotingId, teamToNoteId, sprintId, grade);
 
-        verify(teamGradeFromStudentDao, times(1)).save(any(TeamGradeFromStudent.class));
+        verify(teamGradeFromStudentDao, times(1)).upsert(teamNotingId, teamToNoteId, sprintId, grade);
+        verify(teamGradeFromStudentDao, never()).findByTeamNotingIdAndTeamToNoteIdAndSprintId(anyInt(), anyInt(), anyInt());
+        verify(teamGradeFromStudentDao, never()).save(any(TeamGradeFromStudent.class));
+        verify(gradeStalenessService, times(1)).markTeamStale(teamToNoteId, sprintId, GradeTypes.GradeTypesEnum.OTPR.getId());
     }
 
     @Test
@@ -85,12 +89,12 @@ class TeamGradeFromStudentServiceTest {
         int sprintId = 3;
         int grade = 85;
 
-        when(teamGradeFromStudentDao.findByTeamNotingIdAndTeamToNoteIdAndSprintId(anyInt(), anyInt(), anyInt()))
-                .thenThrow(new RuntimeException());
+        when(teamGradeFromStudentDao.upsert(anyInt(), anyInt(), anyInt(), anyInt())).thenThrow(new RuntimeException());
 
-        teamGradeFromStudentService.updateTeamGradeFromStudent(teamNotingId, teamToNoteId, sprintId, grade);
+        assertThrows(RuntimeException.class,
+                () -> teamGradeFromStudentService.updateTeamGradeFromStudent(teamNotingId, teamToNoteId, sprintId, grade));
 
-        verify(teamGradeFromStudentDao, times(1)).save(any(TeamGradeFromStudent.class));
+        verifyNoInteractions(gradeStalenessService);
     }
 
     @Test
@@ -1,16 +1,24 @@
 package com.example.backend.service;
 
+import com.example.backend.dao.TeamGradeAverageDao;
 import com.example.backend.dao.TeamGradeDao;
+import com.example.backend.dto.TeamGradeBatchDTO;
+import com.example.backend.dto.TeamGradeEntryDTO;
 import com.example.backend.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,6 +44,12 @@ class TeamGradeServiceTest {
     @Mock
     private TeamService teamService;
 
+    @Mock
+    private GradeStalenessService gradeStalenessService;
+
+    @Mock
+    private TeamGradeAverageDao teamGradeAverageDao;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -81,66 +95,244 @@ class TeamGradeServiceTest {
         int evaluatorId = 1;
         Double grade = 85.0;
 
-        when(teamGradeDao.findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(anyInt(), anyInt(), anyInt(), anyInt()))
-                .thenReturn(Optional.of(new TeamGrade()));
+        Category category = new Category();
+        category.setId(4);
+        Detail detail = new Detail();
+        detail.setMark(100);
+        detail.setCategory(category);
+        when(detailService.getDetailById(detailId)).thenReturn(detail);
 
         teamGradeService.updateTeamGrade(teamId,sprintId, detailId, evaluatorId, grade);
 
-        verify(teamGradeDao, times(1)).save(any(TeamGrade.class));
+        verify(teamGradeDao, times(1)).upsert(teamId, sprintId, detailId, evaluatorId, grade);
+        verify(teamGradeDao, never()).save(any(TeamGrade.class));
+        verify(gradeStalenessService, times(1)).markTeamStale(teamId, sprintId, 4);
     }
 
     @Test
-    void updateTeamGradeShouldCallSaveTeamGradeWhenNoTeamGradeFound() {
+    void updateTeamGradeShouldUpsertWithoutLoadingEntitiesWhenNoTeamGradeFound() {
         int teamId = 1;
         int sprintId = 1;
         int detailId = 2;
         int evaluatorId = 1;
         Double grade = 85.0;
 
-        when(teamGradeDao.findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(anyInt(), anyInt(), anyInt(), anyInt()))
-                .thenThrow(new RuntimeException());
+        when(detailService.getDetailById(detailId)).thenReturn(new Detail());
 
         teamGradeService.updateTeamGrade(teamId, sprintId, detailId, evaluatorId, grade);
 
-        verify(teamGradeDao, times(1)).findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(anyInt(), anyInt(), anyInt(), anyInt());
+        verify(teamGradeDao, times(1)).upsert(teamId, sprintId, detailId, evaluatorId, grade);
+        verifyNoInteractions(teamService, sprintService, userService);
+        verify(gradeStalenessService, times(1)).markTeamStale(teamId, sprintId);
     }
 
     @Test
-    void getTeamGradeByCategoryId_shouldCallDetailServiceAndTeamGradeDao_andReturnListOfTeamGrades() {
-        int categoryId = 1;
-        int sprintId = 1;
-        int teamId = 1;
-        int evaluatorId = 1;
+    void getAverageTeamGradeByCategoryId_shouldReadAggregate() {
+        TeamGradeAverage average = new TeamGradeAverage(1, 2, 3, 4);
+        average.setSum(30.0);
+        average.setCount(2);
+        when(teamGradeAverageDao.findByTeamIdAndSprintIdAndCategoryIdAndEvaluatorId(1, 2, 3, 4)).thenReturn(Optional.of(average));
 
-        Detail detail1 = new Detail();
-        detail1.setId(1);
-        Detail detail2 = new Detail();
-        detail2.setId(2);
+        Double result = teamGradeService.getAverageTeamGradeByCategoryId(3, 2, 1, 4);
 
-        List<Detail> details = Arrays.asList(detail1, detail2);
+        assertEquals(15.0, result);
+        verify(detailService, never()).getDetailsByCategoryId(anyInt());
+        verify(teamGradeDao, never()).findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(anyInt(), anyInt(), anyInt(), anyInt());
+    }
 
-        TeamGrade teamGrade1 = new TeamGrade();
-        teamGrade1.setDetail(detail1);
-        teamGrade1.setGrade(10.0);
-        TeamGrade teamGrade2 = new TeamGrade();
-        teamGrade2.setDetail(detail2);
-        teamGrade2.setGrade(10.0);
+    @Test
+    void getAverageTeamGradeByCategoryId_shouldReturnNullWithoutGrades() {
+        when(teamGradeAverageDao.findByTeamIdAndSprintIdAndCategoryIdAndEvaluatorId(1, 2, 3, 4)).thenReturn(Optional.empty());
 
-        when(detailService.getDetailsByCategoryId(categoryId)).thenReturn(details);
-        when(teamGradeDao.findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(teamId, sprintId, detail1.getId(),evaluatorId)).thenReturn(Optional.of(teamGrade1));
-        when(teamGradeDao.findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(teamId, sprintId, detail2.getId(),evaluatorId)).thenReturn(Optional.of(teamGrade2));
+        assertNull(teamGradeService.getAverageTeamGradeByCategoryId(3, 2, 1, 4));
+    }
 
-        teamGradeService.getAverageTeamGradeByCategoryId(categoryId, sprintId, teamId, evaluatorId);
+    @Test
+    void updateTeamGrade_shouldLockAggregateBeforeWritingThenRecomputeIt() {
+        Detail detail = detail(3, 10);
+        when(detailService.getDetailById(detail.getId())).thenReturn(detail);
+
+        teamGradeService.updateTeamGrade(1, 2, detail.getId(), 4, 8.0);
 
-        verify(detailService, times(1)).getDetailsByCategoryId(categoryId);
-        verify(teamGradeDao, times(1)).findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(teamId, sprintId, detail1.getId(), evaluatorId);
-        verify(teamGradeDao, times(1)).findByTeamIdAndSprintIdAndDetailIdAndEvaluatorId(teamId, sprintId, detail2.getId(), evaluatorId);
+        InOrder inOrder = inOrder(teamGradeAverageDao, teamGradeDao);
+        inOrder.verify(teamGradeAverageDao).lockAll(argThat(averages -> isAverage(averages, 1, 2, 3, 4)));
+        inOrder.verify(teamGradeDao).upsert(1, 2, detail.getId(), 4, 8.0);
+        inOrder.verify(teamGradeAverageDao).recomputeAll(argThat(averages -> isAverage(averages, 1, 2, 3, 4)));
+        verify(teamGradeAverageDao, never()).save(any(TeamGradeAverage.class));
+    }
+
+    @Test
+    void saveTeamGrade_shouldLockAggregateBeforeWritingThenRecomputeIt() {
+        Detail detail = detail(3, 10);
+        when(detailService.getDetailById(detail.getId())).thenReturn(detail);
+
+        teamGradeService.saveTeamGrade(1, 2, detail.getId(), 4, 5.0);
+
+        InOrder inOrder = inOrder(teamGradeAverageDao, teamGradeDao);
+        inOrder.verify(teamGradeAverageDao).lockAll(argThat(averages -> isAverage(averages, 1, 2, 3, 4)));
+        inOrder.verify(teamGradeDao).save(any(TeamGrade.class));
+        inOrder.verify(teamGradeAverageDao).recomputeAll(argThat(averages -> isAverage(averages, 1, 2, 3, 4)));
+    }
+
+    @Test
+    void updateTeamGrade_shouldNotTouchAggregatesOfDetailWithoutCategory() {
+        when(detailService.getDetailById(2)).thenReturn(new Detail());
+
+        teamGradeService.updateTeamGrade(1, 2, 2, 4, 8.0);
+
+        verify(teamGradeAverageDao, times(1)).lockAll(List.of());
+        verify(teamGradeAverageDao, times(1)).recomputeAll(List.of());
+    }
+
+    @Test
+    void initAverages_shouldRebuildAggregatesFromTeamGrades() {
+        Detail detail = detail(3, 10);
+        Team team = new Team();
+        team.setId(1);
+        Sprint sprint = new Sprint();
+        sprint.setId(2);
+        User evaluator = new User();
+        evaluator.setId(4);
+        TeamGrade first = teamGrade(team, sprint, evaluator, detail, 5.0);
+        TeamGrade second = teamGrade(team, sprint, evaluator, detail, 10.0);
+        when(teamGradeAverageDao.count()).thenReturn(0L);
+        when(teamGradeDao.count()).thenReturn(2L);
+        when(teamGradeDao.findAll()).thenReturn(List.of(first, second));
+
+        teamGradeService.initAverages();
+
+        verify(teamGradeAverageDao, times(1)).saveAll(argThat(averages -> {
+            TeamGradeAverage average = averages.iterator().next();
+            return average.getSum() == 30.0 && average.getCount() == 2;
+        }));
+    }
+
+    @Test
+    void initAverages_shouldKeepExistingAggregates() {
+        when(teamGradeAverageDao.count()).thenReturn(3L);
+
+        teamGradeService.initAverages();
+
+        verify(teamGradeDao, never()).findAll();
+    }
+
+    @Test
+    void updateTeamGrades_shouldUpsertWholeSheetAndMarkTeamsStaleOnce() {
+        Team team1 = new Team();
+        team1.setId(1);
+        Team team2 = new Team();
+        team2.setId(2);
+        Detail detail = detail(GradeTypes.GradeTypesEnum.TESO.getId(), 10);
+        Sprint sprint = new Sprint();
+        User evaluator = new User();
+        when(detailService.getDetailsByIds(any())).thenReturn(List.of(detail));
+        when(teamService.getAllTeams()).thenReturn(List.of(team1, team2));
+        when(sprintService.getSprintById(3)).thenReturn(sprint);
+        when(userService.getUserById(4)).thenReturn(evaluator);
+
+        teamGradeService.updateTeamGrades(batch(entry(1, 7, 8.0), entry(2, 7, 10.0), entry(1, 7, 9.0)));
+
+        int categoryId = GradeTypes.GradeTypesEnum.TESO.getId();
+        InOrder inOrder = inOrder(teamGradeAverageDao, teamGradeDao);
+        inOrder.verify(teamGradeAverageDao).lockAll(argThat(averages -> averages.size() == 2));
+        inOrder.verify(teamGradeDao).upsertAll(argThat((Collection<TeamGrade> grades) -> grades.size() == 2));
+        inOrder.verify(teamGradeAverageDao).recomputeAll(argThat(averages -> averages.size() == 2
+                && averages.stream().allMatch(average -> average.getSprintId() == 3 && average.getCategoryId() == categoryId && average.getEvaluatorId() == 4)
+                && averages.stream().map(TeamGradeAverage::getTeamId).collect(Collectors.toSet()).equals(Set.of(1, 2))));
+        verify(teamGradeDao, never()).saveAll(any());
+        verify(teamGradeDao, never()).save(any());
+        verify(gradeStalenessService, times(1)).markTeamsStale(Set.of(1, 2), 3, GradeTypes.GradeTypesEnum.TESO.getId());
+    }
+
+    @Test
+    void updateTeamGrades_shouldRejectWholeSheetWhenGradeExceedsMark() {
+        Team team = new Team();
+        team.setId(1);
+        when(detailService.getDetailsByIds(any())).thenReturn(List.of(detail(1, 10)));
+        when(teamService.getAllTeams()).thenReturn(List.of(team));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> teamGradeService.updateTeamGrades(batch(entry(1, 7, 8.0), entry(1, 7, 12.0))));
+
+        verify(teamGradeDao, never()).upsertAll(any());
+        verifyNoInteractions(gradeStalenessService);
+    }
+
+    @Test
+    void updateTeamGrades_shouldRejectDetailOutsideGradeScale() {
+        Team team = new Team();
+        team.setId(1);
+        GradeScale gradeScale = new GradeScale();
+        gradeScale.setId(2);
+        Detail detail = detail(1, 10);
+        detail.getCategory().setGradeScale(gradeScale);
+        when(detailService.getDetailsByIds(any())).thenReturn(List.of(detail));
+        when(teamService.getAllTeams()).thenReturn(List.of(team));
+        TeamGradeBatchDTO batch = batch(entry(1, 7, 8.0));
+        batch.setGradeScaleId(5);
+
+        assertThrows(IllegalArgumentException.class, () -> teamGradeService.updateTeamGrades(batch));
+        verify(teamGradeDao, never()).upsertAll(any());
+    }
+
+    @Test
+    void updateTeamGrades_shouldRejectUnknownDetail() {
+        when(detailService.getDetailsByIds(any())).thenReturn(new ArrayList<>());
+        when(teamService.getAllTeams()).thenReturn(List.of(new Team()));
+
+        assertThrows(IllegalArgumentException.class, () -> teamGradeService.updateTeamGrades(batch(entry(0, 7, 1.0))));
     }
 
     @Test
     void deleteAllShouldCallDeleteAllInTeamGradeDao() {
         teamGradeService.deleteAll();
         verify(teamGradeDao, times(1)).deleteAll();
+        verify(teamGradeAverageDao, times(1)).deleteAll();
+    }
+
+    private static Detail detail(int categoryId, int mark) {
+        Category category = new Category();
+        category.setId(categoryId);
+        Detail detail = new Detail();
+        detail.setId(7);
+        detail.setMark(mark);
+        detail.setCategory(category);
+        return detail;
+    }
+
+    private static TeamGradeEntryDTO entry(int teamId, int detailId, Double grade) {
+        TeamGradeEntryDTO entry = new TeamGradeEntryDTO();
+        entry.setTeamId(teamId);
+        entry.setDetailId(detailId);
+        entry.setGrade(grade);
+        return entry;
+    }
+
+    private static TeamGradeBatchDTO batch(TeamGradeEntryDTO... entries) {
+        TeamGradeBatchDTO batch = new TeamGradeBatchDTO();
+        batch.setSprintId(3);
+        batch.setEvaluatorId(4);
+        batch.setGrades(List.of(entries));
+        return batch;
     }
 
-}
\ No newline at end of file
+    private static TeamGrade teamGrade(Team team, Sprint sprint, User evaluator, Detail detail, Double grade) {
+        TeamGrade teamGrade = new TeamGrade();
+        teamGrade.setTeam(team);
+        teamGrade.setSprint(sprint);
+        teamGrade.setEvaluator(evaluator);
+        teamGrade.setDetail(detail);
+        teamGrade.setGrade(grade);
+        return teamGrade;
+    }
+
+
+    private static boolean isAverage(Collection<TeamGradeAverage> averages, int teamId, int sprintId, int categoryId, int evaluatorId) {
+        if (averages.size() != 1) {
+            return false;
+        }
+        TeamGradeAverage average = averages.iterator().next();
+        return average.getTeamId() == teamId && average.getSprintId() == sprintId
+                && average.getCategoryId() == categoryId && average.getEvaluatorId() == evaluatorId;
+    }
+}
@@ -69,16 +69,17 @@ class TeamOrderServiceTest {
     }
 
     @Test
-    void testUpdateTeamOrderException() {
+    void testUpdateTeamOrderCreatesMissingOrder() {
         int teamId = 1;
         int sprintId = 2;
         List<Integer> userIds = Arrays.asList(1, 2, 3);
 
         when(teamOrderDao.findByTeamIdAndSprintId(anyInt(), anyInt()))
-                .thenThrow(new RuntimeException());
+                .thenReturn(Optional.empty()).thenReturn(Optional.of(new TeamOrder()));
 
         teamOrderService.updateTeamOrder(teamId, sprintId, userIds);
 
+        verify(teamOrderDao, times(1)).insertIfAbsent(teamId, sprintId);
         verify(teamOrderDao, times(1)).save(any(TeamOrder.class));
     }
 
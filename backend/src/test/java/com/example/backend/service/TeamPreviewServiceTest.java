@@ -0,0 +1,134 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TeamDTO;
+import com.example.backend.dto.TeamPreviewDTO;
+import com.example.backend.dto.UserInteract;
+import com.example.backend.model.Criteria;
+import com.example.backend.model.Team;
+import com.example.backend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TeamPreviewServiceTest {
+
+    private TeamPreviewService teamPreviewService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TeamService teamService;
+
+    private final Map<String, User> students = new HashMap<>();
+    private final List<User> teachers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        teamPreviewService = new TeamPreviewService(userService, teamService, Runnable::run);
+        for (int i = 0; i < 8; i++) {
+            User student = new User();
+            student.setId(i + 1);
+            student.setEmail("student" + i + "@test.fr");
+            student.setGender(i % 3 == 0 ? "female" : "male");
+            student.setBachelor(i % 4 == 0);
+            student.setGradePast(8.0 + i);
+            students.put(student.getEmail(), student);
+        }
+        for (int i = 0; i < 2; i++) {
+            User teacher = new User();
+            teacher.setId(100 + i);
+            teacher.setEmail("teacher" + i + "@test.fr");
+            teachers.add(teacher);
+        }
+        when(userService.getStudentSnapshot()).thenReturn(students);
+        when(userService.getTeachers()).thenReturn(teachers);
+    }
+
+    @Test
+    void preview_shouldFormTeamsWithoutWriting() {
+        TeamPreviewDTO preview = teamPreviewService.preview(parameters());
+
+        assertNotNull(preview.getId());
+        assertEquals(2, preview.getTeams().size());
+        assertEquals("Alpha", preview.getTeams().get(0).getName());
+        assertEquals("Team 2", preview.getTeams().get(1).getName());
+        assertEquals(8, preview.getTeams().stream().mapToInt(team -> team.getUsers().size()).sum());
+        assertEquals("teacher0@test.fr", preview.getTeams().get(0).getSupervisor().getEmail());
+        assertEquals(8, preview.getReport().getNumberOfStudents());
+        verify(userService, never()).userInteractToUser(any());
+        verify(teamService, never()).materializeTeams(any(), anyList(), anyList(), anyList());
+    }
+
+    @Test
+    void preview_shouldRejectUnknownStudent() {
+        TeamDTO parameters = parameters();
+        UserInteract unknown = new UserInteract();
+        unknown.setEmail("unknown@test.fr");
+        parameters.getStudents().add(unknown);
+
+        assertThrows(IllegalArgumentException.class, () -> teamPreviewService.preview(parameters));
+    }
+
+    @Test
+    void commit_shouldMaterializeTeamsOnce() {
+        TeamPreviewDTO preview = teamPreviewService.preview(parameters());
+        when(teamService.materializeTeams(any(Criteria.class), anyList(), anyList(), anyList())).thenReturn(List.of(new Team(), new Team()));
+
+        List<Team> teams = teamPreviewService.commit(preview.getId());
+
+        assertEquals(2, teams.size());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<List<User>>> members = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> supervisors = ArgumentCaptor.forClass(List.class);
+        verify(teamService, times(1)).materializeTeams(any(Criteria.class), eq(List.of("Alpha", "Team 2")), members.capture(), supervisors.capture());
+        assertEquals(8, members.getValue().stream().mapToInt(List::size).sum());
+        assertEquals(teachers, supervisors.getValue());
+        verify(userService, never()).updateUser(any());
+        assertThrows(NoSuchElementException.class, () -> teamPreviewService.commit(preview.getId()));
+    }
+
+    @Test
+    void commit_shouldKeepPreviewWhenPersistenceFails() {
+        TeamPreviewDTO preview = teamPreviewService.preview(parameters());
+        when(teamService.materializeTeams(any(Criteria.class), anyList(), anyList(), anyList())).thenThrow(new RuntimeException("db"));
+
+        assertThrows(RuntimeException.class, () -> teamPreviewService.commit(preview.getId()));
+
+        reset(teamService);
+        when(teamService.materializeTeams(any(Criteria.class), anyList(), anyList(), anyList())).thenReturn(List.of(new Team(), new Team()));
+        assertEquals(2, teamPreviewService.commit(preview.getId()).size());
+    }
+
+    private TeamDTO parameters() {
+        TeamDTO parameters = new TeamDTO();
+        List<UserInteract> studentList = new ArrayList<>();
+        for (User student : students.values()) {
+            UserInteract userInteract = new UserInteract();
+            userInteract.setEmail(student.getEmail());
+            studentList.add(userInteract);
+        }
+        List<UserInteract> teacherList = new ArrayList<>();
+        for (User teacher : teachers) {
+            UserInteract userInteract = new UserInteract();
+            userInteract.setEmail(teacher.getEmail());
+            teacherList.add(userInteract);
+        }
+        parameters.setStudents(studentList);
+        parameters.setTeachers(teacherList);
+        parameters.setNames(new String[]{"Alpha"});
+        parameters.setNumberOfTeams(2);
+        parameters.setNumberOfGirlsPerTeam(1);
+        return parameters;
+    }
+}
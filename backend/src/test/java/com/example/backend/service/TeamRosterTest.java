@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.TeamDao;
+import com.example.backend.dao.UserTeamDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TeamRosterTest {
+
+    @InjectMocks
+    private TeamRoster teamRoster;
+
+    @Mock
+    private TeamDao teamDao;
+
+    @Mock
+    private UserTeamDao userTeamDao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(teamDao.findAllIdsAndSupervisorIds()).thenReturn(List.of(
+                new Object[]{1, 100},
+                new Object[]{2, null}));
+        when(userTeamDao.findAllTeamAndUserIds()).thenReturn(List.of(
+                new Object[]{1, 10},
+                new Object[]{1, 11},
+                new Object[]{2, 12}));
+    }
+
+    @Test
+    void lookups_shouldUseTheLoadedIndex() {
+        assertTrue(teamRoster.containsTeam(2));
+        assertFalse(teamRoster.containsTeam(3));
+        assertTrue(teamRoster.isMember(11, 1));
+        assertFalse(teamRoster.isMember(12, 1));
+        assertEquals(2, teamRoster.getTeamId(12));
+        assertNull(teamRoster.getTeamId(99));
+        assertEquals(List.of(10, 11), teamRoster.getMemberIds(1));
+        assertTrue(teamRoster.getMemberIds(3).isEmpty());
+        assertEquals(100, teamRoster.getSupervisorId(1));
+        assertNull(teamRoster.getSupervisorId(2));
+        assertEquals(Set.of(100), teamRoster.getSupervisorIds());
+        assertEquals(List.of(1, 2), teamRoster.getTeamIds());
+    }
+
+    @Test
+    void lookups_shouldLoadTheIndexOnce() {
+        for (int i = 0; i < 10; i++) {
+            teamRoster.isMember(10, 1);
+            teamRoster.getMemberIds(2);
+        }
+
+        verify(teamDao, times(1)).findAllIdsAndSupervisorIds();
+        verify(userTeamDao, times(1)).findAllTeamAndUserIds();
+    }
+
+    @Test
+    void invalidate_shouldReloadOnNextLookup() {
+        assertTrue(teamRoster.isMember(10, 1));
+        when(userTeamDao.findAllTeamAndUserIds()).thenReturn(List.<Object[]>of(new Object[]{2, 10}));
+
+        teamRoster.invalidate();
+
+        assertFalse(teamRoster.isMember(10, 1));
+        assertTrue(teamRoster.isMember(10, 2));
+        verify(userTeamDao, times(2)).findAllTeamAndUserIds();
+    }
+}
@@ -5,24 +5,28 @@ import com.example.backend.dto.TeamDTO;
 import com.example.backend.dto.TeamSendDTO;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.model.Criteria;
+import com.example.backend.model.FormationStrategy;
 import com.example.backend.model.Team;
 import com.example.backend.model.User;
 import com.example.backend.model.UserTeam;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class TeamServiceTest {
 
-    @InjectMocks
     private TeamService teamService;
 
     @Mock
@@ -41,10 +45,17 @@ class TeamServiceTest {
     @Mock
     private CleanupService cleanupService;
 
+    @Mock
+    private TeamRoster teamRoster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void init() {
         MockitoAnnotations.openMocks(this);
-
+        teamService = new TeamService(userService, criteriaService, teamDao, userTeamDao, cleanupService, teamRoster, Runnable::run,
+                new TransactionTemplate(transactionManager));
     }
 
     @Test
@@ -112,6 +123,69 @@ class TeamServiceTest {
 
         // Verify the result
         assertEquals(numberOfTeams, result.size());
+        assertEquals(3, teamService.getLastFormationReport().getNumberOfStudents());
+        assertEquals(numberOfTeams, teamService.getLastFormationReport().getNumberOfTeams());
+    }
+
+    @Test
+    void testCreateTeamsWithAnnealingStrategy() {
+        List<User> users = new ArrayList<>();
+        List<User> teachers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            User user = new User();
+            user.setGender(i % 3 == 0 ? "female" : "male");
+            user.setBachelor(i % 4 == 0);
+            user.setGradePast(10.0 + i);
+            users.add(user);
+        }
+        teachers.add(new User());
+        teachers.add(new User());
+        when(teamDao.save(any(Team.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(criteriaService.save(any(Criteria.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        List<Team> result = teamService.createTeams(users, teachers, new String[]{"Team 1", "Team 2"}, 2, 1, FormationStrategy.ANNEALING, 200);
+
+        assertEquals(2, result.size());
+        assertEquals(FormationStrategy.ANNEALING, result.get(0).getCriteria().getStrategy());
+        assertEquals(8, teamService.getLastFormationReport().getNumberOfStudents());
+    }
+
+    @Test
+    void testCreateTeamsFormsTeamsBeforeOpeningTheTransaction() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User user = new User();
+            user.setId(i + 1);
+            user.setGender(i % 2 == 0 ? "female" : "male");
+            user.setGradePast(10.0 + i);
+            users.add(user);
+        }
+        List<Runnable> searches = new ArrayList<>();
+        teamService = new TeamService(userService, criteriaService, teamDao, userTeamDao, cleanupService, teamRoster, command -> {
+            verifyNoInteractions(transactionManager);
+            searches.add(command);
+            command.run();
+        }, new TransactionTemplate(transactionManager));
+
+        teamService.createTeams(users, Arrays.asList(new User(), new User()), null, 2, 1, FormationStrategy.ANNEALING, 200);
+
+        assertFalse(searches.isEmpty());
+        InOrder inOrder = inOrder(transactionManager, criteriaService, teamDao, userTeamDao);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(criteriaService).save(any(Criteria.class));
+        inOrder.verify(teamDao).insertAll(anyList());
+        inOrder.verify(userTeamDao).insertAll(anyList());
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testCreateTeamsDoesNotOpenTransactionForInvalidCohort() {
+        List<User> users = new ArrayList<>();
+        List<User> teachers = new ArrayList<>();
+
+        assertThrows(IllegalArgumentException.class, () -> teamService.createTeams(users, teachers, null, 2, 1));
+
+        verifyNoInteractions(transactionManager);
     }
 
     @Test
@@ -224,6 +298,7 @@ class TeamServiceTest {
     @Test
     void testCreateTeamsUserExists() {
         User user = new User();
+        user.setId(7);
         user.setEmail("test@example.com");
         user.setGender("female");
         user.setGradePast(90.0);
@@ -234,14 +309,42 @@ class TeamServiceTest {
         int numberOfTeams = 1;
         int numberOfGirlsPerTeam = 1;
 
-        when(userService.existsByEmail(user.getEmail())).thenReturn(true);
-        when(userService.loadUserByEmail(user.getEmail())).thenReturn(user);
-
         List<Team> teams = teamService.createTeams(users, teachers, nameOfTeams, numberOfTeams, numberOfGirlsPerTeam);
 
         assertEquals(numberOfTeams, teams.size());
-        verify(userService, times(1)).existsByEmail(user.getEmail());
-        verify(userService, times(1)).loadUserByEmail(user.getEmail());
+        assertTrue(teams.get(0).getUsers().contains(user));
+        verify(userService, never()).existsByEmail(anyString());
+        verify(userService, never()).loadUserByEmail(anyString());
+    }
+
+    @Test
+    void testCreateTeamsBatchesInserts() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            User user = new User();
+            user.setId(i + 1);
+            user.setGender(i % 3 == 0 ? "female" : "male");
+            user.setGradePast(10.0 + i);
+            users.add(user);
+        }
+        User unsaved = new User();
+        unsaved.setGender("male");
+        unsaved.setGradePast(12.0);
+        users.add(unsaved);
+        List<User> teachers = Arrays.asList(new User(), new User(), new User());
+
+        List<Team> teams = teamService.createTeams(users, teachers, null, 3, 1);
+
+        verify(criteriaService, times(1)).save(any(Criteria.class));
+        verify(teamDao, times(1)).insertAll(teams);
+        verify(teamDao, never()).save(any(Team.class));
+        verify(userService, never()).updateUser(any(User.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UserTeam>> memberships = ArgumentCaptor.forClass(Collection.class);
+        verify(userTeamDao, times(1)).insertAll(memberships.capture());
+        assertEquals(12, memberships.getValue().size());
+        assertEquals(teachers.get(2), teams.get(2).getSupervisor());
+        assertEquals("Team 3", teams.get(2).getName());
     }
 
     @Test
@@ -266,6 +369,7 @@ class TeamServiceTest {
         assertNotNull(addedUser);
         assertEquals(user.getId(), addedUser.getId());
         assertTrue(team.getUsers().contains(addedUser));
+        verify(teamRoster, times(1)).invalidate();
     }
 
     @Test
@@ -305,39 +409,31 @@ class TeamServiceTest {
     @Test
     void testGetTeamByUserId_Success() {
         // Prepare test data
-        User user = new User();
-        user.setId(1);
-        user.setEmail("test@example.com");
-
         Team team = new Team();
         team.setId(1);
         team.setName("Test Team");
 
-        UserTeam userTeam = new UserTeam(user, team);
-
-        // Define the behavior of userService and userTeamDao
-        when(userService.getUserById(user.getId())).thenReturn(user);
-        when(userTeamDao.findByUser(user)).thenReturn(Optional.of(userTeam));
+        // Define the behavior of the roster and teamDao
+        when(teamRoster.getTeamId(1)).thenReturn(team.getId());
+        when(teamDao.findById(team.getId())).thenReturn(Optional.of(team));
 
         // Call the method under test
-        Team result = teamService.getTeamByUserId(user.getId());
+        Team result = teamService.getTeamByUserId(1);
 
         // Verify the result
         assertNotNull(result);
         assertEquals(team.getId(), result.getId());
         assertEquals(team.getName(), result.getName());
+        verify(userTeamDao, never()).findByUser(any(User.class));
     }
 
     @Test
     void testGetTeamByUserId_Exception() {
         // Prepare test data
         int userId = 1;
-        User user = new User();
-        user.setId(userId);
 
-        // Define the behavior of userService and userTeamDao
-        when(userService.getUserById(userId)).thenReturn(user);
-        when(userTeamDao.findByUser(user)).thenThrow(new RuntimeException("Error occurred while fetching team by user id: " + userId));
+        // The user is in no team
+        when(teamRoster.getTeamId(userId)).thenReturn(null);
 
         // Verify that an exception is thrown
         Exception exception = assertThrows(RuntimeException.class, () -> teamService.getTeamByUserId(userId));
@@ -348,6 +444,22 @@ class TeamServiceTest {
         assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    @Test
+    void testGetTeamIdByUserId() {
+        when(teamRoster.getTeamId(4)).thenReturn(2);
+
+        assertEquals(2, teamService.getTeamIdByUserId(4));
+        verifyNoInteractions(teamDao, userTeamDao, userService);
+    }
+
+    @Test
+    void testGetTeamMemberIds() {
+        when(teamRoster.getMemberIds(2)).thenReturn(List.of(4, 5));
+
+        assertEquals(List.of(4, 5), teamService.getTeamMemberIds(2));
+        verifyNoInteractions(userService);
+    }
+
     @Test
     void testGetOneUserInTeam_UserTeamOptionalIsPresent() {
         int userId = 1;
@@ -356,18 +468,14 @@ class TeamServiceTest {
         User expectedUser = new User();
         expectedUser.setId(userId);
 
-        Team team = new Team();
-        team.setId(teamId);
-
-        UserTeam userTeam = new UserTeam(expectedUser, team);
-
-        when(teamDao.findById(teamId)).thenReturn(Optional.of(team));
+        when(teamRoster.containsTeam(teamId)).thenReturn(true);
+        when(teamRoster.isMember(userId, teamId)).thenReturn(true);
         when(userService.getUserById(userId)).thenReturn(expectedUser);
-        when(userTeamDao.findByUserAndTeam(expectedUser, team)).thenReturn(Optional.of(userTeam));
 
         User actualUser = teamService.getOneUserInTeam(userId, teamId);
 
         assertEquals(expectedUser, actualUser);
+        verify(userTeamDao, never()).findByUserAndTeam(any(), any());
     }
 
     @Test
@@ -375,15 +483,8 @@ class TeamServiceTest {
         int userId = 1;
         int teamId = 1;
 
-        User user = new User();
-        user.setId(userId);
-
-        Team team = new Team();
-        team.setId(teamId);
-
-        when(teamDao.findById(teamId)).thenReturn(Optional.of(team));
-        when(userService.getUserById(userId)).thenReturn(user);
-        when(userTeamDao.findByUserAndTeam(user, team)).thenReturn(Optional.empty());
+        when(teamRoster.containsTeam(teamId)).thenReturn(true);
+        when(teamRoster.isMember(userId, teamId)).thenReturn(false);
 
         Exception exception = assertThrows(EntityNotFoundException.class, () -> teamService.getOneUserInTeam(userId, teamId));
 
@@ -398,9 +499,7 @@ class TeamServiceTest {
         int userId = 1;
         int teamId = 1;
 
-        User user = mock(User.class);
-        when(userService.getUserById(userId)).thenReturn(user);
-        when(teamDao.findById(teamId)).thenReturn(Optional.empty());
+        when(teamRoster.containsTeam(teamId)).thenReturn(false);
 
         Exception exception = assertThrows(EntityNotFoundException.class, () -> teamService.getOneUserInTeam(userId, teamId));
 
@@ -410,6 +509,36 @@ class TeamServiceTest {
         assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    @Test
+    void checkMembersShouldUseRosterOnly() {
+        when(teamRoster.containsTeam(1)).thenReturn(true);
+        when(teamRoster.isMember(anyInt(), eq(1))).thenReturn(true);
+
+        teamService.checkMembers(1, List.of(2, 3));
+
+        verifyNoInteractions(userService, teamDao, userTeamDao);
+    }
+
+    @Test
+    void checkMembersShouldThrowWhenAUserIsNotInTeam() {
+        when(teamRoster.containsTeam(1)).thenReturn(true);
+        when(teamRoster.isMember(2, 1)).thenReturn(true);
+        when(teamRoster.isMember(3, 1)).thenReturn(false);
+
+        Exception exception = assertThrows(EntityNotFoundException.class, () -> teamService.checkMembers(1, List.of(2, 3)));
+
+        assertEquals("User with id 3 is not in team with id 1", exception.getMessage());
+    }
+
+    @Test
+    void checkMembersShouldThrowWhenTeamIsMissing() {
+        when(teamRoster.containsTeam(1)).thenReturn(false);
+
+        Exception exception = assertThrows(EntityNotFoundException.class, () -> teamService.checkMembers(1, List.of(2)));
+
+        assertEquals("Team with id 1 doesn't exist.", exception.getMessage());
+    }
+
     @Test
     void testUpdateTeam() {
         // Prepare test data
@@ -449,6 +578,9 @@ class TeamServiceTest {
         // Verify the interactions
         verify(teamDao, times(3)).save(any(Team.class));
         verify(userService, times(2)).updateUser(any(User.class));
+        InOrder inOrder = inOrder(teamDao, teamRoster);
+        inOrder.verify(teamDao, times(3)).save(any(Team.class));
+        inOrder.verify(teamRoster, times(1)).invalidate();
     }
 
     @Test
@@ -467,6 +599,7 @@ class TeamServiceTest {
 
         // Verify the interactions
         verify(teamDao, times(1)).delete(team);
+        verify(teamRoster, atLeastOnce()).invalidate();
     }
 
     @Test
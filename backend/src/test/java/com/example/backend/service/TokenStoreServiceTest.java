@@ -0,0 +1,151 @@
+package com.example.backend.service;
+
+import com.example.backend.dao.RefreshTokenDao;
+import com.example.backend.dao.RevokedTokenDao;
+import com.example.backend.model.RefreshToken;
+import com.example.backend.model.RevokedToken;
+import com.example.backend.model.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class TokenStoreServiceTest {
+
+    @InjectMocks
+    private TokenStoreService tokenStoreService;
+
+    @Mock
+    private RefreshTokenDao refreshTokenDao;
+
+    @Mock
+    private RevokedTokenDao revokedTokenDao;
+
+    @Spy
+    private JWTUtils jwtUtils = new JWTUtils();
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        user = new User();
+        user.setId(3);
+        user.setEmail("test@example.com");
+    }
+
+    @Test
+    void issueRefreshTokenShouldStoreToken() {
+        String token = tokenStoreService.issueRefreshToken(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenDao).save(captor.capture());
+        Claims claims = jwtUtils.parseToken(token);
+        assertEquals(claims.getId(), captor.getValue().getTokenId());
+        assertEquals(3, captor.getValue().getUserId());
+        assertEquals(claims.getExpiration(), captor.getValue().getExpiresAt());
+        assertFalse(captor.getValue().isRevoked());
+    }
+
+    @Test
+    void consumeRefreshTokenShouldRevokeItOnce() {
+        Claims claims = jwtUtils.parseToken(tokenStoreService.issueRefreshToken(user));
+        when(refreshTokenDao.revokeByTokenId(claims.getId())).thenReturn(1);
+
+        assertTrue(tokenStoreService.consumeRefreshToken(claims));
+
+        assertTrue(tokenStoreService.isRevoked(claims.getId()));
+        verify(revokedTokenDao).save(any(RevokedToken.class));
+        verify(refreshTokenDao, never()).revokeByUserId(anyInt());
+    }
+
+    @Test
+    void consumeRefreshTokenTwiceShouldRevokeEveryTokenOfUser() {
+        Claims claims = jwtUtils.parseToken(tokenStoreService.issueRefreshToken(user));
+        RefreshToken used = new RefreshToken();
+        used.setTokenId(claims.getId());
+        used.setUserId(3);
+        used.setRevoked(true);
+        RefreshToken other = new RefreshToken();
+        other.setTokenId("other");
+        other.setUserId(3);
+        other.setExpiresAt(new Date(System.currentTimeMillis() + 60000));
+        when(refreshTokenDao.revokeByTokenId(claims.getId())).thenReturn(0);
+        when(refreshTokenDao.findByTokenId(claims.getId())).thenReturn(Optional.of(used));
+        when(refreshTokenDao.findByUserIdAndRevokedFalse(3)).thenReturn(List.of(other));
+
+        assertFalse(tokenStoreService.consumeRefreshToken(claims));
+
+        verify(refreshTokenDao).revokeByUserId(3);
+        assertTrue(tokenStoreService.isRevoked("other"));
+    }
+
+    @Test
+    void consumeUnknownRefreshTokenShouldFail() {
+        Claims claims = jwtUtils.parseToken(jwtUtils.generateRefreshToken(new HashMap<>(), user));
+        when(refreshTokenDao.findByTokenId(claims.getId())).thenReturn(Optional.empty());
+
+        assertFalse(tokenStoreService.consumeRefreshToken(claims));
+
+        verify(refreshTokenDao, never()).revokeByUserId(anyInt());
+        verify(revokedTokenDao, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void logoutShouldRevokeAccessAndRefreshTokens() {
+        String accessToken = jwtUtils.generateToken(user);
+        String refreshToken = tokenStoreService.issueRefreshToken(user);
+        String refreshId = jwtUtils.parseToken(refreshToken).getId();
+        when(refreshTokenDao.revokeByTokenId(refreshId)).thenReturn(1);
+
+        tokenStoreService.logout(accessToken, refreshToken);
+
+        assertTrue(tokenStoreService.isRevoked(jwtUtils.parseToken(accessToken).getId()));
+        assertTrue(tokenStoreService.isRevoked(refreshId));
+    }
+
+    @Test
+    void logoutShouldIgnoreRefreshTokenOfAnotherUser() {
+        User other = new User();
+        other.setEmail("other@example.com");
+        String accessToken = jwtUtils.generateToken(user);
+        String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), other);
+
+        tokenStoreService.logout(accessToken, refreshToken);
+
+        verify(refreshTokenDao, never()).revokeByTokenId(any());
+        assertFalse(tokenStoreService.isRevoked(jwtUtils.parseToken(refreshToken).getId()));
+    }
+
+    @Test
+    void isRevokedShouldLoadRevocationListOnce() {
+        when(revokedTokenDao.findByExpiresAtAfter(any(Date.class)))
+                .thenReturn(List.of(new RevokedToken("revoked", new Date(System.currentTimeMillis() + 60000))));
+
+        assertTrue(tokenStoreService.isRevoked("revoked"));
+        assertFalse(tokenStoreService.isRevoked("valid"));
+
+        verify(revokedTokenDao, times(1)).findByExpiresAtAfter(any(Date.class));
+    }
+
+    @Test
+    void tokenWithoutIdShouldNeverBeRevoked() {
+        assertFalse(tokenStoreService.isRevoked(null));
+
+        verifyNoInteractions(revokedTokenDao);
+    }
+}
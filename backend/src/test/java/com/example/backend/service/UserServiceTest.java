@@ -1,20 +1,22 @@
 package com.example.backend.service;
 
 import com.example.backend.dao.RoleDao;
-import com.example.backend.dao.TeamDao;
 import com.example.backend.dao.UserDao;
 import com.example.backend.dto.UserInteract;
 import com.example.backend.dto.UserSendDTO;
 import com.example.backend.model.Role;
-import com.example.backend.model.Team;
 import com.example.backend.model.User;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -26,6 +28,9 @@ class UserServiceTest {
     @InjectMocks
     private UserService userService;
 
+    @Spy
+    private ReferenceDataCache referenceDataCache = new ReferenceDataCache();
+
     @Mock
     private UserDao userDao;
 
@@ -39,7 +44,7 @@ class UserServiceTest {
     private CleanupService cleanupService;
 
     @Mock
-    private TeamDao teamDao;
+    private TeamRoster teamRoster;
 
     @BeforeEach
     public void init() {
@@ -75,20 +80,23 @@ class UserServiceTest {
         doNothing().when(notificationService).deleteAllNotificationsOfUser(1);
 
         userService.deleteUser(1);
-        verify(userDao, times(1)).deleteById(1);
+        InOrder inOrder = inOrder(userDao, teamRoster);
+        inOrder.verify(userDao, times(1)).deleteById(1);
+        inOrder.verify(teamRoster, times(1)).invalidate();
     }
 
     @Test
     void testGetTeachers() {
         Role ssRole = new Role();
         ssRole.setName(Role.RoleName.SS);
-        User user1 = new User();
-        User user2 = new User();
-        when(roleDao.findByName(Role.RoleName.SS)).thenReturn(Optional.of(ssRole));
-        when(userDao.findByRoles(ssRole)).thenReturn(Optional.of(Arrays.asList(user1, user2)));
+        User user1 = user(1);
+        User user2 = user(2);
+        stubRole(Role.RoleName.SS, ssRole);
+        when(userDao.findIdsByRoles(ssRole)).thenReturn(List.of(1, 2));
+        when(userDao.findAllById(List.of(1, 2))).thenReturn(Arrays.asList(user2, user1));
 
-        assertEquals(2, userService.getTeachers().size());
-        verify(userDao, times(1)).findByRoles(ssRole);
+        assertEquals(List.of(user1, user2), userService.getTeachers());
+        verify(userDao, times(1)).findIdsByRoles(ssRole);
     }
 
     @Test
@@ -97,13 +105,37 @@ class UserServiceTest {
         osRole.setName(Role.RoleName.OS);
         User user1 = new User();
         User user2 = new User();
-        when(roleDao.findByName(Role.RoleName.OS)).thenReturn(Optional.of(osRole));
+        stubRole(Role.RoleName.OS, osRole);
         when(userDao.findByRoles(osRole)).thenReturn(Optional.of(Arrays.asList(user1, user2)));
 
         assertEquals(2, userService.getStudents().size());
         verify(userDao, times(1)).findByRoles(osRole);
     }
 
+    @Test
+    void testGetStudentSnapshotIsCachedUntilWrite() {
+        Role osRole = new Role();
+        osRole.setName(Role.RoleName.OS);
+        User user = user(1);
+        user.setEmail("student@test.fr");
+        user.setGradePast(12.0);
+        stubRole(Role.RoleName.OS, osRole);
+        when(userDao.findByRoles(osRole)).thenReturn(Optional.of(List.of(user)));
+        when(userDao.save(user)).thenReturn(user);
+
+        User snapshot = userService.getStudentSnapshot().get("student@test.fr");
+        assertNotSame(user, snapshot);
+        assertEquals(1, snapshot.getId());
+        assertEquals(12.0, snapshot.getGradePast());
+        snapshot.setGradePast(0.0);
+        assertEquals(12.0, userService.getStudentSnapshot().get("student@test.fr").getGradePast());
+        verify(userDao, times(1)).findByRoles(osRole);
+
+        userService.updateUser(user);
+        userService.getStudentSnapshot();
+        verify(userDao, times(2)).findByRoles(osRole);
+    }
+
     @Test
     void testSaveUser() {
         User user = new User();
@@ -168,12 +200,35 @@ class UserServiceTest {
         User user = new User();
         Role role = new Role();
         role.setName(Role.RoleName.OS);
-        when(roleDao.findByName(Role.RoleName.OS)).thenReturn(Optional.of(role));
+        stubRole(Role.RoleName.OS, role);
 
         userService.setDefaultRoles(user);
         Assertions.assertTrue(user.getRoles().contains(role));
     }
 
+    @Test
+    void testSaveUserAfterRoleCacheIsWarmUsesRoleOfCurrentSession() {
+        Role cachedRole = new Role(Role.RoleName.OS);
+        cachedRole.setId(4);
+        Role sessionRole = new Role(Role.RoleName.OS);
+        sessionRole.setId(4);
+        when(roleDao.findByName(Role.RoleName.OS)).thenReturn(Optional.of(cachedRole));
+        when(roleDao.findById(4)).thenReturn(Optional.of(cachedRole)).thenReturn(Optional.of(sessionRole));
+        userService.setDefaultRoles(new User());
+
+        User user = new User();
+        user.setEmail("new@test.fr");
+        when(userDao.findByEmail(user.getEmail())).thenReturn(Optional.empty());
+        when(userDao.save(user)).thenReturn(user);
+        userService.setDefaultRoles(user);
+        userService.saveUser(user);
+
+        assertEquals(Set.of(sessionRole), user.getRoles());
+        verify(roleDao, times(1)).findByName(Role.RoleName.OS);
+        verify(roleDao, times(2)).findById(4);
+        verify(userDao, times(1)).save(user);
+    }
+
     @Test
     void testDeleteStudents() {
         // Define the behavior of all Dao and Service
@@ -242,6 +297,26 @@ class UserServiceTest {
         verify(userDao, times(1)).findByEmail(userDto.getEmail());
     }
 
+    @Test
+    void testUserInteractToUserCopiesSubjectGrades() {
+        UserInteract userDto = new UserInteract();
+        userDto.setEmail("test@example.com");
+        userDto.setPadl(12.5);
+        userDto.setS6(9.0);
+        when(userDao.findByEmail(userDto.getEmail())).thenReturn(Optional.empty());
+
+        User user = userService.userInteractToUser(userDto).orElseThrow();
+
+        assertEquals(12.5, user.getSubjectGrades().getPadl());
+        assertEquals(9.0, user.getSubjectGrades().getS6());
+        assertNull(user.getSubjectGrades().getIrs());
+    }
+
+    @Test
+    void testToSubjectGradesWithoutGrades() {
+        assertNull(userService.toSubjectGrades(new UserInteract()));
+    }
+
     @Test
     void testUserInteractToUserExistingUser() {
         UserInteract userDto = new UserInteract();
@@ -283,15 +358,16 @@ class UserServiceTest {
     void getTechnicalCoachesShouldReturnListOfTechnicalCoaches() {
         Role tcRole = new Role();
         tcRole.setName(Role.RoleName.TC);
-        User user1 = new User();
-        User user2 = new User();
-        when(roleDao.findByName(Role.RoleName.TC)).thenReturn(Optional.of(tcRole));
-        when(userDao.findByRoles(tcRole)).thenReturn(Optional.of(Arrays.asList(user1, user2)));
+        User user1 = user(1);
+        User user2 = user(2);
+        stubRole(Role.RoleName.TC, tcRole);
+        when(userDao.findIdsByRoles(tcRole)).thenReturn(List.of(1, 2));
+        when(userDao.findAllById(List.of(1, 2))).thenReturn(Arrays.asList(user1, user2));
 
         List<User> result = userService.getTechnicalCoaches();
 
         assertEquals(2, result.size());
-        verify(userDao, times(1)).findByRoles(tcRole);
+        verify(userDao, times(1)).findIdsByRoles(tcRole);
     }
 
     @Test
@@ -305,15 +381,16 @@ class UserServiceTest {
     void getProjectLeaderShouldReturnListOfProjectLeaders() {
         Role plRole = new Role();
         plRole.setName(Role.RoleName.PL);
-        User user1 = new User();
-        User user2 = new User();
-        when(roleDao.findByName(Role.RoleName.PL)).thenReturn(Optional.of(plRole));
-        when(userDao.findByRoles(plRole)).thenReturn(Optional.of(Arrays.asList(user1, user2)));
+        User user1 = user(1);
+        User user2 = user(2);
+        stubRole(Role.RoleName.PL, plRole);
+        when(userDao.findIdsByRoles(plRole)).thenReturn(List.of(1, 2));
+        when(userDao.findAllById(List.of(1, 2))).thenReturn(Arrays.asList(user1, user2));
 
         List<User> result = userService.getProjectLeader();
 
         assertEquals(2, result.size());
-        verify(userDao, times(1)).findByRoles(plRole);
+        verify(userDao, times(1)).findIdsByRoles(plRole);
     }
 
     @Test
@@ -327,15 +404,16 @@ class UserServiceTest {
     void getOptionLeaderShouldReturnListOfOptionLeaders() {
         Role olRole = new Role();
         olRole.setName(Role.RoleName.OL);
-        User user1 = new User();
-        User user2 = new User();
-        when(roleDao.findByName(Role.RoleName.OL)).thenReturn(Optional.of(olRole));
-        when(userDao.findByRoles(olRole)).thenReturn(Optional.of(Arrays.asList(user1, user2)));
+        User user1 = user(1);
+        User user2 = user(2);
+        stubRole(Role.RoleName.OL, olRole);
+        when(userDao.findIdsByRoles(olRole)).thenReturn(List.of(1, 2));
+        when(userDao.findAllById(List.of(1, 2))).thenReturn(Arrays.asList(user1, user2));
 
         List<User> result = userService.getOptionLeader();
 
         assertEquals(2, result.size());
-        verify(userDao, times(1)).findByRoles(olRole);
+        verify(userDao, times(1)).findIdsByRoles(olRole);
     }
 
     @Test
@@ -355,43 +433,100 @@ class UserServiceTest {
         plRole.setName(Role.RoleName.PL);
         Role olRole = new Role();
         olRole.setName(Role.RoleName.OL);
-        User user1 = new User();
-        User user2 = new User();
-        User user3 = new User();
-        User user4 = new User();
-        when(roleDao.findByName(Role.RoleName.SS)).thenReturn(Optional.of(ssRole));
-        when(roleDao.findByName(Role.RoleName.TC)).thenReturn(Optional.of(tcRole));
-        when(roleDao.findByName(Role.RoleName.PL)).thenReturn(Optional.of(plRole));
-        when(roleDao.findByName(Role.RoleName.OL)).thenReturn(Optional.of(olRole));
-        when(userDao.findByRoles(ssRole)).thenReturn(Optional.of(List.of(user1)));
-        when(userDao.findByRoles(tcRole)).thenReturn(Optional.of(List.of(user2)));
-        when(userDao.findByRoles(plRole)).thenReturn(Optional.of(List.of(user3)));
-        when(userDao.findByRoles(olRole)).thenReturn(Optional.of(List.of(user4)));
+        User user1 = user(1);
+        User user2 = user(2);
+        User user3 = user(3);
+        User user4 = user(4);
+        stubRole(Role.RoleName.SS, ssRole);
+        stubRole(Role.RoleName.TC, tcRole);
+        stubRole(Role.RoleName.PL, plRole);
+        stubRole(Role.RoleName.OL, olRole);
+        when(userDao.findIdsByRoles(ssRole)).thenReturn(List.of(1));
+        when(userDao.findIdsByRoles(tcRole)).thenReturn(List.of(2, 1));
+        when(userDao.findIdsByRoles(plRole)).thenReturn(List.of(3));
+        when(userDao.findIdsByRoles(olRole)).thenReturn(List.of(4));
+        when(userDao.findAllById(List.of(1, 2, 3, 4))).thenReturn(Arrays.asList(user1, user2, user3, user4));
 
         List<User> result = userService.getAllTeachers();
 
-        assertEquals(4, result.size());
-        assertTrue(result.containsAll(Arrays.asList(user1, user2, user3, user4)));
+        assertEquals(List.of(user1, user2, user3, user4), result);
+        verify(userDao, times(1)).findAllById(anyList());
     }
 
     @Test
     void getTeachersWithTeamsShouldReturnListOfTeachersWithTeams() {
-        Team team1 = mock(Team.class);
-        User user1 = mock(User.class);
-        when(team1.getSupervisor()).thenReturn(user1);
-        Team team2 = mock(Team.class);
-        User user2 = mock(User.class);
-        when(team2.getSupervisor()).thenReturn(user2);
-        List<Team> teams = Arrays.asList(team1, team2);
-        when(teamDao.findAll()).thenReturn(teams);
+        User user1 = user(1);
+        User user3 = user(3);
+        when(teamRoster.getSupervisorIds()).thenReturn(new LinkedHashSet<>(List.of(1, 3)));
+        when(userDao.findAllById(List.of(1, 3))).thenReturn(List.of(user3, user1));
 
         List<User> result = userService.getTeachersWithTeams();
 
-        assertEquals(2, result.size());
-        assertTrue(result.containsAll(Arrays.asList(user1, user2)));
-        verify(teamDao, times(1)).findAll();
-        verify(team1, times(1)).getSupervisor();
-        verify(team2, times(1)).getSupervisor();
+        assertEquals(List.of(user1, user3), result);
+        verify(userDao, times(1)).findAllById(List.of(1, 3));
+    }
+
+    @Test
+    void staffDirectoryIsCachedUntilWrite() {
+        Role tcRole = new Role();
+        tcRole.setName(Role.RoleName.TC);
+        User coach = user(7);
+        stubRole(Role.RoleName.TC, tcRole);
+        when(userDao.findIdsByRoles(tcRole)).thenReturn(List.of(7));
+        when(userDao.findAllById(List.of(7))).thenReturn(List.of(coach));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(coach), userService.getTechnicalCoaches());
+        }
+        verify(roleDao, times(1)).findByName(Role.RoleName.TC);
+        verify(userDao, times(1)).findIdsByRoles(tcRole);
+
+        userService.updateUser(coach);
+        userService.getTechnicalCoaches();
+        verify(userDao, times(2)).findIdsByRoles(tcRole);
+    }
+
+    @Test
+    void staffDirectoryLoadedDuringWriteIsNotKept() {
+        Role tcRole = new Role();
+        tcRole.setName(Role.RoleName.TC);
+        User coach = user(7);
+        stubRole(Role.RoleName.TC, tcRole);
+        when(userDao.findIdsByRoles(tcRole)).thenAnswer(invocation -> {
+            userService.updateUser(coach);
+            return List.of(7);
+        }).thenReturn(List.of(7));
+        when(userDao.findAllById(List.of(7))).thenReturn(List.of(coach));
+
+        userService.getTechnicalCoaches();
+        userService.getTechnicalCoaches();
+        userService.getTechnicalCoaches();
+
+        verify(userDao, times(2)).findIdsByRoles(tcRole);
+    }
+
+    @Test
+    void userCachesAreInvalidatedAgainAfterTransactionCompletion() {
+        Role tcRole = new Role();
+        tcRole.setName(Role.RoleName.TC);
+        User coach = user(7);
+        stubRole(Role.RoleName.TC, tcRole);
+        when(userDao.findIdsByRoles(tcRole)).thenReturn(List.of(7));
+        when(userDao.findAllById(List.of(7))).thenReturn(List.of(coach));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.updateUser(coach);
+            userService.getTechnicalCoaches();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        userService.getTechnicalCoaches();
+
+        verify(userDao, times(2)).findIdsByRoles(tcRole);
     }
 
     @Test
@@ -402,8 +537,8 @@ class UserServiceTest {
         plRole.setName(Role.RoleName.PL);
         User user1 = new User();
         User user2 = new User();
-        when(roleDao.findByName(Role.RoleName.SS)).thenReturn(Optional.of(ssRole));
-        when(roleDao.findByName(Role.RoleName.PL)).thenReturn(Optional.of(plRole));
+        stubRole(Role.RoleName.SS, ssRole);
+        stubRole(Role.RoleName.PL, plRole);
         when(userDao.findByRolesIn(Arrays.asList(ssRole, plRole))).thenReturn(Arrays.asList(user1, user2));
 
         List<User> result = userService.getAllStaff();
@@ -421,8 +556,8 @@ class UserServiceTest {
         ssRole.setName(Role.RoleName.SS);
         Role plRole = new Role();
         plRole.setName(Role.RoleName.PL);
-        when(roleDao.findByName(Role.RoleName.SS)).thenReturn(Optional.of(ssRole));
-        when(roleDao.findByName(Role.RoleName.PL)).thenReturn(Optional.of(plRole));
+        stubRole(Role.RoleName.SS, ssRole);
+        stubRole(Role.RoleName.PL, plRole);
         when(userDao.findByRolesIn(Arrays.asList(ssRole, plRole))).thenReturn(new ArrayList<>());
 
         Exception exception = assertThrows(RuntimeException.class, () -> userService.getAllStaff());
@@ -461,7 +596,7 @@ class UserServiceTest {
         String roleName = "SS";
         Role expectedRole = new Role();
         expectedRole.setName(Role.RoleName.valueOf(roleName));
-        when(roleDao.findByName(Role.RoleName.valueOf(roleName))).thenReturn(Optional.of(expectedRole));
+        stubRole(Role.RoleName.valueOf(roleName), expectedRole);
 
         Role result = userService.getRoleByName(roleName);
 
@@ -481,4 +616,16 @@ class UserServiceTest {
 
         assertTrue(actualMessage.contains(expectedMessage));
     }
-}
\ No newline at end of file
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private void stubRole(Role.RoleName roleName, Role role) {
+        role.setId(roleName.ordinal() + 1);
+        when(roleDao.findByName(roleName)).thenReturn(Optional.of(role));
+        when(roleDao.findById(role.getId())).thenReturn(Optional.of(role));
+    }
+}
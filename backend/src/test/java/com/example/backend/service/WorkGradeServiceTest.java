@@ -97,11 +97,14 @@ class WorkGradeServiceTest {
 
     @Test
     void getWorkGradeByUserIdAndSprintIdShouldCreateNewWorkGradeWhenNoneExists() {
-        when(workGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty());
+        WorkGrade workGrade = new WorkGrade();
+        when(workGradeDao.findByUserIdAndSprintId(anyInt(), anyInt())).thenReturn(Optional.empty()).thenReturn(Optional.of(workGrade));
 
-        workGradeService.getWorkGradeByUserIdAndSprintId(1, 1);
+        WorkGrade result = workGradeService.getWorkGradeByUserIdAndSprintId(1, 1);
 
-        verify(workGradeDao, times(1)).save(any(WorkGrade.class));
+        assertEquals(workGrade, result);
+        verify(workGradeDao, times(1)).insertIfAbsent(1, 1);
+        verify(workGradeDao, never()).save(any(WorkGrade.class));
     }
 
     @Test
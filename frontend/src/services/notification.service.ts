@@ -25,6 +25,14 @@ type NotificationSend = {
   groupeId?: number;
 };
 
+type NotificationBroadcast = {
+  notification: Omit<NotificationSend, 'receiverId'>;
+  teamIds?: number[];
+  roles?: string[];
+  userIds?: number[];
+  excludeEmitter?: boolean;
+};
+
 const formatNotifResponse = (data: NotificationResponse): Notification => {
   return {
     id: data.id,
@@ -78,10 +86,21 @@ const createNotification = async (notif: NotificationSend) => {
   }
 };
 
+const broadcastNotification = async (broadcast: NotificationBroadcast): Promise<number> => {
+  try {
+    const response = await AxiosClient.post<number>('/notifications/broadcast', broadcast);
+    return response.data;
+  } catch (error) {
+    console.error('Failed to broadcast notification:', error);
+    throw error;
+  }
+};
+
 export const notificationService = {
   getAllByUserId,
   deleteById,
   toggleStatus,
   updateNotification,
-  createNotification
+  createNotification,
+  broadcastNotification
 };
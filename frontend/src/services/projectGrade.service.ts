@@ -1,5 +1,5 @@
 import { AxiosClient } from '@/services/index';
-import type { ProjectGrade } from '@/services/types';
+import type { GradeJob, ProjectGrade, TeamProjectGrades } from '@/services/types';
 
 const API_URL = '/projectGrade'; // replace with your API URL
 
@@ -33,7 +33,47 @@ const getProjectGradeByUserIdAndSprintId = async(userId: number, sprintId: numbe
   }
 }
 
-const getAll = async(): Promise<any> => {
+const getTeamProjectGrades = async (teamId: number, sprintId: number): Promise<TeamProjectGrades> => {
+  try {
+    const response = await AxiosClient.get(`${API_URL}/team/${teamId}/sprint/${sprintId}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error getting team project grades:', error);
+    throw error;
+  }
+}
+
+const refreshTeamProjectGrades = async (teamId: number, sprintId: number): Promise<TeamProjectGrades> => {
+  try {
+    const response = await AxiosClient.put(`${API_URL}/team/${teamId}/sprint/${sprintId}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error refreshing team project grades:', error);
+    throw error;
+  }
+}
+
+const submitGradeJob = async (sprintId?: number, teamId?: number): Promise<GradeJob> => {
+  try {
+    const response = await AxiosClient.post(`${API_URL}/jobs`, null, { params: { sprintId, teamId } });
+    return response.data;
+  } catch (error) {
+    console.error('Error submitting grade job:', error);
+    throw error;
+  }
+}
+
+const getGradeJob = async (jobId: string): Promise<GradeJob> => {
+  try {
+    const response = await AxiosClient.get(`${API_URL}/jobs/${jobId}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error getting grade job:', error);
+    throw error;
+  }
+}
+
+const getAll = async(): Promise<GradeJob> => {
   try {
     const response = await AxiosClient.get(`${API_URL}/all`);
     return response.data;
@@ -57,6 +97,10 @@ export const projectGradeService = {
   saveProjectGrade,
   updateProjectGrade,
   getProjectGradeByUserIdAndSprintId,
+  getTeamProjectGrades,
+  refreshTeamProjectGrades,
+  submitGradeJob,
+  getGradeJob,
   getAll,
   validateProjectGrade
 };
\ No newline at end of file
@@ -48,6 +48,18 @@ const createTeams = async (teamsDTO: TeamsDTO) => {
   return teamsData;
 };
 
+const previewTeams = async (teamsDTO: TeamsDTO) => {
+  const response = await AxiosClient.post('/teams/preview', teamsDTO);
+  return response.data;
+};
+
+const commitPreview = async (previewId: string) => {
+  const response = await AxiosClient.post(`/teams/preview/${previewId}/commit`);
+  if (!response.data.length) return null;
+
+  return formatTeamsResponse(response.data);
+};
+
 const getAll = async (): Promise<Team[] | null> => {
   const res = await AxiosClient.get<TeamResponse[]>('/teams');
   console.log('team service getAll: ', res.data);
@@ -87,6 +99,8 @@ const getTeamById = async (id: number): Promise<Team> => {
 
 export const teamService = {
   createTeams,
+  previewTeams,
+  commitPreview,
   getAll,
   deleteAll,
   saveTeam,
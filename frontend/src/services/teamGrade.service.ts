@@ -28,6 +28,26 @@ const saveTeamGrade = async (
   }
 };
 
+const saveTeamGrades = async (
+  sprintId: number,
+  evaluatorId: number,
+  grades: { teamId: number; detailId: number; grade: number }[],
+  gradeScaleId?: number
+): Promise<boolean> => {
+  try {
+    const response = await AxiosClient.put(`/teamGrade/batch`, {
+      sprintId: sprintId,
+      evaluatorId: evaluatorId,
+      gradeScaleId: gradeScaleId,
+      grades: grades,
+    });
+    return response.status === 200;
+  } catch (error) {
+    console.error('Error saving TeamGrades:', error);
+    return false;
+  }
+};
+
 const getTeamGrade = async (
   teamId: number,
   sprintId: number,
@@ -68,5 +88,6 @@ const getTeamGrade = async (
 
 export const teamGradeService = {
   saveTeamGrade,
+  saveTeamGrades,
   getTeamGrade,
 };
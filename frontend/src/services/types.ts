@@ -103,6 +103,23 @@ export interface ProjectGrade {
   presentationGrade: PresentationGrade;
   sprint: Sprint;
   user: User;
+  stale?: boolean;
+}
+export interface TeamProjectGrades {
+  teamId: number;
+  sprintId: number;
+  stale: boolean;
+  projectGrades: ProjectGrade[];
+}
+export interface GradeJob {
+  id: string;
+  sprintId?: number;
+  teamId?: number;
+  status: 'PENDING' | 'RUNNING' | 'COMPLETED' | 'COMPLETED_WITH_ERRORS';
+  total: number;
+  done: number;
+  failed: number;
+  errors: string[];
 }
 export interface InitialGrade {
   id: number;